@@ -25,6 +25,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
 import java.io.Serializable;
+import java.util.function.Supplier;
 
 /**
  * {@link org.springframework.aop.aspectj.AspectInstanceFactory} implementation
@@ -122,6 +123,34 @@ public class BeanFactoryAspectInstanceFactory implements MetadataAwareAspectInst
 		}
 	}
 
+	/**
+	 * Execute the given callback, which obtains the aspect instance, exclusively
+	 * among callers for the same aspect: under the creation lock for the aspect
+	 * bean if the BeanFactory is a {@link ConfigurableBeanFactory}, or under the
+	 * {@link #getAspectCreationMutex() aspect creation mutex} otherwise.
+	 * <p>The factory synchronizes on its singleton mutex by default. In contrast
+	 * to that mutex, a creation lock used for concurrent singleton creation takes
+	 * part in the factory's detection of threads waiting for each other.
+	 * @param callback the callback to execute
+	 * @return the result of the callback
+	 * @since 6.1
+	 * @see ConfigurableBeanFactory#executeWithCreationLock
+	 */
+	<T> T executeWithAspectCreationLock(Supplier<T> callback) {
+		if (this.beanFactory.isSingleton(this.name)) {
+			// Rely on singleton semantics provided by the factory -> no local lock.
+			return callback.get();
+		}
+		else if (this.beanFactory instanceof ConfigurableBeanFactory cbf) {
+			return cbf.executeWithCreationLock(this.name, callback);
+		}
+		else {
+			synchronized (this) {
+				return callback.get();
+			}
+		}
+	}
+
 	/**
 	 * Determine the order for this factory's target aspect, either
 	 * an instance-specific order expressed through implementing the
@@ -51,17 +51,18 @@ public class LazySingletonAspectInstanceFactoryDecorator implements MetadataAwar
 	public Object getAspectInstance() {
 		Object aspectInstance = this.materialized;
 		if (aspectInstance == null) {
-			Object mutex = this.maaif.getAspectCreationMutex();
-			if (mutex == null) {
-				aspectInstance = this.maaif.getAspectInstance();
-				this.materialized = aspectInstance;
+			if (this.maaif instanceof BeanFactoryAspectInstanceFactory bfaif) {
+				aspectInstance = bfaif.executeWithAspectCreationLock(this::materialize);
 			}
 			else {
-				synchronized (mutex) {
-					aspectInstance = this.materialized;
-					if (aspectInstance == null) {
-						aspectInstance = this.maaif.getAspectInstance();
-						this.materialized = aspectInstance;
+				Object mutex = this.maaif.getAspectCreationMutex();
+				if (mutex == null) {
+					aspectInstance = this.maaif.getAspectInstance();
+					this.materialized = aspectInstance;
+				}
+				else {
+					synchronized (mutex) {
+						aspectInstance = materialize();
 					}
 				}
 			}
@@ -69,6 +70,15 @@ public class LazySingletonAspectInstanceFactoryDecorator implements MetadataAwar
 		return aspectInstance;
 	}
 
+	private Object materialize() {
+		Object aspectInstance = this.materialized;
+		if (aspectInstance == null) {
+			aspectInstance = this.maaif.getAspectInstance();
+			this.materialized = aspectInstance;
+		}
+		return aspectInstance;
+	}
+
 	public boolean isMaterialized() {
 		return (this.materialized != null);
 	}
@@ -78,19 +78,6 @@ public abstract class AbstractBeanFactoryPointcutAdvisor extends AbstractPointcu
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
-		resetAdviceMonitor();
-	}
-
-	/**
-	 * 重置advice锁
-	 */
-	private void resetAdviceMonitor() {
-		if (this.beanFactory instanceof ConfigurableBeanFactory cbf) {
-			this.adviceMonitor = cbf.getSingletonMutex();
-		}
-		else {
-			this.adviceMonitor = new Object();
-		}
 	}
 
 	/**
@@ -121,21 +108,28 @@ public abstract class AbstractBeanFactoryPointcutAdvisor extends AbstractPointcu
 			this.advice = advice;
 			return advice;
 		}
+		else if (this.beanFactory instanceof ConfigurableBeanFactory cbf) {
+			// No singleton guarantees from the factory -> let's lock on the advice bean,
+			// in a way that the factory detects a deadlock with its singleton creation.
+			String adviceBeanName = this.adviceBeanName;
+			return cbf.executeWithCreationLock(adviceBeanName, () -> obtainAdvice(cbf, adviceBeanName));
+		}
 		else {
-			// No singleton guarantees from the factory -> let's lock locally but
-			// reuse the factory's singleton lock, just in case a lazy dependency
-			// of our advice bean happens to trigger the singleton lock implicitly...
 			synchronized (this.adviceMonitor) {
-				advice = this.advice;
-				if (advice == null) {
-					advice = this.beanFactory.getBean(this.adviceBeanName, Advice.class);
-					this.advice = advice;
-				}
-				return advice;
+				return obtainAdvice(this.beanFactory, this.adviceBeanName);
 			}
 		}
 	}
 
+	private Advice obtainAdvice(BeanFactory beanFactory, String adviceBeanName) {
+		Advice advice = this.advice;
+		if (advice == null) {
+			advice = beanFactory.getBean(adviceBeanName, Advice.class);
+			this.advice = advice;
+		}
+		return advice;
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder(getClass().getName());
@@ -159,7 +153,7 @@ public abstract class AbstractBeanFactoryPointcutAdvisor extends AbstractPointcu
 		ois.defaultReadObject();
 
 		// Initialize transient fields.
-		resetAdviceMonitor();
+		this.adviceMonitor = new Object();
 	}
 
 }
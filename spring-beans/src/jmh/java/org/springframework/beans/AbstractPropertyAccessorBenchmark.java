@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.openjdk.jmh.annotations.State;
 
 import org.springframework.beans.propertyeditors.CustomNumberEditor;
 import org.springframework.beans.propertyeditors.StringTrimmerEditor;
+import org.springframework.core.SpringProperties;
 
 /**
  * Benchmark for {@link AbstractPropertyAccessor} use on beans.
@@ -44,6 +45,9 @@ public class AbstractPropertyAccessorBenchmark {
 		@Param({"none", "stringTrimmer", "numberOnPath", "numberOnNestedPath", "numberOnType"})
 		public String customEditor;
 
+		@Param({"generated", "reflection"})
+		public String propertyMethods;
+
 		public int[] input;
 
 		public PrimitiveArrayBean target;
@@ -52,6 +56,10 @@ public class AbstractPropertyAccessorBenchmark {
 
 		@Setup
 		public void setup() {
+			if (this.propertyMethods.equals("reflection")) {
+				// Read once per forked JVM, before the first property access
+				SpringProperties.setFlag(CachedIntrospectionResults.IGNORE_GENERATED_ACCESSORS_PROPERTY_NAME);
+			}
 			this.target = new PrimitiveArrayBean();
 			this.input = new int[1024];
 			if (this.accessor.equals("DirectFieldAccessor")) {
@@ -80,6 +88,11 @@ public class AbstractPropertyAccessorBenchmark {
 		return state.target;
 	}
 
+	@Benchmark
+	public Object getPropertyValue(BenchmarkState state) {
+		return state.propertyAccessor.getPropertyValue("array");
+	}
+
 	@SuppressWarnings("unused")
 	private static class PrimitiveArrayBean {
 
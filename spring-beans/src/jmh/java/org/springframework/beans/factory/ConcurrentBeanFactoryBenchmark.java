@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,16 +18,24 @@ package org.springframework.beans.factory;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.beans.propertyeditors.CustomDateEditor;
 
@@ -38,6 +46,10 @@ import static org.springframework.core.testfixture.io.ResourceTestUtils.qualifie
  * This benchmark requires to customize the number of worker threads {@code -t <int>} on the
  * CLI when running this particular benchmark to leverage concurrency.
  *
+ * <p>Also benchmarks the creation of singletons with an expensive initialization,
+ * either lazily from concurrent threads or on pre-instantiation, sequentially
+ * or in parallel through a bootstrap executor.
+ *
  * @author Brian Clozel
  */
 @BenchmarkMode(Mode.Throughput)
@@ -61,12 +73,86 @@ public class ConcurrentBeanFactoryBenchmark {
 
 	}
 
+	@State(Scope.Benchmark)
+	public static class SingletonCreationState {
+
+		/**
+		 * Number of threads creating singletons, with 0 for the calling thread only.
+		 */
+		@Param({"0", "4"})
+		public int threads;
+
+		@Param({"128"})
+		public int beanCount;
+
+		/**
+		 * Every n-th singleton refers to the previous one, forming chains of dependencies.
+		 */
+		@Param({"4"})
+		public int chainLength;
+
+		public ExecutorService executor;
+
+		public DefaultListableBeanFactory factory;
+
+		@Setup(Level.Trial)
+		public void startExecutor() {
+			if (this.threads > 0) {
+				this.executor = Executors.newFixedThreadPool(this.threads);
+			}
+		}
+
+		@Setup(Level.Invocation)
+		public void setup() {
+			this.factory = new DefaultListableBeanFactory();
+			this.factory.setBootstrapExecutor(this.executor);
+			for (int i = 0; i < this.beanCount; i++) {
+				RootBeanDefinition bd = new RootBeanDefinition(ExpensiveBean.class);
+				if (i % this.chainLength != 0) {
+					bd.getPropertyValues().add("dependency", new RuntimeBeanReference("bean" + (i - 1)));
+				}
+				this.factory.registerBeanDefinition("bean" + i, bd);
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void stopExecutor() {
+			if (this.executor != null) {
+				this.executor.shutdown();
+			}
+		}
+	}
+
+
 	@Benchmark
 	public void concurrentBeanCreation(BenchmarkState state, Blackhole bh) {
 		bh.consume(state.factory.getBean("bean1"));
 		bh.consume(state.factory.getBean("bean2"));
 	}
 
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	public void preInstantiateSingletons(SingletonCreationState state) {
+		state.factory.preInstantiateSingletons();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	public void concurrentLazySingletonCreation(SingletonCreationState state, Blackhole bh) {
+		if (state.executor == null) {
+			for (int i = 0; i < state.beanCount; i++) {
+				bh.consume(state.factory.getBean("bean" + i));
+			}
+			return;
+		}
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[state.beanCount];
+		for (int i = 0; i < state.beanCount; i++) {
+			String beanName = "bean" + i;
+			futures[i] = CompletableFuture.supplyAsync(() -> state.factory.getBean(beanName), state.executor);
+		}
+		bh.consume(CompletableFuture.allOf(futures).join());
+	}
+
 
 	public static class ConcurrentBean {
 
@@ -80,4 +166,23 @@ public class ConcurrentBeanFactoryBenchmark {
 			this.date = date;
 		}
 	}
+
+
+	public static class ExpensiveBean {
+
+		private ExpensiveBean dependency;
+
+		public ExpensiveBean() {
+			Blackhole.consumeCPU(100_000);
+		}
+
+		public ExpensiveBean getDependency() {
+			return this.dependency;
+		}
+
+		public void setDependency(ExpensiveBean dependency) {
+			this.dependency = dependency;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -263,6 +263,9 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 		@Override
 		@Nullable
 		public Object getValue() throws Exception {
+			if (this.pd instanceof GenericTypeAwarePropertyDescriptor typeAwarePd) {
+				return typeAwarePd.getReadMethodInvoker().invokeReadMethod(getWrappedInstance());
+			}
 			Method readMethod = this.pd.getReadMethod();
 			ReflectionUtils.makeAccessible(readMethod);
 			return readMethod.invoke(getWrappedInstance(), (Object[]) null);
@@ -270,8 +273,11 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		@Override
 		public void setValue(@Nullable Object value) throws Exception {
-			Method writeMethod = (this.pd instanceof GenericTypeAwarePropertyDescriptor typeAwarePd ?
-					typeAwarePd.getWriteMethodForActualAccess() : this.pd.getWriteMethod());
+			if (this.pd instanceof GenericTypeAwarePropertyDescriptor typeAwarePd) {
+				typeAwarePd.getWriteMethodInvokerForActualAccess().invokeWriteMethod(getWrappedInstance(), value);
+				return;
+			}
+			Method writeMethod = this.pd.getWriteMethod();
 			ReflectionUtils.makeAccessible(writeMethod);
 			writeMethod.invoke(getWrappedInstance(), value);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -77,6 +77,18 @@ import org.springframework.util.StringUtils;
  */
 public final class CachedIntrospectionResults {
 
+	/**
+	 * System property that instructs Spring to always invoke bean property
+	 * methods via reflection: {@code "spring.beans.generated-accessors.ignore"}.
+	 * <p>By default, read and write methods of frequently accessed properties
+	 * are invoked through functions generated via
+	 * {@link java.lang.invoke.LambdaMetafactory}, cached along with the
+	 * introspected property descriptors. Set this flag to "true" in case of
+	 * class generation restrictions in the runtime environment.
+	 * @since 6.1
+	 */
+	public static final String IGNORE_GENERATED_ACCESSORS_PROPERTY_NAME = "spring.beans.generated-accessors.ignore";
+
 	private static final List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,6 +63,12 @@ final class GenericTypeAwarePropertyDescriptor extends PropertyDescriptor {
 	@Nullable
 	private final Class<?> propertyEditorClass;
 
+	@Nullable
+	private volatile PropertyMethodInvoker readMethodInvoker;
+
+	@Nullable
+	private volatile PropertyMethodInvoker writeMethodInvoker;
+
 
 	public GenericTypeAwarePropertyDescriptor(Class<?> beanClass, String propertyName,
 			@Nullable Method readMethod, @Nullable Method writeMethod,
@@ -145,6 +151,34 @@ final class GenericTypeAwarePropertyDescriptor extends PropertyDescriptor {
 		return this.writeMethod;
 	}
 
+	/**
+	 * Return the invoker for the read method, cached along with this descriptor.
+	 * @since 6.1
+	 */
+	PropertyMethodInvoker getReadMethodInvoker() {
+		PropertyMethodInvoker invoker = this.readMethodInvoker;
+		if (invoker == null) {
+			Assert.state(this.readMethod != null, "No read method available");
+			invoker = PropertyMethodInvoker.forReadMethod(this.readMethod);
+			this.readMethodInvoker = invoker;
+		}
+		return invoker;
+	}
+
+	/**
+	 * Return the invoker for the write method, cached along with this descriptor.
+	 * @since 6.1
+	 * @see #getWriteMethodForActualAccess()
+	 */
+	PropertyMethodInvoker getWriteMethodInvokerForActualAccess() {
+		PropertyMethodInvoker invoker = this.writeMethodInvoker;
+		if (invoker == null) {
+			invoker = PropertyMethodInvoker.forWriteMethod(getWriteMethodForActualAccess());
+			this.writeMethodInvoker = invoker;
+		}
+		return invoker;
+	}
+
 	public MethodParameter getWriteMethodParameter() {
 		Assert.state(this.writeMethodParameter != null, "No write method available");
 		return this.writeMethodParameter;
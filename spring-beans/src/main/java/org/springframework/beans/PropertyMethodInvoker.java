@@ -0,0 +1,212 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.NativeDetector;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Invokes the read or write method of a bean property, switching from
+ * reflection to a {@link Function} or {@link BiConsumer} generated through
+ * {@link LambdaMetafactory} once the method has been invoked a number of times.
+ *
+ * <p>Exceptions thrown by the property method are wrapped in an
+ * {@link InvocationTargetException}, and arguments that would need a widening
+ * conversion or are {@code null} for a primitive parameter are passed on via
+ * reflection, so callers observe the same behavior either way. If a function
+ * cannot be generated, e.g. for a method in a package that is not open to
+ * Spring, the method keeps being invoked via reflection.
+ *
+ * @since 6.1
+ * @see CachedIntrospectionResults#IGNORE_GENERATED_ACCESSORS_PROPERTY_NAME
+ */
+final class PropertyMethodInvoker {
+
+	/**
+	 * Number of reflective invocations before generating a function, avoiding
+	 * the cost of class generation for properties that are only accessed once,
+	 * e.g. when populating singleton beans on startup.
+	 */
+	static final int GENERATION_THRESHOLD = 16;
+
+	private static final boolean shouldGenerate = (!NativeDetector.inNativeImage() &&
+			!SpringProperties.getFlag(CachedIntrospectionResults.IGNORE_GENERATED_ACCESSORS_PROPERTY_NAME));
+
+	private static final Log logger = LogFactory.getLog(PropertyMethodInvoker.class);
+
+
+	private final Method method;
+
+	@Nullable
+	private final Class<?> parameterType;
+
+	@Nullable
+	private volatile Object generatedFunction;
+
+	private volatile boolean generationFailed = !shouldGenerate;
+
+	private int invocationCount;
+
+
+	private PropertyMethodInvoker(Method method, @Nullable Class<?> parameterType) {
+		this.method = method;
+		this.parameterType = parameterType;
+		if (Modifier.isStatic(method.getModifiers())) {
+			this.generationFailed = true;
+		}
+	}
+
+
+	/**
+	 * Create an invoker for the given read method.
+	 */
+	static PropertyMethodInvoker forReadMethod(Method readMethod) {
+		return new PropertyMethodInvoker(readMethod, null);
+	}
+
+	/**
+	 * Create an invoker for the given write method with a single parameter.
+	 */
+	static PropertyMethodInvoker forWriteMethod(Method writeMethod) {
+		return new PropertyMethodInvoker(writeMethod, writeMethod.getParameterTypes()[0]);
+	}
+
+
+	/**
+	 * Return the underlying property method.
+	 */
+	Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Return whether the property method is invoked through a generated function.
+	 */
+	boolean isGenerated() {
+		return (this.generatedFunction != null);
+	}
+
+	/**
+	 * Invoke the read method on the given target.
+	 * @see Method#invoke
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	Object invokeReadMethod(Object target) throws Exception {
+		Object function = obtainGeneratedFunction();
+		if (function != null) {
+			try {
+				return ((Function<Object, Object>) function).apply(target);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+		ReflectionUtils.makeAccessible(this.method);
+		return this.method.invoke(target, (Object[]) null);
+	}
+
+	/**
+	 * Invoke the write method on the given target with the given value.
+	 * @see Method#invoke
+	 */
+	@SuppressWarnings("unchecked")
+	void invokeWriteMethod(Object target, @Nullable Object value) throws Exception {
+		Object function = obtainGeneratedFunction();
+		if (function != null && isDirectlyAssignable(value)) {
+			try {
+				((BiConsumer<Object, Object>) function).accept(target, value);
+				return;
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+		ReflectionUtils.makeAccessible(this.method);
+		this.method.invoke(target, value);
+	}
+
+	private boolean isDirectlyAssignable(@Nullable Object value) {
+		Class<?> parameterType = this.parameterType;
+		if (parameterType == null) {
+			return false;
+		}
+		if (value == null) {
+			return !parameterType.isPrimitive();
+		}
+		return ClassUtils.resolvePrimitiveIfNecessary(parameterType).isInstance(value);
+	}
+
+	@Nullable
+	private Object obtainGeneratedFunction() {
+		Object function = this.generatedFunction;
+		if (function != null || this.generationFailed) {
+			return function;
+		}
+		if (++this.invocationCount < GENERATION_THRESHOLD) {
+			return null;
+		}
+		try {
+			function = generateFunction();
+			this.generatedFunction = function;
+			return function;
+		}
+		catch (Throwable ex) {
+			this.generationFailed = true;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Falling back to reflection for property method [" + this.method + "]", ex);
+			}
+			return null;
+		}
+	}
+
+	private Object generateFunction() throws Throwable {
+		MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(
+				this.method.getDeclaringClass(), MethodHandles.lookup());
+		MethodHandle handle = lookup.unreflect(this.method);
+		MethodType instantiatedType = handle.type().wrap();
+		CallSite callSite;
+		if (this.parameterType == null) {
+			callSite = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class), handle, instantiatedType);
+		}
+		else {
+			callSite = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class), handle,
+					instantiatedType.changeReturnType(void.class));
+		}
+		return callSite.getTarget().invoke();
+	}
+
+}
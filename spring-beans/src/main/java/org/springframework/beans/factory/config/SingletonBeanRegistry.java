@@ -16,6 +16,8 @@
 
 package org.springframework.beans.factory.config;
 
+import java.util.function.Supplier;
+
 import org.springframework.lang.Nullable;
 
 /**
@@ -153,4 +155,24 @@ public interface SingletonBeanRegistry {
 	 */
 	Object getSingletonMutex();
 
+	/**
+	 * Execute the given callback, which may obtain beans from the factory,
+	 * exclusively among callers for the same bean name.
+	 * <p>Meant for external collaborators that lazily obtain a bean and need
+	 * to serialize that among each other. Prefer this over synchronizing on the
+	 * {@link #getSingletonMutex() singleton mutex} around a call to
+	 * {@code getBean}, since a registry may create its singletons under locks
+	 * of its own.
+	 * <p>The default implementation synchronizes on the singleton mutex.
+	 * @param beanName the name of the bean that the callback obtains
+	 * @param callback the callback to execute
+	 * @return the result of the callback
+	 * @since 6.1
+	 */
+	default <T> T executeWithCreationLock(String beanName, Supplier<T> callback) {
+		synchronized (getSingletonMutex()) {
+			return callback.get();
+		}
+	}
+
 }
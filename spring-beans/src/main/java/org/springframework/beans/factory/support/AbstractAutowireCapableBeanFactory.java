@@ -1256,56 +1256,85 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	@Nullable
 	private FactoryBean<?> getSingletonFactoryBeanForTypeCheck(String beanName, RootBeanDefinition mbd) {
-		synchronized (getSingletonMutex()) {
-			BeanWrapper bw = this.factoryBeanInstanceCache.get(beanName);
-			if (bw != null) {
-				return (FactoryBean<?>) bw.getWrappedInstance();
-			}
-			Object beanInstance = getSingleton(beanName, false);
-			if (beanInstance instanceof FactoryBean<?> factoryBean) {
-				return factoryBean;
-			}
-			if (isSingletonCurrentlyInCreation(beanName) ||
-					(mbd.getFactoryBeanName() != null && isSingletonCurrentlyInCreation(mbd.getFactoryBeanName()))) {
-				return null;
+		if (!isConcurrentSingletonCreation()) {
+			synchronized (getSingletonMutex()) {
+				return doGetSingletonFactoryBeanForTypeCheck(beanName, mbd);
 			}
+		}
+		BeanWrapper bw = this.factoryBeanInstanceCache.get(beanName);
+		if (bw != null) {
+			return (FactoryBean<?>) bw.getWrappedInstance();
+		}
+		// Don't wait for a FactoryBean currently in creation in another thread:
+		// it is not available for a type check, just like in the current thread.
+		if (!tryLockSingletonCreation(beanName)) {
+			return null;
+		}
+		try {
+			return doGetSingletonFactoryBeanForTypeCheck(beanName, mbd);
+		} finally {
+			unlockSingletonCreation(beanName);
+		}
+	}
 
-			Object instance;
-			try {
-				// Mark this bean as currently in creation, even if just partially.
-				beforeSingletonCreation(beanName);
-				// Give BeanPostProcessors a chance to return a proxy instead of the target bean instance.
-				instance = resolveBeforeInstantiation(beanName, mbd);
-				if (instance == null) {
-					bw = createBeanInstance(beanName, mbd, null);
-					instance = bw.getWrappedInstance();
-				}
-			} catch (UnsatisfiedDependencyException ex) {
-				// Don't swallow, probably misconfiguration...
+	/**
+	 * Obtain the "shortcut" singleton FactoryBean instance, with the singleton
+	 * mutex or the singleton's creation lock held.
+	 * @see #getSingletonFactoryBeanForTypeCheck
+	 */
+	@Nullable
+	private FactoryBean<?> doGetSingletonFactoryBeanForTypeCheck(String beanName, RootBeanDefinition mbd) {
+		BeanWrapper bw = this.factoryBeanInstanceCache.get(beanName);
+		if (bw != null) {
+			return (FactoryBean<?>) bw.getWrappedInstance();
+		}
+		Object beanInstance = getSingleton(beanName, false);
+		if (beanInstance instanceof FactoryBean<?> factoryBean) {
+			return factoryBean;
+		}
+		if (isSingletonCurrentlyInCreation(beanName) ||
+				(mbd.getFactoryBeanName() != null && isSingletonCurrentlyInCreation(mbd.getFactoryBeanName()))) {
+			return null;
+		}
+
+		Object instance;
+		try {
+			// Mark this bean as currently in creation, even if just partially.
+			beforeSingletonCreation(beanName);
+			// Give BeanPostProcessors a chance to return a proxy instead of the target bean instance.
+			instance = resolveBeforeInstantiation(beanName, mbd);
+			if (instance == null) {
+				bw = createBeanInstance(beanName, mbd, null);
+				instance = bw.getWrappedInstance();
+			}
+		} catch (UnsatisfiedDependencyException ex) {
+			// Don't swallow, probably misconfiguration...
+			throw ex;
+		} catch (BeanCreationException ex) {
+			// Don't swallow a linkage error since it contains a full stacktrace on
+			// first occurrence... and just a plain NoClassDefFoundError afterwards.
+			if (ex.contains(LinkageError.class)) {
 				throw ex;
-			} catch (BeanCreationException ex) {
-				// Don't swallow a linkage error since it contains a full stacktrace on
-				// first occurrence... and just a plain NoClassDefFoundError afterwards.
-				if (ex.contains(LinkageError.class)) {
-					throw ex;
-				}
-				// Instantiation failure, maybe too early...
-				if (logger.isDebugEnabled()) {
-					logger.debug("Bean creation exception on singleton FactoryBean type check: " + ex);
-				}
-				onSuppressedException(ex);
-				return null;
-			} finally {
-				// Finished partial creation of this bean.
-				afterSingletonCreation(beanName);
 			}
+			// Instantiation failure, maybe too early...
+			if (logger.isDebugEnabled()) {
+				logger.debug("Bean creation exception on singleton FactoryBean type check: " + ex);
+			}
+			onSuppressedException(ex);
+			return null;
+		} finally {
+			// Finished partial creation of this bean.
+			afterSingletonCreation(beanName);
+		}
 
-			FactoryBean<?> fb = getFactoryBean(beanName, instance);
-			if (bw != null) {
+		FactoryBean<?> fb = getFactoryBean(beanName, instance);
+		if (bw != null) {
+			// Serialized with removeSingleton and clearSingletonCache
+			synchronized (getSingletonMutex()) {
 				this.factoryBeanInstanceCache.put(beanName, bw);
 			}
-			return fb;
 		}
+		return fb;
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.beans.factory.support;
 
 import jakarta.inject.Provider;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.*;
 import org.springframework.beans.factory.config.*;
@@ -37,7 +38,10 @@ import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -146,6 +150,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	 */
 	private AutowireCandidateResolver autowireCandidateResolver = SimpleAutowireCandidateResolver.INSTANCE;
 
+	/**
+	 * Optional Executor for pre-instantiating singletons in parallel.
+	 */
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/**
 	 * <p>存放着手动显示注册的依赖项类型-相应的自动装配值的缓存</p>
 	 * <p>手动显示注册指直接调用{@link #registerResolvableDependency(Class, Object)}</p>
@@ -362,6 +372,39 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating non-lazy singletons in
+	 * parallel on {@link #preInstantiateSingletons()}.
+	 * <p>Default is none, creating singletons one after the other in the calling
+	 * thread. If specified, each singleton is created in a task of its own, once
+	 * the beans that its definition refers to (through "depends-on", a factory
+	 * bean, or bean references in constructor arguments and property values) have
+	 * been created, so that independent parts of the dependency graph are created
+	 * concurrently. Dependencies that are only discovered at creation time, such
+	 * as autowired ones, are coordinated through the per-bean creation locks of
+	 * this factory: specifying an Executor switches on
+	 * {@link #setConcurrentSingletonCreation concurrent singleton creation}.
+	 * <p>Note that all singletons need to support being created in a thread other
+	 * than the one refreshing the factory, and concurrently with other singletons.
+	 * @since 6.1
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+		if (bootstrapExecutor != null) {
+			setConcurrentSingletonCreation(true);
+		}
+	}
+
+	/**
+	 * Return the Executor for pre-instantiating singletons in parallel, if any.
+	 * @since 6.1
+	 */
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
@@ -370,6 +413,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.bootstrapExecutor = otherListableFactory.bootstrapExecutor;
+			setConcurrentSingletonCreation(otherListableFactory.isConcurrentSingletonCreation());
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware
 			setAutowireCandidateResolver(otherListableFactory.getAutowireCandidateResolver().cloneIfNecessary());
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well
@@ -1461,22 +1506,16 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 		// Trigger initialization of all non-lazy singleton beans...
 		// 触发所有的非懒加载的 singleton beans 的初始化操作
-		for (String beanName : beanNames) {
-			//合并父 Bean 中的配置，注意 <bean id="" class="" parent="" /> 中的 parent
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			// 非抽象、非懒加载的 singletons。如果配置了 'abstract = true'，那是不需要初始化的
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				// 处理 FactoryBean
-				if (isFactoryBean(beanName)) {
-					// FactoryBean 的话，在 beanName 前面加上 ‘&’ 符号。再调用 getBean
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					// 判断当前 FactoryBean 是否是 SmartFactoryBean 的实现，此处忽略，直接跳过
-					if (bean instanceof SmartFactoryBean<?> smartFactoryBean && smartFactoryBean.isEagerInit()) {
-						getBean(beanName);
-					}
-				} else {
-					// 对于普通的 Bean，只要调用 getBean(beanName) 方法就进行初始化
-					getBean(beanName);
+		Executor executor = this.bootstrapExecutor;
+		if (executor != null) {
+			preInstantiateSingletonsInParallel(beanNames, executor);
+		} else {
+			for (String beanName : beanNames) {
+				//合并父 Bean 中的配置，注意 <bean id="" class="" parent="" /> 中的 parent
+				RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+				// 非抽象、非懒加载的 singletons。如果配置了 'abstract = true'，那是不需要初始化的
+				if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+					preInstantiateSingleton(beanName);
 				}
 			}
 		}
@@ -1498,6 +1537,118 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Instantiate the given non-lazy singleton, including the object
+	 * of a {@link SmartFactoryBean} that asks for eager initialization.
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		// 处理 FactoryBean
+		if (isFactoryBean(beanName)) {
+			// FactoryBean 的话，在 beanName 前面加上 ‘&’ 符号。再调用 getBean
+			Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+			// 判断当前 FactoryBean 是否是 SmartFactoryBean 的实现，此处忽略，直接跳过
+			if (bean instanceof SmartFactoryBean<?> smartFactoryBean && smartFactoryBean.isEagerInit()) {
+				getBean(beanName);
+			}
+		} else {
+			// 对于普通的 Bean，只要调用 getBean(beanName) 方法就进行初始化
+			getBean(beanName);
+		}
+	}
+
+	/**
+	 * Instantiate the non-lazy singletons among the given beans through the
+	 * given Executor, each once the beans declared as its dependencies are
+	 * instantiated, and wait for all of them to complete.
+	 * @see #setBootstrapExecutor
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		Map<String, RootBeanDefinition> candidates = new LinkedHashMap<>();
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				candidates.put(beanName, bd);
+			}
+		}
+		Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+		for (String beanName : candidates.keySet()) {
+			schedulePreInstantiation(beanName, candidates, futures, new HashSet<>(), executor);
+		}
+		try {
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	private CompletableFuture<Void> schedulePreInstantiation(String beanName,
+			Map<String, RootBeanDefinition> candidates, Map<String, CompletableFuture<Void>> futures,
+			Set<String> currentPath, Executor executor) {
+
+		CompletableFuture<Void> future = futures.get(beanName);
+		if (future != null) {
+			return future;
+		}
+		currentPath.add(beanName);
+		List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+		for (String dependency : getDeclaredDependencies(candidates.get(beanName))) {
+			// Declared circular references are left to the creation locks to resolve
+			if (candidates.containsKey(dependency) && !currentPath.contains(dependency)) {
+				dependencies.add(schedulePreInstantiation(dependency, candidates, futures, currentPath, executor));
+			}
+		}
+		currentPath.remove(beanName);
+		future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+				.thenRunAsync(() -> preInstantiateSingleton(beanName), executor);
+		futures.put(beanName, future);
+		return future;
+	}
+
+	/**
+	 * Determine the names of the beans that the given bean definition
+	 * declares as dependencies, before any autowiring.
+	 */
+	private Set<String> getDeclaredDependencies(RootBeanDefinition mbd) {
+		Set<String> dependencies = new LinkedHashSet<>();
+		String[] dependsOn = mbd.getDependsOn();
+		if (dependsOn != null) {
+			for (String dependsOnBean : dependsOn) {
+				dependencies.add(transformedBeanName(dependsOnBean));
+			}
+		}
+		if (mbd.getFactoryBeanName() != null) {
+			dependencies.add(transformedBeanName(mbd.getFactoryBeanName()));
+		}
+		if (mbd.hasConstructorArgumentValues()) {
+			ConstructorArgumentValues argumentValues = mbd.getConstructorArgumentValues();
+			for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getIndexedArgumentValues().values()) {
+				addBeanReference(valueHolder.getValue(), dependencies);
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : argumentValues.getGenericArgumentValues()) {
+				addBeanReference(valueHolder.getValue(), dependencies);
+			}
+		}
+		if (mbd.hasPropertyValues()) {
+			for (PropertyValue propertyValue : mbd.getPropertyValues().getPropertyValueList()) {
+				addBeanReference(propertyValue.getValue(), dependencies);
+			}
+		}
+		return dependencies;
+	}
+
+	private void addBeanReference(@Nullable Object value, Set<String> beanNames) {
+		if (value instanceof RuntimeBeanReference reference && !reference.isToParent()) {
+			beanNames.add(transformedBeanName(reference.getBeanName()));
+		}
+	}
+
+
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
 	//---------------------------------------------------------------------
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.beans.factory.support;
 
 import org.springframework.beans.factory.*;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -25,6 +26,8 @@ import org.springframework.util.StringUtils;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * Generic registry for shared bean instances, implementing the
@@ -62,6 +65,15 @@ import java.util.concurrent.ConcurrentHashMap;
  * 这个类既不假设bean定义概念，也不假设bean实例的特定创建过程。也可作为嵌套帮助
  * 器使用，以委托给。</p>
  *
+ * <p>With {@link #setConcurrentSingletonCreation concurrent singleton creation}
+ * switched on, singletons are created under a creation lock per bean name rather
+ * than under the registry-wide {@link #getSingletonMutex() singleton mutex}, so
+ * that independent singletons may be created concurrently. A thread that needs
+ * a singleton currently being created by another thread waits for it; if both
+ * threads wait on each other through a circular reference, the cycle is broken
+ * with the early singleton reference if one has been exposed, and rejected with
+ * a {@link BeanCurrentlyInCreationException} otherwise.
+ *
  * @author Juergen Hoeller
  * @see #registerSingleton
  * @see #registerDisposableBean
@@ -90,7 +102,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * <p>单例工厂的缓存：bean名称 - ObjectFactory </p>
 	 * 三级缓存：缓存的是 ObjectFactory，表示对象工厂，用来创建某个对象的
 	 */
-	private final Map<String, ObjectFactory<?>> singletonFactories = new HashMap<>(16);
+	private final Map<String, ObjectFactory<?>> singletonFactories = new ConcurrentHashMap<>(16);
 
 	/**
 	 * Cache of early singleton objects: bean name to bean instance.
@@ -123,18 +135,36 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	private final Set<String> inCreationCheckExclusions = Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/**
+	 * Creation locks for singletons: bean name to lock.
+	 */
+	private final Map<String, SingletonCreationLock> singletonCreationLocks = new ConcurrentHashMap<>(256);
+
+	/**
+	 * Threads currently waiting for a singleton creation lock: thread to wait.
+	 * <p>Registered, checked for cycles and waited on under its own monitor,
+	 * which gets notified whenever a creation lock is released.
+	 */
+	private final Map<Thread, SingletonCreationWait> singletonCreationWaits = new ConcurrentHashMap<>(16);
+
+	/**
+	 * Whether singletons are created under per-bean creation locks.
+	 */
+	private volatile boolean concurrentSingletonCreation = false;
+
 	/**
 	 * List of suppressed Exceptions, available for associating related causes.
 	 * <p>抑制的异常列表，可用于关联相关原因</p>
+	 * <p>Kept per thread, since singletons may be created concurrently.
 	 */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions in singleton creation");
 
 	/**
 	 * Flag that indicates whether we're currently within destroySingletons.
 	 * <p>指示我们当前是否在destroySingletons中的标志</p>
 	 */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
 
 	/**
 	 * Disposable bean instances: bean name to disposable instance.
@@ -165,6 +195,31 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Set whether singletons may be created concurrently, each under a creation
+	 * lock for its bean name instead of the {@link #getSingletonMutex() singleton
+	 * mutex}. Default is "false", creating one singleton at a time.
+	 * <p>Switch this on for creating independent singletons in parallel. Threads
+	 * that wait for each other through a circular reference are then detected
+	 * when the cycle forms: it gets broken with an early singleton reference if
+	 * one has been exposed, and rejected with a {@link BeanCurrentlyInCreationException}
+	 * otherwise.
+	 * @since 6.1
+	 * @see #executeWithCreationLock
+	 */
+	public void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether singletons may be created concurrently.
+	 * @since 6.1
+	 * @see #setConcurrentSingletonCreation
+	 */
+	public boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
 	/**
 	 * 在给定的bean名称下，在bean注册器中将给定的现有对象注册为单例：
 	 * <ol>
@@ -318,25 +373,40 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		Object singletonObject = this.singletonObjects.get(beanName);
 		//如果单例对象没有找到，并且 baneName 是正在被创建
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
-			//同步，以singletonObjects作为锁
-			synchronized (this.singletonObjects) {
-				//从早期单例对象的高速缓存中获取bean对象
-				singletonObject = this.earlySingletonObjects.get(beanName);
-				//如果获取不了bean的单例对象，且允许创建早期引用
-				if (singletonObject == null && allowEarlyReference) {
-					//从单例工厂的缓存中获取beanName的单例工厂对象
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					//如果beanName的单例工厂对象找到了
-					if (singletonFactory != null) {
-						//从beanName的单例工厂对象中获取该beanName的单例对象
-						singletonObject = singletonFactory.getObject();
-						//下面的操作主要是为了防止beanName对应的对象重复构建
-						//添加beanName和其对应的beanName单例对象到 早期单例对象高速缓存中
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						//从单例对象工厂缓存中移除beanName的单例对象工厂
-						this.singletonFactories.remove(beanName);
+			if (!this.concurrentSingletonCreation) {
+				//同步，以singletonObjects作为锁
+				synchronized (this.singletonObjects) {
+					//从早期单例对象的高速缓存中获取bean对象
+					singletonObject = this.earlySingletonObjects.get(beanName);
+					//如果获取不了bean的单例对象，且允许创建早期引用
+					if (singletonObject == null && allowEarlyReference) {
+						//从单例工厂的缓存中获取beanName的单例工厂对象
+						ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+						//如果beanName的单例工厂对象找到了
+						if (singletonFactory != null) {
+							//从beanName的单例工厂对象中获取该beanName的单例对象
+							singletonObject = singletonFactory.getObject();
+							//下面的操作主要是为了防止beanName对应的对象重复构建
+							//添加beanName和其对应的beanName单例对象到 早期单例对象高速缓存中
+							this.earlySingletonObjects.put(beanName, singletonObject);
+							//从单例对象工厂缓存中移除beanName的单例对象工厂
+							this.singletonFactories.remove(beanName);
+						}
 					}
 				}
+				return singletonObject;
+			}
+			// Early references are only exposed to the thread creating the singleton:
+			// other threads need to wait for its creation lock instead.
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			if (lock != null && lock.isLocked() && !lock.isHeldByCurrentThread()) {
+				return null;
+			}
+			//从早期单例对象的高速缓存中获取bean对象
+			singletonObject = this.earlySingletonObjects.get(beanName);
+			//如果获取不了bean的单例对象，且允许创建早期引用
+			if (singletonObject == null && allowEarlyReference) {
+				singletonObject = getEarlySingletonReference(beanName);
 			}
 		}
 		//返回beanName对应的单例对象
@@ -344,13 +414,58 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	}
 
 
+	/**
+	 * Obtain the early reference to the given singleton from its singleton factory,
+	 * if it has been exposed, caching it for subsequent early lookups.
+	 * <p>The singleton factory is invoked outside of the cache lock, since it may
+	 * in turn request other beans: it is only ever invoked by the thread creating
+	 * the singleton, or by threads resolving a circular wait on it while that
+	 * thread is blocked, in which case the first reference obtained wins.
+	 * @param beanName the name of the bean
+	 * @return the early singleton reference, or {@code null} if none exposed
+	 */
+	@Nullable
+	private Object getEarlySingletonReference(String beanName) {
+		ObjectFactory<?> singletonFactory;
+		synchronized (this.singletonObjects) {
+			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				singletonObject = this.earlySingletonObjects.get(beanName);
+			}
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			singletonFactory = this.singletonFactories.get(beanName);
+		}
+		if (singletonFactory == null) {
+			return null;
+		}
+		Object singletonObject = singletonFactory.getObject();
+		synchronized (this.singletonObjects) {
+			if (this.singletonFactories.get(beanName) == singletonFactory) {
+				//下面的操作主要是为了防止beanName对应的对象重复构建
+				this.earlySingletonObjects.put(beanName, singletonObject);
+				this.singletonFactories.remove(beanName);
+			} else {
+				Object existingObject = this.singletonObjects.get(beanName);
+				if (existingObject == null) {
+					existingObject = this.earlySingletonObjects.get(beanName);
+				}
+				if (existingObject != null) {
+					singletonObject = existingObject;
+				}
+			}
+		}
+		return singletonObject;
+	}
+
 	/**
 	 * <p>
 	 * 返回以beanName的(原始)单例对象，如果尚未注册，则使用singletonFactory创建并注册一个对象:
 	 *   <ol>
 	 *    <li>如果beanName为null，抛出异常</li>
-	 *    <li>使用单例对象的高速缓存Map作为锁，保证线程同步</li>
 	 *    <li>从单例对象的高速缓存Map中获取beanName对应的单例对象【变量 singletonObject】,获取成功就直接返回singletonObject</li>
+	 *    <li>获取beanName的单例创建锁，保证线程同步；如果与其他线程循环等待，则返回早期引用</li>
 	 *    <li>如果singletonObject获取不到
 	 *     <ol>
 	 *       <li>如果当前在 destroySingletons中【singletonsCurrentlyInDestruction】，就抛出BeanCreationNotAllowedException</li>
@@ -390,6 +505,12 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * creating and registering a new one if none registered yet.
 	 * <p>返回以给定名称注册的(原始)单例对象，如果尚未注册，则创建并注册一个
 	 * 对象</p>
+	 * <p>Creation happens under the {@link #getSingletonMutex() singleton mutex},
+	 * or with {@link #setConcurrentSingletonCreation concurrent singleton creation}
+	 * under the creation lock for the given bean name. If that lock is held by
+	 * another thread that in turn waits for a singleton being created by the
+	 * current thread, the early reference to the requested singleton is returned
+	 * instead, if exposed.
 	 *
 	 * @param beanName         the name of the bean -- bean名
 	 * @param singletonFactory the ObjectFactory to lazily create the singleton
@@ -399,93 +520,348 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		//如果beanName为null，抛出异常
 		Assert.notNull(beanName, "Bean name must not be null");
-		//使用单例对象的高速缓存Map作为锁，保证线程同步
-		synchronized (this.singletonObjects) {
-			//从单例对象的高速缓存Map中获取beanName对应的单例对象
-			Object singletonObject = this.singletonObjects.get(beanName);
-			//如果单例对象获取不到
-			if (singletonObject == null) {
-				//如果当前在destorySingletons中
-				if (this.singletonsCurrentlyInDestruction) {
-					//抛出不允许创建Bean异常：在工厂的单例销毁时不允许创建单例bean(请勿在destory方法中向BeanFactory请求Bean)
-					throw new BeanCreationNotAllowedException(beanName,
-							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
-									"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
-				}
-				//如果当前日志级别时调试
-				if (logger.isDebugEnabled()) {
-					//打印调试级别日志：创建单例bean的共享实例
-					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+		if (!this.concurrentSingletonCreation) {
+			//使用单例对象的高速缓存Map作为锁，保证线程同步
+			synchronized (this.singletonObjects) {
+				return createSingleton(beanName, singletonFactory);
+			}
+		}
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		//获取beanName的单例创建锁，保证线程同步
+		Object earlySingletonReference = lockSingletonCreation(beanName, true);
+		if (earlySingletonReference != null) {
+			return earlySingletonReference;
+		}
+		try {
+			return createSingleton(beanName, singletonFactory);
+		} finally {
+			unlockSingletonCreation(beanName);
+		}
+	}
+
+	/**
+	 * Create and register the given singleton unless registered already,
+	 * with the singleton mutex or the singleton's creation lock held.
+	 */
+	private Object createSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+		//从单例对象的高速缓存Map中获取beanName对应的单例对象
+		Object singletonObject = this.singletonObjects.get(beanName);
+		//如果单例对象获取不到
+		if (singletonObject == null) {
+			//如果当前在destorySingletons中
+			if (this.singletonsCurrentlyInDestruction) {
+				//抛出不允许创建Bean异常：在工厂的单例销毁时不允许创建单例bean(请勿在destory方法中向BeanFactory请求Bean)
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+								"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			//如果当前日志级别时调试
+			if (logger.isDebugEnabled()) {
+				//打印调试级别日志：创建单例bean的共享实例
+				logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+			}
+			//创建单例之前的回调,默认实现将单例注册为当前正在创建中
+			beforeSingletonCreation(beanName);
+			//表示生成了新的单例对象的标记，默认为false，表示没有生成新的单例对象
+			boolean newSingleton = false;
+			//有抑制异常记录标记,没有时为true,否则为false
+			boolean recordSuppressedExceptions = (this.suppressedExceptions.get() == null);
+			//如果没有抑制异常记录
+			if (recordSuppressedExceptions) {
+				//对抑制的异常列表进行实例化(LinkedHashSet)
+				this.suppressedExceptions.set(new LinkedHashSet<>());
+			}
+			try {
+				//从单例工厂中获取对象
+				singletonObject = singletonFactory.getObject();
+				//生成了新的单例对象的标记为true，表示生成了新的单例对象
+				newSingleton = true;
+			}
+			//捕捉非法状态异常
+			catch (IllegalStateException ex) {
+				// Has the singleton object implicitly appeared in the meantime ->
+				// if yes, proceed with it since the exception indicates that state.
+				// 同时，单例对象是否隐式出现 -> 如果是，请继续操作，因为异常表明该状态
+
+				//因为singletonFactory.getObject()的目的就是为将beanName的
+				// 单例对象注册到单例对象的高速缓存Map中，忽略掉注册后抛出的非法状态异常，可以保证
+				// beanFactory不会因为该bean注册后的后续处理而导致beanFactoury的生命周期结束
+
+				// 默认情况下，sinagletoObjects是拿不到该beanName的，但Spring的作者考虑到自定义BeanFactory的
+				// 情况，但不建议在singleFactory#getObject()的方法中就注册到singletonObjects中，因为spring
+				// 后面已经帮你将singleObject注册到singleObjects了。
+
+				// 尝试从 单例对象的高速缓存Map 中获取beanName的单例对象
+				singletonObject = this.singletonObjects.get(beanName);
+				//如果获取失败，抛出异常。
+				if (singletonObject == null) {
+					throw ex;
 				}
-				//创建单例之前的回调,默认实现将单例注册为当前正在创建中
-				beforeSingletonCreation(beanName);
-				//表示生成了新的单例对象的标记，默认为false，表示没有生成新的单例对象
-				boolean newSingleton = false;
-				//有抑制异常记录标记,没有时为true,否则为false
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
+			}
+			//捕捉Bean创建异常
+			catch (BeanCreationException ex) {
 				//如果没有抑制异常记录
 				if (recordSuppressedExceptions) {
-					//对抑制的异常列表进行实例化(LinkedHashSet)
-					this.suppressedExceptions = new LinkedHashSet<>();
-				}
-				try {
-					//从单例工厂中获取对象
-					singletonObject = singletonFactory.getObject();
-					//生成了新的单例对象的标记为true，表示生成了新的单例对象
-					newSingleton = true;
-				}
-				//捕捉非法状态异常
-				catch (IllegalStateException ex) {
-					// Has the singleton object implicitly appeared in the meantime ->
-					// if yes, proceed with it since the exception indicates that state.
-					// 同时，单例对象是否隐式出现 -> 如果是，请继续操作，因为异常表明该状态
-
-					//因为singletonFactory.getObject()的目的就是为将beanName的
-					// 单例对象注册到单例对象的高速缓存Map中，忽略掉注册后抛出的非法状态异常，可以保证
-					// beanFactory不会因为该bean注册后的后续处理而导致beanFactoury的生命周期结束
-
-					// 默认情况下，sinagletoObjects是拿不到该beanName的，但Spring的作者考虑到自定义BeanFactory的
-					// 情况，但不建议在singleFactory#getObject()的方法中就注册到singletonObjects中，因为spring
-					// 后面已经帮你将singleObject注册到singleObjects了。
-
-					// 尝试从 单例对象的高速缓存Map 中获取beanName的单例对象
-					singletonObject = this.singletonObjects.get(beanName);
-					//如果获取失败，抛出异常。
-					if (singletonObject == null) {
-						throw ex;
+					//遍历抑制的异常列表
+					for (Exception suppressedException : this.suppressedExceptions.get()) {
+						//将抑制的异常对象添加到 bean创建异常 中，这样做的，就是相当于 '因XXX异常导致了Bean创建异常‘ 的说法
+						ex.addRelatedCause(suppressedException);
 					}
 				}
-				//捕捉Bean创建异常
-				catch (BeanCreationException ex) {
-					//如果没有抑制异常记录
-					if (recordSuppressedExceptions) {
-						//遍历抑制的异常列表
-						for (Exception suppressedException : this.suppressedExceptions) {
-							//将抑制的异常对象添加到 bean创建异常 中，这样做的，就是相当于 '因XXX异常导致了Bean创建异常‘ 的说法
-							ex.addRelatedCause(suppressedException);
+				//抛出异常
+				throw ex;
+			} finally {
+				//如果没有抑制异常记录
+				if (recordSuppressedExceptions) {
+					//将抑制的异常列表置为null，因为suppressedExceptions是对应单个bean的异常记录，置为null
+					// 可防止异常信息的混乱
+					this.suppressedExceptions.remove();
+				}
+				//创建单例后的回调,默认实现将单例标记为不在创建中
+				afterSingletonCreation(beanName);
+			}
+			//生成了新的单例对象
+			if (newSingleton) {
+				//将beanName和singletonObject的映射关系添加到该工厂的单例缓存中:
+				addSingleton(beanName, singletonObject);
+			}
+		}
+		//返回该单例对象
+		return singletonObject;
+	}
+
+	/**
+	 * Acquire the creation lock for the given singleton, waiting for another
+	 * thread that currently holds it to complete the singleton's creation.
+	 * <p>Needs to be paired with {@link #unlockSingletonCreation} in a
+	 * {@code finally} block. With {@link #setConcurrentSingletonCreation
+	 * concurrent singleton creation}, subclasses should hold this lock rather
+	 * than the {@link #getSingletonMutex() singleton mutex} for any extended
+	 * singleton creation phase.
+	 * @param beanName the name of the bean
+	 * @throws BeanCurrentlyInCreationException if waiting for the lock would
+	 * deadlock with other threads through a circular reference
+	 * @since 6.1
+	 */
+	protected final void lockSingletonCreation(String beanName) {
+		lockSingletonCreation(beanName, false);
+	}
+
+	/**
+	 * Acquire the creation lock for the given singleton, if it is not held by
+	 * another thread at this point.
+	 * <p>Needs to be paired with {@link #unlockSingletonCreation} in a
+	 * {@code finally} block if successful.
+	 * @param beanName the name of the bean
+	 * @return {@code true} if the lock has been acquired, {@code false} otherwise
+	 * @since 6.1
+	 */
+	protected final boolean tryLockSingletonCreation(String beanName) {
+		while (true) {
+			SingletonCreationLock lock = this.singletonCreationLocks.computeIfAbsent(beanName, SingletonCreationLock::new);
+			if (!lock.tryLock()) {
+				return false;
+			}
+			if (this.singletonCreationLocks.get(beanName) == lock) {
+				return true;
+			}
+			// Removed along with the singleton before we got hold of it: retry with the current lock.
+			releaseSingletonCreationLock(lock);
+		}
+	}
+
+	/**
+	 * Release the creation lock for the given singleton.
+	 * @param beanName the name of the bean
+	 * @since 6.1
+	 * @see #lockSingletonCreation(String)
+	 * @see #tryLockSingletonCreation(String)
+	 */
+	protected final void unlockSingletonCreation(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		Assert.state(lock != null, () -> "No creation lock for singleton '" + beanName + "'");
+		releaseSingletonCreationLock(lock);
+	}
+
+	/**
+	 * Release the given creation lock, waking up the threads waiting for a
+	 * creation lock once it is not held anymore.
+	 */
+	private void releaseSingletonCreationLock(SingletonCreationLock lock) {
+		lock.unlock();
+		if (!lock.isHeldByCurrentThread() && !this.singletonCreationWaits.isEmpty()) {
+			synchronized (this.singletonCreationWaits) {
+				this.singletonCreationWaits.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Acquire the creation lock for the given singleton, checking whether the
+	 * current thread would wait in a cycle of threads that each wait for a
+	 * singleton being created by the next one.
+	 * <p>Such a cycle is broken by a waiting thread that is able to proceed
+	 * with the early reference to the singleton it waits for. If none of the
+	 * threads is able to, the cycle is rejected.
+	 * @param beanName the name of the bean
+	 * @param allowEarlyReference whether the early reference to the singleton
+	 * may be returned instead of acquiring the lock, to break a cycle
+	 * @return {@code null} if the lock has been acquired, or otherwise the
+	 * early reference to break a cycle with
+	 * @throws BeanCurrentlyInCreationException if the current thread would
+	 * complete a cycle that none of the threads is able to break
+	 */
+	@Nullable
+	private Object lockSingletonCreation(String beanName, boolean allowEarlyReference) {
+		while (true) {
+			SingletonCreationLock lock = this.singletonCreationLocks.computeIfAbsent(beanName, SingletonCreationLock::new);
+			Object earlySingletonReference = acquireSingletonCreationLock(lock, allowEarlyReference);
+			if (earlySingletonReference != null || this.singletonCreationLocks.get(beanName) == lock) {
+				return earlySingletonReference;
+			}
+			// Removed along with the singleton before we got hold of it: retry with the current lock.
+			releaseSingletonCreationLock(lock);
+		}
+	}
+
+	/**
+	 * Acquire the given creation lock, breaking or rejecting a cycle of waiting
+	 * threads as described for {@link #lockSingletonCreation(String, boolean)}.
+	 * <p>A thread registers its wait and checks for a cycle before blocking,
+	 * all under the monitor of the {@link #singletonCreationWaits} map: since
+	 * every thread in a cycle holds its lock before it starts waiting, the last
+	 * thread to join a cycle always detects it. That thread either breaks the
+	 * cycle itself, or flags another thread in the cycle to do so, or rejects it.
+	 */
+	@Nullable
+	private Object acquireSingletonCreationLock(SingletonCreationLock lock, boolean allowEarlyReference) {
+		if (lock.tryLock()) {
+			return null;
+		}
+		String beanName = lock.beanName;
+		Thread currentThread = Thread.currentThread();
+		boolean interrupted = false;
+		try {
+			while (true) {
+				SingletonCreationWait wait = new SingletonCreationWait(lock, allowEarlyReference);
+				synchronized (this.singletonCreationWaits) {
+					this.singletonCreationWaits.put(currentThread, wait);
+					try {
+						if (!awaitSingletonCreationLock(currentThread, wait)) {
+							return null;
 						}
+					} catch (InterruptedException ex) {
+						// Keep waiting like for a monitor, but preserve the interrupt for the caller.
+						interrupted = true;
+						continue;
+					} finally {
+						this.singletonCreationWaits.remove(currentThread);
 					}
-					//抛出异常
-					throw ex;
-				} finally {
-					//如果没有抑制异常记录
-					if (recordSuppressedExceptions) {
-						//将抑制的异常列表置为null，因为suppressedExceptions是对应单个bean的异常记录，置为null
-						// 可防止异常信息的混乱
-						this.suppressedExceptions = null;
+				}
+				Object earlySingletonReference = getEarlySingletonReference(beanName);
+				if (earlySingletonReference != null) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Using early reference to singleton bean '" + beanName +
+								"' to resolve circular reference across threads");
 					}
-					//创建单例后的回调,默认实现将单例标记为不在创建中
-					afterSingletonCreation(beanName);
+					return earlySingletonReference;
 				}
-				//生成了新的单例对象
-				if (newSingleton) {
-					//将beanName和singletonObject的映射关系添加到该工厂的单例缓存中:
-					addSingleton(beanName, singletonObject);
+			}
+		} finally {
+			if (interrupted) {
+				currentThread.interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Wait for the lock of the given registered wait, under the monitor of the
+	 * {@link #singletonCreationWaits} map.
+	 * @return {@code false} if the lock has been acquired, or {@code true} if the
+	 * current thread is to break a cycle with the early singleton reference
+	 * @throws BeanCurrentlyInCreationException if the current thread completes
+	 * a cycle that none of the threads is able to break
+	 */
+	private boolean awaitSingletonCreationLock(Thread currentThread, SingletonCreationWait wait)
+			throws InterruptedException {
+
+		List<SingletonCreationWait> cycle = findSingletonCreationCycle(currentThread, wait.lock);
+		if (cycle != null) {
+			if (wait.allowEarlyReference && hasEarlySingletonReference(wait.lock.beanName)) {
+				return true;
+			}
+			SingletonCreationWait breaker = null;
+			for (SingletonCreationWait other : cycle) {
+				if (other.allowEarlyReference && hasEarlySingletonReference(other.lock.beanName)) {
+					breaker = other;
+					break;
 				}
 			}
-			//返回该单例对象
-			return singletonObject;
+			if (breaker == null) {
+				throw new BeanCurrentlyInCreationException(wait.lock.beanName,
+						"Requested bean is currently in creation in another thread which in turn waits " +
+						"for a bean in creation in this thread: Is there an unresolvable circular reference?");
+			}
+			breaker.breakCycle = true;
+			this.singletonCreationWaits.notifyAll();
 		}
+		while (!wait.breakCycle) {
+			if (wait.lock.tryLock()) {
+				return false;
+			}
+			this.singletonCreationWaits.wait();
+		}
+		return true;
+	}
+
+	/**
+	 * Follow the owners of the creation locks that the given thread is waiting
+	 * for, to find out whether they wait in turn for the given thread.
+	 * @return the waits of the other threads in the cycle, or {@code null} if
+	 * the given thread is not part of a cycle
+	 */
+	@Nullable
+	private List<SingletonCreationWait> findSingletonCreationCycle(Thread thread, SingletonCreationLock lock) {
+		List<SingletonCreationWait> cycle = new ArrayList<>();
+		SingletonCreationLock next = lock;
+		while (cycle.size() <= this.singletonCreationWaits.size()) {
+			Thread owner = next.getOwningThread();
+			if (owner == null) {
+				return null;
+			}
+			if (owner == thread) {
+				return cycle;
+			}
+			SingletonCreationWait wait = this.singletonCreationWaits.get(owner);
+			if (wait == null) {
+				return null;
+			}
+			cycle.add(wait);
+			next = wait.lock;
+		}
+		// A cycle among other threads, not involving the given thread
+		return null;
+	}
+
+	/**
+	 * Whether an early reference to the given singleton has been exposed.
+	 * <p>Checked without the singleton mutex, which may be acquired while
+	 * releasing a creation lock.
+	 */
+	private boolean hasEarlySingletonReference(String beanName) {
+		return (this.earlySingletonObjects.containsKey(beanName) || this.singletonFactories.containsKey(beanName));
+	}
+
+	/**
+	 * Remove the creation lock for the given singleton, unless it is currently held.
+	 * <p>A thread that looked up the lock before its removal notices it once it
+	 * got hold of the lock, and retries with the current lock for the bean name.
+	 */
+	private void removeSingletonCreationLock(String beanName) {
+		this.singletonCreationLocks.computeIfPresent(beanName, (name, lock) -> (lock.isLocked() ? lock : null));
 	}
 
 	/**
@@ -497,13 +873,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @param ex the Exception to register -- 要注册的异常
 	 */
 	protected void onSuppressedException(Exception ex) {
-		//使用singletonObject同步加锁
-		synchronized (this.singletonObjects) {
-			//如果 抑制异常列表 不为 null
-			if (this.suppressedExceptions != null && this.suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
-				//将要注册的异常对象添加到 抑制异常列表 中，注意抑制异常列表是Set集合
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		//如果 抑制异常列表 不为 null
+		if (suppressedExceptions != null && suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
+			//将要注册的异常对象添加到 抑制异常列表 中，注意抑制异常列表是Set集合
+			suppressedExceptions.add(ex);
 		}
 	}
 
@@ -528,6 +902,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			//删除 已注册的单例集，按照注册顺序包含bean名称 的对应数据
 			this.registeredSingletons.remove(beanName);
 		}
+		removeSingletonCreationLock(beanName);
 	}
 
 	/**
@@ -962,6 +1337,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			//设置当前是否在destorySingletons中的标志为false
 			this.singletonsCurrentlyInDestruction = false;
 		}
+		for (String beanName : this.singletonCreationLocks.keySet()) {
+			removeSingletonCreationLock(beanName);
+		}
 	}
 
 	/**
@@ -1087,10 +1465,80 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * to avoid the potential for deadlocks in lazy-init situations.
 	 * <p>如果子类执行任何扩展的单例创建阶段,则它们应在给定Object上同步.特别是,子类不应
 	 * 在单例创建中涉及其自己的互斥体,以避免在惰性初始化情况下出现死锁的可能性</p>
+	 * <p>With {@link #setConcurrentSingletonCreation concurrent singleton creation},
+	 * the mutex still guards the registration of singletons but is not held
+	 * while creating them: extended creation phases should rather use
+	 * {@link #executeWithCreationLock}.
 	 */
 	@Override
 	public final Object getSingletonMutex() {
 		return this.singletonObjects;
 	}
 
+	/**
+	 * This implementation synchronizes on the singleton mutex by default. With
+	 * {@link #setConcurrentSingletonCreation concurrent singleton creation}, it
+	 * holds the creation lock for the given bean name instead, taking part in the
+	 * detection of threads waiting for each other: a thread that would deadlock
+	 * with another one, which waits for a singleton created within the given
+	 * callback, fails with a {@link BeanCurrentlyInCreationException} unless the
+	 * cycle can be broken through an early singleton reference.
+	 * @since 6.1
+	 * @see #lockSingletonCreation(String)
+	 */
+	@Override
+	public <T> T executeWithCreationLock(String beanName, Supplier<T> callback) {
+		if (!this.concurrentSingletonCreation) {
+			return SingletonBeanRegistry.super.executeWithCreationLock(beanName, callback);
+		}
+		lockSingletonCreation(beanName);
+		try {
+			return callback.get();
+		} finally {
+			unlockSingletonCreation(beanName);
+		}
+	}
+
+
+	/**
+	 * Creation lock for a singleton, exposing its owning thread
+	 * for the detection of threads waiting for each other.
+	 */
+	@SuppressWarnings("serial")
+	private static final class SingletonCreationLock extends ReentrantLock {
+
+		private final String beanName;
+
+		SingletonCreationLock(String beanName) {
+			this.beanName = beanName;
+		}
+
+		@Nullable
+		Thread getOwningThread() {
+			return getOwner();
+		}
+	}
+
+
+	/**
+	 * A thread's wait for a singleton creation lock.
+	 */
+	private static final class SingletonCreationWait {
+
+		private final SingletonCreationLock lock;
+
+		private final boolean allowEarlyReference;
+
+		/**
+		 * Set by another thread in a cycle with this one, for this thread to
+		 * break the cycle with an early reference. Guarded by the waits monitor.
+		 */
+		private boolean breakCycle;
+
+		SingletonCreationWait(SingletonCreationLock lock, boolean allowEarlyReference) {
+			this.lock = lock;
+			this.allowEarlyReference = allowEarlyReference;
+		}
+	}
+
 }
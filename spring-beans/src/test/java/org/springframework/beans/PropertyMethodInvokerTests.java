@@ -0,0 +1,169 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link PropertyMethodInvoker}.
+ */
+class PropertyMethodInvokerTests {
+
+	@Test
+	void switchesToGeneratedFunctions() throws Exception {
+		PropertyMethodInvoker reader = PropertyMethodInvoker.forReadMethod(TestBean.class.getMethod("getName"));
+		PropertyMethodInvoker writer = PropertyMethodInvoker.forWriteMethod(
+				TestBean.class.getMethod("setName", String.class));
+		TestBean bean = new TestBean();
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD * 2; i++) {
+			writer.invokeWriteMethod(bean, "name" + i);
+			assertThat(reader.invokeReadMethod(bean)).isEqualTo("name" + i);
+		}
+		assertThat(reader.isGenerated()).isTrue();
+		assertThat(writer.isGenerated()).isTrue();
+		writer.invokeWriteMethod(bean, null);
+		assertThat(reader.invokeReadMethod(bean)).isNull();
+	}
+
+	@Test
+	void primitiveProperty() throws Exception {
+		PropertyMethodInvoker reader = PropertyMethodInvoker.forReadMethod(TestBean.class.getMethod("getAge"));
+		PropertyMethodInvoker writer = PropertyMethodInvoker.forWriteMethod(
+				TestBean.class.getMethod("setAge", long.class));
+		TestBean bean = new TestBean();
+		generate(reader, writer, bean, 1L);
+
+		writer.invokeWriteMethod(bean, 42L);
+		assertThat(reader.invokeReadMethod(bean)).isEqualTo(42L);
+		// Widening conversion as with reflection
+		writer.invokeWriteMethod(bean, 7);
+		assertThat(reader.invokeReadMethod(bean)).isEqualTo(7L);
+		assertThatIllegalArgumentException().isThrownBy(() -> writer.invokeWriteMethod(bean, null));
+		assertThatIllegalArgumentException().isThrownBy(() -> writer.invokeWriteMethod(bean, "7"));
+	}
+
+	@Test
+	void exceptionsAreWrapped() throws Exception {
+		PropertyMethodInvoker reader = PropertyMethodInvoker.forReadMethod(TestBean.class.getMethod("getFailing"));
+		PropertyMethodInvoker writer = PropertyMethodInvoker.forWriteMethod(
+				TestBean.class.getMethod("setFailing", String.class));
+		TestBean bean = new TestBean();
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD * 2; i++) {
+			assertThatExceptionOfType(InvocationTargetException.class)
+					.isThrownBy(() -> reader.invokeReadMethod(bean))
+					.havingCause().isInstanceOf(IllegalStateException.class);
+			assertThatExceptionOfType(InvocationTargetException.class)
+					.isThrownBy(() -> writer.invokeWriteMethod(bean, "value"))
+					.havingCause().isInstanceOf(UnsupportedOperationException.class);
+		}
+		assertThat(reader.isGenerated()).isTrue();
+		assertThat(writer.isGenerated()).isTrue();
+	}
+
+	@Test
+	void nonPublicBeanClass() throws Exception {
+		PropertyMethodInvoker reader = PropertyMethodInvoker.forReadMethod(
+				HiddenBean.class.getDeclaredMethod("getValue"));
+		PropertyMethodInvoker writer = PropertyMethodInvoker.forWriteMethod(
+				HiddenBean.class.getDeclaredMethod("setValue", int.class));
+		HiddenBean bean = new HiddenBean();
+		generate(reader, writer, bean, 3);
+		assertThat(reader.isGenerated()).isTrue();
+		assertThat(writer.isGenerated()).isTrue();
+		assertThat(reader.invokeReadMethod(bean)).isEqualTo(3);
+	}
+
+	@Test
+	void beanWrapperWithGeneratedAccessors() {
+		TestBean bean = new TestBean();
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD * 2; i++) {
+			bw.setPropertyValue("age", String.valueOf(i));
+			assertThat(bw.getPropertyValue("age")).isEqualTo((long) i);
+		}
+		assertThatExceptionOfType(MethodInvocationException.class)
+				.isThrownBy(() -> bw.setPropertyValue("failing", "value"))
+				.withCauseInstanceOf(UnsupportedOperationException.class);
+		assertThatExceptionOfType(InvalidPropertyException.class)
+				.isThrownBy(() -> bw.getPropertyValue("failing"))
+				.withMessageContaining("Getter for property 'failing' threw exception");
+	}
+
+
+	private static void generate(PropertyMethodInvoker reader, PropertyMethodInvoker writer,
+			Object bean, Object value) throws Exception {
+
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD; i++) {
+			writer.invokeWriteMethod(bean, value);
+			reader.invokeReadMethod(bean);
+		}
+	}
+
+
+	@SuppressWarnings("unused")
+	public static class TestBean {
+
+		private String name;
+
+		private long age;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public long getAge() {
+			return this.age;
+		}
+
+		public void setAge(long age) {
+			this.age = age;
+		}
+
+		public String getFailing() {
+			throw new IllegalStateException();
+		}
+
+		public void setFailing(String value) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+
+	private static class HiddenBean {
+
+		private int value;
+
+		private int getValue() {
+			return this.value;
+		}
+
+		private void setValue(int value) {
+			this.value = value;
+		}
+	}
+
+}
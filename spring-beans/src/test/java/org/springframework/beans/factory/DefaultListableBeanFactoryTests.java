@@ -33,6 +33,11 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -141,6 +146,76 @@ class DefaultListableBeanFactoryTests {
 		assertThat(KnowsIfInstantiated.wasInstantiated()).as("singleton was instantiated").isTrue();
 	}
 
+	@Test
+	void parallelPreInstantiation() {
+		// Only completes if both beans are created concurrently
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class, () -> awaitAndCreate(barrier)));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class, () -> awaitAndCreate(barrier)));
+		RootBeanDefinition dependent = new RootBeanDefinition(TestBean.class);
+		dependent.getPropertyValues().add("spouse", new RuntimeBeanReference("tb1"));
+		lbf.registerBeanDefinition("dependent", dependent);
+		RootBeanDefinition lazy = new RootBeanDefinition(TestBean.class);
+		lazy.setLazyInit(true);
+		lbf.registerBeanDefinition("lazy", lazy);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(lbf.containsSingleton("tb1")).isTrue();
+		assertThat(lbf.containsSingleton("tb2")).isTrue();
+		assertThat(lbf.getBean("dependent", TestBean.class).getSpouse()).isSameAs(lbf.getBean("tb1"));
+		assertThat(lbf.containsSingleton("lazy")).isFalse();
+	}
+
+	@Test
+	void parallelPreInstantiationWithCircularReferenceAcrossThreads() {
+		// Both beans are instantiated before either of them gets its dependency injected
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(CircularBean1.class, () -> awaitAndCreate(barrier, CircularBean1::new));
+		bd1.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+		lbf.registerBeanDefinition("bean1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(CircularBean2.class, () -> awaitAndCreate(barrier, CircularBean2::new));
+		bd2.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+		lbf.registerBeanDefinition("bean2", bd2);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		CircularBean1 bean1 = lbf.getBean(CircularBean1.class);
+		CircularBean2 bean2 = lbf.getBean(CircularBean2.class);
+		assertThat(bean1.getBean2()).isSameAs(bean2);
+		assertThat(bean2.getBean1()).isSameAs(bean1);
+	}
+
+	@Test
+	void parallelPreInstantiationWithFailure() {
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition failing = new RootBeanDefinition(TestBean.class);
+		failing.getPropertyValues().add("spouse", new RuntimeBeanReference("missing"));
+		lbf.registerBeanDefinition("failing", failing);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			assertThatExceptionOfType(BeanCreationException.class).isThrownBy(lbf::preInstantiateSingletons)
+					.satisfies(ex -> assertThat(ex.getBeanName()).isEqualTo("failing"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	void factoryBeanDidNotCreatePrototype() {
 		Properties p = new Properties();
@@ -3122,6 +3197,49 @@ class DefaultListableBeanFactoryTests {
 
 
 	@SuppressWarnings("unused")
+	private static TestBean awaitAndCreate(CyclicBarrier barrier) {
+		return awaitAndCreate(barrier, TestBean::new);
+	}
+
+	private static <T> T awaitAndCreate(CyclicBarrier barrier, Supplier<T> supplier) {
+		try {
+			barrier.await(10, TimeUnit.SECONDS);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+		return supplier.get();
+	}
+
+
+	static class CircularBean1 {
+
+		private CircularBean2 bean2;
+
+		public CircularBean2 getBean2() {
+			return this.bean2;
+		}
+
+		public void setBean2(CircularBean2 bean2) {
+			this.bean2 = bean2;
+		}
+	}
+
+
+	static class CircularBean2 {
+
+		private CircularBean1 bean1;
+
+		public CircularBean1 getBean1() {
+			return this.bean1;
+		}
+
+		public void setBean1(CircularBean1 bean1) {
+			this.bean1 = bean1;
+		}
+	}
+
+
 	private static class KnowsIfInstantiated {
 
 		private static boolean instantiated;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,27 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.testfixture.beans.DerivedTestBean;
 import org.springframework.beans.testfixture.beans.TestBean;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * @author Juergen Hoeller
@@ -94,4 +109,230 @@ public class DefaultSingletonBeanRegistryTests {
 		assertThat(beanRegistry.isDependent("c", "c")).isTrue();
 	}
 
+	@Test
+	public void testConcurrentCreationOfIndependentSingletons() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		CountDownLatch tb2Created = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// Creating tb1 waits for tb2 to be created in another thread in the meantime
+			Object tb1 = beanRegistry.getSingleton("tb1", () -> {
+				executor.execute(() -> {
+					beanRegistry.getSingleton("tb2", TestBean::new);
+					tb2Created.countDown();
+				});
+				await(tb2Created);
+				return new TestBean();
+			});
+			assertThat(beanRegistry.getSingleton("tb1")).isSameAs(tb1);
+			assertThat(beanRegistry.getSingleton("tb2")).isInstanceOf(TestBean.class);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentCreationOfSameSingleton() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		AtomicInteger creations = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[8];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = CompletableFuture.supplyAsync(() -> beanRegistry.getSingleton("tb", () -> {
+					creations.incrementAndGet();
+					return new TestBean();
+				}), executor);
+			}
+			CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+			for (CompletableFuture<?> future : futures) {
+				assertThat(future.get()).isSameAs(beanRegistry.getSingleton("tb"));
+			}
+			assertThat(creations).hasValue(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCircularReferenceAcrossThreadsWithoutEarlyReference() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			CompletableFuture<Object> tb1 = CompletableFuture.supplyAsync(() -> beanRegistry.getSingleton("tb1", () -> {
+				await(barrier);
+				return beanRegistry.getSingleton("tb2", TestBean::new);
+			}), executor);
+			CompletableFuture<Object> tb2 = CompletableFuture.supplyAsync(() -> beanRegistry.getSingleton("tb2", () -> {
+				await(barrier);
+				return beanRegistry.getSingleton("tb1", TestBean::new);
+			}), executor);
+			CompletableFuture.allOf(tb1, tb2).handle((result, ex) -> null).get(10, TimeUnit.SECONDS);
+			assertThat(tb1.isCompletedExceptionally() || tb2.isCompletedExceptionally()).isTrue();
+			for (CompletableFuture<Object> future : List.of(tb1, tb2)) {
+				if (future.isCompletedExceptionally()) {
+					assertThatExceptionOfType(ExecutionException.class).isThrownBy(future::get)
+							.withCauseInstanceOf(BeanCurrentlyInCreationException.class);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCreationLockAcrossThreadsWithoutEarlyReference() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			CompletableFuture<Object> prototype = CompletableFuture.supplyAsync(() ->
+					beanRegistry.executeWithCreationLock("prototype", () -> {
+						await(barrier);
+						return beanRegistry.getSingleton("tb", TestBean::new);
+					}), executor);
+			CompletableFuture<Object> tb = CompletableFuture.supplyAsync(() -> beanRegistry.getSingleton("tb", () -> {
+				await(barrier);
+				return beanRegistry.executeWithCreationLock("prototype", TestBean::new);
+			}), executor);
+			CompletableFuture.allOf(prototype, tb).handle((result, ex) -> null).get(10, TimeUnit.SECONDS);
+			assertThat(prototype.isCompletedExceptionally() || tb.isCompletedExceptionally()).isTrue();
+			for (CompletableFuture<Object> future : List.of(prototype, tb)) {
+				if (future.isCompletedExceptionally()) {
+					assertThatExceptionOfType(ExecutionException.class).isThrownBy(future::get)
+							.withCauseInstanceOf(BeanCurrentlyInCreationException.class);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCreationLockAcrossThreadsWithEarlyReference() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setConcurrentSingletonCreation(true);
+		TestBean earlyTb = new TestBean();
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			CompletableFuture<Object> prototype = CompletableFuture.supplyAsync(() ->
+					beanRegistry.executeWithCreationLock("prototype", () -> {
+						await(barrier);
+						return beanRegistry.getSingleton("tb", TestBean::new);
+					}), executor);
+			CompletableFuture<Object> tb = CompletableFuture.supplyAsync(() -> beanRegistry.getSingleton("tb", () -> {
+				beanRegistry.addSingletonFactory("tb", () -> earlyTb);
+				await(barrier);
+				beanRegistry.executeWithCreationLock("prototype", TestBean::new);
+				return earlyTb;
+			}), executor);
+			assertThat(prototype.get(10, TimeUnit.SECONDS)).isSameAs(earlyTb);
+			assertThat(tb.get(10, TimeUnit.SECONDS)).isSameAs(earlyTb);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testSingletonMutexBlocksRegistration() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CompletableFuture<?> registration;
+			synchronized (beanRegistry.getSingletonMutex()) {
+				registration = CompletableFuture.runAsync(
+						() -> beanRegistry.registerSingleton("tb", new TestBean()), executor);
+				assertThatExceptionOfType(TimeoutException.class)
+						.isThrownBy(() -> registration.get(100, TimeUnit.MILLISECONDS));
+				assertThat(beanRegistry.containsSingleton("tb")).isFalse();
+			}
+			registration.get(10, TimeUnit.SECONDS);
+			assertThat(beanRegistry.containsSingleton("tb")).isTrue();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testFactoryBeanObjectWithConcurrentRemoval() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setConcurrentSingletonCreation(true);
+		beanFactory.registerSingleton("fb", new ProductFactoryBean());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[4];
+			for (int i = 0; i < futures.length - 1; i++) {
+				futures[i] = CompletableFuture.runAsync(() -> {
+					for (int j = 0; j < 1000; j++) {
+						try {
+							beanFactory.getBean("fb");
+						}
+						catch (NoSuchBeanDefinitionException ex) {
+							// removed in the meantime
+						}
+					}
+				}, executor);
+			}
+			futures[futures.length - 1] = CompletableFuture.runAsync(() -> {
+				for (int j = 0; j < 1000; j++) {
+					beanFactory.destroySingletons();
+					beanFactory.registerSingleton("fb", new ProductFactoryBean());
+				}
+			}, executor);
+			CompletableFuture.allOf(futures).get(30, TimeUnit.SECONDS);
+			Object product = beanFactory.getBean("fb");
+			assertThat(product).isSameAs(beanFactory.getBean("&fb", ProductFactoryBean.class).product);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await(10, TimeUnit.SECONDS);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	private static class ProductFactoryBean implements FactoryBean<Object> {
+
+		volatile Object product;
+
+		@Override
+		public Object getObject() {
+			this.product = new Object();
+			return this.product;
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return Object.class;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,9 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -73,6 +76,9 @@ import org.springframework.util.ClassUtils;
  * <p>This implementation is based on Spring's
  * {@link org.springframework.core.type.classreading.MetadataReader MetadataReader}
  * facility, backed by an ASM {@link org.springframework.asm.ClassReader ClassReader}.
+ * Class files may optionally be read and filtered in parallel through a
+ * {@linkplain #setScanningPool scanning pool}, while candidate components are
+ * still returned in the order of the scanned resources.
  *
  * @author Mark Fisher
  * @author Juergen Hoeller
@@ -114,6 +120,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	@Nullable
+	private ForkJoinPool scanningPool;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -163,6 +172,31 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.resourcePattern = resourcePattern;
 	}
 
+	/**
+	 * Set a {@link ForkJoinPool} to read and filter scanned class files with,
+	 * e.g. {@link ForkJoinPool#commonPool()}.
+	 * <p>Default is none, reading class files one after the other on the calling
+	 * thread. If a pool is specified, the configured {@link TypeFilter TypeFilters},
+	 * the {@code isCandidateComponent} methods and the {@link MetadataReaderFactory}
+	 * are invoked concurrently and need to be thread-safe; this is the case for
+	 * the default filters and the default {@link CachingMetadataReaderFactory}.
+	 * The returned candidate components are in the same order either way.
+	 * @since 6.1
+	 * @see #findCandidateComponents(String)
+	 */
+	public void setScanningPool(@Nullable ForkJoinPool scanningPool) {
+		this.scanningPool = scanningPool;
+	}
+
+	/**
+	 * Return the {@link ForkJoinPool} to read and filter scanned class files with, if any.
+	 * @since 6.1
+	 */
+	@Nullable
+	public ForkJoinPool getScanningPool() {
+		return this.scanningPool;
+	}
+
 	/**
 	 * Add an include type filter to the <i>end</i> of the inclusion list.
 	 */
@@ -477,61 +511,119 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
-				String filename = resource.getFilename();
-				if (filename != null && filename.contains(ClassUtils.CGLIB_CLASS_SEPARATOR)) {
-					// Ignore CGLIB-generated classes in the classpath
-					continue;
+			ForkJoinPool scanningPool = this.scanningPool;
+			if (scanningPool != null && resources.length > 1) {
+				//并行读取和过滤class文件，按资源顺序收集结果
+				scanCandidateComponentsInParallel(resources, scanningPool, candidates, traceEnabled, debugEnabled);
+			}
+			else {
+				for (Resource resource : resources) {
+					ScannedGenericBeanDefinition candidate = scanCandidateComponent(resource, traceEnabled, debugEnabled);
+					if (candidate != null) {
+						//加入到集合中
+						candidates.add(candidate);
+					}
 				}
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
+			}
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		}
+		return candidates;
+	}
+
+	private void scanCandidateComponentsInParallel(Resource[] resources, ForkJoinPool scanningPool,
+			Set<BeanDefinition> candidates, boolean traceEnabled, boolean debugEnabled) {
+
+		// Initialize shared state up front rather than lazily from concurrent tasks
+		getMetadataReaderFactory();
+		getConditionEvaluator();
+		List<ForkJoinTask<ScannedGenericBeanDefinition>> tasks = new ArrayList<>(resources.length);
+		for (Resource resource : resources) {
+			tasks.add(scanningPool.submit(() -> scanCandidateComponent(resource, traceEnabled, debugEnabled)));
+		}
+		try {
+			// Join in resource order, keeping candidates and the reported failure deterministic
+			for (ForkJoinTask<ScannedGenericBeanDefinition> task : tasks) {
+				ScannedGenericBeanDefinition candidate = task.get();
+				if (candidate != null) {
+					candidates.add(candidate);
 				}
-				try {
-					//通过ASM获取class元数据，并封装在MetadataReader元数据读取器中
-					MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-					//判断该类是否符合@CompoentScan的过滤规则
-					//过滤匹配排除excludeFilters排除过滤器(可以没有),包含includeFilter中的包含过滤器（至少包含一个）。
-					if (isCandidateComponent(metadataReader)) {
-						//把元数据转化为 BeanDefinition
-						ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-						sbd.setSource(resource);
-						//判断是否是合格的bean定义
-						if (isCandidateComponent(sbd)) {
-							if (debugEnabled) {
-								logger.debug("Identified candidate component class: " + resource);
-							}
-							//加入到集合中
-							candidates.add(sbd);
-						}
-						else {
-							//不合格 不是顶级类、具体类
-							if (debugEnabled) {
-								logger.debug("Ignored because not a concrete top-level class: " + resource);
-							}
-						}
-					}
-					else {
-						//不符@CompoentScan过滤规则
-						if (traceEnabled) {
-							logger.trace("Ignored because not matching any filter: " + resource);
-						}
+			}
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new BeanDefinitionStoreException("Failure during parallel classpath scanning", cause);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanDefinitionStoreException("Interrupted during parallel classpath scanning", ex);
+		}
+		finally {
+			for (ForkJoinTask<ScannedGenericBeanDefinition> task : tasks) {
+				task.cancel(false);
+			}
+		}
+	}
+
+	@Nullable
+	private ScannedGenericBeanDefinition scanCandidateComponent(
+			Resource resource, boolean traceEnabled, boolean debugEnabled) {
+
+		String filename = resource.getFilename();
+		if (filename != null && filename.contains(ClassUtils.CGLIB_CLASS_SEPARATOR)) {
+			// Ignore CGLIB-generated classes in the classpath
+			return null;
+		}
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+		try {
+			//通过ASM获取class元数据，并封装在MetadataReader元数据读取器中
+			MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+			//判断该类是否符合@CompoentScan的过滤规则
+			//过滤匹配排除excludeFilters排除过滤器(可以没有),包含includeFilter中的包含过滤器（至少包含一个）。
+			if (isCandidateComponent(metadataReader)) {
+				//把元数据转化为 BeanDefinition
+				ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+				sbd.setSource(resource);
+				//判断是否是合格的bean定义
+				if (isCandidateComponent(sbd)) {
+					if (debugEnabled) {
+						logger.debug("Identified candidate component class: " + resource);
 					}
+					return sbd;
 				}
-				catch (FileNotFoundException ex) {
-					if (traceEnabled) {
-						logger.trace("Ignored non-readable " + resource + ": " + ex.getMessage());
+				else {
+					//不合格 不是顶级类、具体类
+					if (debugEnabled) {
+						logger.debug("Ignored because not a concrete top-level class: " + resource);
 					}
 				}
-				catch (Throwable ex) {
-					throw new BeanDefinitionStoreException(
-							"Failed to read candidate component class: " + resource, ex);
+			}
+			else {
+				//不符@CompoentScan过滤规则
+				if (traceEnabled) {
+					logger.trace("Ignored because not matching any filter: " + resource);
 				}
 			}
 		}
-		catch (IOException ex) {
-			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		catch (FileNotFoundException ex) {
+			if (traceEnabled) {
+				logger.trace("Ignored non-readable " + resource + ": " + ex.getMessage());
+			}
 		}
-		return candidates;
+		catch (Throwable ex) {
+			throw new BeanDefinitionStoreException(
+					"Failed to read candidate component class: " + resource, ex);
+		}
+		return null;
 	}
 
 
@@ -578,11 +670,16 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * @return whether the class qualifies as a candidate component
 	 */
 	private boolean isConditionMatch(MetadataReader metadataReader) {
-		if (this.conditionEvaluator == null) {
-			this.conditionEvaluator =
-					new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
+		return !getConditionEvaluator().shouldSkip(metadataReader.getAnnotationMetadata());
+	}
+
+	private ConditionEvaluator getConditionEvaluator() {
+		ConditionEvaluator conditionEvaluator = this.conditionEvaluator;
+		if (conditionEvaluator == null) {
+			conditionEvaluator = new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
+			this.conditionEvaluator = conditionEvaluator;
 		}
-		return !this.conditionEvaluator.shouldSkip(metadataReader.getAnnotationMetadata());
+		return conditionEvaluator;
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -50,6 +51,7 @@ import example.scannable.sub.BarComponent;
 import org.aspectj.lang.annotation.Aspect;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.testfixture.index.CandidateComponentsTestClassLoader;
 import org.springframework.core.env.ConfigurableEnvironment;
@@ -65,6 +67,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * Integration tests for {@link ClassPathScanningCandidateComponentProvider}.
@@ -101,6 +104,67 @@ class ClassPathScanningCandidateComponentProviderTests {
 		testDefault(provider, "example", true, true);
 	}
 
+	@Test
+	void defaultsWithParallelScan() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			provider.setScanningPool(pool);
+			testDefault(provider, true, false);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void parallelScanKeepsCandidateOrder() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		List<String> expected = getBeanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE));
+		assertThat(expected).isNotEmpty();
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			provider.setScanningPool(pool);
+			for (int i = 0; i < 10; i++) {
+				provider.clearCache();
+				assertThat(getBeanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE)))
+						.containsExactlyElementsOf(expected);
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void parallelScanPropagatesFilterFailure() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		provider.addIncludeFilter((metadataReader, metadataReaderFactory) -> {
+			if (metadataReader.getClassMetadata().getClassName().equals(FooServiceImpl.class.getName())) {
+				throw new IllegalStateException("Filter failure");
+			}
+			return false;
+		});
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			provider.setScanningPool(pool);
+			assertThatExceptionOfType(BeanDefinitionStoreException.class)
+					.isThrownBy(() -> provider.findCandidateComponents(TEST_BASE_PACKAGE))
+					.withMessageContaining(FooServiceImpl.class.getSimpleName())
+					.withRootCauseInstanceOf(IllegalStateException.class);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
 	private static final Set<Class<?>> springComponents = Set.of(
 			DefaultNamedComponent.class,
 			NamedComponent.class,
@@ -540,6 +604,10 @@ class ClassPathScanningCandidateComponentProviderTests {
 		assertThat(actualTypeNames).containsExactlyElementsOf(expectedTypeNames);
 	}
 
+	private static List<String> getBeanClassNames(Set<BeanDefinition> candidates) {
+		return candidates.stream().map(BeanDefinition::getBeanClassName).toList();
+	}
+
 	private static void assertScannedBeanDefinitions(Set<BeanDefinition> candidates) {
 		candidates.forEach(type -> assertThat(type).isInstanceOf(ScannedGenericBeanDefinition.class));
 	}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher}, matching paths the way
+ * {@code DefaultSubscriptionRegistry} matches message destinations against
+ * subscriptions and {@code ResourceHttpRequestHandler} matches resource paths.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@Benchmark
+	public void match(BenchmarkData data, Blackhole bh) {
+		for (String[] patternAndPath : data.matches) {
+			bh.consume(data.pathMatcher.match(patternAndPath[0], patternAndPath[1]));
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		/*
+		 * "destinations": static subscription patterns and per-session dynamic ones
+		 * "resources": resource location patterns against versioned resource paths
+		 * "dynamicPatterns": mostly static patterns, after more distinct patterns than the cache holds
+		 */
+		@Param({"destinations", "resources", "dynamicPatterns"})
+		public String workload;
+
+		public AntPathMatcher pathMatcher;
+
+		public List<String[]> matches;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.pathMatcher = new AntPathMatcher();
+			Random random = new Random(42);
+			this.matches = new ArrayList<>();
+			switch (this.workload) {
+				case "destinations" -> {
+					String[] patterns = {"/topic/PRICE.STOCK.*", "/topic/**", "/topic/*/news", "/queue/errors"};
+					for (int i = 0; i < 1000; i++) {
+						String destination = "/topic/PRICE.STOCK." + random.nextInt(100);
+						this.matches.add(new String[] {patterns[i % patterns.length], destination});
+						this.matches.add(new String[] {"/user/session" + random.nextInt(5000) + "/queue/*", destination});
+					}
+				}
+				case "resources" -> {
+					String[] patterns = {"/resources/**", "/static/**/*.css", "/webjars/**", "/**/*.js", "/*.ico"};
+					String[] paths = {"/resources/css/main-%d.css", "/static/css/theme/app-%d.css",
+							"/webjars/jquery/%d/jquery.min.js", "/js/app-%d.js", "/favicon.ico"};
+					for (int i = 0; i < 1000; i++) {
+						int index = random.nextInt(patterns.length);
+						this.matches.add(new String[] {patterns[index], String.format(paths[index], random.nextInt(1000))});
+					}
+				}
+				case "dynamicPatterns" -> {
+					// A long-running application that has seen many distinct patterns
+					for (int i = 0; i < 100000; i++) {
+						this.pathMatcher.match("/topic/chat" + i + "/*", "/topic/chat1/message");
+					}
+					for (int i = 0; i < 1000; i++) {
+						String pattern = (i % 10 == 0 ? "/topic/chat" + random.nextInt(1000000) + "/*" :
+								"/topic/{room}/message");
+						this.matches.add(new String[] {pattern, "/topic/chat" + random.nextInt(100) + "/message"});
+					}
+				}
+				default -> throw new IllegalStateException("Unknown workload: " + this.workload);
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.function.Function;
@@ -57,6 +58,17 @@ public class ConcurrentLruCacheBenchmark {
 		@Param({"0.1"})
 		public float cacheMissRate;
 
+		@Param({"ALWAYS", "FREQUENCY"})
+		public ConcurrentLruCache.AdmissionPolicy admissionPolicy;
+
+		/*
+		 * "uniform": all elements requested once, slightly more than the capacity
+		 * "zipfian": elements requested following a Zipf distribution over 10 times the capacity
+		 * "scan": a hot set of half the capacity, interleaved with a scan of one-off elements
+		 */
+		@Param({"uniform", "zipfian", "scan"})
+		public String workload;
+
 		public List<String> elements;
 
 		public Function<String, String> generator;
@@ -64,13 +76,40 @@ public class ConcurrentLruCacheBenchmark {
 		@Setup(Level.Iteration)
 		public void setup() {
 			this.generator = key -> key + "value";
-			this.lruCache = new ConcurrentLruCache<>(this.capacity, this.generator);
+			this.lruCache = new ConcurrentLruCache<>(this.capacity, this.generator, this.admissionPolicy);
 			Assert.isTrue(this.cacheMissRate < 1, "cache miss rate should be < 1");
 			Random random = new Random();
-			int elementsCount = Math.round(this.capacity * (1 + this.cacheMissRate));
-			this.elements = new ArrayList<>(elementsCount);
-			random.ints(elementsCount).forEach(value -> this.elements.add(String.valueOf(value)));
-			this.elements.sort(String::compareTo);
+			switch (this.workload) {
+				case "uniform" -> {
+					int elementsCount = Math.round(this.capacity * (1 + this.cacheMissRate));
+					this.elements = new ArrayList<>(elementsCount);
+					random.ints(elementsCount).forEach(value -> this.elements.add(String.valueOf(value)));
+					this.elements.sort(String::compareTo);
+				}
+				case "zipfian" -> {
+					int keyCount = this.capacity * 10;
+					double[] cumulative = new double[keyCount];
+					double sum = 0;
+					for (int i = 0; i < keyCount; i++) {
+						sum += 1.0 / (i + 1);
+						cumulative[i] = sum;
+					}
+					this.elements = new ArrayList<>(keyCount);
+					for (int i = 0; i < keyCount; i++) {
+						int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+						this.elements.add("key" + (index >= 0 ? index : -index - 1));
+					}
+				}
+				case "scan" -> {
+					int hotCount = Math.max(1, this.capacity / 2);
+					int elementsCount = this.capacity * 10;
+					this.elements = new ArrayList<>(elementsCount);
+					for (int i = 0; i < elementsCount; i++) {
+						this.elements.add(i % 2 == 0 ? "hot" + random.nextInt(hotCount) : "scan" + random.nextLong());
+					}
+				}
+				default -> throw new IllegalStateException("Unknown workload: " + this.workload);
+			}
 		}
 	}
 }
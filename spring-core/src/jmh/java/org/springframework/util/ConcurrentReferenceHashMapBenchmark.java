@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link ConcurrentReferenceHashMap} under a mixed read/write load,
+ * with a {@link ConcurrentHashMap} as a baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(4)
+public class ConcurrentReferenceHashMapBenchmark {
+
+	@Benchmark
+	public void mixedReadWrite(BenchmarkData data, Blackhole bh) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String key = data.keys[random.nextInt(data.keys.length)];
+		if (random.nextInt(100) < data.writePercentage) {
+			bh.consume(data.map.put(key, data.value));
+		}
+		else {
+			bh.consume(data.map.get(key));
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"soft", "weak", "concurrentHashMap"})
+		public String mapType;
+
+		@Param({"1", "10"})
+		public int writePercentage;
+
+		@Param({"1000"})
+		public int size;
+
+		public Map<String, Object> map;
+
+		public String[] keys;
+
+		public Object value = new Object();
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			this.map = switch (this.mapType) {
+				case "soft" -> new ConcurrentReferenceHashMap<>();
+				case "weak" -> new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+				case "concurrentHashMap" -> new ConcurrentHashMap<>();
+				default -> throw new IllegalStateException("Unknown map type: " + this.mapType);
+			};
+			this.keys = new String[this.size];
+			for (int i = 0; i < this.size; i++) {
+				this.keys[i] = "key" + i;
+				this.map.put(this.keys[i], this.value);
+			}
+		}
+	}
+
+}
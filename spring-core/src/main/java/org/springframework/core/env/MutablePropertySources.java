@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,6 +43,8 @@ public class MutablePropertySources implements PropertySources {
 
 	private final List<PropertySource<?>> propertySourceList = new CopyOnWriteArrayList<>();
 
+	private volatile long modificationCount;
+
 
 	/**
 	 * Create a new {@link MutablePropertySources} object.
@@ -106,6 +108,7 @@ public class MutablePropertySources implements PropertySources {
 		synchronized (this.propertySourceList) {
 			removeIfPresent(propertySource);
 			this.propertySourceList.add(0, propertySource);
+			this.modificationCount++;
 		}
 	}
 
@@ -116,6 +119,7 @@ public class MutablePropertySources implements PropertySources {
 		synchronized (this.propertySourceList) {
 			removeIfPresent(propertySource);
 			this.propertySourceList.add(propertySource);
+			this.modificationCount++;
 		}
 	}
 
@@ -129,6 +133,7 @@ public class MutablePropertySources implements PropertySources {
 			removeIfPresent(propertySource);
 			int index = assertPresentAndGetIndex(relativePropertySourceName);
 			addAtIndex(index, propertySource);
+			this.modificationCount++;
 		}
 	}
 
@@ -142,6 +147,7 @@ public class MutablePropertySources implements PropertySources {
 			removeIfPresent(propertySource);
 			int index = assertPresentAndGetIndex(relativePropertySourceName);
 			addAtIndex(index + 1, propertySource);
+			this.modificationCount++;
 		}
 	}
 
@@ -160,7 +166,11 @@ public class MutablePropertySources implements PropertySources {
 	public PropertySource<?> remove(String name) {
 		synchronized (this.propertySourceList) {
 			int index = this.propertySourceList.indexOf(PropertySource.named(name));
-			return (index != -1 ? this.propertySourceList.remove(index) : null);
+			if (index == -1) {
+				return null;
+			}
+			this.modificationCount++;
+			return this.propertySourceList.remove(index);
 		}
 	}
 
@@ -175,6 +185,7 @@ public class MutablePropertySources implements PropertySources {
 		synchronized (this.propertySourceList) {
 			int index = assertPresentAndGetIndex(name);
 			this.propertySourceList.set(index, propertySource);
+			this.modificationCount++;
 		}
 	}
 
@@ -185,6 +196,31 @@ public class MutablePropertySources implements PropertySources {
 		return this.propertySourceList.size();
 	}
 
+	/**
+	 * Signal that the content of a contained property source has changed,
+	 * e.g. after putting an entry into the backing map of a {@link MapPropertySource}.
+	 * <p>Adding, removing and replacing property sources are tracked implicitly;
+	 * this method is only needed for changes within a mutable property source,
+	 * so that resolvers caching their lookups pick up the new content.
+	 * @since 6.1
+	 * @see #getModificationCount()
+	 * @see PropertySourcesPropertyResolver#setCacheProperties
+	 */
+	public void markModified() {
+		synchronized (this.propertySourceList) {
+			this.modificationCount++;
+		}
+	}
+
+	/**
+	 * Return a counter that changes whenever a property source is added, removed
+	 * or replaced, or a change is signalled through {@link #markModified()}.
+	 * @since 6.1
+	 */
+	public long getModificationCount() {
+		return this.modificationCount;
+	}
+
 	@Override
 	public String toString() {
 		return this.propertySourceList.toString();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.core.env;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.lang.Nullable;
 
 /**
@@ -26,6 +29,10 @@ import org.springframework.lang.Nullable;
  * 它将PropertySources（类型为PropertySource）属性源集合作为属性来源，通过顺序遍历每一个PropertySource属性源，
  * 返回第一个找到（不为null）的属性key对应的属性value
  *
+ * <p>Lookups can optionally be cached per property name through
+ * {@link #setCacheProperties}, for environments with many property sources
+ * and frequent repeated lookups of the same properties.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -35,9 +42,17 @@ import org.springframework.lang.Nullable;
  */
 public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
+	private static final int CACHE_LIMIT = 4096;
+
+
 	@Nullable
 	private final PropertySources propertySources;
 
+	private volatile boolean cacheProperties;
+
+	@Nullable
+	private volatile PropertyCache propertyCache;
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -48,6 +63,64 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Specify whether to cache the outcome of property lookups, including the
+	 * result of resolving nested placeholders in found values.
+	 * <p>The cache is invalidated whenever a property source is added to, removed
+	 * from or replaced in the underlying {@link MutablePropertySources}. Changes
+	 * within a property source, e.g. to the backing map of a {@link MapPropertySource}
+	 * or to system properties, need to be signalled through
+	 * {@link MutablePropertySources#markModified()} or {@link #clearCache()}.
+	 * <p>Default is {@code false}, searching all property sources on each lookup.
+	 * @since 6.1
+	 */
+	public void setCacheProperties(boolean cacheProperties) {
+		this.cacheProperties = cacheProperties;
+		this.propertyCache = null;
+	}
+
+	/**
+	 * Return whether the outcome of property lookups is cached.
+	 * @since 6.1
+	 */
+	public boolean isCacheProperties() {
+		return this.cacheProperties;
+	}
+
+	/**
+	 * Remove all cached property lookups, if any.
+	 * @since 6.1
+	 * @see #setCacheProperties
+	 */
+	public void clearCache() {
+		this.propertyCache = null;
+	}
+
+	@Override
+	public void setPlaceholderPrefix(String placeholderPrefix) {
+		super.setPlaceholderPrefix(placeholderPrefix);
+		clearCache();
+	}
+
+	@Override
+	public void setPlaceholderSuffix(String placeholderSuffix) {
+		super.setPlaceholderSuffix(placeholderSuffix);
+		clearCache();
+	}
+
+	@Override
+	public void setValueSeparator(@Nullable String valueSeparator) {
+		super.setValueSeparator(valueSeparator);
+		clearCache();
+	}
+
+	@Override
+	public void setIgnoreUnresolvableNestedPlaceholders(boolean ignoreUnresolvableNestedPlaceholders) {
+		super.setIgnoreUnresolvableNestedPlaceholders(ignoreUnresolvableNestedPlaceholders);
+		clearCache();
+	}
+
+
 	@Override
 	public boolean containsProperty(String key) {
 		if (this.propertySources != null) {
@@ -99,6 +172,9 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	 */
 	@Nullable
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+		if (this.cacheProperties && this.propertySources != null) {
+			return getCachedProperty(key, targetValueType, resolveNestedPlaceholders);
+		}
 		//如果属性源不为null，在调用getEnvironment方法获取环境对象的时候propertySources就被初始化了，肯定是不为null的
 		//并且还通过customizePropertySources方法被设置了系统(systemEnvironment)和JVM(systemProperties)属性源
 		if (this.propertySources != null) {
@@ -133,6 +209,63 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	@Nullable
+	private <T> T getCachedProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+		CachedProperty cachedProperty = obtainCachedProperty(key);
+		PropertySource<?> propertySource = cachedProperty.propertySource;
+		if (propertySource == null) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Could not find key '" + key + "' in any property source");
+			}
+			return null;
+		}
+		Object value = cachedProperty.value;
+		if (resolveNestedPlaceholders && value instanceof String rawValue) {
+			String resolvedValue = cachedProperty.resolvedValue;
+			if (resolvedValue == null) {
+				resolvedValue = resolveNestedPlaceholders(rawValue);
+				cachedProperty.resolvedValue = resolvedValue;
+			}
+			value = resolvedValue;
+		}
+		logKeyFound(key, propertySource, value);
+		return convertValueIfNecessary(value, targetValueType);
+	}
+
+	private CachedProperty obtainCachedProperty(String key) {
+		long modificationCount = (this.propertySources instanceof MutablePropertySources mutablePropertySources ?
+				mutablePropertySources.getModificationCount() : 0);
+		PropertyCache cache = this.propertyCache;
+		if (cache == null || cache.modificationCount != modificationCount) {
+			cache = new PropertyCache(modificationCount);
+			this.propertyCache = cache;
+		}
+		CachedProperty cachedProperty = cache.properties.get(key);
+		if (cachedProperty == null) {
+			cachedProperty = findProperty(key);
+			if (cache.properties.size() < CACHE_LIMIT) {
+				cache.properties.put(key, cachedProperty);
+			}
+		}
+		return cachedProperty;
+	}
+
+	private CachedProperty findProperty(String key) {
+		if (this.propertySources != null) {
+			for (PropertySource<?> propertySource : this.propertySources) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Searching for key '" + key + "' in PropertySource '" +
+							propertySource.getName() + "'");
+				}
+				Object value = propertySource.getProperty(key);
+				if (value != null) {
+					return new CachedProperty(propertySource, value);
+				}
+			}
+		}
+		return CachedProperty.NOT_FOUND;
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -152,4 +285,44 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		}
 	}
 
+
+	/**
+	 * Cached lookups for a given state of the underlying property sources.
+	 */
+	private static final class PropertyCache {
+
+		final long modificationCount;
+
+		final Map<String, CachedProperty> properties = new ConcurrentHashMap<>();
+
+		PropertyCache(long modificationCount) {
+			this.modificationCount = modificationCount;
+		}
+	}
+
+
+	/**
+	 * The outcome of looking up a property: the property source it has been
+	 * found in along with its raw value, and its value with resolved nested
+	 * placeholders once requested.
+	 */
+	private static final class CachedProperty {
+
+		static final CachedProperty NOT_FOUND = new CachedProperty(null, null);
+
+		@Nullable
+		final PropertySource<?> propertySource;
+
+		@Nullable
+		final Object value;
+
+		@Nullable
+		volatile String resolvedValue;
+
+		CachedProperty(@Nullable PropertySource<?> propertySource, @Nullable Object value) {
+			this.propertySource = propertySource;
+			this.value = value;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,12 @@ import org.springframework.lang.Nullable;
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>This factory may be used concurrently, e.g. for parallel classpath scanning:
+ * class files are parsed outside of any cache lock, with the cache being locked
+ * only briefly for lookups and registrations in case of a local resource cache.
+ * Concurrent parsing of the same resource may happen but will be resolved to
+ * the first registered {@link MetadataReader} instance.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -42,7 +48,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 	/** MetadataReader cache: either local or shared at the ResourceLoader level. */
 	@Nullable
-	private Map<Resource, MetadataReader> metadataReaderCache;
+	private volatile Map<Resource, MetadataReader> metadataReaderCache;
 
 
 	/**
@@ -115,45 +121,72 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
-		if (this.metadataReaderCache instanceof ConcurrentMap) {
+		Map<Resource, MetadataReader> cache = this.metadataReaderCache;
+		if (cache instanceof ConcurrentMap<Resource, MetadataReader> concurrentCache) {
 			// No synchronization necessary...
 			//获取字典中的元数据阅读器
-			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
+			MetadataReader metadataReader = concurrentCache.get(resource);
 			//如果不存在
 			if (metadataReader == null) {
 				//创建一个新的元数据阅读器
-				metadataReader = super.getMetadataReader(resource);
-				//将元数据阅读器放入字典中
-				this.metadataReaderCache.put(resource, metadataReader);
+				metadataReader = createMetadataReader(resource);
+				//将元数据阅读器放入字典中，并发解析时以先放入的为准
+				MetadataReader existing = concurrentCache.putIfAbsent(resource, metadataReader);
+				if (existing != null) {
+					metadataReader = existing;
+				}
 			}
 			return metadataReader;
 		}
-		else if (this.metadataReaderCache != null) {
-			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
+		else if (cache != null) {
+			MetadataReader metadataReader;
+			synchronized (cache) {
+				metadataReader = cache.get(resource);
+			}
+			if (metadataReader == null) {
+				// Parse outside of the lock in order to not serialize concurrent readers
+				metadataReader = createMetadataReader(resource);
+				synchronized (cache) {
+					MetadataReader existing = cache.putIfAbsent(resource, metadataReader);
+					if (existing != null) {
+						metadataReader = existing;
+					}
 				}
-				return metadataReader;
 			}
+			return metadataReader;
 		}
 		else {
-			return super.getMetadataReader(resource);
+			return createMetadataReader(resource);
 		}
 	}
 
+	/**
+	 * Create a new {@link MetadataReader} for the given resource, to be cached
+	 * by this factory.
+	 * <p>The default implementation reads the class file through
+	 * {@link SimpleMetadataReaderFactory#getMetadataReader(Resource)}.
+	 * May be invoked concurrently, also for the same resource.
+	 * @param resource the resource (pointing to a ".class" file)
+	 * @return the MetadataReader instance
+	 * @throws IOException in case of I/O failure
+	 * @since 6.1
+	 */
+	protected MetadataReader createMetadataReader(Resource resource) throws IOException {
+		return super.getMetadataReader(resource);
+	}
+
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
 	 * 清楚缓存
 	 */
 	public void clearCache() {
-		if (this.metadataReaderCache instanceof LocalResourceCache) {
-			synchronized (this.metadataReaderCache) {
-				this.metadataReaderCache.clear();
+		Map<Resource, MetadataReader> cache = this.metadataReaderCache;
+		if (cache instanceof LocalResourceCache) {
+			synchronized (cache) {
+				cache.clear();
 			}
 		}
-		else if (this.metadataReaderCache != null) {
+		else if (cache != null) {
 			// Shared resource cache -> reset to local cache.
 			setCacheLimit(DEFAULT_CACHE_LIMIT);
 		}
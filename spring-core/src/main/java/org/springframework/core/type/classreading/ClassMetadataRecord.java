@@ -0,0 +1,594 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.asm.Type;
+import org.springframework.lang.Nullable;
+
+/**
+ * Compact binary record of the ASM visitor events that
+ * {@link SimpleAnnotationMetadataReadingVisitor} builds its metadata from,
+ * allowing for class metadata to be stored and restored without the
+ * original class file.
+ *
+ * <p>A record only captures the structure of a class file: its type hierarchy,
+ * enclosing and member classes, declared methods, and visible annotations with
+ * their raw attribute values. Annotation types and enum values are resolved
+ * when a record is {@linkplain #replay replayed}, exactly as when reading the
+ * class file itself.
+ *
+ * @since 6.1
+ * @see PersistentMetadataReaderFactory
+ */
+final class ClassMetadataRecord {
+
+	private static final byte CLASS = 1;
+
+	private static final byte OUTER_CLASS = 2;
+
+	private static final byte INNER_CLASS = 3;
+
+	private static final byte ANNOTATION = 4;
+
+	private static final byte METHOD = 5;
+
+	private static final byte VALUE = 6;
+
+	private static final byte ENUM = 7;
+
+	private static final byte ARRAY = 8;
+
+	private static final byte END = 9;
+
+
+	private ClassMetadataRecord() {
+	}
+
+
+	/**
+	 * Record the metadata-relevant visitor events of the given class file.
+	 * @param classReader the reader for the class file
+	 * @return the binary record
+	 */
+	static byte[] record(ClassReader classReader) {
+		RecordOutput output = new RecordOutput();
+		classReader.accept(new RecordingClassVisitor(output), SimpleMetadataReader.PARSING_OPTIONS);
+		return output.toByteArray();
+	}
+
+	/**
+	 * Replay the given record, building the class metadata in the same way
+	 * as when reading the original class file.
+	 * @param record the binary record, as returned by {@link #record}
+	 * @param classLoader the ClassLoader to resolve annotation and enum types with
+	 * @return the class metadata
+	 * @throws IllegalStateException if the record is malformed
+	 */
+	static SimpleAnnotationMetadata replay(ByteBuffer record, @Nullable ClassLoader classLoader) {
+		RecordInput input = new RecordInput(record);
+		SimpleAnnotationMetadataReadingVisitor visitor = new SimpleAnnotationMetadataReadingVisitor(classLoader);
+		expect(input.readByte(), CLASS);
+		int access = input.readVarInt();
+		String name = input.readRequiredString();
+		String superName = input.readString();
+		String[] interfaces = new String[input.readVarInt()];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaces[i] = input.readRequiredString();
+		}
+		visitor.visit(Opcodes.V17, access, name, null, superName, interfaces);
+		byte event;
+		while ((event = input.readByte()) != END) {
+			switch (event) {
+				case OUTER_CLASS -> visitor.visitOuterClass(input.readRequiredString(), null, null);
+				case INNER_CLASS -> visitor.visitInnerClass(
+						input.readRequiredString(), input.readString(), null, input.readVarInt());
+				case ANNOTATION -> replayAnnotation(input, visitor.visitAnnotation(input.readRequiredString(), true));
+				case METHOD -> replayMethod(input, visitor.visitMethod(
+						input.readVarInt(), input.readRequiredString(), input.readRequiredString(), null, null));
+				default -> throw new IllegalStateException("Unexpected class record event " + event);
+			}
+		}
+		visitor.visitEnd();
+		return visitor.getMetadata();
+	}
+
+	private static void replayMethod(RecordInput input, @Nullable MethodVisitor visitor) {
+		byte event;
+		while ((event = input.readByte()) != END) {
+			expect(event, ANNOTATION);
+			String descriptor = input.readRequiredString();
+			replayAnnotation(input, (visitor != null ? visitor.visitAnnotation(descriptor, true) : null));
+		}
+		if (visitor != null) {
+			visitor.visitEnd();
+		}
+	}
+
+	private static void replayAnnotation(RecordInput input, @Nullable AnnotationVisitor visitor) {
+		byte event;
+		while ((event = input.readByte()) != END) {
+			String name = input.readString();
+			switch (event) {
+				case VALUE -> {
+					Object value = input.readValue();
+					if (visitor != null) {
+						visitor.visit(name, value);
+					}
+				}
+				case ENUM -> {
+					String descriptor = input.readRequiredString();
+					String value = input.readRequiredString();
+					if (visitor != null) {
+						visitor.visitEnum(name, descriptor, value);
+					}
+				}
+				case ANNOTATION -> {
+					String descriptor = input.readRequiredString();
+					replayAnnotation(input, (visitor != null ? visitor.visitAnnotation(name, descriptor) : null));
+				}
+				case ARRAY -> replayAnnotation(input, (visitor != null ? visitor.visitArray(name) : null));
+				default -> throw new IllegalStateException("Unexpected annotation record event " + event);
+			}
+		}
+		if (visitor != null) {
+			visitor.visitEnd();
+		}
+	}
+
+	private static void expect(byte actual, byte expected) {
+		if (actual != expected) {
+			throw new IllegalStateException("Unexpected record event " + actual + " instead of " + expected);
+		}
+	}
+
+
+	/**
+	 * {@link ClassVisitor} that records the events relevant to
+	 * {@link SimpleAnnotationMetadataReadingVisitor}.
+	 */
+	private static final class RecordingClassVisitor extends ClassVisitor {
+
+		private final RecordOutput output;
+
+		RecordingClassVisitor(RecordOutput output) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.output = output;
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature,
+				@Nullable String supername, String[] interfaces) {
+
+			this.output.writeByte(CLASS);
+			this.output.writeVarInt(access);
+			this.output.writeString(name);
+			this.output.writeString(supername);
+			this.output.writeVarInt(interfaces.length);
+			for (String element : interfaces) {
+				this.output.writeString(element);
+			}
+		}
+
+		@Override
+		public void visitOuterClass(String owner, String name, String descriptor) {
+			this.output.writeByte(OUTER_CLASS);
+			this.output.writeString(owner);
+		}
+
+		@Override
+		public void visitInnerClass(String name, @Nullable String outerName, String innerName, int access) {
+			if (outerName != null) {
+				this.output.writeByte(INNER_CLASS);
+				this.output.writeString(name);
+				this.output.writeString(outerName);
+				this.output.writeVarInt(access);
+			}
+		}
+
+		@Override
+		@Nullable
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			if (!visible) {
+				return null;
+			}
+			this.output.writeByte(ANNOTATION);
+			this.output.writeString(descriptor);
+			return new RecordingAnnotationVisitor(this.output);
+		}
+
+		@Override
+		@Nullable
+		public MethodVisitor visitMethod(
+				int access, String name, String descriptor, String signature, String[] exceptions) {
+
+			// Same methods as considered by SimpleAnnotationMetadataReadingVisitor
+			if ((access & Opcodes.ACC_BRIDGE) != 0 || name.equals("<init>")) {
+				return null;
+			}
+			this.output.writeByte(METHOD);
+			this.output.writeVarInt(access);
+			this.output.writeString(name);
+			this.output.writeString(descriptor);
+			return new RecordingMethodVisitor(this.output);
+		}
+
+		@Override
+		public void visitEnd() {
+			this.output.writeByte(END);
+		}
+	}
+
+
+	/**
+	 * {@link MethodVisitor} that records visible method annotations.
+	 */
+	private static final class RecordingMethodVisitor extends MethodVisitor {
+
+		private final RecordOutput output;
+
+		RecordingMethodVisitor(RecordOutput output) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.output = output;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			if (!visible) {
+				return null;
+			}
+			this.output.writeByte(ANNOTATION);
+			this.output.writeString(descriptor);
+			return new RecordingAnnotationVisitor(this.output);
+		}
+
+		@Override
+		public void visitEnd() {
+			this.output.writeByte(END);
+		}
+	}
+
+
+	/**
+	 * {@link AnnotationVisitor} that records raw annotation attribute values.
+	 */
+	private static final class RecordingAnnotationVisitor extends AnnotationVisitor {
+
+		private final RecordOutput output;
+
+		RecordingAnnotationVisitor(RecordOutput output) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.output = output;
+		}
+
+		@Override
+		public void visit(String name, Object value) {
+			this.output.writeByte(VALUE);
+			this.output.writeString(name);
+			this.output.writeValue(value);
+		}
+
+		@Override
+		public void visitEnum(String name, String descriptor, String value) {
+			this.output.writeByte(ENUM);
+			this.output.writeString(name);
+			this.output.writeString(descriptor);
+			this.output.writeString(value);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+			this.output.writeByte(ANNOTATION);
+			this.output.writeString(name);
+			this.output.writeString(descriptor);
+			return new RecordingAnnotationVisitor(this.output);
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(String name) {
+			this.output.writeByte(ARRAY);
+			this.output.writeString(name);
+			return new RecordingAnnotationVisitor(this.output);
+		}
+
+		@Override
+		public void visitEnd() {
+			this.output.writeByte(END);
+		}
+	}
+
+
+	/**
+	 * Output for records, using variable-length integers and length-prefixed
+	 * UTF-8 strings.
+	 */
+	private static final class RecordOutput extends ByteArrayOutputStream {
+
+		RecordOutput() {
+			super(256);
+		}
+
+		void writeByte(int value) {
+			write(value);
+		}
+
+		void writeVarInt(int value) {
+			while ((value & ~0x7F) != 0) {
+				write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			write(value);
+		}
+
+		void writeLong(long value) {
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				write((int) (value >>> shift));
+			}
+		}
+
+		void writeString(@Nullable String value) {
+			if (value == null) {
+				writeVarInt(0);
+				return;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length + 1);
+			write(bytes, 0, bytes.length);
+		}
+
+		void writeValue(Object value) {
+			if (value instanceof String string) {
+				writeByte('s');
+				writeString(string);
+			}
+			else if (value instanceof Type type) {
+				writeByte('c');
+				writeString(type.getDescriptor());
+			}
+			else if (value instanceof Boolean bool) {
+				writeByte('Z');
+				writeByte(bool ? 1 : 0);
+			}
+			else if (value instanceof Byte number) {
+				writeByte('B');
+				writeByte(number);
+			}
+			else if (value instanceof Character character) {
+				writeByte('C');
+				writeVarInt(character);
+			}
+			else if (value instanceof Short number) {
+				writeByte('S');
+				writeVarInt(number);
+			}
+			else if (value instanceof Integer number) {
+				writeByte('I');
+				writeVarInt(number);
+			}
+			else if (value instanceof Long number) {
+				writeByte('J');
+				writeLong(number);
+			}
+			else if (value instanceof Float number) {
+				writeByte('F');
+				writeVarInt(Float.floatToRawIntBits(number));
+			}
+			else if (value instanceof Double number) {
+				writeByte('D');
+				writeLong(Double.doubleToRawLongBits(number));
+			}
+			else if (value instanceof boolean[] array) {
+				writeArrayHeader('Z', array.length);
+				for (boolean element : array) {
+					writeByte(element ? 1 : 0);
+				}
+			}
+			else if (value instanceof byte[] array) {
+				writeArrayHeader('B', array.length);
+				write(array, 0, array.length);
+			}
+			else if (value instanceof char[] array) {
+				writeArrayHeader('C', array.length);
+				for (char element : array) {
+					writeVarInt(element);
+				}
+			}
+			else if (value instanceof short[] array) {
+				writeArrayHeader('S', array.length);
+				for (short element : array) {
+					writeVarInt(element);
+				}
+			}
+			else if (value instanceof int[] array) {
+				writeArrayHeader('I', array.length);
+				for (int element : array) {
+					writeVarInt(element);
+				}
+			}
+			else if (value instanceof long[] array) {
+				writeArrayHeader('J', array.length);
+				for (long element : array) {
+					writeLong(element);
+				}
+			}
+			else if (value instanceof float[] array) {
+				writeArrayHeader('F', array.length);
+				for (float element : array) {
+					writeVarInt(Float.floatToRawIntBits(element));
+				}
+			}
+			else if (value instanceof double[] array) {
+				writeArrayHeader('D', array.length);
+				for (double element : array) {
+					writeLong(Double.doubleToRawLongBits(element));
+				}
+			}
+			else {
+				throw new IllegalArgumentException("Unsupported annotation attribute value: " + value);
+			}
+		}
+
+		private void writeArrayHeader(char componentType, int length) {
+			writeByte('[');
+			writeByte(componentType);
+			writeVarInt(length);
+		}
+	}
+
+
+	/**
+	 * Input for records, reading from a (possibly memory-mapped) buffer.
+	 */
+	private static final class RecordInput {
+
+		private final ByteBuffer buffer;
+
+		RecordInput(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		byte readByte() {
+			return this.buffer.get();
+		}
+
+		int readVarInt() {
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				byte b = this.buffer.get();
+				value |= (b & 0x7F) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+			throw new IllegalStateException("Malformed variable-length integer");
+		}
+
+		long readLong() {
+			return this.buffer.getLong();
+		}
+
+		@Nullable
+		String readString() {
+			int length = readVarInt() - 1;
+			if (length < 0) {
+				return null;
+			}
+			byte[] bytes = new byte[length];
+			this.buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		String readRequiredString() {
+			String value = readString();
+			if (value == null) {
+				throw new IllegalStateException("Unexpected null string in record");
+			}
+			return value;
+		}
+
+		Object readValue() {
+			byte type = readByte();
+			return switch (type) {
+				case 's' -> readRequiredString();
+				case 'c' -> Type.getType(readRequiredString());
+				case 'Z' -> readByte() != 0;
+				case 'B' -> readByte();
+				case 'C' -> (char) readVarInt();
+				case 'S' -> (short) readVarInt();
+				case 'I' -> readVarInt();
+				case 'J' -> readLong();
+				case 'F' -> Float.intBitsToFloat(readVarInt());
+				case 'D' -> Double.longBitsToDouble(readLong());
+				case '[' -> readArray();
+				default -> throw new IllegalStateException("Unexpected value type " + type);
+			};
+		}
+
+		private Object readArray() {
+			byte componentType = readByte();
+			int length = readVarInt();
+			switch (componentType) {
+				case 'Z' -> {
+					boolean[] array = new boolean[length];
+					for (int i = 0; i < length; i++) {
+						array[i] = (readByte() != 0);
+					}
+					return array;
+				}
+				case 'B' -> {
+					byte[] array = new byte[length];
+					this.buffer.get(array);
+					return array;
+				}
+				case 'C' -> {
+					char[] array = new char[length];
+					for (int i = 0; i < length; i++) {
+						array[i] = (char) readVarInt();
+					}
+					return array;
+				}
+				case 'S' -> {
+					short[] array = new short[length];
+					for (int i = 0; i < length; i++) {
+						array[i] = (short) readVarInt();
+					}
+					return array;
+				}
+				case 'I' -> {
+					int[] array = new int[length];
+					for (int i = 0; i < length; i++) {
+						array[i] = readVarInt();
+					}
+					return array;
+				}
+				case 'J' -> {
+					long[] array = new long[length];
+					for (int i = 0; i < length; i++) {
+						array[i] = readLong();
+					}
+					return array;
+				}
+				case 'F' -> {
+					float[] array = new float[length];
+					for (int i = 0; i < length; i++) {
+						array[i] = Float.intBitsToFloat(readVarInt());
+					}
+					return array;
+				}
+				case 'D' -> {
+					double[] array = new double[length];
+					for (int i = 0; i < length; i++) {
+						array[i] = Double.longBitsToDouble(readLong());
+					}
+					return array;
+				}
+				default -> throw new IllegalStateException("Unexpected array component type " + componentType);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Extension of {@link CachingMetadataReaderFactory} that additionally keeps the
+ * class metadata it reads in a cache file, so that class files do not have to
+ * be read and parsed again on the next start of the application as long as they
+ * have not changed.
+ *
+ * <p>The cache file is memory-mapped when this factory is created, and stores a
+ * compact binary record of the class structure per class file: its type hierarchy,
+ * declared methods, and annotations with their raw attribute values. Annotation
+ * and enum types are still resolved against the current class loader when
+ * metadata is restored, exactly as when reading the class file.
+ *
+ * <p>Each record is keyed by the URL of its class file and is only used while
+ * the size and last-modified timestamp of its origin still match: the jar file
+ * for class files in a jar (checked once per jar file), or else the class file
+ * itself. Class files from any other kind of resource are read as usual and not
+ * kept in the cache file.
+ *
+ * <p>Newly read class metadata is written to the cache file on {@link #save()},
+ * e.g. once the application has started. The cache file is replaced atomically
+ * where supported, so that it may be shared between applications; the last one
+ * to save wins.
+ *
+ * <p>This factory complements a {@code CandidateComponentsIndex}: whereas an
+ * index avoids scanning for components, this factory speeds up reading the
+ * metadata of any class, e.g. for configuration class processing. It can be
+ * set on {@code ConfigurationClassPostProcessor} and component scanners through
+ * their {@code setMetadataReaderFactory} methods.
+ *
+ * @since 6.1
+ */
+public class PersistentMetadataReaderFactory extends CachingMetadataReaderFactory {
+
+	private static final int MAGIC = 0x534D5243;
+
+	private static final int VERSION = 1;
+
+	private static final Log logger = LogFactory.getLog(PersistentMetadataReaderFactory.class);
+
+
+	private final Path cacheFile;
+
+	/** Memory-mapped records of the cache file, if any. */
+	@Nullable
+	private final ByteBuffer storedBuffer;
+
+	/** Records in the cache file that are not known to be stale, by class file URL. */
+	private final Map<String, StoredRecord> storedRecords = new ConcurrentHashMap<>();
+
+	/** Records of class files read by this factory, by class file URL. */
+	private final Map<String, NewRecord> newRecords = new ConcurrentHashMap<>();
+
+	/** Stamps of the jar files that records originate from, by jar file path. */
+	private final Map<String, Stamp> archiveStamps = new ConcurrentHashMap<>();
+
+	private volatile boolean modified;
+
+
+	/**
+	 * Create a new PersistentMetadataReaderFactory for the default class loader.
+	 * @param cacheFile the file to keep class metadata in, loaded if it exists
+	 */
+	public PersistentMetadataReaderFactory(Path cacheFile) {
+		super();
+		this.cacheFile = cacheFile;
+		this.storedBuffer = load();
+	}
+
+	/**
+	 * Create a new PersistentMetadataReaderFactory for the given {@link ClassLoader}.
+	 * @param classLoader the ClassLoader to use
+	 * @param cacheFile the file to keep class metadata in, loaded if it exists
+	 */
+	public PersistentMetadataReaderFactory(@Nullable ClassLoader classLoader, Path cacheFile) {
+		super(classLoader);
+		this.cacheFile = cacheFile;
+		this.storedBuffer = load();
+	}
+
+	/**
+	 * Create a new PersistentMetadataReaderFactory for the given {@link ResourceLoader},
+	 * using a shared resource cache if supported or a local resource cache otherwise.
+	 * @param resourceLoader the Spring ResourceLoader to use
+	 * (also determines the ClassLoader to use)
+	 * @param cacheFile the file to keep class metadata in, loaded if it exists
+	 */
+	public PersistentMetadataReaderFactory(@Nullable ResourceLoader resourceLoader, Path cacheFile) {
+		super(resourceLoader);
+		this.cacheFile = cacheFile;
+		this.storedBuffer = load();
+	}
+
+
+	/**
+	 * Return the file that class metadata is kept in.
+	 */
+	public final Path getCacheFile() {
+		return this.cacheFile;
+	}
+
+	@Override
+	protected MetadataReader createMetadataReader(Resource resource) throws IOException {
+		URL url;
+		try {
+			url = resource.getURL();
+		}
+		catch (IOException ex) {
+			// Not resolvable as URL, e.g. an in-memory resource
+			return super.createMetadataReader(resource);
+		}
+		Stamp stamp = getStamp(url);
+		if (stamp == null) {
+			return super.createMetadataReader(resource);
+		}
+		ClassLoader classLoader = getResourceLoader().getClassLoader();
+		String key = url.toString();
+		StoredRecord stored = this.storedRecords.get(key);
+		if (stored != null && this.storedBuffer != null) {
+			if (stored.stamp().equals(stamp)) {
+				try {
+					ByteBuffer record = this.storedBuffer.slice(stored.offset(), stored.size());
+					return new SimpleMetadataReader(resource, ClassMetadataRecord.replay(record, classLoader));
+				}
+				catch (RuntimeException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Ignoring unreadable cached metadata for " + resource, ex);
+					}
+				}
+			}
+			this.storedRecords.remove(key);
+			this.modified = true;
+		}
+		NewRecord newRecord = this.newRecords.get(key);
+		if (newRecord == null || !newRecord.stamp().equals(stamp)) {
+			byte[] record = ClassMetadataRecord.record(SimpleMetadataReader.getClassReader(resource));
+			newRecord = new NewRecord(stamp, record);
+			this.newRecords.put(key, newRecord);
+			this.modified = true;
+		}
+		// Always build metadata from the record, just like for cached metadata
+		return new SimpleMetadataReader(resource,
+				ClassMetadataRecord.replay(ByteBuffer.wrap(newRecord.record()), classLoader));
+	}
+
+	/**
+	 * Write the metadata of all class files read by this factory to the cache file,
+	 * along with the metadata from the previous cache file that is still up to date.
+	 * <p>Does nothing if the cache file is up to date already.
+	 * @throws IOException in case of I/O failure
+	 */
+	public void save() throws IOException {
+		for (Map.Entry<String, StoredRecord> entry : this.storedRecords.entrySet()) {
+			String key = entry.getKey();
+			if (!this.newRecords.containsKey(key) && !entry.getValue().stamp().equals(getStamp(key))) {
+				this.storedRecords.remove(key);
+				this.modified = true;
+			}
+		}
+		if (!this.modified) {
+			return;
+		}
+		this.modified = false;
+
+		Map<String, NewRecord> records = new LinkedHashMap<>(this.newRecords);
+		ByteBuffer storedBuffer = this.storedBuffer;
+		if (storedBuffer != null) {
+			this.storedRecords.forEach((key, stored) -> {
+				if (!records.containsKey(key)) {
+					byte[] record = new byte[stored.size()];
+					storedBuffer.get(stored.offset(), record);
+					records.put(key, new NewRecord(stored.stamp(), record));
+				}
+			});
+		}
+		Path targetFile = this.cacheFile.toAbsolutePath();
+		Path directory = targetFile.getParent();
+		if (directory != null) {
+			Files.createDirectories(directory);
+		}
+		Path tempFile = Files.createTempFile(directory, targetFile.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(records.size());
+				for (Map.Entry<String, NewRecord> entry : records.entrySet()) {
+					byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+					NewRecord record = entry.getValue();
+					out.writeInt(key.length);
+					out.write(key);
+					out.writeLong(record.stamp().length());
+					out.writeLong(record.stamp().lastModified());
+					out.writeInt(record.record().length);
+					out.write(record.record());
+				}
+			}
+			try {
+				Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			this.modified = true;
+			Files.deleteIfExists(tempFile);
+			throw ex;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Saved metadata of " + records.size() + " classes to " + targetFile);
+		}
+	}
+
+	@Override
+	public void clearCache() {
+		super.clearCache();
+		this.archiveStamps.clear();
+	}
+
+
+	/**
+	 * Memory-map the cache file, if any, and index its records.
+	 */
+	@Nullable
+	private ByteBuffer load() {
+		Assert.notNull(this.cacheFile, "Cache file must not be null");
+		if (!Files.isRegularFile(this.cacheFile)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(this.cacheFile, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				logger.debug("Ignoring cache file in unsupported format: " + this.cacheFile);
+				return null;
+			}
+			int count = buffer.getInt();
+			Map<String, StoredRecord> records = new LinkedHashMap<>(count * 2);
+			for (int i = 0; i < count; i++) {
+				byte[] key = new byte[buffer.getInt()];
+				buffer.get(key);
+				Stamp stamp = new Stamp(buffer.getLong(), buffer.getLong());
+				int size = buffer.getInt();
+				records.put(new String(key, StandardCharsets.UTF_8), new StoredRecord(stamp, buffer.position(), size));
+				buffer.position(buffer.position() + size);
+			}
+			this.storedRecords.putAll(records);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded metadata of " + count + " classes from " + this.cacheFile);
+			}
+			return buffer;
+		}
+		catch (IOException | BufferUnderflowException | IllegalArgumentException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring unreadable cache file: " + this.cacheFile, ex);
+			}
+			return null;
+		}
+	}
+
+	@Nullable
+	private Stamp getStamp(String url) {
+		try {
+			return getStamp(ResourceUtils.toURL(url));
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Determine the stamp of the origin of the given class file URL, if supported.
+	 */
+	@Nullable
+	private Stamp getStamp(URL url) {
+		try {
+			if (ResourceUtils.isJarURL(url)) {
+				URL jarFileUrl = ResourceUtils.extractJarFileURL(url);
+				if (!ResourceUtils.isFileURL(jarFileUrl)) {
+					return null;
+				}
+				File jarFile = ResourceUtils.getFile(jarFileUrl);
+				return this.archiveStamps.computeIfAbsent(jarFile.getPath(), path -> Stamp.of(jarFile));
+			}
+			if (ResourceUtils.isFileURL(url)) {
+				return Stamp.of(ResourceUtils.getFile(url));
+			}
+		}
+		catch (IOException ex) {
+			// Fall through
+		}
+		return null;
+	}
+
+
+	/**
+	 * Size and last-modified timestamp of the file that a record originates from.
+	 */
+	private record Stamp(long length, long lastModified) {
+
+		@Nullable
+		static Stamp of(File file) {
+			return (file.isFile() ? new Stamp(file.length(), file.lastModified()) : null);
+		}
+	}
+
+
+	/**
+	 * Record in the memory-mapped cache file.
+	 */
+	private record StoredRecord(Stamp stamp, int offset, int size) {
+	}
+
+
+	/**
+	 * Record of a class file read by this factory.
+	 */
+	private record NewRecord(Stamp stamp, byte[] record) {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,7 +35,7 @@ import org.springframework.lang.Nullable;
  */
 final class SimpleMetadataReader implements MetadataReader {
 
-	private static final int PARSING_OPTIONS = ClassReader.SKIP_DEBUG
+	static final int PARSING_OPTIONS = ClassReader.SKIP_DEBUG
 			| ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES;
 
 	private final Resource resource;
@@ -50,7 +50,12 @@ final class SimpleMetadataReader implements MetadataReader {
 		this.annotationMetadata = visitor.getMetadata();
 	}
 
-	private static ClassReader getClassReader(Resource resource) throws IOException {
+	SimpleMetadataReader(Resource resource, AnnotationMetadata annotationMetadata) {
+		this.resource = resource;
+		this.annotationMetadata = annotationMetadata;
+	}
+
+	static ClassReader getClassReader(Resource resource) throws IOException {
 		try (InputStream is = resource.getInputStream()) {
 			try {
 				// 这个Reader的构造器中就将流读取完毕了
@@ -18,10 +18,13 @@ package org.springframework.util;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -76,7 +79,7 @@ public class AntPathMatcher implements PathMatcher {
 	/** Default path separator: "/". */
 	public static final String DEFAULT_PATH_SEPARATOR = "/";
 
-	private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+	private static final int CACHE_LIMIT = 65536;
 
 	private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{[^/]+?\\}");
 
@@ -94,9 +97,11 @@ public class AntPathMatcher implements PathMatcher {
 	@Nullable
 	private volatile Boolean cachePatterns;
 
-	private final Map<String, String[]> tokenizedPatternCache = new ConcurrentHashMap<>(256);
+	private volatile PatternCache<String[]> tokenizedPatternCache =
+			new PatternCache<>(CACHE_LIMIT, this::tokenizePath);
 
-	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
+	volatile PatternCache<AntPathStringMatcher> stringMatcherCache =
+			new PatternCache<>(CACHE_LIMIT, this::createStringMatcher);
 
 
 	/**
@@ -150,21 +155,19 @@ public class AntPathMatcher implements PathMatcher {
 	 * into this matcher's {@link #match} method. A value of {@code true}
 	 * activates an unlimited pattern cache; a value of {@code false} turns
 	 * the pattern cache off completely.
-	 * <p>Default is for the cache to be on, but with the variant to automatically
-	 * turn it off when encountering too many patterns to cache at runtime
-	 * (the threshold is 65536), assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>Default is for the cache to be on but bounded to 65536 patterns,
+	 * evicting patterns that have not been used recently when encountering
+	 * too many patterns at runtime, so that recurring patterns remain cached
+	 * even if arbitrary permutations of patterns are coming in.
 	 * @since 4.0.1
 	 * @see #getStringMatcher(String)
 	 */
 	public void setCachePatterns(boolean cachePatterns) {
 		this.cachePatterns = cachePatterns;
-	}
-
-	private void deactivatePatternCache() {
-		this.cachePatterns = false;
-		this.tokenizedPatternCache.clear();
-		this.stringMatcherCache.clear();
+		if (cachePatterns) {
+			this.tokenizedPatternCache = new PatternCache<>(Integer.MAX_VALUE, this::tokenizePath);
+			this.stringMatcherCache = new PatternCache<>(Integer.MAX_VALUE, this::createStringMatcher);
+		}
 	}
 
 
@@ -400,25 +403,11 @@ public class AntPathMatcher implements PathMatcher {
 	 * @return the tokenized pattern parts
 	 */
 	protected String[] tokenizePattern(String pattern) {
-		String[] tokenized = null;
 		Boolean cachePatterns = this.cachePatterns;
 		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			tokenized = this.tokenizedPatternCache.get(pattern);
-		}
-		if (tokenized == null) {
-			tokenized = tokenizePath(pattern);
-			if (cachePatterns == null && this.tokenizedPatternCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return tokenized;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.tokenizedPatternCache.put(pattern, tokenized);
-			}
+			return this.tokenizedPatternCache.get(pattern);
 		}
-		return tokenized;
+		return tokenizePath(pattern);
 	}
 
 	/**
@@ -447,34 +436,21 @@ public class AntPathMatcher implements PathMatcher {
 	 * <p>The default implementation checks this AntPathMatcher's internal cache
 	 * (see {@link #setCachePatterns}), creating a new AntPathStringMatcher instance
 	 * if no cached copy is found.
-	 * <p>When encountering too many patterns to cache at runtime (the threshold is 65536),
-	 * it turns the default cache off, assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
 	 * <p>This method may be overridden to implement a custom cache strategy.
 	 * @param pattern the pattern to match against (never {@code null})
 	 * @return a corresponding AntPathStringMatcher (never {@code null})
 	 * @see #setCachePatterns
 	 */
 	protected AntPathStringMatcher getStringMatcher(String pattern) {
-		AntPathStringMatcher matcher = null;
 		Boolean cachePatterns = this.cachePatterns;
 		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			matcher = this.stringMatcherCache.get(pattern);
-		}
-		if (matcher == null) {
-			matcher = new AntPathStringMatcher(pattern, this.caseSensitive);
-			if (cachePatterns == null && this.stringMatcherCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return matcher;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.stringMatcherCache.put(pattern, matcher);
-			}
+			return this.stringMatcherCache.get(pattern);
 		}
-		return matcher;
+		return createStringMatcher(pattern);
+	}
+
+	private AntPathStringMatcher createStringMatcher(String pattern) {
+		return new AntPathStringMatcher(pattern, this.caseSensitive);
 	}
 
 	/**
@@ -643,6 +619,7 @@ public class AntPathMatcher implements PathMatcher {
 	 * Tests whether a string matches against a pattern via a {@link Pattern}.
 	 * <p>The pattern may contain special characters: '*' means zero or more characters; '?' means one and
 	 * only one character; '{' and '}' indicate a URI template pattern. For example {@code /users/{user}}.
+	 * <p>Patterns with '*' as their only special character are matched without a regular expression.
 	 */
 	protected static class AntPathStringMatcher {
 
@@ -659,6 +636,9 @@ public class AntPathMatcher implements PathMatcher {
 		@Nullable
 		private final Pattern pattern;
 
+		@Nullable
+		private final String[] wildcardParts;
+
 		private final List<String> variableNames = new ArrayList<>();
 
 		public AntPathStringMatcher(String pattern) {
@@ -671,11 +651,13 @@ public class AntPathMatcher implements PathMatcher {
 			StringBuilder patternBuilder = new StringBuilder();
 			Matcher matcher = GLOB_PATTERN.matcher(pattern);
 			int end = 0;
+			boolean wildcardsOnly = true;
 			while (matcher.find()) {
 				patternBuilder.append(quote(pattern, end, matcher.start()));
 				String match = matcher.group();
 				if ("?".equals(match)) {
 					patternBuilder.append('.');
+					wildcardsOnly = false;
 				}
 				else if ("*".equals(match)) {
 					patternBuilder.append(".*");
@@ -694,6 +676,7 @@ public class AntPathMatcher implements PathMatcher {
 						String variableName = match.substring(1, colonIdx);
 						this.variableNames.add(variableName);
 					}
+					wildcardsOnly = false;
 				}
 				end = matcher.end();
 			}
@@ -701,12 +684,20 @@ public class AntPathMatcher implements PathMatcher {
 			if (end == 0) {
 				this.exactMatch = true;
 				this.pattern = null;
+				this.wildcardParts = null;
+			}
+			// Only '*' wildcards, match the literal parts in between
+			else if (wildcardsOnly) {
+				this.exactMatch = false;
+				this.pattern = null;
+				this.wildcardParts = StringUtils.delimitedListToStringArray(pattern, "*");
 			}
 			else {
 				this.exactMatch = false;
 				patternBuilder.append(quote(pattern, end, pattern.length()));
 				this.pattern = Pattern.compile(patternBuilder.toString(),
 						Pattern.DOTALL | (this.caseSensitive ? 0 : Pattern.CASE_INSENSITIVE));
+				this.wildcardParts = null;
 			}
 		}
 
@@ -725,6 +716,9 @@ public class AntPathMatcher implements PathMatcher {
 			if (this.exactMatch) {
 				return this.caseSensitive ? this.rawPattern.equals(str) : this.rawPattern.equalsIgnoreCase(str);
 			}
+			else if (this.wildcardParts != null) {
+				return matchWildcardParts(str, this.wildcardParts);
+			}
 			else if (this.pattern != null) {
 				Matcher matcher = this.pattern.matcher(str);
 				if (matcher.matches()) {
@@ -751,6 +745,30 @@ public class AntPathMatcher implements PathMatcher {
 			return false;
 		}
 
+		private boolean matchWildcardParts(String str, String[] parts) {
+			String first = parts[0];
+			String last = parts[parts.length - 1];
+			int endIndex = str.length() - last.length();
+			if (endIndex < first.length() ||
+					!str.regionMatches(!this.caseSensitive, 0, first, 0, first.length()) ||
+					!str.regionMatches(!this.caseSensitive, endIndex, last, 0, last.length())) {
+				return false;
+			}
+			int index = first.length();
+			for (int i = 1; i < parts.length - 1; i++) {
+				String part = parts[i];
+				while (index + part.length() <= endIndex &&
+						!str.regionMatches(!this.caseSensitive, index, part, 0, part.length())) {
+					index++;
+				}
+				if (index + part.length() > endIndex) {
+					return false;
+				}
+				index += part.length();
+			}
+			return true;
+		}
+
 	}
 
 
@@ -944,6 +962,88 @@ public class AntPathMatcher implements PathMatcher {
 	}
 
 
+	/**
+	 * A bounded cache for parsed patterns: lookups are plain reads that mark the
+	 * entry as used, while exceeding the limit evicts a quarter of the entries,
+	 * giving entries that were used since the previous eviction a second chance.
+	 */
+	static final class PatternCache<T> {
+
+		private final int limit;
+
+		private final Function<String, T> generator;
+
+		private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>(256);
+
+		private final ReentrantLock evictionLock = new ReentrantLock();
+
+		PatternCache(int limit, Function<String, T> generator) {
+			this.limit = limit;
+			this.generator = generator;
+		}
+
+		T get(String pattern) {
+			Entry<T> entry = this.entries.get(pattern);
+			if (entry != null) {
+				if (!entry.used) {
+					entry.used = true;
+				}
+				return entry.value;
+			}
+			T value = this.generator.apply(pattern);
+			this.entries.putIfAbsent(pattern, new Entry<>(value));
+			if (this.entries.size() > this.limit) {
+				evict();
+			}
+			return value;
+		}
+
+		private void evict() {
+			// Only one thread evicts, others keep going
+			if (!this.evictionLock.tryLock()) {
+				return;
+			}
+			try {
+				int target = this.limit - this.limit / 4;
+				for (int pass = 0; pass < 2 && this.entries.size() > target; pass++) {
+					Iterator<Entry<T>> iterator = this.entries.values().iterator();
+					while (iterator.hasNext() && this.entries.size() > target) {
+						Entry<T> entry = iterator.next();
+						if (entry.used) {
+							entry.used = false;
+						}
+						else {
+							iterator.remove();
+						}
+					}
+				}
+			}
+			finally {
+				this.evictionLock.unlock();
+			}
+		}
+
+		boolean contains(String pattern) {
+			return this.entries.containsKey(pattern);
+		}
+
+		int size() {
+			return this.entries.size();
+		}
+
+		private static final class Entry<T> {
+
+			final T value;
+
+			volatile boolean used;
+
+			Entry(T value) {
+				this.value = value;
+			}
+		}
+	}
+
+
 	/**
 	 * A simple cache for patterns that depend on the configured path separator.
 	 */
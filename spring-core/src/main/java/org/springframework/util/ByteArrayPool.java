@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+/**
+ * Contract for a pool of byte arrays used as temporary buffers, e.g. for
+ * reading or writing the content of a stream, in order to avoid allocating
+ * a new array for every such operation.
+ *
+ * <p>A buffer obtained through {@link #acquire} is exclusively owned by the
+ * caller until it is handed back through {@link #release}, after which it
+ * must not be used anymore. Buffers must not be released more than once,
+ * and must not escape to code that may retain them.
+ *
+ * @since 6.1
+ * @see ThreadLocalByteArrayPool
+ * @see StreamUtils#copyToByteArray(java.io.InputStream, ByteArrayPool)
+ */
+public interface ByteArrayPool {
+
+	/**
+	 * Obtain a buffer with at least the given capacity, either from the pool
+	 * or newly allocated. The content of the buffer is undefined.
+	 * @param minCapacity the minimum length of the buffer
+	 * @return the buffer, possibly larger than requested
+	 */
+	byte[] acquire(int minCapacity);
+
+	/**
+	 * Hand the given buffer back to the pool, or leave it to the garbage
+	 * collector if the pool does not retain it.
+	 * @param buffer a buffer previously obtained through {@link #acquire}
+	 */
+	void release(byte[] buffer);
+
+
+	/**
+	 * Return a {@code ByteArrayPool} that does not retain any buffers,
+	 * simply allocating a new byte array for every {@link #acquire} call.
+	 */
+	static ByteArrayPool unpooled() {
+		return UnpooledByteArrayPool.INSTANCE;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
@@ -37,6 +38,10 @@ import org.springframework.lang.Nullable;
  * <a href="https://github.com/ben-manes/concurrentlinkedhashmap">ConcurrentLinkedHashMap</a>.
  * <p>Read and write operations are internally recorded in dedicated buffers,
  * then drained at chosen times to avoid contention.
+ * <p>With {@link AdmissionPolicy#FREQUENCY frequency-based admission}, new entries
+ * only displace existing ones if they were requested more often, following the
+ * W-TinyLFU policy of <a href="https://github.com/ben-manes/caffeine">Caffeine</a>:
+ * this keeps frequently used entries in the cache across scans of one-off keys.
  *
  * @author Brian Clozel
  * @author Ben Manes
@@ -63,13 +68,19 @@ public final class ConcurrentLruCache<K, V> {
 	private final Lock evictionLock = new ReentrantLock();
 
 	/*
-	 * Queue that contains all ACTIVE cache entries, ordered with least recently used entries first.
-	 * Read and write operations are buffered and periodically processed to reorder the queue.
+	 * Policy that orders all ACTIVE cache entries for eviction.
+	 * Read and write operations are buffered and periodically processed to reorder the entries.
 	 */
-	private final EvictionQueue<K, V> evictionQueue = new EvictionQueue<>();
+	private final EvictionPolicy<K, V> evictionPolicy;
 
 	private final AtomicReference<DrainStatus> drainStatus = new AtomicReference<>(DrainStatus.IDLE);
 
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
 	/**
 	 * Create a new cache instance with the given capacity and generator function.
 	 * @param capacity the maximum number of entries in the cache
@@ -77,15 +88,32 @@ public final class ConcurrentLruCache<K, V> {
 	 * @param generator a function to generate a new value for a given key
 	 */
 	public ConcurrentLruCache(int capacity, Function<K, V> generator) {
-		this(capacity, generator, 16);
+		this(capacity, generator, AdmissionPolicy.ALWAYS);
+	}
+
+	/**
+	 * Create a new cache instance with the given capacity, generator function
+	 * and admission policy.
+	 * @param capacity the maximum number of entries in the cache
+	 * @param generator a function to generate a new value for a given key
+	 * @param admissionPolicy the policy for admitting new entries into a full cache
+	 * @since 6.1
+	 */
+	public ConcurrentLruCache(int capacity, Function<K, V> generator, AdmissionPolicy admissionPolicy) {
+		this(capacity, generator, admissionPolicy, 16);
 	}
 
-	private ConcurrentLruCache(int capacity, Function<K, V> generator, int concurrencyLevel) {
+	private ConcurrentLruCache(int capacity, Function<K, V> generator, AdmissionPolicy admissionPolicy,
+			int concurrencyLevel) {
+
 		Assert.isTrue(capacity > 0, "Capacity must be > 0");
+		Assert.notNull(admissionPolicy, "AdmissionPolicy must not be null");
 		this.capacity = capacity;
 		this.cache = new ConcurrentHashMap<>(16, 0.75f, concurrencyLevel);
 		this.generator = generator;
-		this.readOperations = new ReadOperations<>(this.evictionQueue);
+		this.evictionPolicy = (admissionPolicy == AdmissionPolicy.FREQUENCY ?
+				new FrequencyEvictionPolicy<>(capacity) : new LruEvictionPolicy<>());
+		this.readOperations = new ReadOperations<>(this.evictionPolicy);
 		this.writeOperations = new WriteOperations();
 	}
 
@@ -97,10 +125,12 @@ public final class ConcurrentLruCache<K, V> {
 	public V get(K key) {
 		final Node<K, V> node = this.cache.get(key);
 		if (node == null) {
+			this.missCount.increment();
 			V value = this.generator.apply(key);
 			put(key, value);
 			return value;
 		}
+		this.hitCount.increment();
 		processRead(node);
 		return node.getValue();
 	}
@@ -172,6 +202,31 @@ public final class ConcurrentLruCache<K, V> {
 		return this.cache.size();
 	}
 
+	/**
+	 * Return the number of {@link #get} calls that found a cached value.
+	 * @since 6.1
+	 */
+	public long hitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of {@link #get} calls that generated a new value.
+	 * @since 6.1
+	 */
+	public long missCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries evicted to keep the cache within its capacity,
+	 * not counting entries {@linkplain #remove removed} or {@linkplain #clear cleared}.
+	 * @since 6.1
+	 */
+	public long evictionCount() {
+		return this.evictionCount.sum();
+	}
+
 	/**
 	 * Immediately remove all entries from this cache.
 	 */
@@ -179,7 +234,7 @@ public final class ConcurrentLruCache<K, V> {
 		this.evictionLock.lock();
 		try {
 			Node<K, V> node;
-			while ((node = this.evictionQueue.poll()) != null) {
+			while ((node = this.evictionPolicy.poll()) != null) {
 				this.cache.remove(node.key, node);
 				markAsRemoved(node);
 			}
@@ -262,19 +317,20 @@ public final class ConcurrentLruCache<K, V> {
 		public void run() {
 			currentSize.lazySet(currentSize.get() + 1);
 			if (this.node.get().isActive()) {
-				evictionQueue.add(this.node);
+				evictionPolicy.add(this.node);
 				evictEntries();
 			}
 		}
 
 		private void evictEntries() {
 			while (currentSize.get() > capacity) {
-				final Node<K, V> node = evictionQueue.poll();
+				final Node<K, V> node = evictionPolicy.evict();
 				if (node == null) {
 					return;
 				}
 				cache.remove(node.key, node);
 				markAsRemoved(node);
+				evictionCount.increment();
 			}
 		}
 
@@ -293,7 +349,7 @@ public final class ConcurrentLruCache<K, V> {
 
 		@Override
 		public void run() {
-			evictionQueue.remove(this.node);
+			evictionPolicy.remove(this.node);
 			markAsRemoved(this.node);
 		}
 	}
@@ -342,6 +398,25 @@ public final class ConcurrentLruCache<K, V> {
 		abstract boolean shouldDrainBuffers(boolean delayable);
 	}
 
+	/**
+	 * Policy for admitting new entries into a cache that reached its capacity.
+	 * @since 6.1
+	 */
+	public enum AdmissionPolicy {
+
+		/**
+		 * Always admit new entries, evicting the least recently used entry.
+		 */
+		ALWAYS,
+
+		/**
+		 * Admit new entries through a small LRU window, then into the main space
+		 * only if they were requested more often than the least recently used
+		 * entry of the main space, as estimated by a count-min sketch.
+		 */
+		FREQUENCY
+	}
+
 	private enum CacheEntryState {
 		ACTIVE, PENDING_REMOVAL, REMOVED
 	}
@@ -391,11 +466,11 @@ public final class ConcurrentLruCache<K, V> {
 		@SuppressWarnings("rawtypes")
 		private final AtomicReferenceArray<Node<K, V>>[] buffers = new AtomicReferenceArray[BUFFER_COUNT];
 
-		private final EvictionQueue<K, V> evictionQueue;
+		private final EvictionPolicy<K, V> evictionPolicy;
 
 		@SuppressWarnings("rawtypes")
-		ReadOperations(EvictionQueue<K, V> evictionQueue) {
-			this.evictionQueue = evictionQueue;
+		ReadOperations(EvictionPolicy<K, V> evictionPolicy) {
+			this.evictionPolicy = evictionPolicy;
 			for (int i = 0; i < BUFFER_COUNT; i++) {
 				this.buffers[i] = new AtomicReferenceArray<>(BUFFER_SIZE);
 			}
@@ -442,7 +517,7 @@ public final class ConcurrentLruCache<K, V> {
 					break;
 				}
 				buffer.lazySet(index, null);
-				this.evictionQueue.moveToBack(node);
+				this.evictionPolicy.recordAccess(node);
 				this.readCount[bufferIndex]++;
 			}
 			this.processedCount.lazySet(bufferIndex, writeCount);
@@ -482,6 +557,9 @@ public final class ConcurrentLruCache<K, V> {
 	private static final class Node<K, V> extends AtomicReference<CacheEntry<V>> {
 		final K key;
 
+		@Nullable
+		EvictionQueue<K, V> queue;
+
 		@Nullable
 		Node<K, V> prev;
 
@@ -517,6 +595,244 @@ public final class ConcurrentLruCache<K, V> {
 	}
 
 
+	/*
+	 * Ordering of ACTIVE cache entries for eviction, only accessed while holding the eviction lock.
+	 */
+	private interface EvictionPolicy<K, V> {
+
+		void add(Node<K, V> node);
+
+		void recordAccess(Node<K, V> node);
+
+		void remove(Node<K, V> node);
+
+		/*
+		 * Select and remove the entry to evict, if any.
+		 */
+		@Nullable
+		Node<K, V> evict();
+
+		@Nullable
+		Node<K, V> poll();
+	}
+
+
+	private static final class LruEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
+
+		/*
+		 * Queue that contains all ACTIVE cache entries, ordered with least recently used entries first.
+		 */
+		private final EvictionQueue<K, V> queue = new EvictionQueue<>();
+
+		@Override
+		public void add(Node<K, V> node) {
+			this.queue.add(node);
+		}
+
+		@Override
+		public void recordAccess(Node<K, V> node) {
+			this.queue.moveToBack(node);
+		}
+
+		@Override
+		public void remove(Node<K, V> node) {
+			this.queue.remove(node);
+		}
+
+		@Override
+		@Nullable
+		public Node<K, V> evict() {
+			return this.queue.poll();
+		}
+
+		@Override
+		@Nullable
+		public Node<K, V> poll() {
+			return this.queue.poll();
+		}
+	}
+
+
+	/*
+	 * W-TinyLFU policy: new entries enter an LRU window; entries leaving the window
+	 * are only admitted into the main segmented LRU space if they are more frequently
+	 * used than the main space victim. Entries accessed again in the probation segment
+	 * of the main space are promoted to its protected segment.
+	 */
+	private static final class FrequencyEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
+
+		private final EvictionQueue<K, V> window = new EvictionQueue<>();
+
+		private final EvictionQueue<K, V> probation = new EvictionQueue<>();
+
+		private final EvictionQueue<K, V> protectedQueue = new EvictionQueue<>();
+
+		private final int windowCapacity;
+
+		private final int mainCapacity;
+
+		private final int protectedCapacity;
+
+		private final FrequencySketch sketch;
+
+		FrequencyEvictionPolicy(int capacity) {
+			this.windowCapacity = Math.max(1, capacity / 100);
+			this.mainCapacity = capacity - this.windowCapacity;
+			this.protectedCapacity = (int) (this.mainCapacity * 0.8f);
+			this.sketch = new FrequencySketch(capacity);
+		}
+
+		@Override
+		public void add(Node<K, V> node) {
+			this.sketch.increment(node.key.hashCode());
+			this.window.add(node);
+			// Fill the main space without admission while it has room
+			while (this.window.size > this.windowCapacity &&
+					this.probation.size + this.protectedQueue.size < this.mainCapacity) {
+				this.probation.add(this.window.poll());
+			}
+		}
+
+		@Override
+		public void recordAccess(Node<K, V> node) {
+			EvictionQueue<K, V> queue = node.queue;
+			if (queue == null) {
+				return;
+			}
+			this.sketch.increment(node.key.hashCode());
+			if (queue == this.probation) {
+				this.probation.remove(node);
+				this.protectedQueue.add(node);
+				while (this.protectedQueue.size > this.protectedCapacity) {
+					this.probation.add(this.protectedQueue.poll());
+				}
+			}
+			else {
+				queue.moveToBack(node);
+			}
+		}
+
+		@Override
+		public void remove(Node<K, V> node) {
+			EvictionQueue<K, V> queue = node.queue;
+			if (queue != null) {
+				queue.remove(node);
+			}
+		}
+
+		@Override
+		@Nullable
+		public Node<K, V> evict() {
+			Node<K, V> victim = (this.probation.first != null ? this.probation.first : this.protectedQueue.first);
+			if (this.window.size > this.windowCapacity && victim != null) {
+				Node<K, V> candidate = this.window.poll();
+				if (this.sketch.frequency(candidate.key.hashCode()) > this.sketch.frequency(victim.key.hashCode())) {
+					remove(victim);
+					this.probation.add(candidate);
+					return victim;
+				}
+				return candidate;
+			}
+			return poll();
+		}
+
+		@Override
+		@Nullable
+		public Node<K, V> poll() {
+			Node<K, V> node = this.window.poll();
+			if (node == null) {
+				node = this.probation.poll();
+			}
+			if (node == null) {
+				node = this.protectedQueue.poll();
+			}
+			return node;
+		}
+	}
+
+
+	/*
+	 * Count-min sketch of 4-bit counters estimating the access frequency of keys,
+	 * with all counters halved periodically so that old accesses fade out.
+	 */
+	private static final class FrequencySketch {
+
+		private static final long[] SEEDS = {
+				0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private static final long ONE_MASK = 0x1111111111111111L;
+
+		private final long[] table;
+
+		private final int sampleSize;
+
+		private int size;
+
+		FrequencySketch(int capacity) {
+			int tableSize = 1 << (Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(capacity, 8) - 1));
+			this.table = new long[tableSize];
+			this.sampleSize = (capacity <= Integer.MAX_VALUE / 10 ? capacity * 10 : Integer.MAX_VALUE);
+		}
+
+		int frequency(int hashCode) {
+			int hash = spread(hashCode);
+			int start = (hash & 3) << 2;
+			int frequency = Integer.MAX_VALUE;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int count = (int) ((this.table[index] >>> ((start + i) << 2)) & 0xfL);
+				frequency = Math.min(frequency, count);
+			}
+			return frequency;
+		}
+
+		void increment(int hashCode) {
+			int hash = spread(hashCode);
+			int start = (hash & 3) << 2;
+			boolean added = false;
+			for (int i = 0; i < 4; i++) {
+				added |= incrementAt(indexOf(hash, i), start + i);
+			}
+			if (added && ++this.size == this.sampleSize) {
+				reset();
+			}
+		}
+
+		private boolean incrementAt(int index, int counter) {
+			int offset = counter << 2;
+			long mask = (0xfL << offset);
+			if ((this.table[index] & mask) != mask) {
+				this.table[index] += (1L << offset);
+				return true;
+			}
+			return false;
+		}
+
+		private void reset() {
+			int count = 0;
+			for (int i = 0; i < this.table.length; i++) {
+				count += Long.bitCount(this.table[i] & ONE_MASK);
+				this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+			}
+			this.size = (this.size >>> 1) - (count >>> 2);
+		}
+
+		private int indexOf(int hash, int depth) {
+			long index = (hash + SEEDS[depth]) * SEEDS[depth];
+			index += (index >>> 32);
+			return ((int) index) & (this.table.length - 1);
+		}
+
+		private static int spread(int hashCode) {
+			int hash = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+			hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+			return (hash >>> 16) ^ hash;
+		}
+	}
+
+
 	private static final class EvictionQueue<K, V> {
 
 		@Nullable
@@ -525,6 +841,8 @@ public final class ConcurrentLruCache<K, V> {
 		@Nullable
 		Node<K, V> last;
 
+		int size;
+
 
 		@Nullable
 		Node<K, V> poll() {
@@ -534,6 +852,8 @@ public final class ConcurrentLruCache<K, V> {
 			final Node<K, V> f = this.first;
 			final Node<K, V> next = f.getNext();
 			f.setNext(null);
+			f.queue = null;
+			this.size--;
 
 			this.first = next;
 			if (next == null) {
@@ -546,16 +866,12 @@ public final class ConcurrentLruCache<K, V> {
 		}
 
 		void add(Node<K, V> e) {
-			if (contains(e)) {
+			if (e.queue != null) {
 				return;
 			}
 			linkLast(e);
-		}
-
-		private boolean contains(Node<K, V> e) {
-			return (e.getPrevious() != null)
-					|| (e.getNext() != null)
-					|| (e == this.first);
+			e.queue = this;
+			this.size++;
 		}
 
 		private void linkLast(final Node<K, V> e) {
@@ -591,15 +907,17 @@ public final class ConcurrentLruCache<K, V> {
 		}
 
 		void moveToBack(Node<K, V> e) {
-			if (contains(e) && e != this.last) {
+			if (e.queue == this && e != this.last) {
 				unlink(e);
 				linkLast(e);
 			}
 		}
 
 		void remove(Node<K, V> e) {
-			if (contains(e)) {
+			if (e.queue == this) {
 				unlink(e);
+				e.queue = null;
+				this.size--;
 			}
 		}
 
@@ -28,8 +28,10 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
@@ -456,6 +458,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 
 	/**
 	 * A single segment used to divide the map to allow better concurrent performance.
+	 * Updates lock the segment, while reads never wait for the lock.
 	 */
 	@SuppressWarnings("serial")
 	protected final class Segment extends ReentrantLock {
@@ -482,6 +485,12 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		 */
 		private int resizeThreshold;
 
+		/**
+		 * References polled for purging by readers while the segment was locked,
+		 * to be purged along with the next restructure.
+		 */
+		private final Queue<Reference<K, V>> pendingPurges = new ConcurrentLinkedQueue<>();
+
 		public Segment(int initialSize, int resizeThreshold) {
 			this.referenceManager = createReferenceManager();
 			this.initialSize = initialSize;
@@ -492,7 +501,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		@Nullable
 		public Reference<K, V> getReference(@Nullable Object key, int hash, Restructure restructure) {
 			if (restructure == Restructure.WHEN_NECESSARY) {
-				restructureIfNecessary(false);
+				purgeIfPossible();
 			}
 			if (this.count.get() == 0) {
 				return null;
@@ -572,19 +581,45 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 			int currCount = this.count.get();
 			boolean needsResize = allowResize && (currCount > 0 && currCount >= this.resizeThreshold);
 			Reference<K, V> ref = this.referenceManager.pollForPurge();
-			if (ref != null || (needsResize)) {
+			if (ref != null || needsResize || !this.pendingPurges.isEmpty()) {
 				restructure(allowResize, ref);
 			}
 		}
 
+		/**
+		 * Purge references that have been garbage collected without ever blocking
+		 * the calling thread: if the segment is currently locked, polled references
+		 * are left to the next restructure triggered by an update.
+		 */
+		private void purgeIfPossible() {
+			Reference<K, V> ref = this.referenceManager.pollForPurge();
+			if (ref != null) {
+				if (tryLock()) {
+					try {
+						restructure(false, ref);
+					}
+					finally {
+						unlock();
+					}
+				}
+				else {
+					this.pendingPurges.add(ref);
+				}
+			}
+		}
+
 		private void restructure(boolean allowResize, @Nullable Reference<K, V> ref) {
-			boolean needsResize;
 			lock();
 			try {
 				int countAfterRestructure = this.count.get();
 				Set<Reference<K, V>> toPurge = Collections.emptySet();
-				if (ref != null) {
+				Reference<K, V> pending = this.pendingPurges.poll();
+				if (ref != null || pending != null) {
 					toPurge = new HashSet<>();
+					while (pending != null) {
+						toPurge.add(pending);
+						pending = this.pendingPurges.poll();
+					}
 					while (ref != null) {
 						toPurge.add(ref);
 						ref = this.referenceManager.pollForPurge();
@@ -594,42 +629,33 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 
 				// Recalculate taking into account count inside lock and items that
 				// will be purged
-				needsResize = (countAfterRestructure > 0 && countAfterRestructure >= this.resizeThreshold);
-				boolean resizing = false;
+				boolean needsResize = (countAfterRestructure > 0 && countAfterRestructure >= this.resizeThreshold);
 				int restructureSize = this.references.length;
 				if (allowResize && needsResize && restructureSize < MAXIMUM_SEGMENT_SIZE) {
-					restructureSize <<= 1;
-					resizing = true;
-				}
-
-				// Either create a new table or reuse the existing one
-				Reference<K, V>[] restructured =
-						(resizing ? createReferenceArray(restructureSize) : this.references);
-
-				// Restructure
-				for (int i = 0; i < this.references.length; i++) {
-					ref = this.references[i];
-					if (!resizing) {
-						restructured[i] = null;
-					}
-					while (ref != null) {
-						if (!toPurge.contains(ref)) {
+					// Rebuild all chains into a new table, replacing the volatile members
+					Reference<K, V>[] restructured = createReferenceArray(restructureSize << 1);
+					for (Reference<K, V> head : this.references) {
+						for (ref = head; ref != null; ref = ref.getNext()) {
 							Entry<K, V> entry = ref.get();
-							if (entry != null) {
+							if (entry != null && !toPurge.contains(ref)) {
 								int index = getIndex(ref.getHash(), restructured);
 								restructured[index] = this.referenceManager.createReference(
 										entry, ref.getHash(), restructured[index]);
 							}
 						}
-						ref = ref.getNext();
 					}
-				}
-
-				// Replace volatile members
-				if (resizing) {
 					this.references = restructured;
 					this.resizeThreshold = (int) (this.references.length * getLoadFactor());
 				}
+				else {
+					// Only rebuild the chains holding purged references, publishing
+					// each chain at once so that concurrent readers never miss an entry
+					Reference<K, V>[] references = this.references;
+					for (Reference<K, V> purged : toPurge) {
+						int index = getIndex(purged.getHash(), references);
+						references[index] = purgeChain(references[index], toPurge);
+					}
+				}
 				this.count.set(Math.max(countAfterRestructure, 0));
 			}
 			finally {
@@ -637,6 +663,31 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 			}
 		}
 
+		/**
+		 * Remove the given references from a chain, recreating the references
+		 * up to the last purged one and keeping the rest of the chain as is.
+		 */
+		@Nullable
+		private Reference<K, V> purgeChain(@Nullable Reference<K, V> head, Set<Reference<K, V>> toPurge) {
+			Reference<K, V> lastPurged = null;
+			for (Reference<K, V> ref = head; ref != null; ref = ref.getNext()) {
+				if (toPurge.contains(ref)) {
+					lastPurged = ref;
+				}
+			}
+			if (lastPurged == null) {
+				return head;
+			}
+			Reference<K, V> chain = lastPurged.getNext();
+			for (Reference<K, V> ref = head; ref != lastPurged; ref = ref.getNext()) {
+				Entry<K, V> entry = ref.get();
+				if (entry != null && !toPurge.contains(ref)) {
+					chain = this.referenceManager.createReference(entry, ref.getHash(), chain);
+				}
+			}
+			return chain;
+		}
+
 		@Nullable
 		private Reference<K, V> findInChain(Reference<K, V> ref, @Nullable Object key, int hash) {
 			Reference<K, V> currRef = ref;
@@ -174,7 +174,8 @@ public abstract class MimeTypeUtils {
 
 
 	private static final ConcurrentLruCache<String, MimeType> cachedMimeTypes =
-			new ConcurrentLruCache<>(64, MimeTypeUtils::parseMimeTypeInternal);
+			new ConcurrentLruCache<>(64, MimeTypeUtils::parseMimeTypeInternal,
+					ConcurrentLruCache.AdmissionPolicy.FREQUENCY);
 
 	@Nullable
 	private static volatile Random random;
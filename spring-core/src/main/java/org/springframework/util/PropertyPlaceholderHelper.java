@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,8 @@ public class PropertyPlaceholderHelper {
 
 	private static final Log logger = LogFactory.getLog(PropertyPlaceholderHelper.class);
 
+	private static final int TEMPLATE_CACHE_LIMIT = 256;
+
 	private static final Map<String, String> wellKnownSimplePrefixes = new HashMap<>(4);
 
 	static {
@@ -73,6 +75,9 @@ public class PropertyPlaceholderHelper {
 	 */
 	private final boolean ignoreUnresolvablePlaceholders;
 
+	private final ConcurrentLruCache<String, PlaceholderTemplate> templateCache =
+			new ConcurrentLruCache<>(TEMPLATE_CACHE_LIMIT, this::parseTemplate, ConcurrentLruCache.AdmissionPolicy.FREQUENCY);
+
 
 	/**
 	 * Creates a new {@code PropertyPlaceholderHelper} that uses the supplied prefix and suffix.
@@ -149,6 +154,8 @@ public class PropertyPlaceholderHelper {
 
 	/**
 	 * 最终调用的方法，递归的解析字符串中的占位符
+	 * <p>The placeholder structure of each distinct value is parsed once into a
+	 * {@link PlaceholderTemplate} and then only re-evaluated against the resolver.
 	 * @param value  包含要替换的占位符的值
 	 * @param placeholderResolver 占位符解析器
 	 * @param visitedPlaceholders 访问过的占位符，用于递归向后推进，同时避免递归解析导致的死循环
@@ -157,94 +164,92 @@ public class PropertyPlaceholderHelper {
 	protected String parseStringValue(
 			String value, PlaceholderResolver placeholderResolver, @Nullable Set<String> visitedPlaceholders) {
 
-		//获取第一个占位符前缀索引值startIndex
-		int startIndex = value.indexOf(this.placeholderPrefix);
-		//如果startIndex为-1，表示没有占位符，不需要继续解析，直接返回原值
-		if (startIndex == -1) {
+		//如果没有占位符，不需要继续解析，直接返回原值
+		if (value.indexOf(this.placeholderPrefix) == -1) {
 			return value;
 		}
-		//到这里，表示存在占位符，开始解析
-		//先创建一个StringBuilder，传入value
-		StringBuilder result = new StringBuilder(value);
-		/*如果startIndex不为-1，那么一直循环，直到将全部占位符都解析完毕或者抛出异常*/
-		while (startIndex != -1) {
-			//获取对应占位符结束位置索引
-			int endIndex = findPlaceholderEndIndex(result, startIndex);
-			if (endIndex != -1) {
-				//获取开始索引和结束索引之间的占位符变量
-				String placeholder = result.substring(startIndex + this.placeholderPrefix.length(), endIndex);
-				String originalPlaceholder = placeholder;
-				//添加到已解析占位符集合中
-				if (visitedPlaceholders == null) {
-					visitedPlaceholders = new HashSet<>(4);
-				}
-				//如果没有添加成功，这说明出现了同名的的嵌套占位符，这类似于循环引用，那么抛出异常
-				//主要出现在value的递归解析中，后面会有案例
-				if (!visitedPlaceholders.add(originalPlaceholder)) {
-					throw new IllegalArgumentException(
-							"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
-				}
-				//递归调用parseStringValue，用于分析占位符中的占位符……，这里是用于分析key
-				// Recursive invocation, parsing placeholders contained in the placeholder key.
-				placeholder = parseStringValue(placeholder, placeholderResolver, visitedPlaceholders);
-				//到这里表示递归完毕，占位符中没有占位符了
-				//找到最底层的占位符变量之后，调用placeholderResolver的resolvePlaceholder(placeholder)方法，根据lambda表达式
-				//实际上就是调用PropertySourcesPropertyResolver对象的getPropertyAsRawString方法，然后又会调用
-				//PropertySourcesPropertyResolver.getProperty方法中通过占位符变量找出对应的值
-				String propVal = placeholderResolver.resolvePlaceholder(placeholder);
-				//如果没找到（值为null），并且默认值分隔符不为null，那么尝试获取默认值
-				if (propVal == null && this.valueSeparator != null) {
-					//分隔符的起始索引
-					int separatorIndex = placeholder.indexOf(this.valueSeparator);
-					if (separatorIndex != -1) {
-						//实际的占位符变量
-						String actualPlaceholder = placeholder.substring(0, separatorIndex);
-						//默认值
-						String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
-						//尝试从属性源中查找占位符变量对应的属性值
-						propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
-						//如果没找到，那么就使用默认值了
-						if (propVal == null) {
-							propVal = defaultValue;
-						}
-					}
-				}
-				//到这一步，如果值不为null，说明解析到了值，无论是默认值还是属性值
-				if (propVal != null) {
-					//继续递归调用parseStringValue，用于分析占位符的值中的占位符……，这里是用于分析value
-					// Recursive invocation, parsing placeholders contained in the
-					// previously resolved placeholder value.
-					propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
-					//到这里表示递归完毕，占位符的值中没有占位符了
-					//这里将占位符替换成获取到的值
-					result.replace(startIndex, endIndex + this.placeholderSuffix.length(), propVal);
-					if (logger.isTraceEnabled()) {
-						logger.trace("Resolved placeholder '" + placeholder + "'");
+		PlaceholderTemplate template = this.templateCache.get(value);
+		String[] literals = template.literals();
+		String[] placeholders = template.placeholders();
+		if (placeholders.length == 0) {
+			return value;
+		}
+		StringBuilder result = new StringBuilder(value.length());
+		for (int i = 0; i < placeholders.length; i++) {
+			result.append(literals[i]);
+			String originalPlaceholder = placeholders[i];
+			//添加到已解析占位符集合中，如果没有添加成功，这说明出现了同名的的嵌套占位符，那么抛出异常
+			if (visitedPlaceholders == null) {
+				visitedPlaceholders = new HashSet<>(4);
+			}
+			if (!visitedPlaceholders.add(originalPlaceholder)) {
+				throw new IllegalArgumentException(
+						"Circular placeholder reference '" + originalPlaceholder + "' in property definitions");
+			}
+			// Recursive invocation, parsing placeholders contained in the placeholder key.
+			String placeholder = parseStringValue(originalPlaceholder, placeholderResolver, visitedPlaceholders);
+			String propVal = placeholderResolver.resolvePlaceholder(placeholder);
+			//如果没找到（值为null），并且默认值分隔符不为null，那么尝试获取默认值
+			if (propVal == null && this.valueSeparator != null) {
+				int separatorIndex = placeholder.indexOf(this.valueSeparator);
+				if (separatorIndex != -1) {
+					String actualPlaceholder = placeholder.substring(0, separatorIndex);
+					String defaultValue = placeholder.substring(separatorIndex + this.valueSeparator.length());
+					propVal = placeholderResolver.resolvePlaceholder(actualPlaceholder);
+					if (propVal == null) {
+						propVal = defaultValue;
 					}
-					//获取下一个占位符的起始索引
-					startIndex = result.indexOf(this.placeholderPrefix, startIndex + propVal.length());
 				}
-				//如果值为null，并且默认值分隔符为null，这就是解析失败的情况，判断是不是忽略，如果是的话，那么解析下一个占位符，同时将当前占位符整体作为值
-				else if (this.ignoreUnresolvablePlaceholders) {
-					// Proceed with unprocessed value.
-					startIndex = result.indexOf(this.placeholderPrefix, endIndex + this.placeholderSuffix.length());
-				}
-				//如果不能忽略，那么抛出异常
-				else {
-					throw new IllegalArgumentException("Could not resolve placeholder '" +
-							placeholder + "'" + " in value \"" + value + "\"");
+			}
+			if (propVal != null) {
+				// Recursive invocation, parsing placeholders contained in the
+				// previously resolved placeholder value.
+				propVal = parseStringValue(propVal, placeholderResolver, visitedPlaceholders);
+				result.append(propVal);
+				if (logger.isTraceEnabled()) {
+					logger.trace("Resolved placeholder '" + placeholder + "'");
 				}
-				//移除已解析的占位符变量
-				visitedPlaceholders.remove(originalPlaceholder);
-			} else {
-				//出现问题，没找到后缀，下一次循环直接退出
-				startIndex = -1;
 			}
+			else if (this.ignoreUnresolvablePlaceholders) {
+				// Proceed with unprocessed value.
+				result.append(this.placeholderPrefix).append(originalPlaceholder).append(this.placeholderSuffix);
+			}
+			else {
+				throw new IllegalArgumentException("Could not resolve placeholder '" +
+						placeholder + "'" + " in value \"" + value + "\"");
+			}
+			//移除已解析的占位符变量
+			visitedPlaceholders.remove(originalPlaceholder);
 		}
-		//返回解析后的结果
+		result.append(literals[placeholders.length]);
 		return result.toString();
 	}
 
+	/**
+	 * Split the given value into literal text and top-level placeholders.
+	 * <p>Text following a placeholder is scanned from the end of that placeholder,
+	 * so the structure does not depend on the values the placeholders resolve to.
+	 */
+	private PlaceholderTemplate parseTemplate(String value) {
+		List<String> literals = new ArrayList<>(4);
+		List<String> placeholders = new ArrayList<>(4);
+		int position = 0;
+		int startIndex = value.indexOf(this.placeholderPrefix);
+		while (startIndex != -1) {
+			int endIndex = findPlaceholderEndIndex(value, startIndex);
+			if (endIndex == -1) {
+				//没找到后缀，剩余部分作为普通文本
+				break;
+			}
+			literals.add(value.substring(position, startIndex));
+			placeholders.add(value.substring(startIndex + this.placeholderPrefix.length(), endIndex));
+			position = endIndex + this.placeholderSuffix.length();
+			startIndex = value.indexOf(this.placeholderPrefix, position);
+		}
+		literals.add(value.substring(position));
+		return new PlaceholderTemplate(StringUtils.toStringArray(literals), StringUtils.toStringArray(placeholders));
+	}
+
 	/**
 	 * 获取占位符的结束下标
 	 * @param buf 输入文本
@@ -301,4 +306,12 @@ public class PropertyPlaceholderHelper {
 		String resolvePlaceholder(String placeholderName);
 	}
 
+
+	/**
+	 * Pre-parsed placeholder structure of a value: the literal text around
+	 * each top-level placeholder, with one more literal than placeholders.
+	 */
+	private record PlaceholderTemplate(String[] literals, String[] placeholders) {
+	}
+
 }
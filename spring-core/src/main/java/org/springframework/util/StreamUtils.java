@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,11 +21,14 @@ import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
 
 import org.springframework.lang.Nullable;
 
@@ -34,6 +37,9 @@ import org.springframework.lang.Nullable;
  * similar to those defined in {@link FileCopyUtils} except that all affected streams are
  * left open when done. All copy methods use a block size of 8192 bytes.
  *
+ * <p>Temporary buffers are obtained from a {@link ByteArrayPool}, by default
+ * the {@link ThreadLocalByteArrayPool#sharedInstance shared thread-local pool}.
+ *
  * <p>Mainly for use within the framework, but also useful for application code.
  *
  * @author Juergen Hoeller
@@ -51,6 +57,8 @@ public abstract class StreamUtils {
 
 	private static final byte[] EMPTY_CONTENT = new byte[0];
 
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
 
 	/**
 	 * Copy the contents of the given InputStream into a new byte array.
@@ -60,11 +68,40 @@ public abstract class StreamUtils {
 	 * @throws IOException in case of I/O errors
 	 */
 	public static byte[] copyToByteArray(@Nullable InputStream in) throws IOException {
+		return copyToByteArray(in, ThreadLocalByteArrayPool.sharedInstance);
+	}
+
+	/**
+	 * Copy the contents of the given InputStream into a new byte array,
+	 * reading into buffers from the given pool.
+	 * <p>Leaves the stream open when done.
+	 * @param in the stream to copy from (may be {@code null} or empty)
+	 * @param pool the pool to obtain temporary buffers from
+	 * @return the new byte array that has been copied to (possibly empty)
+	 * @throws IOException in case of I/O errors
+	 * @since 6.1
+	 */
+	public static byte[] copyToByteArray(@Nullable InputStream in, ByteArrayPool pool) throws IOException {
+		Assert.notNull(pool, "No ByteArrayPool specified");
 		if (in == null) {
 			return EMPTY_CONTENT;
 		}
 
-		return in.readAllBytes();
+		byte[] buffer = pool.acquire(BUFFER_SIZE);
+		try {
+			int count = 0;
+			int bytesRead;
+			while ((bytesRead = in.read(buffer, count, buffer.length - count)) != -1) {
+				count += bytesRead;
+				if (count == buffer.length) {
+					buffer = grow(buffer, pool);
+				}
+			}
+			return (count != 0 ? Arrays.copyOf(buffer, count) : EMPTY_CONTENT);
+		}
+		finally {
+			pool.release(buffer);
+		}
 	}
 
 	/**
@@ -76,18 +113,54 @@ public abstract class StreamUtils {
 	 * @throws IOException in case of I/O errors
 	 */
 	public static String copyToString(@Nullable InputStream in, Charset charset) throws IOException {
+		return copyToString(in, charset, ThreadLocalByteArrayPool.sharedInstance);
+	}
+
+	/**
+	 * Copy the contents of the given InputStream into a String,
+	 * reading into buffers from the given pool.
+	 * <p>Leaves the stream open when done.
+	 * @param in the InputStream to copy from (may be {@code null} or empty)
+	 * @param charset the {@link Charset} to use to decode the bytes
+	 * @param pool the pool to obtain temporary buffers from
+	 * @return the String that has been copied to (possibly empty)
+	 * @throws IOException in case of I/O errors
+	 * @since 6.1
+	 */
+	public static String copyToString(@Nullable InputStream in, Charset charset, ByteArrayPool pool)
+			throws IOException {
+
+		Assert.notNull(charset, "No Charset specified");
+		Assert.notNull(pool, "No ByteArrayPool specified");
 		if (in == null) {
 			return "";
 		}
 
-		StringBuilder out = new StringBuilder();
-		InputStreamReader reader = new InputStreamReader(in, charset);
-		char[] buffer = new char[BUFFER_SIZE];
-		int charsRead;
-		while ((charsRead = reader.read(buffer)) != -1) {
-			out.append(buffer, 0, charsRead);
+		byte[] buffer = pool.acquire(BUFFER_SIZE);
+		try {
+			int count = 0;
+			int bytesRead;
+			while ((bytesRead = in.read(buffer, count, buffer.length - count)) != -1) {
+				count += bytesRead;
+				if (count == buffer.length) {
+					buffer = grow(buffer, pool);
+				}
+			}
+			return new String(buffer, 0, count, charset);
+		}
+		finally {
+			pool.release(buffer);
+		}
+	}
+
+	private static byte[] grow(byte[] buffer, ByteArrayPool pool) {
+		if (buffer.length >= MAX_ARRAY_SIZE) {
+			throw new OutOfMemoryError("Required array size too large");
 		}
-		return out.toString();
+		byte[] newBuffer = pool.acquire((int) Math.min((long) buffer.length * 2, MAX_ARRAY_SIZE));
+		System.arraycopy(buffer, 0, newBuffer, 0, buffer.length);
+		pool.release(buffer);
+		return newBuffer;
 	}
 
 	/**
@@ -129,13 +202,52 @@ public abstract class StreamUtils {
 	 * @throws IOException in case of I/O errors
 	 */
 	public static void copy(String in, Charset charset, OutputStream out) throws IOException {
+		copy(in, charset, out, ThreadLocalByteArrayPool.sharedInstance);
+	}
+
+	/**
+	 * Copy the contents of the given String to the given OutputStream,
+	 * encoding into a buffer from the given pool.
+	 * <p>Leaves the stream open when done.
+	 * @param in the String to copy from
+	 * @param charset the Charset
+	 * @param out the OutputStream to copy to
+	 * @param pool the pool to obtain a temporary buffer from
+	 * @throws IOException in case of I/O errors
+	 * @since 6.1
+	 */
+	public static void copy(String in, Charset charset, OutputStream out, ByteArrayPool pool) throws IOException {
 		Assert.notNull(in, "No input String specified");
 		Assert.notNull(charset, "No Charset specified");
 		Assert.notNull(out, "No OutputStream specified");
-
-		Writer writer = new OutputStreamWriter(out, charset);
-		writer.write(in);
-		writer.flush();
+		Assert.notNull(pool, "No ByteArrayPool specified");
+
+		CharsetEncoder encoder = charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		long maxLength = (long) in.length() * (long) Math.ceil(encoder.maxBytesPerChar());
+		byte[] buffer = pool.acquire((int) Math.max(Math.min(maxLength, BUFFER_SIZE), 16));
+		try {
+			ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+			CharBuffer charBuffer = CharBuffer.wrap(in);
+			CoderResult result;
+			do {
+				result = encoder.encode(charBuffer, byteBuffer, true);
+				if (result.isUnderflow()) {
+					result = encoder.flush(byteBuffer);
+				}
+				if (result.isError()) {
+					result.throwException();
+				}
+				out.write(buffer, 0, byteBuffer.position());
+				byteBuffer.clear();
+			}
+			while (result.isOverflow());
+		}
+		finally {
+			pool.release(buffer);
+		}
+		out.flush();
 	}
 
 	/**
@@ -178,20 +290,19 @@ public abstract class StreamUtils {
 		}
 
 		long bytesToCopy = end - start + 1;
-		byte[] buffer = new byte[(int) Math.min(StreamUtils.BUFFER_SIZE, bytesToCopy)];
-		while (bytesToCopy > 0) {
-			int bytesRead = in.read(buffer);
-			if (bytesRead == -1) {
-				break;
-			}
-			else if (bytesRead <= bytesToCopy) {
+		byte[] buffer = ThreadLocalByteArrayPool.sharedInstance.acquire((int) Math.min(BUFFER_SIZE, bytesToCopy));
+		try {
+			while (bytesToCopy > 0) {
+				int bytesRead = in.read(buffer, 0, (int) Math.min(buffer.length, bytesToCopy));
+				if (bytesRead == -1) {
+					break;
+				}
 				out.write(buffer, 0, bytesRead);
 				bytesToCopy -= bytesRead;
 			}
-			else {
-				out.write(buffer, 0, (int) bytesToCopy);
-				bytesToCopy = 0;
-			}
+		}
+		finally {
+			ThreadLocalByteArrayPool.sharedInstance.release(buffer);
 		}
 		return (end - start + 1 - bytesToCopy);
 	}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+/**
+ * {@link ByteArrayPool} that retains released buffers per thread, without any
+ * synchronization, which suits the thread-per-request model of Servlet containers.
+ *
+ * <p>Buffers are organized in power-of-two size classes from 1 KB up to the
+ * configured maximum buffer size, retaining a bounded number of buffers per size
+ * class and thread. Larger buffers are allocated on demand and never retained.
+ * With the default settings, at most 127 KB are retained per thread.
+ *
+ * <p>Buffers are held in a plain {@link ThreadLocal} of JDK types only, so a
+ * pool does not pin the class loader of an application to container threads.
+ * Note that retained buffers are not shared across threads: a thread that does
+ * not come back, such as a virtual thread, does not benefit from pooling.
+ *
+ * @since 6.1
+ */
+public class ThreadLocalByteArrayPool implements ByteArrayPool {
+
+	/**
+	 * Shared instance with default settings, used by {@link StreamUtils} and
+	 * by HTTP message converters unless configured otherwise.
+	 */
+	public static final ThreadLocalByteArrayPool sharedInstance = new ThreadLocalByteArrayPool();
+
+	private static final int MIN_BUFFER_SHIFT = 10;
+
+	private static final int DEFAULT_MAX_BUFFER_SIZE = 64 * 1024;
+
+	private static final int MAX_BUFFER_SIZE = 1 << 30;
+
+
+	private final int maxBufferSize;
+
+	private final int maxBuffersPerSize;
+
+	private final int sizeClasses;
+
+	private final ThreadLocal<byte[][][]> buffers = new ThreadLocal<>();
+
+
+	/**
+	 * Create a new pool retaining one buffer of up to 64 KB per size class and thread.
+	 */
+	public ThreadLocalByteArrayPool() {
+		this(DEFAULT_MAX_BUFFER_SIZE, 1);
+	}
+
+	/**
+	 * Create a new pool with the given bounds.
+	 * @param maxBufferSize the size of the largest buffers to retain,
+	 * rounded up to a power of two of at least 1 KB
+	 * @param maxBuffersPerSize the number of buffers to retain per size
+	 * class and thread, or 0 to not retain any buffers
+	 */
+	public ThreadLocalByteArrayPool(int maxBufferSize, int maxBuffersPerSize) {
+		Assert.isTrue(maxBufferSize > 0 && maxBufferSize <= MAX_BUFFER_SIZE,
+				"Maximum buffer size must be between 1 and " + MAX_BUFFER_SIZE);
+		Assert.isTrue(maxBuffersPerSize >= 0, "Maximum number of buffers per size must not be negative");
+		this.sizeClasses = sizeClass(maxBufferSize) + 1;
+		this.maxBufferSize = 1 << (this.sizeClasses - 1 + MIN_BUFFER_SHIFT);
+		this.maxBuffersPerSize = maxBuffersPerSize;
+	}
+
+
+	/**
+	 * Return the size of the largest buffers retained by this pool.
+	 */
+	public int getMaxBufferSize() {
+		return this.maxBufferSize;
+	}
+
+	/**
+	 * Return the number of buffers retained per size class and thread.
+	 */
+	public int getMaxBuffersPerSize() {
+		return this.maxBuffersPerSize;
+	}
+
+
+	@Override
+	public byte[] acquire(int minCapacity) {
+		Assert.isTrue(minCapacity >= 0, "Minimum capacity must not be negative");
+		if (minCapacity > this.maxBufferSize) {
+			return new byte[minCapacity];
+		}
+		int sizeClass = sizeClass(minCapacity);
+		byte[][][] buffers = this.buffers.get();
+		if (buffers != null) {
+			byte[][] pooled = buffers[sizeClass];
+			for (int i = pooled.length - 1; i >= 0; i--) {
+				byte[] buffer = pooled[i];
+				if (buffer != null) {
+					pooled[i] = null;
+					return buffer;
+				}
+			}
+		}
+		return new byte[1 << (sizeClass + MIN_BUFFER_SHIFT)];
+	}
+
+	@Override
+	public void release(byte[] buffer) {
+		int length = buffer.length;
+		if (this.maxBuffersPerSize == 0 || length > this.maxBufferSize || Integer.bitCount(length) != 1 ||
+				length < (1 << MIN_BUFFER_SHIFT)) {
+			// Not a buffer from one of our size classes
+			return;
+		}
+		byte[][][] buffers = this.buffers.get();
+		if (buffers == null) {
+			buffers = new byte[this.sizeClasses][this.maxBuffersPerSize][];
+			this.buffers.set(buffers);
+		}
+		byte[][] pooled = buffers[sizeClass(length)];
+		for (int i = 0; i < pooled.length; i++) {
+			if (pooled[i] == null) {
+				pooled[i] = buffer;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Release all buffers retained for the current thread.
+	 */
+	public void clear() {
+		this.buffers.remove();
+	}
+
+	private static int sizeClass(int capacity) {
+		if (capacity <= (1 << MIN_BUFFER_SHIFT)) {
+			return 0;
+		}
+		return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_BUFFER_SHIFT;
+	}
+
+}
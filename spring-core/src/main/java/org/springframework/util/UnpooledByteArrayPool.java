@@ -0,0 +1,44 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+/**
+ * {@link ByteArrayPool} that allocates a new byte array for every request.
+ *
+ * @since 6.1
+ * @see ByteArrayPool#unpooled()
+ */
+final class UnpooledByteArrayPool implements ByteArrayPool {
+
+	static final UnpooledByteArrayPool INSTANCE = new UnpooledByteArrayPool();
+
+
+	private UnpooledByteArrayPool() {
+	}
+
+
+	@Override
+	public byte[] acquire(int minCapacity) {
+		Assert.isTrue(minCapacity >= 0, "Minimum capacity must not be negative");
+		return new byte[minCapacity];
+	}
+
+	@Override
+	public void release(byte[] buffer) {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -332,4 +332,88 @@ class PropertySourcesPropertyResolverTests {
 			.withMessageContaining("Could not resolve placeholder 'bogus' in value \"${p1}:${p2}:${bogus}\"");
 	}
 
+	@Test
+	void cachedPropertiesAreInvalidatedOnModification() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		resolver.setCacheProperties(true);
+		testProperties.put("foo", "bar");
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+		assertThat(resolver.getProperty("other")).isNull();
+
+		testProperties.put("foo", "baz");
+		testProperties.put("other", "value");
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+		assertThat(resolver.getProperty("other")).isNull();
+
+		propertySources.markModified();
+		assertThat(resolver.getProperty("foo")).isEqualTo("baz");
+		assertThat(resolver.getProperty("other")).isEqualTo("value");
+
+		propertySources.addFirst(new MockPropertySource().withProperty("foo", "first"));
+		assertThat(resolver.getProperty("foo")).isEqualTo("first");
+		propertySources.remove(MockPropertySource.MOCK_PROPERTIES_PROPERTY_SOURCE_NAME);
+		assertThat(resolver.getProperty("foo")).isEqualTo("baz");
+
+		testProperties.remove("foo");
+		resolver.clearCache();
+		assertThat(resolver.getProperty("foo")).isNull();
+	}
+
+	@Test
+	void cachedPropertiesWithNestedPlaceholders() {
+		MutablePropertySources ps = new MutablePropertySources();
+		MockPropertySource source = new MockPropertySource()
+				.withProperty("p1", "v1")
+				.withProperty("p2", "${p1}:${p3:def}")
+				.withProperty("p4", "${p2}:${bogus}")
+				.withProperty("num", "${n:42}");
+		ps.addFirst(source);
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(ps);
+		resolver.setCacheProperties(true);
+		assertThat(resolver.getProperty("p2")).isEqualTo("v1:def");
+		assertThat(resolver.getProperty("p2")).isEqualTo("v1:def");
+		assertThat(resolver.getProperty("num", Integer.class)).isEqualTo(42);
+		assertThat(resolver.resolvePlaceholders("${p2}/${p1}")).isEqualTo("v1:def/v1");
+		assertThatIllegalArgumentException().isThrownBy(() -> resolver.getProperty("p4"))
+				.withMessageContaining("Could not resolve placeholder 'bogus'");
+
+		resolver.setIgnoreUnresolvableNestedPlaceholders(true);
+		assertThat(resolver.getProperty("p4")).isEqualTo("v1:def:${bogus}");
+
+		source.setProperty("p3", "v3");
+		ps.markModified();
+		assertThat(resolver.getProperty("p2")).isEqualTo("v1:v3");
+		assertThat(resolver.getProperty("p4")).isEqualTo("v1:v3:${bogus}");
+	}
+
+	@Test
+	void cachedPropertiesAreInvalidatedOnPlaceholderSyntaxChange() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		resolver.setCacheProperties(true);
+		testProperties.put("foo", "bar");
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+
+		testProperties.put("foo", "baz");
+		resolver.setPlaceholderPrefix("${");
+		assertThat(resolver.getProperty("foo")).isEqualTo("baz");
+
+		testProperties.put("foo", "qux");
+		resolver.setPlaceholderSuffix("}");
+		assertThat(resolver.getProperty("foo")).isEqualTo("qux");
+
+		testProperties.put("foo", "quux");
+		resolver.setValueSeparator(":");
+		assertThat(resolver.getProperty("foo")).isEqualTo("quux");
+	}
+
+	@Test
+	void cachePropertiesIsOptIn() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		assertThat(resolver.isCacheProperties()).isFalse();
+		testProperties.put("foo", "bar");
+		assertThat(resolver.getProperty("foo")).isEqualTo("bar");
+		testProperties.put("foo", "baz");
+		assertThat(resolver.getProperty("foo")).isEqualTo("baz");
+	}
+
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CachingMetadataReaderFactory}.
+ */
+class CachingMetadataReaderFactoryTests {
+
+	@Test
+	void localCacheReturnsCachedReader() throws Exception {
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		Resource resource = new ClassPathResource("java/lang/String.class");
+		MetadataReader reader = factory.getMetadataReader(resource);
+		assertThat(reader.getClassMetadata().getClassName()).isEqualTo(String.class.getName());
+		assertThat(factory.getMetadataReader(resource)).isSameAs(reader);
+
+		factory.clearCache();
+		assertThat(factory.getMetadataReader(resource)).isNotSameAs(reader);
+	}
+
+	@Test
+	void localCacheIsBounded() throws Exception {
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		factory.setCacheLimit(1);
+		Resource resource1 = new ClassPathResource("java/lang/String.class");
+		Resource resource2 = new ClassPathResource("java/lang/Integer.class");
+		MetadataReader reader = factory.getMetadataReader(resource1);
+		factory.getMetadataReader(resource2);
+		assertThat(factory.getMetadataReader(resource1)).isNotSameAs(reader);
+	}
+
+	@Test
+	void concurrentAccessToLocalCache() throws Exception {
+		testConcurrentAccess(new CachingMetadataReaderFactory());
+	}
+
+	@Test
+	void concurrentAccessToSharedCache() throws Exception {
+		testConcurrentAccess(new CachingMetadataReaderFactory(new DefaultResourceLoader()));
+	}
+
+	private void testConcurrentAccess(CachingMetadataReaderFactory factory) throws Exception {
+		List<Resource> resources = List.of(new ClassPathResource("java/lang/String.class"),
+				new ClassPathResource("java/lang/Integer.class"), new ClassPathResource("java/util/List.class"));
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<MetadataReader>> tasks = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				Resource resource = resources.get(i % resources.size());
+				tasks.add(() -> factory.getMetadataReader(resource));
+			}
+			List<Future<MetadataReader>> futures = executor.invokeAll(tasks);
+			for (int i = 0; i < futures.size(); i++) {
+				Resource resource = resources.get(i % resources.size());
+				assertThat(futures.get(i).get()).isSameAs(factory.getMetadataReader(resource));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
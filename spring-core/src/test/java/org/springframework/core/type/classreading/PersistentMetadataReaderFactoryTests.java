@@ -0,0 +1,299 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link PersistentMetadataReaderFactory}.
+ */
+class PersistentMetadataReaderFactoryTests {
+
+	@TempDir
+	Path tempDir;
+
+
+	@Test
+	void recordedMetadataMatchesClassFile() throws Exception {
+		for (Class<?> type : new Class<?>[] {AnnotatedClass.class, AnnotatedClass.Inner.class,
+				AnnotatedClass.StaticNested.class, AllTypes.class, String.class, Test.class}) {
+			Resource resource = classResource(type);
+			AnnotationMetadata expected = new SimpleMetadataReaderFactory().getMetadataReader(resource)
+					.getAnnotationMetadata();
+			AnnotationMetadata actual = new PersistentMetadataReaderFactory(this.tempDir.resolve("metadata.cache"))
+					.getMetadataReader(resource).getAnnotationMetadata();
+			assertSameMetadata(actual, expected);
+		}
+	}
+
+	@Test
+	void metadataIsRestoredFromCacheFile() throws Exception {
+		Path cacheFile = this.tempDir.resolve("metadata.cache");
+		Path classFile = copyClassFile(AnnotatedClass.class);
+		Resource resource = new FileSystemResource(classFile);
+
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(cacheFile);
+		AnnotationMetadata expected = factory.getMetadataReader(resource).getAnnotationMetadata();
+		factory.save();
+		assertThat(cacheFile).isRegularFile();
+
+		// Same size and last-modified timestamp, but not a class file anymore
+		FileTime lastModified = Files.getLastModifiedTime(classFile);
+		Files.write(classFile, new byte[(int) Files.size(classFile)]);
+		Files.setLastModifiedTime(classFile, lastModified);
+		assertThatExceptionOfType(Exception.class).isThrownBy(() -> new SimpleMetadataReaderFactory().getMetadataReader(resource));
+
+		factory = new PersistentMetadataReaderFactory(cacheFile);
+		MetadataReader reader = factory.getMetadataReader(resource);
+		assertThat(reader.getResource()).isSameAs(resource);
+		assertSameMetadata(reader.getAnnotationMetadata(), expected);
+	}
+
+	@Test
+	void staleMetadataIsNotRestoredFromCacheFile() throws Exception {
+		Path cacheFile = this.tempDir.resolve("metadata.cache");
+		Path classFile = copyClassFile(AnnotatedClass.class);
+		Resource resource = new FileSystemResource(classFile);
+
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(resource);
+		factory.save();
+
+		try (InputStream is = classResource(AnnotatedClass.StaticNested.class).getInputStream()) {
+			Files.write(classFile, is.readAllBytes());
+		}
+		Files.setLastModifiedTime(classFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+		factory = new PersistentMetadataReaderFactory(cacheFile);
+		assertThat(factory.getMetadataReader(resource).getClassMetadata().getClassName())
+				.isEqualTo(AnnotatedClass.StaticNested.class.getName());
+		factory.save();
+
+		factory = new PersistentMetadataReaderFactory(cacheFile);
+		assertThat(factory.getMetadataReader(resource).getClassMetadata().getClassName())
+				.isEqualTo(AnnotatedClass.StaticNested.class.getName());
+	}
+
+	@Test
+	void metadataOfRemovedClassFileIsDroppedOnSave() throws Exception {
+		Path cacheFile = this.tempDir.resolve("metadata.cache");
+		Path classFile = copyClassFile(AnnotatedClass.class);
+
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(cacheFile);
+		factory.getMetadataReader(new FileSystemResource(classFile));
+		factory.save();
+		long size = Files.size(cacheFile);
+
+		Files.delete(classFile);
+		new PersistentMetadataReaderFactory(cacheFile).save();
+		assertThat(Files.size(cacheFile)).isLessThan(size);
+	}
+
+	@Test
+	void unreadableCacheFileIsIgnored() throws Exception {
+		Path cacheFile = this.tempDir.resolve("metadata.cache");
+		Files.write(cacheFile, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(cacheFile);
+		Resource resource = new FileSystemResource(copyClassFile(AnnotatedClass.class));
+		assertThat(factory.getMetadataReader(resource).getClassMetadata().getClassName())
+				.isEqualTo(AnnotatedClass.class.getName());
+		factory.save();
+
+		factory = new PersistentMetadataReaderFactory(cacheFile);
+		assertThat(factory.getMetadataReader(resource).getClassMetadata().getClassName())
+				.isEqualTo(AnnotatedClass.class.getName());
+	}
+
+	@Test
+	void classFilesInJarAreCached() throws Exception {
+		Path cacheFile = this.tempDir.resolve("metadata.cache");
+		Resource resource = classResource(Test.class);
+		assertThat(resource.getURL().getProtocol()).isEqualTo("jar");
+
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(cacheFile);
+		AnnotationMetadata expected = factory.getMetadataReader(resource).getAnnotationMetadata();
+		factory.save();
+
+		factory = new PersistentMetadataReaderFactory(cacheFile);
+		assertSameMetadata(factory.getMetadataReader(resource).getAnnotationMetadata(), expected);
+	}
+
+
+	private Resource classResource(Class<?> type) {
+		return new ClassPathResource(ClassUtils.convertClassNameToResourcePath(type.getName()) + ".class");
+	}
+
+	private Path copyClassFile(Class<?> type) throws IOException {
+		Path classFile = this.tempDir.resolve(type.getSimpleName() + ".class");
+		try (InputStream is = classResource(type).getInputStream()) {
+			Files.write(classFile, is.readAllBytes());
+		}
+		return classFile;
+	}
+
+	private static void assertSameMetadata(AnnotationMetadata actual, AnnotationMetadata expected) {
+		assertThat(actual.getClassName()).isEqualTo(expected.getClassName());
+		assertThat(actual.isInterface()).isEqualTo(expected.isInterface());
+		assertThat(actual.isAnnotation()).isEqualTo(expected.isAnnotation());
+		assertThat(actual.isAbstract()).isEqualTo(expected.isAbstract());
+		assertThat(actual.isFinal()).isEqualTo(expected.isFinal());
+		assertThat(actual.isIndependent()).isEqualTo(expected.isIndependent());
+		assertThat(actual.getEnclosingClassName()).isEqualTo(expected.getEnclosingClassName());
+		assertThat(actual.getSuperClassName()).isEqualTo(expected.getSuperClassName());
+		assertThat(actual.getInterfaceNames()).containsExactly(expected.getInterfaceNames());
+		assertThat(actual.getMemberClassNames()).containsExactly(expected.getMemberClassNames());
+		assertThat(actual.getAnnotationTypes()).containsExactlyElementsOf(expected.getAnnotationTypes());
+		assertThat(synthesize(actual.getAnnotations().stream())).isEqualTo(synthesize(expected.getAnnotations().stream()));
+		assertThat(describe(actual.getDeclaredMethods())).isEqualTo(describe(expected.getDeclaredMethods()));
+	}
+
+	private static Set<Object> synthesize(Stream<MergedAnnotation<Annotation>> annotations) {
+		return annotations.map(MergedAnnotation::synthesize).collect(Collectors.toSet());
+	}
+
+	private static Set<String> describe(Set<MethodMetadata> methods) {
+		return methods.stream().map(method -> method + " " + method.getReturnTypeName() + " " +
+				method.isStatic() + method.isAbstract() + method.isFinal() + method.isOverridable() + " " +
+				synthesize(method.getAnnotations().stream())).collect(Collectors.toSet());
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface AllTypes {
+
+		boolean bool() default false;
+
+		byte b() default 0;
+
+		char c() default 'c';
+
+		short s() default 0;
+
+		int i() default 0;
+
+		long l() default 0;
+
+		float f() default 0;
+
+		double d() default 0;
+
+		String string() default "";
+
+		Class<?> type() default Void.class;
+
+		RetentionPolicy policy() default RetentionPolicy.CLASS;
+
+		Nested nested() default @Nested;
+
+		boolean[] bools() default {};
+
+		byte[] bytes() default {};
+
+		char[] chars() default {};
+
+		short[] shorts() default {};
+
+		int[] ints() default {};
+
+		long[] longs() default {};
+
+		float[] floats() default {};
+
+		double[] doubles() default {};
+
+		String[] strings() default {};
+
+		Class<?>[] types() default {};
+
+		RetentionPolicy[] policies() default {};
+
+		Nested[] nesteds() default {};
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Nested {
+
+		String value() default "";
+
+		int[] numbers() default {};
+	}
+
+
+	@AllTypes(bool = true, b = -3, c = 'é', s = -300, i = -70000, l = Long.MIN_VALUE, f = -1.5f,
+			d = Double.MAX_VALUE, string = "ünicode", type = Serializable.class, policy = RetentionPolicy.SOURCE,
+			nested = @Nested(value = "n", numbers = {1, -1}), bools = {true, false}, bytes = {1, -1},
+			chars = {'a', '€'}, shorts = {1, -1}, ints = {Integer.MAX_VALUE, Integer.MIN_VALUE},
+			longs = {1, -1}, floats = {Float.NaN, 1}, doubles = {-0.0, 1}, strings = {"a", ""},
+			types = {String.class, int[].class}, policies = {RetentionPolicy.RUNTIME, RetentionPolicy.CLASS},
+			nesteds = {@Nested("x"), @Nested(numbers = 7)})
+	@Nested
+	@SuppressWarnings("serial")
+	abstract static class AnnotatedClass extends Number implements Serializable, Comparable<AnnotatedClass> {
+
+		@Nested("method")
+		@Deprecated
+		public abstract String annotatedMethod();
+
+		@AllTypes(strings = "x")
+		static int staticMethod() {
+			return 0;
+		}
+
+		final void plainMethod() {
+		}
+
+		class Inner {
+		}
+
+		@Nested("nested")
+		static final class StaticNested implements Comparable<StaticNested> {
+
+			@Override
+			public int compareTo(StaticNested o) {
+				return 0;
+			}
+		}
+	}
+
+}
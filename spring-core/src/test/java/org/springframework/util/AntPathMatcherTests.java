@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -624,11 +624,47 @@ class AntPathMatcherTests {
 		match();
 		assertThat(pathMatcher.stringMatcherCache.size() > 20).isTrue();
 
-		for (int i = 0; i < 65536; i++) {
+		for (int i = 0; i < 70000; i++) {
 			pathMatcher.match("test" + i, "test");
 		}
-		// Cache turned off because it went beyond the threshold
-		assertThat(pathMatcher.stringMatcherCache.isEmpty()).isTrue();
+		// Cache bounded instead of growing beyond the limit
+		assertThat(pathMatcher.stringMatcherCache.size()).isLessThanOrEqualTo(65536);
+		pathMatcher.match("test", "test");
+		assertThat(pathMatcher.stringMatcherCache.contains("test")).isTrue();
+	}
+
+	@Test
+	void defaultCacheRetainsFrequentlyUsedPatterns() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(pathMatcher.match("/hot/*.html", "/hot/index.html")).isTrue();
+		}
+		for (int i = 0; i < 70000; i++) {
+			pathMatcher.match("/test" + i, "/test");
+		}
+		assertThat(pathMatcher.stringMatcherCache.contains("hot")).isTrue();
+		assertThat(pathMatcher.stringMatcherCache.contains("*.html")).isTrue();
+	}
+
+	@Test
+	void matchWildcardOnlySegments() {
+		assertThat(pathMatcher.match("/docs/*.html", "/docs/index.html")).isTrue();
+		assertThat(pathMatcher.match("/docs/*.html", "/docs/.html")).isTrue();
+		assertThat(pathMatcher.match("/docs/*.html", "/docs/index.htm")).isFalse();
+		assertThat(pathMatcher.match("/docs/index*", "/docs/index")).isTrue();
+		assertThat(pathMatcher.match("/docs/a*b*c", "/docs/abc")).isTrue();
+		assertThat(pathMatcher.match("/docs/a*b*c", "/docs/axxbyyc")).isTrue();
+		assertThat(pathMatcher.match("/docs/a*b*c", "/docs/acb")).isFalse();
+		assertThat(pathMatcher.match("/docs/a*bc*bc", "/docs/abcbc")).isTrue();
+		assertThat(pathMatcher.match("/docs/a*a", "/docs/a")).isFalse();
+		assertThat(pathMatcher.match("/docs/a**b", "/docs/ab")).isTrue();
+		assertThat(pathMatcher.match("/docs/*.*", "/docs/a.b")).isTrue();
+		assertThat(pathMatcher.match("/docs/*.*", "/docs/ab")).isFalse();
+		assertThat(pathMatcher.match("/docs/\\Q*", "/docs/\\Qx")).isTrue();
+
+		AntPathMatcher caseInsensitiveMatcher = new AntPathMatcher();
+		caseInsensitiveMatcher.setCaseSensitive(false);
+		assertThat(caseInsensitiveMatcher.match("/docs/*.HTML", "/DOCS/Index.html")).isTrue();
+		assertThat(caseInsensitiveMatcher.match("/docs/A*b", "/docs/axB")).isTrue();
 	}
 
 	@Test
@@ -647,22 +683,22 @@ class AntPathMatcherTests {
 	@Test
 	void preventCreatingStringMatchersIfPathDoesNotStartsWithPatternPrefix() {
 		pathMatcher.setCachePatterns(true);
-		assertThat(pathMatcher.stringMatcherCache).isEmpty();
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(0);
 
 		pathMatcher.match("test?", "test");
-		assertThat(pathMatcher.stringMatcherCache).hasSize(1);
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(1);
 
 		pathMatcher.match("test?", "best");
 		pathMatcher.match("test/*", "view/test.jpg");
 		pathMatcher.match("test/**/test.jpg", "view/test.jpg");
 		pathMatcher.match("test/{name}.jpg", "view/test.jpg");
-		assertThat(pathMatcher.stringMatcherCache).hasSize(1);
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(1);
 	}
 
 	@Test
 	void creatingStringMatchersIfPatternPrefixCannotDetermineIfPathMatch() {
 		pathMatcher.setCachePatterns(true);
-		assertThat(pathMatcher.stringMatcherCache).isEmpty();
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(0);
 
 		pathMatcher.match("test", "testian");
 		pathMatcher.match("test?", "testFf");
@@ -673,14 +709,14 @@ class AntPathMatcherTests {
 		pathMatcher.match("/**/{name}.jpg", "/test/lorem.jpg");
 		pathMatcher.match("/*/dir/{name}.jpg", "/*/dir/lorem.jpg");
 
-		assertThat(pathMatcher.stringMatcherCache).hasSize(7);
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(7);
 	}
 
 	@Test
 	void cachePatternsSetToFalse() {
 		pathMatcher.setCachePatterns(false);
 		match();
-		assertThat(pathMatcher.stringMatcherCache.isEmpty()).isTrue();
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(0);
 	}
 
 	@Test
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.springframework.util;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.util.ConcurrentLruCache.AdmissionPolicy;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -83,4 +85,79 @@ class ConcurrentLruCacheTests {
 		assertThat(this.cache.contains("k3")).isTrue();
 	}
 
+	@Test
+	void hitMissAndEvictionCounts() {
+		this.cache.get("k1");
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k3");
+		assertThat(this.cache.hitCount()).isEqualTo(1);
+		assertThat(this.cache.missCount()).isEqualTo(3);
+		assertThat(this.cache.evictionCount()).isEqualTo(1);
+		this.cache.remove("k3");
+		this.cache.clear();
+		assertThat(this.cache.evictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void frequencyAdmissionRetainsHotEntriesDuringScan() {
+		ConcurrentLruCache<String, String> lruCache = new ConcurrentLruCache<>(100, key -> key + "value");
+		ConcurrentLruCache<String, String> lfuCache =
+				new ConcurrentLruCache<>(100, key -> key + "value", AdmissionPolicy.FREQUENCY);
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 50; j++) {
+				lruCache.get("hot" + j);
+				lfuCache.get("hot" + j);
+			}
+		}
+		for (int i = 0; i < 1000; i++) {
+			lruCache.get("scan" + i);
+			lfuCache.get("scan" + i);
+		}
+		assertThat(lfuCache.size()).isEqualTo(100);
+		assertThat(lfuCache.evictionCount()).isEqualTo(950);
+		for (int j = 0; j < 50; j++) {
+			assertThat(lruCache.contains("hot" + j)).isFalse();
+			assertThat(lfuCache.contains("hot" + j)).isTrue();
+		}
+	}
+
+	@Test
+	void frequencyAdmissionAdmitsRepeatedlyRequestedEntry() {
+		ConcurrentLruCache<String, String> cache =
+				new ConcurrentLruCache<>(10, key -> key + "value", AdmissionPolicy.FREQUENCY);
+		for (int i = 0; i < 10; i++) {
+			cache.get("k" + i);
+		}
+		// New entries enter the window, then are rejected by the main space
+		// unless requested more often than its least recently used entry
+		cache.get("new");
+		assertThat(cache.contains("new")).isTrue();
+		cache.get("other");
+		assertThat(cache.contains("new")).isFalse();
+		cache.get("new");
+		cache.get("next");
+		assertThat(cache.contains("new")).isTrue();
+		assertThat(cache.contains("other")).isFalse();
+		assertThat(cache.contains("k0")).isFalse();
+		assertThat(cache.size()).isEqualTo(10);
+		assertThat(cache.missCount()).isEqualTo(14);
+		assertThat(cache.evictionCount()).isEqualTo(4);
+	}
+
+	@Test
+	void frequencyAdmissionWithSingleEntry() {
+		ConcurrentLruCache<String, String> cache =
+				new ConcurrentLruCache<>(1, key -> key + "value", AdmissionPolicy.FREQUENCY);
+		assertThat(cache.get("k1")).isEqualTo("k1value");
+		assertThat(cache.get("k2")).isEqualTo("k2value");
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.contains("k2")).isTrue();
+		cache.remove("k2");
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.get("k3")).isEqualTo("k3value");
+		cache.clear();
+		assertThat(cache.size()).isEqualTo(0);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -252,6 +253,49 @@ class ConcurrentReferenceHashMapTests {
 		assertThat(this.map.get(5)).isEqualTo("5");
 	}
 
+	@Test
+	void shouldDeferPurgeOnGetToPutWhileLocked() throws Exception {
+		this.map = new TestWeakConcurrentCache<>(1, 0.75f, 1);
+		for (int i = 1; i <= 5; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		this.map.getMockReference(1, Restructure.NEVER).queueForPurge();
+		this.map.getMockReference(3, Restructure.NEVER).queueForPurge();
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread lockHolder = new Thread(() -> {
+			this.map.getSegment(0).lock();
+			try {
+				locked.countDown();
+				release.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				this.map.getSegment(0).unlock();
+			}
+		});
+		lockHolder.start();
+		locked.await();
+		try {
+			assertThat(this.map.get(2)).isEqualTo("2");
+			assertThat(this.map.getReference(1, Restructure.WHEN_NECESSARY)).isNotNull();
+			assertThat(this.map.getSegment(0).getCount()).isEqualTo(5);
+		}
+		finally {
+			release.countDown();
+			lockHolder.join();
+		}
+		this.map.put(6, "6");
+		assertThat(this.map.getReference(1, Restructure.NEVER)).isNull();
+		assertThat(this.map.getReference(3, Restructure.NEVER)).isNull();
+		assertThat(this.map.getSegment(0).getCount()).isEqualTo(4);
+		assertThat(this.map.get(2)).isEqualTo("2");
+		assertThat(this.map.get(4)).isEqualTo("4");
+		assertThat(this.map.get(5)).isEqualTo("5");
+	}
+
 	@Test
 	void shouldPutIfAbsent() {
 		assertThat(this.map.putIfAbsent(123, "123")).isNull();
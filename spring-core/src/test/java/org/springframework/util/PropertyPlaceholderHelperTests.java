@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -108,4 +108,25 @@ class PropertyPlaceholderHelperTests {
 				helper.replacePlaceholders(text, props));
 	}
 
+	@Test
+	void sameTextWithDifferentResolvers() {
+		String text = "${foo}-${bar:baz}";
+		PropertyPlaceholderHelper helper = new PropertyPlaceholderHelper("${", "}", ":", true);
+
+		assertThat(helper.replacePlaceholders(text, name -> "foo".equals(name) ? "1" : null)).isEqualTo("1-baz");
+		assertThat(helper.replacePlaceholders(text, name -> "bar".equals(name) ? "2" : null)).isEqualTo("${foo}-2");
+		assertThat(helper.replacePlaceholders(text, name -> "x")).isEqualTo("x-x");
+	}
+
+	@Test
+	void resolvedValueDoesNotFormPlaceholderWithFollowingText() {
+		Properties props = new Properties();
+		props.setProperty("foo", "$");
+		props.setProperty("bar", "baz");
+
+		assertThat(this.helper.replacePlaceholders("${foo}{bar}", props)).isEqualTo("${bar}");
+		assertThat(this.helper.replacePlaceholders("a${foo}b${unterminated", props)).isEqualTo("a$b${unterminated");
+		assertThat(this.helper.replacePlaceholders("${foo", props)).isEqualTo("${foo");
+	}
+
 }
@@ -21,6 +21,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Random;
 import java.util.UUID;
@@ -68,6 +69,24 @@ class StreamUtilsTests {
 		assertThat(actual).isEqualTo(string);
 	}
 
+	@Test
+	void copyToByteArrayReleasesPooledBuffers() throws Exception {
+		TrackingByteArrayPool pool = new TrackingByteArrayPool();
+		byte[] actual = StreamUtils.copyToByteArray(new ByteArrayInputStream(bytes), pool);
+		assertThat(actual).isEqualTo(bytes);
+		assertThat(pool.acquired).isGreaterThan(1).isEqualTo(pool.released);
+		assertThat(StreamUtils.copyToByteArray(new ByteArrayInputStream(new byte[0]), pool)).isEmpty();
+	}
+
+	@Test
+	void copyToStringReleasesPooledBuffers() throws Exception {
+		TrackingByteArrayPool pool = new TrackingByteArrayPool();
+		String actual = StreamUtils.copyToString(
+				new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, pool);
+		assertThat(actual).isEqualTo(string);
+		assertThat(pool.acquired).isGreaterThan(1).isEqualTo(pool.released);
+	}
+
 	@Test
 	void copyBytes() throws Exception {
 		ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -83,6 +102,22 @@ class StreamUtilsTests {
 		assertThat(out.toByteArray()).isEqualTo(string.getBytes(charset));
 	}
 
+	@Test
+	void copyStringWithPool() throws Exception {
+		String value = string + "\u00e9\u20ac\ud83d\ude00 lone \ud83d and \ude00";
+		for (Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1,
+				StandardCharsets.UTF_16, StandardCharsets.US_ASCII}) {
+			TrackingByteArrayPool pool = new TrackingByteArrayPool();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			StreamUtils.copy(value, charset, out, pool);
+			assertThat(out.toByteArray()).as(charset.name()).isEqualTo(value.getBytes(charset));
+			assertThat(pool.acquired).isEqualTo(1).isEqualTo(pool.released);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StreamUtils.copy("", StandardCharsets.UTF_8, out, ByteArrayPool.unpooled());
+		assertThat(out.toByteArray()).isEmpty();
+	}
+
 	@Test
 	void copyStream() throws Exception {
 		ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -127,4 +162,24 @@ class StreamUtilsTests {
 		ordered.verify(source).write(bytes, 1, 2);
 		ordered.verify(source, never()).close();
 	}
+
+
+	private static class TrackingByteArrayPool implements ByteArrayPool {
+
+		int acquired;
+
+		int released;
+
+		@Override
+		public byte[] acquire(int minCapacity) {
+			this.acquired++;
+			return new byte[minCapacity];
+		}
+
+		@Override
+		public void release(byte[] buffer) {
+			this.released++;
+		}
+	}
+
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ThreadLocalByteArrayPool}.
+ */
+class ThreadLocalByteArrayPoolTests {
+
+	private final ThreadLocalByteArrayPool pool = new ThreadLocalByteArrayPool(8 * 1024, 2);
+
+
+	@Test
+	void acquireRoundsUpToSizeClass() {
+		assertThat(this.pool.acquire(0)).hasSize(1024);
+		assertThat(this.pool.acquire(1024)).hasSize(1024);
+		assertThat(this.pool.acquire(1025)).hasSize(2048);
+		assertThat(this.pool.acquire(8 * 1024)).hasSize(8 * 1024);
+		assertThat(this.pool.acquire(8 * 1024 + 1)).hasSize(8 * 1024 + 1);
+	}
+
+	@Test
+	void releasedBufferIsReused() {
+		byte[] buffer = this.pool.acquire(3000);
+		this.pool.release(buffer);
+		assertThat(this.pool.acquire(2049)).isSameAs(buffer);
+		assertThat(this.pool.acquire(2049)).isNotSameAs(buffer);
+	}
+
+	@Test
+	void retainsBoundedNumberOfBuffersPerSize() {
+		byte[] buffer1 = this.pool.acquire(1024);
+		byte[] buffer2 = this.pool.acquire(1024);
+		byte[] buffer3 = this.pool.acquire(1024);
+		this.pool.release(buffer1);
+		this.pool.release(buffer2);
+		this.pool.release(buffer3);
+		assertThat(this.pool.acquire(1024)).isSameAs(buffer2);
+		assertThat(this.pool.acquire(1024)).isSameAs(buffer1);
+		byte[] buffer4 = this.pool.acquire(1024);
+		assertThat(buffer4).isNotSameAs(buffer1).isNotSameAs(buffer2).isNotSameAs(buffer3);
+	}
+
+	@Test
+	void foreignBuffersAreNotRetained() {
+		byte[] large = this.pool.acquire(16 * 1024);
+		this.pool.release(large);
+		assertThat(this.pool.acquire(16 * 1024)).isNotSameAs(large);
+
+		byte[] odd = new byte[3000];
+		this.pool.release(odd);
+		assertThat(this.pool.acquire(3000)).isNotSameAs(odd);
+
+		byte[] small = new byte[512];
+		this.pool.release(small);
+		assertThat(this.pool.acquire(512)).isNotSameAs(small);
+	}
+
+	@Test
+	void buffersAreNotSharedAcrossThreads() throws Exception {
+		byte[] buffer = this.pool.acquire(1024);
+		this.pool.release(buffer);
+		byte[] other = CompletableFuture.supplyAsync(() -> this.pool.acquire(1024)).get();
+		assertThat(other).isNotSameAs(buffer);
+		assertThat(this.pool.acquire(1024)).isSameAs(buffer);
+	}
+
+	@Test
+	void clear() {
+		byte[] buffer = this.pool.acquire(1024);
+		this.pool.release(buffer);
+		this.pool.clear();
+		assertThat(this.pool.acquire(1024)).isNotSameAs(buffer);
+	}
+
+	@Test
+	void noRetention() {
+		ThreadLocalByteArrayPool pool = new ThreadLocalByteArrayPool(1024, 0);
+		byte[] buffer = pool.acquire(1024);
+		pool.release(buffer);
+		assertThat(pool.acquire(1024)).isNotSameAs(buffer);
+	}
+
+	@Test
+	void maxBufferSizeIsRoundedUp() {
+		assertThat(new ThreadLocalByteArrayPool(1, 1).getMaxBufferSize()).isEqualTo(1024);
+		assertThat(new ThreadLocalByteArrayPool(5000, 1).getMaxBufferSize()).isEqualTo(8192);
+		assertThat(new ThreadLocalByteArrayPool().getMaxBufferSize()).isEqualTo(64 * 1024);
+		assertThatIllegalArgumentException().isThrownBy(() -> new ThreadLocalByteArrayPool(0, 1));
+		assertThatIllegalArgumentException().isThrownBy(() -> new ThreadLocalByteArrayPool(1024, -1));
+	}
+
+	@Test
+	void unpooled() {
+		ByteArrayPool pool = ByteArrayPool.unpooled();
+		byte[] buffer = pool.acquire(10);
+		assertThat(buffer).hasSize(10);
+		pool.release(buffer);
+		assertThat(pool.acquire(10)).isNotSameAs(buffer);
+	}
+
+}
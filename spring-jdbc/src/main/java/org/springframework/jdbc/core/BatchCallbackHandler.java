@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.SQLException;
+
+/**
+ * Callback interface used by {@link JdbcTemplate}'s streaming batch update
+ * methods to process the update counts of each executed batch, as an
+ * alternative to accumulating the update counts of all batches in memory.
+ *
+ * <p>Implementations <i>do not</i> need to concern themselves with SQLExceptions
+ * that may be thrown from operations they attempt. The JdbcTemplate class will
+ * catch and handle SQLExceptions appropriately.
+ *
+ * @since 6.1
+ * @see JdbcTemplate#batchUpdate(String, java.util.Iterator, int, ParameterizedPreparedStatementSetter, BatchCallbackHandler)
+ */
+@FunctionalInterface
+public interface BatchCallbackHandler {
+
+	/**
+	 * Process the update counts of a batch that has just been executed.
+	 * @param firstArgumentIndex the index of the first batch argument of this
+	 * batch among all batch arguments, starting at 0
+	 * @param updateCounts the number of rows affected by each update in the batch
+	 * (may also contain special JDBC-defined negative values for affected rows such as
+	 * {@link java.sql.Statement#SUCCESS_NO_INFO}/{@link java.sql.Statement#EXECUTE_FAILED})
+	 * @throws SQLException if an SQLException is encountered (i.e. there is no need to catch SQLException)
+	 */
+	void processBatch(long firstArgumentIndex, int[] updateCounts) throws SQLException;
+
+}
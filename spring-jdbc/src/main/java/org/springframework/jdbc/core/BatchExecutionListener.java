@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+/**
+ * Listener for the execution of batches by {@link JdbcTemplate}'s batch
+ * update methods for prepared statements, e.g. for recording the duration
+ * of each round trip to the database when tuning batch sizes.
+ *
+ * <p>For batches rewritten into multi-row inserts, the listener is notified
+ * once per executed multi-row statement. Batches executed on a statement
+ * from a {@link PreparedStatementCreator} are only reported if the creator
+ * exposes its SQL through the {@link SqlProvider} interface.
+ *
+ * @since 6.1
+ * @see JdbcTemplate#setBatchExecutionListener
+ * @see JdbcTemplate#setRewriteBatchedInserts
+ */
+@FunctionalInterface
+public interface BatchExecutionListener {
+
+	/**
+	 * Invoked after a batch has been executed successfully.
+	 * @param sql the SQL statement as executed, i.e. the multi-row statement
+	 * in case of a rewritten batch
+	 * @param items the number of batch arguments in the batch
+	 * @param elapsedNanos the time taken to execute the batch, in nanoseconds
+	 */
+	void batchExecuted(String sql, int items, long elapsedNanos);
+
+}
@@ -16,14 +16,24 @@
 
 package org.springframework.jdbc.core;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyDescriptor;
+import java.beans.PropertyEditor;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.commons.logging.Log;
@@ -32,10 +42,13 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.MethodInvocationException;
 import org.springframework.beans.NotWritablePropertyException;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
@@ -43,6 +56,7 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -77,6 +91,12 @@ import org.springframework.util.StringUtils;
  * &mdash; for example, a Java {@code record} or a Kotlin {@code data} class &mdash;
  * use {@link DataClassRowMapper} instead.
  *
+ * <p>The result set meta-data is inspected once per {@code ResultSet}, resolving
+ * the columns into a plan of property assignments for all of its rows. Column
+ * values that are already of the property type are passed to the setter
+ * directly, unless {@link #initBeanWrapper} registers custom property editors;
+ * other values go through a {@link BeanWrapper} for type conversion.
+ *
  * <p>Please note that this class is designed to provide convenience rather than
  * high performance. For best performance, consider using a custom {@code RowMapper}
  * implementation.
@@ -119,6 +139,10 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	@Nullable
 	private Set<String> mappedPropertyNames;
 
+	/** Mapping plan for the most recently mapped ResultSet. */
+	@Nullable
+	private volatile MappingPlan mappingPlan;
+
 
 	/**
 	 * Create a new {@code BeanPropertyRowMapper} for bean-style configuration.
@@ -225,6 +249,7 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 */
 	public void setConversionService(@Nullable ConversionService conversionService) {
 		this.conversionService = conversionService;
+		this.mappingPlan = null;
 	}
 
 	/**
@@ -244,6 +269,7 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 */
 	protected void initialize(Class<T> mappedClass) {
 		this.mappedClass = mappedClass;
+		this.mappingPlan = null;
 		this.mappedProperties = new HashMap<>();
 		this.mappedPropertyNames = new HashSet<>();
 
@@ -270,6 +296,7 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 			this.mappedProperties.remove(lowerCaseName(propertyName));
 			this.mappedProperties.remove(underscoreName(propertyName));
 		}
+		this.mappingPlan = null;
 	}
 
 	/**
@@ -313,61 +340,57 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 
 	/**
 	 * Extract the values for all columns in the current row.
-	 * <p>Utilizes public setters and result set meta-data.
+	 * <p>Utilizes public setters and result set meta-data. The meta-data is
+	 * only inspected for the first row of each {@code ResultSet}, resolving
+	 * the column to property assignments into a plan for all further rows.
 	 * @see java.sql.ResultSetMetaData
 	 */
 	@Override
 	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
-		BeanWrapperImpl bw = new BeanWrapperImpl();
-		initBeanWrapper(bw);
-
-		T mappedObject = constructMappedInstance(rs, bw);
-		bw.setBeanInstance(mappedObject);
-
-		ResultSetMetaData rsmd = rs.getMetaData();
-		int columnCount = rsmd.getColumnCount();
-		Set<String> populatedProperties = (isCheckFullyPopulated() ? new HashSet<>() : null);
-
-		for (int index = 1; index <= columnCount; index++) {
-			String column = JdbcUtils.lookupColumnName(rsmd, index);
-			String property = lowerCaseName(StringUtils.delete(column, " "));
-			PropertyDescriptor pd = (this.mappedProperties != null ? this.mappedProperties.get(property) : null);
-			if (pd != null) {
+		MappingPlan plan = obtainMappingPlan(rs);
+		RowTypeConverter tc = new RowTypeConverter(plan.customConversion);
+		T mappedObject = constructMappedInstance(rs, tc);
+
+		for (PropertyMapping mapping : plan.propertyMappings) {
+			String column = mapping.column;
+			PropertyDescriptor pd = mapping.propertyDescriptor;
+			try {
+				Object value = getColumnValue(rs, mapping.index, pd);
+				if (rowNumber == 0 && logger.isDebugEnabled()) {
+					logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+							"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+				}
 				try {
-					Object value = getColumnValue(rs, index, pd);
-					if (rowNumber == 0 && logger.isDebugEnabled()) {
-						logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
-								"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+					if (mapping.writeMethod != null && ClassUtils.isAssignableValue(pd.getPropertyType(), value)) {
+						// No conversion necessary: invoke the setter directly.
+						invokeWriteMethod(mapping.writeMethod, mappedObject, pd, value);
 					}
-					try {
-						bw.setPropertyValue(pd.getName(), value);
+					else {
+						tc.getBeanWrapper(mappedObject).setPropertyValue(pd.getName(), value);
 					}
-					catch (TypeMismatchException ex) {
-						if (value == null && this.primitivesDefaultedForNullValue) {
-							if (logger.isDebugEnabled()) {
-								String propertyType = ClassUtils.getQualifiedName(pd.getPropertyType());
-								logger.debug("""
-										Ignoring intercepted TypeMismatchException for row %d and column '%s' \
-										with null value when setting property '%s' of type '%s' on object: %s"
-										""".formatted(rowNumber, column, pd.getName(), propertyType, mappedObject), ex);
-							}
-						}
-						else {
-							throw ex;
+				}
+				catch (TypeMismatchException ex) {
+					if (value == null && this.primitivesDefaultedForNullValue) {
+						if (logger.isDebugEnabled()) {
+							String propertyType = ClassUtils.getQualifiedName(pd.getPropertyType());
+							logger.debug("""
+									Ignoring intercepted TypeMismatchException for row %d and column '%s' \
+									with null value when setting property '%s' of type '%s' on object: %s"
+									""".formatted(rowNumber, column, pd.getName(), propertyType, mappedObject), ex);
 						}
 					}
-					if (populatedProperties != null) {
-						populatedProperties.add(pd.getName());
+					else {
+						throw ex;
 					}
 				}
-				catch (NotWritablePropertyException ex) {
-					throw new DataRetrievalFailureException(
-							"Unable to map column '" + column + "' to property '" + pd.getName() + "'", ex);
-				}
+			}
+			catch (NotWritablePropertyException ex) {
+				throw new DataRetrievalFailureException(
+						"Unable to map column '" + column + "' to property '" + pd.getName() + "'", ex);
 			}
 		}
 
-		if (populatedProperties != null && !populatedProperties.equals(this.mappedPropertyNames)) {
+		if (isCheckFullyPopulated() && !plan.populatedProperties.equals(this.mappedPropertyNames)) {
 			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all properties " +
 					"necessary to populate object of " + this.mappedClass + ": " + this.mappedPropertyNames);
 		}
@@ -375,6 +398,80 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return mappedObject;
 	}
 
+	/**
+	 * Return the mapping plan for the given {@code ResultSet}, reusing the
+	 * plan of the previous row if it has been created for the same instance.
+	 */
+	private MappingPlan obtainMappingPlan(ResultSet rs) throws SQLException {
+		MappingPlan plan = this.mappingPlan;
+		if (plan == null || plan.resultSet.get() != rs) {
+			plan = createMappingPlan(rs);
+			this.mappingPlan = plan;
+		}
+		return plan;
+	}
+
+	private MappingPlan createMappingPlan(ResultSet rs) throws SQLException {
+		EditorTrackingBeanWrapper template = new EditorTrackingBeanWrapper();
+		initBeanWrapper(template);
+		ConversionService cs = template.getConversionService();
+		// Unlike custom editors and converters, the shared DefaultConversionService
+		// returns values that are already of the required type as-is.
+		boolean customConversion = (template.customEditors ||
+				(cs != null && cs != DefaultConversionService.getSharedInstance()));
+
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		List<PropertyMapping> propertyMappings = new ArrayList<>(columnCount);
+		Set<String> populatedProperties = new HashSet<>();
+		for (int index = 1; index <= columnCount; index++) {
+			String column = JdbcUtils.lookupColumnName(rsmd, index);
+			String property = lowerCaseName(StringUtils.delete(column, " "));
+			PropertyDescriptor pd = (this.mappedProperties != null ? this.mappedProperties.get(property) : null);
+			if (pd != null) {
+				Method writeMethod = (!customConversion && isDirectlyAssignable(pd.getPropertyType()) ?
+						pd.getWriteMethod() : null);
+				if (writeMethod != null) {
+					ReflectionUtils.makeAccessible(writeMethod);
+				}
+				propertyMappings.add(new PropertyMapping(index, column, pd, writeMethod));
+				populatedProperties.add(pd.getName());
+			}
+		}
+		return new MappingPlan(rs, customConversion, propertyMappings.toArray(new PropertyMapping[0]),
+				populatedProperties);
+	}
+
+	/**
+	 * Determine whether values of the given property type can be set without
+	 * going through a {@link BeanWrapper} once they are an instance of that type,
+	 * i.e. whether type conversion would return such a value as-is.
+	 */
+	private static boolean isDirectlyAssignable(Class<?> propertyType) {
+		return !(Collection.class.isAssignableFrom(propertyType) || Map.class.isAssignableFrom(propertyType) ||
+				Optional.class == propertyType || (propertyType.isArray() && byte[].class != propertyType));
+	}
+
+	private static void invokeWriteMethod(Method writeMethod, Object mappedObject, PropertyDescriptor pd,
+			@Nullable Object value) {
+
+		try {
+			writeMethod.invoke(mappedObject, value);
+		}
+		catch (InvocationTargetException ex) {
+			// Same exceptions as from BeanWrapper.setPropertyValue
+			PropertyChangeEvent event = new PropertyChangeEvent(mappedObject, pd.getName(), null, value);
+			if (ex.getTargetException() instanceof ClassCastException) {
+				throw new TypeMismatchException(event, pd.getPropertyType(), ex.getTargetException());
+			}
+			throw new MethodInvocationException(event, ex.getTargetException());
+		}
+		catch (Exception ex) {
+			PropertyChangeEvent event = new PropertyChangeEvent(mappedObject, pd.getName(), null, value);
+			throw new MethodInvocationException(event, ex);
+		}
+	}
+
 	/**
 	 * Construct an instance of the mapped class for the current row.
 	 * @param rs the ResultSet to map (pre-initialized for the current row)
@@ -466,4 +563,140 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return rowMapper;
 	}
 
+
+	/**
+	 * Column to property assignments for a given {@code ResultSet}.
+	 */
+	private static final class MappingPlan {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final boolean customConversion;
+
+		final PropertyMapping[] propertyMappings;
+
+		final Set<String> populatedProperties;
+
+		MappingPlan(ResultSet resultSet, boolean customConversion, PropertyMapping[] propertyMappings,
+				Set<String> populatedProperties) {
+
+			this.resultSet = new WeakReference<>(resultSet);
+			this.customConversion = customConversion;
+			this.propertyMappings = propertyMappings;
+			this.populatedProperties = populatedProperties;
+		}
+	}
+
+
+	/**
+	 * Assignment of a column to a bean property, with the write method to
+	 * invoke directly for values of the property type, if any.
+	 */
+	private record PropertyMapping(int index, String column, PropertyDescriptor propertyDescriptor,
+			@Nullable Method writeMethod) {
+	}
+
+
+	/**
+	 * BeanWrapper used to apply {@link #initBeanWrapper} once per plan,
+	 * tracking whether any custom editors get registered.
+	 */
+	private static class EditorTrackingBeanWrapper extends BeanWrapperImpl {
+
+		boolean customEditors;
+
+		@Override
+		public void registerCustomEditor(@Nullable Class<?> requiredType, @Nullable String propertyPath,
+				PropertyEditor propertyEditor) {
+
+			super.registerCustomEditor(requiredType, propertyPath, propertyEditor);
+			this.customEditors = true;
+		}
+	}
+
+
+	/**
+	 * TypeConverter for a single row, returning values of the required type
+	 * as-is and creating a BeanWrapper for the row only when conversion
+	 * is actually necessary.
+	 */
+	private class RowTypeConverter implements TypeConverter {
+
+		private final boolean customConversion;
+
+		@Nullable
+		private BeanWrapperImpl beanWrapper;
+
+		private boolean beanInstanceSet;
+
+		RowTypeConverter(boolean customConversion) {
+			this.customConversion = customConversion;
+		}
+
+		/**
+		 * Return the BeanWrapper for this row, wrapping the given mapped object
+		 * if specified, or just serving for type conversion otherwise.
+		 */
+		BeanWrapperImpl getBeanWrapper(@Nullable Object mappedObject) {
+			BeanWrapperImpl bw = this.beanWrapper;
+			if (bw == null) {
+				bw = new BeanWrapperImpl();
+				initBeanWrapper(bw);
+				this.beanWrapper = bw;
+			}
+			if (mappedObject != null && !this.beanInstanceSet) {
+				bw.setBeanInstance(mappedObject);
+				this.beanInstanceSet = true;
+			}
+			return bw;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Nullable
+		private <V> V asRequiredType(@Nullable Object value) {
+			return (V) value;
+		}
+
+		private boolean isAssignable(@Nullable Object value, @Nullable Class<?> requiredType) {
+			return (!this.customConversion && requiredType != null &&
+					isDirectlyAssignable(requiredType) && ClassUtils.isAssignableValue(requiredType, value));
+		}
+
+		@Override
+		@Nullable
+		public <V> V convertIfNecessary(@Nullable Object value, @Nullable Class<V> requiredType)
+				throws TypeMismatchException {
+
+			return (isAssignable(value, requiredType) ? asRequiredType(value) :
+					getBeanWrapper(null).convertIfNecessary(value, requiredType));
+		}
+
+		@Override
+		@Nullable
+		public <V> V convertIfNecessary(@Nullable Object value, @Nullable Class<V> requiredType,
+				@Nullable MethodParameter methodParam) throws TypeMismatchException {
+
+			return (isAssignable(value, requiredType) ? asRequiredType(value) :
+					getBeanWrapper(null).convertIfNecessary(value, requiredType, methodParam));
+		}
+
+		@Override
+		@Nullable
+		public <V> V convertIfNecessary(@Nullable Object value, @Nullable Class<V> requiredType,
+				@Nullable Field field) throws TypeMismatchException {
+
+			return (isAssignable(value, requiredType) ? asRequiredType(value) :
+					getBeanWrapper(null).convertIfNecessary(value, requiredType, field));
+		}
+
+		@Override
+		@Nullable
+		public <V> V convertIfNecessary(@Nullable Object value, @Nullable Class<V> requiredType,
+				@Nullable TypeDescriptor typeDescriptor) throws TypeMismatchException {
+
+			return (isAssignable(value, requiredType) ? asRequiredType(value) :
+					getBeanWrapper(null).convertIfNecessary(value, requiredType, typeDescriptor));
+		}
+	}
+
 }
@@ -0,0 +1,736 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+/**
+ * Column-oriented representation of a query result, as created by
+ * {@link ColumnarResultSetExtractor}.
+ *
+ * <p>Numeric columns are held in primitive {@code int}, {@code long} or
+ * {@code double} storage and character columns are dictionary-encoded, so
+ * large numeric results take a fraction of the heap of a {@code List<Map>}
+ * and can be processed in tight loops via {@link IntColumn#toArray()} or
+ * {@link IntColumn#forEach(IntConsumer)}. Storage grows in fixed-size chunks,
+ * avoiding the copying of ever larger arrays for long results.
+ *
+ * <p>Columns are accessed by their 1-based index, as with JDBC, or by their
+ * case-insensitive label. Accessing a column as a different type than it was
+ * extracted with results in an {@link InvalidDataAccessApiUsageException}.
+ *
+ * @since 6.1
+ * @see ColumnarResultSetExtractor
+ */
+public final class ColumnarResult {
+
+	private final Column[] columns;
+
+	private final Map<String, Column> columnsByName;
+
+	private final int rowCount;
+
+
+	ColumnarResult(Column[] columns, int rowCount) {
+		this.columns = columns;
+		this.columnsByName = new LinkedCaseInsensitiveMap<>(columns.length);
+		for (Column column : columns) {
+			this.columnsByName.putIfAbsent(column.getName(), column);
+		}
+		this.rowCount = rowCount;
+	}
+
+
+	/**
+	 * Return the number of rows in this result.
+	 */
+	public int getRowCount() {
+		return this.rowCount;
+	}
+
+	/**
+	 * Return the number of columns in this result.
+	 */
+	public int getColumnCount() {
+		return this.columns.length;
+	}
+
+	/**
+	 * Return the column labels, in result set order.
+	 */
+	public List<String> getColumnNames() {
+		List<String> names = new ArrayList<>(this.columns.length);
+		for (Column column : this.columns) {
+			names.add(column.getName());
+		}
+		return names;
+	}
+
+	/**
+	 * Return the column at the given index.
+	 * @param columnIndex the column index, starting at 1
+	 * @throws InvalidDataAccessApiUsageException if there is no such column
+	 */
+	public Column getColumn(int columnIndex) {
+		if (columnIndex < 1 || columnIndex > this.columns.length) {
+			throw new InvalidDataAccessApiUsageException("Invalid column index " + columnIndex +
+					": result has " + this.columns.length + " columns");
+		}
+		return this.columns[columnIndex - 1];
+	}
+
+	/**
+	 * Return the column with the given label. If several columns share the
+	 * same label, the first one is returned.
+	 * @param columnName the column label (case-insensitive)
+	 * @throws InvalidDataAccessApiUsageException if there is no such column
+	 */
+	public Column getColumn(String columnName) {
+		Column column = this.columnsByName.get(columnName);
+		if (column == null) {
+			throw new InvalidDataAccessApiUsageException("Invalid column name '" + columnName +
+					"': available columns are " + getColumnNames());
+		}
+		return column;
+	}
+
+	/**
+	 * Return the {@code int} column at the given index.
+	 */
+	public IntColumn getIntColumn(int columnIndex) {
+		return asType(getColumn(columnIndex), IntColumn.class);
+	}
+
+	/**
+	 * Return the {@code int} column with the given label.
+	 */
+	public IntColumn getIntColumn(String columnName) {
+		return asType(getColumn(columnName), IntColumn.class);
+	}
+
+	/**
+	 * Return the {@code long} column at the given index.
+	 */
+	public LongColumn getLongColumn(int columnIndex) {
+		return asType(getColumn(columnIndex), LongColumn.class);
+	}
+
+	/**
+	 * Return the {@code long} column with the given label.
+	 */
+	public LongColumn getLongColumn(String columnName) {
+		return asType(getColumn(columnName), LongColumn.class);
+	}
+
+	/**
+	 * Return the {@code double} column at the given index.
+	 */
+	public DoubleColumn getDoubleColumn(int columnIndex) {
+		return asType(getColumn(columnIndex), DoubleColumn.class);
+	}
+
+	/**
+	 * Return the {@code double} column with the given label.
+	 */
+	public DoubleColumn getDoubleColumn(String columnName) {
+		return asType(getColumn(columnName), DoubleColumn.class);
+	}
+
+	/**
+	 * Return the dictionary-encoded {@code String} column at the given index.
+	 */
+	public StringColumn getStringColumn(int columnIndex) {
+		return asType(getColumn(columnIndex), StringColumn.class);
+	}
+
+	/**
+	 * Return the dictionary-encoded {@code String} column with the given label.
+	 */
+	public StringColumn getStringColumn(String columnName) {
+		return asType(getColumn(columnName), StringColumn.class);
+	}
+
+	/**
+	 * Return the {@code Object} column at the given index.
+	 */
+	public ObjectColumn getObjectColumn(int columnIndex) {
+		return asType(getColumn(columnIndex), ObjectColumn.class);
+	}
+
+	/**
+	 * Return the {@code Object} column with the given label.
+	 */
+	public ObjectColumn getObjectColumn(String columnName) {
+		return asType(getColumn(columnName), ObjectColumn.class);
+	}
+
+	private static <T extends Column> T asType(Column column, Class<T> columnType) {
+		if (!columnType.isInstance(column)) {
+			throw new InvalidDataAccessApiUsageException("Column '" + column.getName() + "' is a " +
+					column.getClass().getSimpleName() + ", not a " + columnType.getSimpleName());
+		}
+		return columnType.cast(column);
+	}
+
+	@Override
+	public String toString() {
+		return "ColumnarResult: " + this.rowCount + " rows, columns " + getColumnNames();
+	}
+
+
+	/**
+	 * Base class for a single column of a {@link ColumnarResult}.
+	 */
+	public abstract static class Column {
+
+		static final int CHUNK_SHIFT = 13;
+
+		static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+		static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+		static final int INITIAL_CHUNK_SIZE = 16;
+
+		private final String name;
+
+		private final int sqlType;
+
+		private final BitSet nulls = new BitSet();
+
+		int size;
+
+		Column(String name, int sqlType) {
+			this.name = name;
+			this.sqlType = sqlType;
+		}
+
+		/**
+		 * Return the column label.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the SQL type of the column.
+		 * @see java.sql.Types
+		 */
+		public int getSqlType() {
+			return this.sqlType;
+		}
+
+		/**
+		 * Return the number of values in this column.
+		 */
+		public int size() {
+			return this.size;
+		}
+
+		/**
+		 * Return whether the value in the given row is SQL {@code NULL}.
+		 * Primitive columns hold {@code 0} for such values.
+		 * @param row the row index, starting at 0
+		 */
+		public boolean isNull(int row) {
+			checkRow(row);
+			return this.nulls.get(row);
+		}
+
+		/**
+		 * Return the value in the given row as an object, or {@code null}
+		 * for SQL {@code NULL}.
+		 * @param row the row index, starting at 0
+		 */
+		@Nullable
+		public abstract Object getObject(int row);
+
+		/**
+		 * Read the value at the given index of the current row and append it.
+		 */
+		abstract void readValue(ResultSet rs, int index) throws SQLException;
+
+		void markNull() {
+			this.nulls.set(this.size);
+		}
+
+		void checkRow(int row) {
+			if (row < 0 || row >= this.size) {
+				throw new IndexOutOfBoundsException("Row " + row + " out of bounds for length " + this.size);
+			}
+		}
+
+		/**
+		 * Return the capacity for the chunk to write the next value into,
+		 * growing the first chunk gradually to avoid allocating full chunks
+		 * for small results.
+		 */
+		static int nextChunkLength(int chunkIndex, int currentLength) {
+			if (chunkIndex > 0) {
+				return CHUNK_SIZE;
+			}
+			return (currentLength == 0 ? INITIAL_CHUNK_SIZE : Math.min(currentLength * 2, CHUNK_SIZE));
+		}
+	}
+
+
+	/**
+	 * A column of {@code int} values.
+	 */
+	public static final class IntColumn extends Column {
+
+		private final IntChunks values = new IntChunks();
+
+		IntColumn(String name, int sqlType) {
+			super(name, sqlType);
+		}
+
+		/**
+		 * Return the value in the given row, or {@code 0} for SQL {@code NULL}.
+		 * @param row the row index, starting at 0
+		 */
+		public int get(int row) {
+			checkRow(row);
+			return this.values.get(row);
+		}
+
+		@Override
+		@Nullable
+		public Object getObject(int row) {
+			return (isNull(row) ? null : this.values.get(row));
+		}
+
+		/**
+		 * Pass each value in row order to the given consumer.
+		 */
+		public void forEach(IntConsumer action) {
+			this.values.forEach(action, this.size);
+		}
+
+		/**
+		 * Copy the values into a new array.
+		 */
+		public int[] toArray() {
+			return this.values.toArray(this.size);
+		}
+
+		@Override
+		void readValue(ResultSet rs, int index) throws SQLException {
+			int value = rs.getInt(index);
+			if (value == 0 && rs.wasNull()) {
+				markNull();
+			}
+			this.values.add(value, this.size++);
+		}
+	}
+
+
+	/**
+	 * A column of {@code long} values.
+	 */
+	public static final class LongColumn extends Column {
+
+		private final LongChunks values = new LongChunks();
+
+		LongColumn(String name, int sqlType) {
+			super(name, sqlType);
+		}
+
+		/**
+		 * Return the value in the given row, or {@code 0} for SQL {@code NULL}.
+		 * @param row the row index, starting at 0
+		 */
+		public long get(int row) {
+			checkRow(row);
+			return this.values.get(row);
+		}
+
+		@Override
+		@Nullable
+		public Object getObject(int row) {
+			return (isNull(row) ? null : this.values.get(row));
+		}
+
+		/**
+		 * Pass each value in row order to the given consumer.
+		 */
+		public void forEach(LongConsumer action) {
+			this.values.forEach(action, this.size);
+		}
+
+		/**
+		 * Copy the values into a new array.
+		 */
+		public long[] toArray() {
+			return this.values.toArray(this.size);
+		}
+
+		@Override
+		void readValue(ResultSet rs, int index) throws SQLException {
+			long value = rs.getLong(index);
+			if (value == 0 && rs.wasNull()) {
+				markNull();
+			}
+			this.values.add(value, this.size++);
+		}
+	}
+
+
+	/**
+	 * A column of {@code double} values.
+	 */
+	public static final class DoubleColumn extends Column {
+
+		private final DoubleChunks values = new DoubleChunks();
+
+		DoubleColumn(String name, int sqlType) {
+			super(name, sqlType);
+		}
+
+		/**
+		 * Return the value in the given row, or {@code 0} for SQL {@code NULL}.
+		 * @param row the row index, starting at 0
+		 */
+		public double get(int row) {
+			checkRow(row);
+			return this.values.get(row);
+		}
+
+		@Override
+		@Nullable
+		public Object getObject(int row) {
+			return (isNull(row) ? null : this.values.get(row));
+		}
+
+		/**
+		 * Pass each value in row order to the given consumer.
+		 */
+		public void forEach(DoubleConsumer action) {
+			this.values.forEach(action, this.size);
+		}
+
+		/**
+		 * Copy the values into a new array.
+		 */
+		public double[] toArray() {
+			return this.values.toArray(this.size);
+		}
+
+		@Override
+		void readValue(ResultSet rs, int index) throws SQLException {
+			double value = rs.getDouble(index);
+			if (value == 0 && rs.wasNull()) {
+				markNull();
+			}
+			this.values.add(value, this.size++);
+		}
+	}
+
+
+	/**
+	 * A column of {@code String} values, stored as {@code int} codes into a
+	 * dictionary of the distinct values. Best suited for columns with a
+	 * limited number of distinct values, such as status or category columns.
+	 */
+	public static final class StringColumn extends Column {
+
+		private final IntChunks codes = new IntChunks();
+
+		private final List<String> dictionary = new ArrayList<>();
+
+		@Nullable
+		private Map<String, Integer> codesByValue = new HashMap<>();
+
+		StringColumn(String name, int sqlType) {
+			super(name, sqlType);
+		}
+
+		/**
+		 * Return the value in the given row, or {@code null} for SQL {@code NULL}.
+		 * @param row the row index, starting at 0
+		 */
+		@Nullable
+		public String get(int row) {
+			int code = getCode(row);
+			return (code != -1 ? this.dictionary.get(code) : null);
+		}
+
+		@Override
+		@Nullable
+		public Object getObject(int row) {
+			return get(row);
+		}
+
+		/**
+		 * Return the dictionary code of the value in the given row, or
+		 * {@code -1} for SQL {@code NULL}.
+		 * @param row the row index, starting at 0
+		 * @see #getDictionary()
+		 */
+		public int getCode(int row) {
+			checkRow(row);
+			return this.codes.get(row);
+		}
+
+		/**
+		 * Return the distinct values in order of first occurrence, indexed
+		 * by their code.
+		 */
+		public List<String> getDictionary() {
+			return Collections.unmodifiableList(this.dictionary);
+		}
+
+		/**
+		 * Pass the dictionary code of each value in row order to the given consumer.
+		 */
+		public void forEachCode(IntConsumer action) {
+			this.codes.forEach(action, this.size);
+		}
+
+		/**
+		 * Copy the dictionary codes into a new array.
+		 */
+		public int[] toCodeArray() {
+			return this.codes.toArray(this.size);
+		}
+
+		@Override
+		void readValue(ResultSet rs, int index) throws SQLException {
+			String value = rs.getString(index);
+			int code = -1;
+			if (value == null) {
+				markNull();
+			}
+			else {
+				Map<String, Integer> codesByValue = this.codesByValue;
+				if (codesByValue == null) {
+					throw new IllegalStateException("Column already complete");
+				}
+				Integer existing = codesByValue.get(value);
+				if (existing != null) {
+					code = existing;
+				}
+				else {
+					code = this.dictionary.size();
+					this.dictionary.add(value);
+					codesByValue.put(value, code);
+				}
+			}
+			this.codes.add(code, this.size++);
+		}
+
+		/**
+		 * Release the lookup structures that are only needed while reading.
+		 */
+		void complete() {
+			this.codesByValue = null;
+		}
+	}
+
+
+	/**
+	 * A column of values that are not held in primitive form, as returned by
+	 * {@link JdbcUtils#getResultSetValue(ResultSet, int)}.
+	 */
+	public static final class ObjectColumn extends Column {
+
+		private final List<Object> values = new ArrayList<>();
+
+		ObjectColumn(String name, int sqlType) {
+			super(name, sqlType);
+		}
+
+		/**
+		 * Return the value in the given row, or {@code null} for SQL {@code NULL}.
+		 * @param row the row index, starting at 0
+		 */
+		@Override
+		@Nullable
+		public Object getObject(int row) {
+			checkRow(row);
+			return this.values.get(row);
+		}
+
+		@Override
+		void readValue(ResultSet rs, int index) throws SQLException {
+			Object value = JdbcUtils.getResultSetValue(rs, index);
+			if (value == null) {
+				markNull();
+			}
+			this.values.add(value);
+			this.size++;
+		}
+	}
+
+
+	/**
+	 * Chunked {@code int} storage shared by {@link IntColumn} and the codes of
+	 * {@link StringColumn}.
+	 */
+	private static final class IntChunks {
+
+		private int[][] chunks = new int[1][];
+
+		int get(int index) {
+			return this.chunks[index >>> Column.CHUNK_SHIFT][index & Column.CHUNK_MASK];
+		}
+
+		void add(int value, int index) {
+			int chunkIndex = index >>> Column.CHUNK_SHIFT;
+			int offset = index & Column.CHUNK_MASK;
+			if (chunkIndex == this.chunks.length) {
+				this.chunks = Arrays.copyOf(this.chunks, chunkIndex * 2);
+			}
+			int[] chunk = this.chunks[chunkIndex];
+			if (chunk == null || offset == chunk.length) {
+				int length = Column.nextChunkLength(chunkIndex, (chunk != null ? chunk.length : 0));
+				chunk = (chunk != null ? Arrays.copyOf(chunk, length) : new int[length]);
+				this.chunks[chunkIndex] = chunk;
+			}
+			chunk[offset] = value;
+		}
+
+		void forEach(IntConsumer action, int size) {
+			for (int start = 0; start < size; start += Column.CHUNK_SIZE) {
+				int[] chunk = this.chunks[start >>> Column.CHUNK_SHIFT];
+				int end = Math.min(size - start, Column.CHUNK_SIZE);
+				for (int i = 0; i < end; i++) {
+					action.accept(chunk[i]);
+				}
+			}
+		}
+
+		int[] toArray(int size) {
+			int[] result = new int[size];
+			for (int start = 0; start < size; start += Column.CHUNK_SIZE) {
+				System.arraycopy(this.chunks[start >>> Column.CHUNK_SHIFT], 0, result, start,
+						Math.min(size - start, Column.CHUNK_SIZE));
+			}
+			return result;
+		}
+	}
+
+
+	/**
+	 * Chunked {@code long} storage for {@link LongColumn}, like {@link IntChunks}.
+	 */
+	private static final class LongChunks {
+
+		private long[][] chunks = new long[1][];
+
+		long get(int index) {
+			return this.chunks[index >>> Column.CHUNK_SHIFT][index & Column.CHUNK_MASK];
+		}
+
+		void add(long value, int index) {
+			int chunkIndex = index >>> Column.CHUNK_SHIFT;
+			int offset = index & Column.CHUNK_MASK;
+			if (chunkIndex == this.chunks.length) {
+				this.chunks = Arrays.copyOf(this.chunks, chunkIndex * 2);
+			}
+			long[] chunk = this.chunks[chunkIndex];
+			if (chunk == null || offset == chunk.length) {
+				int length = Column.nextChunkLength(chunkIndex, (chunk != null ? chunk.length : 0));
+				chunk = (chunk != null ? Arrays.copyOf(chunk, length) : new long[length]);
+				this.chunks[chunkIndex] = chunk;
+			}
+			chunk[offset] = value;
+		}
+
+		void forEach(LongConsumer action, int size) {
+			for (int start = 0; start < size; start += Column.CHUNK_SIZE) {
+				long[] chunk = this.chunks[start >>> Column.CHUNK_SHIFT];
+				int end = Math.min(size - start, Column.CHUNK_SIZE);
+				for (int i = 0; i < end; i++) {
+					action.accept(chunk[i]);
+				}
+			}
+		}
+
+		long[] toArray(int size) {
+			long[] result = new long[size];
+			for (int start = 0; start < size; start += Column.CHUNK_SIZE) {
+				System.arraycopy(this.chunks[start >>> Column.CHUNK_SHIFT], 0, result, start,
+						Math.min(size - start, Column.CHUNK_SIZE));
+			}
+			return result;
+		}
+	}
+
+
+	/**
+	 * Chunked {@code double} storage for {@link DoubleColumn}, like {@link IntChunks}.
+	 */
+	private static final class DoubleChunks {
+
+		private double[][] chunks = new double[1][];
+
+		double get(int index) {
+			return this.chunks[index >>> Column.CHUNK_SHIFT][index & Column.CHUNK_MASK];
+		}
+
+		void add(double value, int index) {
+			int chunkIndex = index >>> Column.CHUNK_SHIFT;
+			int offset = index & Column.CHUNK_MASK;
+			if (chunkIndex == this.chunks.length) {
+				this.chunks = Arrays.copyOf(this.chunks, chunkIndex * 2);
+			}
+			double[] chunk = this.chunks[chunkIndex];
+			if (chunk == null || offset == chunk.length) {
+				int length = Column.nextChunkLength(chunkIndex, (chunk != null ? chunk.length : 0));
+				chunk = (chunk != null ? Arrays.copyOf(chunk, length) : new double[length]);
+				this.chunks[chunkIndex] = chunk;
+			}
+			chunk[offset] = value;
+		}
+
+		void forEach(DoubleConsumer action, int size) {
+			for (int start = 0; start < size; start += Column.CHUNK_SIZE) {
+				double[] chunk = this.chunks[start >>> Column.CHUNK_SHIFT];
+				int end = Math.min(size - start, Column.CHUNK_SIZE);
+				for (int i = 0; i < end; i++) {
+					action.accept(chunk[i]);
+				}
+			}
+		}
+
+		double[] toArray(int size) {
+			double[] result = new double[size];
+			for (int start = 0; start < size; start += Column.CHUNK_SIZE) {
+				System.arraycopy(this.chunks[start >>> Column.CHUNK_SHIFT], 0, result, start,
+						Math.min(size - start, Column.CHUNK_SIZE));
+			}
+			return result;
+		}
+	}
+
+}
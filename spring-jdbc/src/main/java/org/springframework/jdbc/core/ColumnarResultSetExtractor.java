@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.ColumnarResult.Column;
+import org.springframework.jdbc.core.ColumnarResult.DoubleColumn;
+import org.springframework.jdbc.core.ColumnarResult.IntColumn;
+import org.springframework.jdbc.core.ColumnarResult.LongColumn;
+import org.springframework.jdbc.core.ColumnarResult.ObjectColumn;
+import org.springframework.jdbc.core.ColumnarResult.StringColumn;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+/**
+ * {@link ResultSetExtractor} implementation that reads all rows into a
+ * column-oriented {@link ColumnarResult}, holding numeric values in primitive
+ * arrays and character values dictionary-encoded.
+ *
+ * <p>The storage type of each column is derived from its JDBC type:
+ * {@code TINYINT}, {@code SMALLINT} and {@code INTEGER} columns are held as
+ * {@code int}, {@code BIGINT} as {@code long}, {@code REAL}, {@code FLOAT} and
+ * {@code DOUBLE} as {@code double}, and character columns as {@code String}.
+ * {@code DECIMAL} and {@code NUMERIC} columns without scale are held as
+ * {@code int} or {@code long} if their precision allows it; all other columns,
+ * including decimals with a scale, are held as objects so that no precision is
+ * lost. The derived type can be overridden per column via
+ * {@link #setColumnType(String, Class)}.
+ *
+ * <p>Usage example:
+ * <pre class="code">
+ * ColumnarResult result = jdbcTemplate.query(
+ *     "SELECT id, amount FROM orders", new ColumnarResultSetExtractor());
+ * double[] amounts = result.getDoubleColumn("amount").toArray();</pre>
+ *
+ * @since 6.1
+ * @see ColumnarResult
+ */
+public class ColumnarResultSetExtractor implements ResultSetExtractor<ColumnarResult> {
+
+	private static final Set<Class<?>> SUPPORTED_TYPES =
+			Set.of(int.class, long.class, double.class, String.class, Object.class);
+
+	private final Map<String, Class<?>> columnTypes = new LinkedCaseInsensitiveMap<>();
+
+
+	/**
+	 * Specify the storage type for the given column, overriding the type derived
+	 * from the result set metadata.
+	 * @param columnName the column label (case-insensitive)
+	 * @param columnType one of {@code int.class}, {@code long.class},
+	 * {@code double.class}, {@code String.class} or {@code Object.class}
+	 */
+	public void setColumnType(String columnName, Class<?> columnType) {
+		Assert.hasText(columnName, "Column name must not be empty");
+		Assert.isTrue(SUPPORTED_TYPES.contains(columnType),
+				() -> "Unsupported column type [" + columnType.getName() + "]: expected one of " + SUPPORTED_TYPES);
+		this.columnTypes.put(columnName, columnType);
+	}
+
+
+	@Override
+	public ColumnarResult extractData(ResultSet rs) throws SQLException {
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		Column[] columns = new Column[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			String name = JdbcUtils.lookupColumnName(rsmd, i + 1);
+			int sqlType = rsmd.getColumnType(i + 1);
+			Class<?> columnType = this.columnTypes.get(name);
+			if (columnType == null) {
+				columnType = determineColumnType(rsmd, i + 1);
+			}
+			columns[i] = createColumn(name, sqlType, columnType);
+		}
+		int rowCount = 0;
+		while (rs.next()) {
+			for (int i = 0; i < columnCount; i++) {
+				columns[i].readValue(rs, i + 1);
+			}
+			rowCount++;
+		}
+		for (Column column : columns) {
+			if (column instanceof StringColumn stringColumn) {
+				stringColumn.complete();
+			}
+		}
+		return new ColumnarResult(columns, rowCount);
+	}
+
+	/**
+	 * Determine the storage type for the given column.
+	 * <p>The default implementation derives the type from the JDBC type, precision
+	 * and scale of the column, as described in the {@linkplain ColumnarResultSetExtractor
+	 * class-level documentation}. Can be overridden in subclasses.
+	 * @param rsmd the result set metadata
+	 * @param columnIndex the column index, starting at 1
+	 * @return one of {@code int.class}, {@code long.class}, {@code double.class},
+	 * {@code String.class} or {@code Object.class}
+	 * @throws SQLException if thrown by JDBC methods
+	 */
+	protected Class<?> determineColumnType(ResultSetMetaData rsmd, int columnIndex) throws SQLException {
+		return switch (rsmd.getColumnType(columnIndex)) {
+			case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> int.class;
+			case Types.BIGINT -> long.class;
+			case Types.REAL, Types.FLOAT, Types.DOUBLE -> double.class;
+			case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR ->
+					String.class;
+			case Types.DECIMAL, Types.NUMERIC -> determineDecimalColumnType(rsmd, columnIndex);
+			default -> Object.class;
+		};
+	}
+
+	private static Class<?> determineDecimalColumnType(ResultSetMetaData rsmd, int columnIndex)
+			throws SQLException {
+
+		if (rsmd.getScale(columnIndex) == 0) {
+			int precision = rsmd.getPrecision(columnIndex);
+			if (precision > 0 && precision <= 9) {
+				return int.class;
+			}
+			if (precision > 0 && precision <= 18) {
+				return long.class;
+			}
+		}
+		return Object.class;
+	}
+
+	private static Column createColumn(String name, int sqlType, @Nullable Class<?> columnType) {
+		if (columnType == int.class) {
+			return new IntColumn(name, sqlType);
+		}
+		else if (columnType == long.class) {
+			return new LongColumn(name, sqlType);
+		}
+		else if (columnType == double.class) {
+			return new DoubleColumn(name, sqlType);
+		}
+		else if (columnType == String.class) {
+			return new StringColumn(name, sqlType);
+		}
+		else if (columnType == Object.class) {
+			return new ObjectColumn(name, sqlType);
+		}
+		throw new IllegalStateException("Unsupported column type [" + columnType + "] for column '" + name + "'");
+	}
+
+}
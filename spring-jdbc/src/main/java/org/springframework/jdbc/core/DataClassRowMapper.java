@@ -16,6 +16,7 @@
 
 package org.springframework.jdbc.core;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -69,6 +70,10 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 	@Nullable
 	private TypeDescriptor[] constructorParameterTypes;
 
+	/** Constructor parameter columns for the most recently mapped ResultSet. */
+	@Nullable
+	private volatile ConstructorColumns constructorColumns;
+
 
 	/**
 	 * Create a new {@code DataClassRowMapper} for bean-style configuration.
@@ -91,6 +96,7 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 	protected void initialize(Class<T> mappedClass) {
 		super.initialize(mappedClass);
 
+		this.constructorColumns = null;
 		this.mappedConstructor = BeanUtils.getResolvableConstructor(mappedClass);
 		int paramCount = this.mappedConstructor.getParameterCount();
 		if (paramCount > 0) {
@@ -111,20 +117,11 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 
 		Object[] args;
 		if (this.constructorParameterNames != null && this.constructorParameterTypes != null) {
-			args = new Object[this.constructorParameterNames.length];
+			int[] indexes = obtainConstructorColumns(rs);
+			args = new Object[indexes.length];
 			for (int i = 0; i < args.length; i++) {
-				String name = this.constructorParameterNames[i];
-				int index;
-				try {
-					// Try direct name match first
-					index = rs.findColumn(lowerCaseName(name));
-				}
-				catch (SQLException ex) {
-					// Try underscored name match instead
-					index = rs.findColumn(underscoreName(name));
-				}
 				TypeDescriptor td = this.constructorParameterTypes[i];
-				Object value = getColumnValue(rs, index, td.getType());
+				Object value = getColumnValue(rs, indexes[i], td.getType());
 				args[i] = tc.convertIfNecessary(value, td.getType(), td);
 			}
 		}
@@ -136,6 +133,33 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 	}
 
 
+	/**
+	 * Return the column indexes for the constructor parameters, resolving
+	 * them only once per {@code ResultSet}.
+	 */
+	private int[] obtainConstructorColumns(ResultSet rs) throws SQLException {
+		ConstructorColumns columns = this.constructorColumns;
+		if (columns == null || columns.resultSet.get() != rs) {
+			Assert.state(this.constructorParameterNames != null, "No constructor parameters");
+			int[] indexes = new int[this.constructorParameterNames.length];
+			for (int i = 0; i < indexes.length; i++) {
+				String name = this.constructorParameterNames[i];
+				try {
+					// Try direct name match first
+					indexes[i] = rs.findColumn(lowerCaseName(name));
+				}
+				catch (SQLException ex) {
+					// Try underscored name match instead
+					indexes[i] = rs.findColumn(underscoreName(name));
+				}
+			}
+			columns = new ConstructorColumns(new WeakReference<>(rs), indexes);
+			this.constructorColumns = columns;
+		}
+		return columns.indexes;
+	}
+
+
 	/**
 	 * Static factory method to create a new {@code DataClassRowMapper}.
 	 * @param mappedClass the class that each row should be mapped to
@@ -161,4 +185,11 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 		return rowMapper;
 	}
 
+
+	/**
+	 * Column indexes of the constructor parameters for a given {@code ResultSet}.
+	 */
+	private record ConstructorColumns(WeakReference<ResultSet> resultSet, int[] indexes) {
+	}
+
 }
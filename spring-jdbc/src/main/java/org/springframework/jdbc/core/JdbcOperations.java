@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.jdbc.core;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -990,6 +991,34 @@ public interface JdbcOperations {
 	 */
 	int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) throws DataAccessException;
 
+	/**
+	 * Issue multiple update statements on a single PreparedStatement, using
+	 * batch updates and a BatchPreparedStatementSetter to set values, with the
+	 * keys generated by all statements of the batch put into the given KeyHolder.
+	 * <p>The generated keys are retrieved once after executing the batch, in
+	 * a single round trip for the entire batch rather than one per statement.
+	 * Note that the given PreparedStatementCreator has to create a statement
+	 * with activated extraction of generated keys (a JDBC 3.0 feature), and that
+	 * not all JDBC drivers return the generated keys of an entire batch.
+	 * <p>Will fall back to separate updates on a single PreparedStatement
+	 * if the JDBC driver does not support batch updates.
+	 * @param psc a callback that creates the PreparedStatement that will be reused
+	 * for all statements of the batch
+	 * @param pss object to set parameters on the PreparedStatement
+	 * created by the given PreparedStatementCreator
+	 * @param generatedKeyHolder a KeyHolder that will hold the generated keys,
+	 * in the order of the batch
+	 * @return an array of the number of rows affected by each statement
+	 * (may also contain special JDBC-defined negative values for affected rows such as
+	 * {@link java.sql.Statement#SUCCESS_NO_INFO}/{@link java.sql.Statement#EXECUTE_FAILED})
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 6.1
+	 * @see PreparedStatementCreatorFactory
+	 * @see org.springframework.jdbc.support.GeneratedKeyHolder
+	 */
+	int[] batchUpdate(PreparedStatementCreator psc, BatchPreparedStatementSetter pss,
+			KeyHolder generatedKeyHolder) throws DataAccessException;
+
 	/**
 	 * Execute a batch using the supplied SQL statement with the batch of supplied arguments.
 	 * @param sql the SQL statement to execute
@@ -1032,6 +1061,28 @@ public interface JdbcOperations {
 	<T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
 			ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException;
 
+	/**
+	 * Execute multiple batches using the supplied SQL statement with the arguments
+	 * obtained from the given Iterator, e.g. from {@link Stream#iterator()}.
+	 * The arguments' values will be set using the ParameterizedPreparedStatementSetter.
+	 * <p>Each batch is executed as soon as 'batchSize' arguments have been set,
+	 * and its update counts are passed to the given BatchCallbackHandler rather
+	 * than accumulated, so that at most one batch of arguments is held at a time.
+	 * This allows for processing an arbitrary number of arguments in bounded memory.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Iterator over the arguments for the query
+	 * @param batchSize batch size
+	 * @param pss the ParameterizedPreparedStatementSetter to use
+	 * @param bch the BatchCallbackHandler to process the update counts of each
+	 * batch with, or {@code null} if the update counts are not of interest
+	 * @return the number of batch arguments processed
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 6.1
+	 */
+	<T> long batchUpdate(String sql, Iterator<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss, @Nullable BatchCallbackHandler bch)
+			throws DataAccessException;
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with callable statements
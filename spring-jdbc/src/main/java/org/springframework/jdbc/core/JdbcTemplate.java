@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,14 +23,17 @@ import java.lang.reflect.Proxy;
 import java.sql.BatchUpdateException;
 import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.sql.ParameterMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -153,6 +156,22 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private boolean resultsMapCaseInsensitive = false;
 
+	/**
+	 * If this variable is set to true, then batch updates with simple INSERT statements
+	 * will be executed as multi-row INSERT statements.
+	 */
+	private boolean rewriteBatchedInserts = false;
+
+	/** The maximum number of rows per rewritten multi-row INSERT statement. */
+	private int maxRowsPerInsert = 1000;
+
+	/** The maximum number of parameters per rewritten multi-row INSERT statement. */
+	private int maxParametersPerInsert = 2000;
+
+	/** Listener to notify of executed batches, if any. */
+	@Nullable
+	private BatchExecutionListener batchExecutionListener;
+
 
 	/**
 	 * Construct a new JdbcTemplate for bean usage.
@@ -317,6 +336,98 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.resultsMapCaseInsensitive;
 	}
 
+	/**
+	 * Set whether batch updates with a simple {@code INSERT ... VALUES (?, ...)}
+	 * statement should be rewritten into multi-row {@code INSERT ... VALUES (...), (...)}
+	 * statements, inserting several rows per round trip to the database even if the
+	 * JDBC driver executes batches as individual statements.
+	 * <p>Default is "false". Applies to {@link #batchUpdate(String, BatchPreparedStatementSetter)}
+	 * and the variants delegating to it, including the batch operations of
+	 * {@link org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate}
+	 * and {@link org.springframework.jdbc.core.simple.SimpleJdbcInsert} using this
+	 * JdbcTemplate, but not to an {@link InterruptibleBatchPreparedStatementSetter}.
+	 * Statements that are not of the simple form above, e.g. with an
+	 * {@code INSERT ... SELECT} or trailing clauses, are executed as regular batches.
+	 * <p>Note: The update count of each row is reported as 1 if the update count
+	 * of a multi-row statement matches its number of rows, and as
+	 * {@link Statement#SUCCESS_NO_INFO} otherwise.
+	 * @since 6.1
+	 * @see #setMaxRowsPerInsert
+	 * @see #setMaxParametersPerInsert
+	 */
+	public void setRewriteBatchedInserts(boolean rewriteBatchedInserts) {
+		this.rewriteBatchedInserts = rewriteBatchedInserts;
+	}
+
+	/**
+	 * Return whether batch updates with simple INSERT statements are rewritten
+	 * into multi-row INSERT statements.
+	 * @since 6.1
+	 */
+	public boolean isRewriteBatchedInserts() {
+		return this.rewriteBatchedInserts;
+	}
+
+	/**
+	 * Set the maximum number of rows per rewritten multi-row INSERT statement.
+	 * <p>Default is 1000, which is also the limit of some databases for the
+	 * rows of a {@code VALUES} clause.
+	 * @since 6.1
+	 * @see #setRewriteBatchedInserts
+	 */
+	public void setMaxRowsPerInsert(int maxRowsPerInsert) {
+		Assert.isTrue(maxRowsPerInsert > 0, "maxRowsPerInsert must be greater than 0");
+		this.maxRowsPerInsert = maxRowsPerInsert;
+	}
+
+	/**
+	 * Return the maximum number of rows per rewritten multi-row INSERT statement.
+	 * @since 6.1
+	 */
+	public int getMaxRowsPerInsert() {
+		return this.maxRowsPerInsert;
+	}
+
+	/**
+	 * Set the maximum number of parameters per rewritten multi-row INSERT statement,
+	 * limiting the number of rows per statement for tables with many columns.
+	 * A batch whose rows would not fit twice into a statement is executed as a
+	 * regular JDBC batch instead.
+	 * <p>Default is 2000, staying below the parameter limit of common databases.
+	 * @since 6.1
+	 * @see #setRewriteBatchedInserts
+	 */
+	public void setMaxParametersPerInsert(int maxParametersPerInsert) {
+		Assert.isTrue(maxParametersPerInsert > 0, "maxParametersPerInsert must be greater than 0");
+		this.maxParametersPerInsert = maxParametersPerInsert;
+	}
+
+	/**
+	 * Return the maximum number of parameters per rewritten multi-row INSERT statement.
+	 * @since 6.1
+	 */
+	public int getMaxParametersPerInsert() {
+		return this.maxParametersPerInsert;
+	}
+
+	/**
+	 * Set a listener to be notified of each batch executed by the batch update
+	 * methods, e.g. for recording the time taken per batch.
+	 * @since 6.1
+	 */
+	public void setBatchExecutionListener(@Nullable BatchExecutionListener batchExecutionListener) {
+		this.batchExecutionListener = batchExecutionListener;
+	}
+
+	/**
+	 * Return the listener to be notified of executed batches, if any.
+	 * @since 6.1
+	 */
+	@Nullable
+	public BatchExecutionListener getBatchExecutionListener() {
+		return this.batchExecutionListener;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with a plain java.sql.Connection
@@ -992,17 +1103,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			int rows = ps.executeUpdate();
 			List<Map<String, Object>> generatedKeys = generatedKeyHolder.getKeyList();
 			generatedKeys.clear();
-			ResultSet keys = ps.getGeneratedKeys();
-			if (keys != null) {
-				try {
-					RowMapperResultSetExtractor<Map<String, Object>> rse =
-							new RowMapperResultSetExtractor<>(getColumnMapRowMapper(), 1);
-					generatedKeys.addAll(result(rse.extractData(keys)));
-				}
-				finally {
-					JdbcUtils.closeResultSet(keys);
-				}
-			}
+			storeGeneratedKeys(generatedKeys, ps, 1);
 			if (logger.isTraceEnabled()) {
 				logger.trace("SQL update affected " + rows + " rows and returned " + generatedKeys.size() + " keys");
 			}
@@ -1010,6 +1111,29 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}, true));
 	}
 
+	/**
+	 * Add the keys generated by the last execution of the given statement
+	 * to the given list of keys.
+	 * @param generatedKeys the list of keys to add to
+	 * @param ps the PreparedStatement that has been executed
+	 * @param rowsExpected the number of keys expected, as a sizing hint
+	 */
+	private void storeGeneratedKeys(List<Map<String, Object>> generatedKeys, PreparedStatement ps, int rowsExpected)
+			throws SQLException {
+
+		ResultSet keys = ps.getGeneratedKeys();
+		if (keys != null) {
+			try {
+				RowMapperResultSetExtractor<Map<String, Object>> rse =
+						new RowMapperResultSetExtractor<>(getColumnMapRowMapper(), rowsExpected);
+				generatedKeys.addAll(result(rse.extractData(keys)));
+			}
+			finally {
+				JdbcUtils.closeResultSet(keys);
+			}
+		}
+	}
+
 	@Override
 	public int update(String sql, @Nullable PreparedStatementSetter pss) throws DataAccessException {
 		return update(new SimplePreparedStatementCreator(sql), pss);
@@ -1027,6 +1151,18 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 	@Override
 	public int[] batchUpdate(String sql, final BatchPreparedStatementSetter pss) throws DataAccessException {
+		if (this.rewriteBatchedInserts && !(pss instanceof InterruptibleBatchPreparedStatementSetter) &&
+				pss.getBatchSize() > 1) {
+			MultiRowInsertSql insertSql = MultiRowInsertSql.parse(sql);
+			if (insertSql != null) {
+				int rowsPerInsert = Math.min(this.maxRowsPerInsert,
+						this.maxParametersPerInsert / insertSql.getParametersPerRow());
+				// Single-row inserts gain nothing over a regular batch
+				if (rowsPerInsert > 1) {
+					return batchUpdateAsMultiRowInserts(sql, insertSql, rowsPerInsert, pss);
+				}
+			}
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing SQL batch update [" + sql + "]");
 		}
@@ -1044,7 +1180,10 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 						}
 						ps.addBatch();
 					}
-					return ps.executeBatch();
+					long startTime = System.nanoTime();
+					int[] rowsAffected = ps.executeBatch();
+					batchExecuted(sql, rowsAffected.length, startTime);
+					return rowsAffected;
 				}
 				else {
 					List<Integer> rowsAffected = new ArrayList<>();
@@ -1073,6 +1212,151 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result;
 	}
 
+	@Override
+	public int[] batchUpdate(final PreparedStatementCreator psc, final BatchPreparedStatementSetter pss,
+			final KeyHolder generatedKeyHolder) throws DataAccessException {
+
+		Assert.notNull(generatedKeyHolder, "KeyHolder must not be null");
+		String sql = getSql(psc);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing SQL batch update and returning generated keys" +
+					(sql != null ? " [" + sql + "]" : ""));
+		}
+
+		int[] result = execute(psc, ps -> {
+			try {
+				int batchSize = pss.getBatchSize();
+				InterruptibleBatchPreparedStatementSetter ipss =
+						(pss instanceof InterruptibleBatchPreparedStatementSetter ibpss ? ibpss : null);
+				List<Map<String, Object>> generatedKeys = generatedKeyHolder.getKeyList();
+				generatedKeys.clear();
+				int[] rowsAffected;
+				if (JdbcUtils.supportsBatchUpdates(ps.getConnection())) {
+					for (int i = 0; i < batchSize; i++) {
+						pss.setValues(ps, i);
+						if (ipss != null && ipss.isBatchExhausted(i)) {
+							break;
+						}
+						ps.addBatch();
+					}
+					long startTime = System.nanoTime();
+					rowsAffected = ps.executeBatch();
+					if (sql != null) {
+						batchExecuted(sql, rowsAffected.length, startTime);
+					}
+					storeGeneratedKeys(generatedKeys, ps, rowsAffected.length);
+				}
+				else {
+					List<Integer> rowsAffectedList = new ArrayList<>();
+					for (int i = 0; i < batchSize; i++) {
+						pss.setValues(ps, i);
+						if (ipss != null && ipss.isBatchExhausted(i)) {
+							break;
+						}
+						rowsAffectedList.add(ps.executeUpdate());
+						storeGeneratedKeys(generatedKeys, ps, 1);
+					}
+					rowsAffected = new int[rowsAffectedList.size()];
+					for (int i = 0; i < rowsAffected.length; i++) {
+						rowsAffected[i] = rowsAffectedList.get(i);
+					}
+				}
+				if (logger.isTraceEnabled()) {
+					logger.trace("SQL batch update of " + rowsAffected.length + " statements returned " +
+							generatedKeys.size() + " keys");
+				}
+				return rowsAffected;
+			}
+			finally {
+				if (pss instanceof ParameterDisposer parameterDisposer) {
+					parameterDisposer.cleanupParameters();
+				}
+			}
+		});
+
+		Assert.state(result != null, "No result array");
+		return result;
+	}
+
+	/**
+	 * Execute the given batch as multi-row INSERT statements, each covering as many
+	 * batch arguments as the configured maximum rows and parameters allow.
+	 */
+	private int[] batchUpdateAsMultiRowInserts(String sql, MultiRowInsertSql insertSql, int rowsPerInsert,
+			BatchPreparedStatementSetter pss) {
+
+		int batchSize = pss.getBatchSize();
+		int parametersPerRow = insertSql.getParametersPerRow();
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing SQL batch update [" + sql + "] as multi-row inserts with up to " +
+					rowsPerInsert + " rows");
+		}
+
+		/**
+		 * Callback to execute the multi-row statements.
+		 */
+		class MultiRowInsertCallback implements ConnectionCallback<int[]>, SqlProvider {
+			@Override
+			public int[] doInConnection(Connection con) throws SQLException {
+				// Prepare on the target Connection, applying the statement settings like for a
+				// PreparedStatementCreator rather than through the close-suppressing proxy.
+				Connection conToUse = (con instanceof ConnectionProxy proxy ? proxy.getTargetConnection() : con);
+				int[] rowsAffected = new int[batchSize];
+				PreparedStatement ps = null;
+				try {
+					ParameterOffsetInvocationHandler handler = null;
+					PreparedStatement psToUse = null;
+					for (int start = 0; start < batchSize; start += rowsPerInsert) {
+						int rows = Math.min(rowsPerInsert, batchSize - start);
+						String rowsSql = insertSql.getSql(rows);
+						if (handler == null || rows != rowsPerInsert) {
+							JdbcUtils.closeStatement(ps);
+							ps = null;
+							ps = conToUse.prepareStatement(rowsSql);
+							applyStatementSettings(ps);
+							handler = new ParameterOffsetInvocationHandler(ps, PreparedStatement.class);
+							psToUse = (PreparedStatement) Proxy.newProxyInstance(
+									PreparedStatement.class.getClassLoader(),
+									new Class<?>[] {PreparedStatement.class}, handler);
+						}
+						for (int i = 0; i < rows; i++) {
+							handler.offset = i * parametersPerRow;
+							pss.setValues(psToUse, start + i);
+						}
+						long startTime = System.nanoTime();
+						int count = ps.executeUpdate();
+						batchExecuted(rowsSql, rows, startTime);
+						handleWarnings(ps);
+						Arrays.fill(rowsAffected, start, start + rows, (count == rows ? 1 : Statement.SUCCESS_NO_INFO));
+					}
+					return rowsAffected;
+				}
+				finally {
+					JdbcUtils.closeStatement(ps);
+					if (pss instanceof ParameterDisposer parameterDisposer) {
+						parameterDisposer.cleanupParameters();
+					}
+				}
+			}
+			@Override
+			public String getSql() {
+				return sql;
+			}
+		}
+
+		return result(execute(new MultiRowInsertCallback()));
+	}
+
+	/**
+	 * Notify the {@link BatchExecutionListener}, if any, of an executed batch.
+	 */
+	private void batchExecuted(String sql, int items, long startTime) {
+		BatchExecutionListener listener = this.batchExecutionListener;
+		if (listener != null) {
+			listener.batchExecuted(sql, items, System.nanoTime() - startTime);
+		}
+	}
+
 	@Override
 	public int[] batchUpdate(String sql, List<Object[]> batchArgs) throws DataAccessException {
 		return batchUpdate(sql, batchArgs, new int[0]);
@@ -1138,7 +1422,10 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 								int items = n - ((n % batchSize == 0) ? n / batchSize - 1 : (n / batchSize)) * batchSize;
 								logger.trace("Sending SQL batch update #" + batchIdx + " with " + items + " items");
 							}
-							rowsAffected.add(ps.executeBatch());
+							long startTime = System.nanoTime();
+							int[] batchRowsAffected = ps.executeBatch();
+							batchExecuted(sql, batchRowsAffected.length, startTime);
+							rowsAffected.add(batchRowsAffected);
 						}
 					}
 					else {
@@ -1163,6 +1450,78 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result;
 	}
 
+	@Override
+	public <T> long batchUpdate(String sql, Iterator<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss, @Nullable BatchCallbackHandler bch)
+			throws DataAccessException {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing streaming SQL batch update [" + sql + "] with a batch size of " + batchSize);
+		}
+		Long result = execute(sql, (PreparedStatementCallback<Long>) ps -> {
+			try {
+				boolean batchSupported = JdbcUtils.supportsBatchUpdates(ps.getConnection());
+				int[] updateCounts = (batchSupported ? null : new int[batchSize]);
+				long n = 0;
+				int items = 0;
+				while (batchArgs.hasNext()) {
+					pss.setValues(ps, batchArgs.next());
+					if (batchSupported) {
+						ps.addBatch();
+					}
+					else {
+						updateCounts[items] = ps.executeUpdate();
+					}
+					n++;
+					items++;
+					if (items == batchSize) {
+						executeBatch(sql, ps, updateCounts, items, n - items, bch);
+						items = 0;
+					}
+				}
+				if (items > 0) {
+					executeBatch(sql, ps, updateCounts, items, n - items, bch);
+				}
+				return n;
+			}
+			finally {
+				if (pss instanceof ParameterDisposer parameterDisposer) {
+					parameterDisposer.cleanupParameters();
+				}
+			}
+		});
+
+		Assert.state(result != null, "No update count");
+		return result;
+	}
+
+	/**
+	 * Execute the pending batch, or complete the batch of updates already executed
+	 * one by one in case of {@code updateCounts} given, and hand the update counts
+	 * to the given BatchCallbackHandler.
+	 */
+	private void executeBatch(String sql, PreparedStatement ps, @Nullable int[] updateCounts, int items,
+			long firstArgumentIndex, @Nullable BatchCallbackHandler bch) throws SQLException {
+
+		if (logger.isTraceEnabled()) {
+			logger.trace("Sending SQL batch update with " + items + " items, starting at argument #" +
+					firstArgumentIndex);
+		}
+		int[] counts;
+		if (updateCounts != null) {
+			counts = Arrays.copyOf(updateCounts, items);
+		}
+		else {
+			long startTime = System.nanoTime();
+			counts = ps.executeBatch();
+			batchExecuted(sql, items, startTime);
+		}
+		if (bch != null) {
+			bch.processBatch(firstArgumentIndex, counts);
+		}
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with callable statements
@@ -1620,6 +1979,67 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	}
 
 
+	/**
+	 * Invocation handler that shifts the parameter indexes passed to a PreparedStatement
+	 * or ParameterMetaData by a given offset, for binding the values of a batch argument
+	 * to its row within a multi-row INSERT statement.
+	 */
+	private static class ParameterOffsetInvocationHandler implements InvocationHandler {
+
+		private final Object target;
+
+		private final Class<?> targetType;
+
+		int offset;
+
+		public ParameterOffsetInvocationHandler(Object target, Class<?> targetType) {
+			this.target = target;
+			this.targetType = targetType;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					// Only consider equal when proxies are identical.
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "getParameterMetaData":
+					ParameterMetaData metaData = (ParameterMetaData) invokeTarget(method, args);
+					ParameterOffsetInvocationHandler handler =
+							new ParameterOffsetInvocationHandler(metaData, ParameterMetaData.class);
+					handler.offset = this.offset;
+					return Proxy.newProxyInstance(ParameterMetaData.class.getClassLoader(),
+							new Class<?>[] {ParameterMetaData.class}, handler);
+			}
+			if (isParameterIndexMethod(method)) {
+				args[0] = (Integer) args[0] + this.offset;
+			}
+			return invokeTarget(method, args);
+		}
+
+		private boolean isParameterIndexMethod(Method method) {
+			if (method.getDeclaringClass() != this.targetType || method.getParameterCount() == 0 ||
+					method.getParameterTypes()[0] != int.class) {
+				return false;
+			}
+			return (this.targetType == ParameterMetaData.class || method.getName().startsWith("set"));
+		}
+
+		@Nullable
+		private Object invokeTarget(Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+
 	/**
 	 * Simple adapter for PreparedStatementCreator, allowing to use a plain SQL statement.
 	 */
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * A simple {@code INSERT ... VALUES (...)} statement that can be rewritten
+ * into a multi-row {@code INSERT ... VALUES (...), (...)} statement.
+ *
+ * <p>Only statements that start with {@code INSERT}, contain a single
+ * {@code VALUES} clause with a single row at the end of the statement, have
+ * all of their {@code ?} placeholders within that row and contain no comments
+ * are considered. Anything else, e.g. {@code INSERT ... SELECT} or statements
+ * with an {@code ON CONFLICT} or {@code RETURNING} clause, is left alone.
+ *
+ * @since 6.1
+ * @see JdbcTemplate#setRewriteBatchedInserts
+ */
+final class MultiRowInsertSql {
+
+	private final String prefix;
+
+	private final String row;
+
+	private final int parametersPerRow;
+
+
+	private MultiRowInsertSql(String prefix, String row, int parametersPerRow) {
+		this.prefix = prefix;
+		this.row = row;
+		this.parametersPerRow = parametersPerRow;
+	}
+
+
+	/**
+	 * Return the number of {@code ?} placeholders per row.
+	 */
+	int getParametersPerRow() {
+		return this.parametersPerRow;
+	}
+
+	/**
+	 * Return the statement for inserting the given number of rows.
+	 */
+	String getSql(int rows) {
+		StringBuilder sb = new StringBuilder(this.prefix.length() + rows * (this.row.length() + 2));
+		sb.append(this.prefix);
+		for (int i = 0; i < rows; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(this.row);
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * Parse the given SQL statement.
+	 * @param sql the SQL statement with {@code ?} placeholders
+	 * @return the parsed statement, or {@code null} if the statement
+	 * cannot be rewritten into a multi-row insert
+	 */
+	@Nullable
+	static MultiRowInsertSql parse(String sql) {
+		String statement = sql.strip();
+		if (!statement.regionMatches(true, 0, "INSERT", 0, 6)) {
+			return null;
+		}
+		int valuesIndex = -1;
+		int rowStart = -1;
+		int rowEnd = -1;
+		int parameterCount = 0;
+		int rowParameterCount = 0;
+		int depth = 0;
+		char quote = 0;
+		for (int i = 0; i < statement.length(); i++) {
+			char c = statement.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+				continue;
+			}
+			if (rowEnd != -1 && !Character.isWhitespace(c)) {
+				// Anything after the row of values
+				return null;
+			}
+			switch (c) {
+				case '\'', '"', '`' -> quote = c;
+				case '?' -> {
+					parameterCount++;
+					if (rowStart != -1) {
+						rowParameterCount++;
+					}
+				}
+				case '(' -> {
+					if (depth == 0 && valuesIndex != -1) {
+						if (rowStart != -1) {
+							return null;
+						}
+						rowStart = i;
+					}
+					depth++;
+				}
+				case ')' -> {
+					depth--;
+					if (depth < 0) {
+						return null;
+					}
+					if (depth == 0 && rowStart != -1) {
+						rowEnd = i + 1;
+					}
+				}
+				case '-', '/', ';', '{' -> {
+					// Comments, multiple statements or JDBC escapes
+					if (c == ';' || c == '{' || isCommentStart(statement, i)) {
+						return null;
+					}
+				}
+				default -> {
+					if (depth == 0 && isKeyword(statement, i, "VALUES")) {
+						if (valuesIndex != -1) {
+							return null;
+						}
+						valuesIndex = i;
+						i += 5;
+					}
+					else if (isKeyword(statement, i, "SELECT")) {
+						return null;
+					}
+					else if (rowStart == -1 && valuesIndex != -1 && !Character.isWhitespace(c)) {
+						// Something other than a row between VALUES and the opening parenthesis
+						return null;
+					}
+				}
+			}
+		}
+		if (quote != 0 || rowEnd == -1 || parameterCount == 0 || rowParameterCount != parameterCount) {
+			return null;
+		}
+		return new MultiRowInsertSql(statement.substring(0, rowStart), statement.substring(rowStart, rowEnd),
+				parameterCount);
+	}
+
+	private static boolean isCommentStart(String statement, int index) {
+		char c = statement.charAt(index);
+		char next = (index + 1 < statement.length() ? statement.charAt(index + 1) : 0);
+		return ((c == '-' && next == '-') || (c == '/' && next == '*'));
+	}
+
+	private static boolean isKeyword(String statement, int index, String keyword) {
+		if (!statement.regionMatches(true, index, keyword, 0, keyword.length())) {
+			return false;
+		}
+		if (index > 0 && isIdentifierPart(statement.charAt(index - 1))) {
+			return false;
+		}
+		int end = index + keyword.length();
+		return (end == statement.length() || !isIdentifierPart(statement.charAt(end)));
+	}
+
+	private static boolean isIdentifierPart(char c) {
+		return (Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#');
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.support.rowset.SpillingSqlRowSet;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link SqlRowSetResultSetExtractor} variant that returns a
+ * {@link SpillingSqlRowSet}, keeping the heap usage of large results bounded
+ * by spilling rows to a local temporary file instead of copying them into a
+ * {@link javax.sql.rowset.CachedRowSet}.
+ *
+ * <p>Usage example:
+ * <pre class="code">
+ * SqlRowSet rowSet = jdbcTemplate.query(
+ *     "SELECT * FROM orders", new SpillingSqlRowSetResultSetExtractor());</pre>
+ *
+ * @since 6.1
+ * @see SpillingSqlRowSet
+ */
+public class SpillingSqlRowSetResultSetExtractor extends SqlRowSetResultSetExtractor {
+
+	private int pageSize = SpillingSqlRowSet.DEFAULT_PAGE_SIZE;
+
+	private int maxInMemoryRows = SpillingSqlRowSet.DEFAULT_MAX_IN_MEMORY_ROWS;
+
+	@Nullable
+	private Path directory;
+
+
+	/**
+	 * Set the number of rows per page, i.e. the unit in which rows are
+	 * written to and read from the temporary file.
+	 * <p>Default is {@value SpillingSqlRowSet#DEFAULT_PAGE_SIZE}.
+	 */
+	public void setPageSize(int pageSize) {
+		Assert.isTrue(pageSize > 0, "Page size must be greater than 0");
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Set the number of rows up to which a result is kept in memory entirely,
+	 * without creating a temporary file.
+	 * <p>Default is {@value SpillingSqlRowSet#DEFAULT_MAX_IN_MEMORY_ROWS}.
+	 */
+	public void setMaxInMemoryRows(int maxInMemoryRows) {
+		Assert.isTrue(maxInMemoryRows >= 0, "Max in-memory rows must not be negative");
+		this.maxInMemoryRows = maxInMemoryRows;
+	}
+
+	/**
+	 * Set the directory to create temporary files in.
+	 * <p>Default is the default temporary-file directory of the JVM.
+	 */
+	public void setDirectory(@Nullable Path directory) {
+		this.directory = directory;
+	}
+
+
+	/**
+	 * This implementation creates a {@link SpillingSqlRowSet} with the
+	 * configured settings.
+	 */
+	@Override
+	protected SqlRowSet createSqlRowSet(ResultSet rs) throws SQLException {
+		return new SpillingSqlRowSet(rs, this.pageSize, this.maxInMemoryRows, this.directory);
+	}
+
+}
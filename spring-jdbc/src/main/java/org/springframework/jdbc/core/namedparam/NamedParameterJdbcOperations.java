@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,13 @@
 
 package org.springframework.jdbc.core.namedparam;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchCallbackHandler;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.ResultSetExtractor;
@@ -549,4 +551,69 @@ public interface NamedParameterJdbcOperations {
 	 */
 	int[] batchUpdate(String sql, SqlParameterSource[] batchArgs);
 
+	/**
+	 * Execute a batch using the supplied SQL statement with the batch of supplied
+	 * arguments, returning generated keys.
+	 * <p>The generated keys of all statements in the batch are retrieved once after
+	 * executing the batch, rather than in a separate round trip per statement.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the array of {@link SqlParameterSource} containing the batch of
+	 * arguments for the query
+	 * @param generatedKeyHolder a {@link KeyHolder} that will hold the generated keys,
+	 * in the order of the batch
+	 * @return an array containing the numbers of rows affected by each update in the batch
+	 * (may also contain special JDBC-defined negative values for affected rows such as
+	 * {@link java.sql.Statement#SUCCESS_NO_INFO}/{@link java.sql.Statement#EXECUTE_FAILED})
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 6.1
+	 * @see MapSqlParameterSource
+	 * @see org.springframework.jdbc.support.GeneratedKeyHolder
+	 */
+	int[] batchUpdate(String sql, SqlParameterSource[] batchArgs, KeyHolder generatedKeyHolder);
+
+	/**
+	 * Execute a batch using the supplied SQL statement with the batch of supplied
+	 * arguments, returning generated keys.
+	 * <p>The generated keys of all statements in the batch are retrieved once after
+	 * executing the batch, rather than in a separate round trip per statement.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the array of {@link SqlParameterSource} containing the batch of
+	 * arguments for the query
+	 * @param generatedKeyHolder a {@link KeyHolder} that will hold the generated keys,
+	 * in the order of the batch
+	 * @param keyColumnNames names of the columns that will have keys generated for them
+	 * @return an array containing the numbers of rows affected by each update in the batch
+	 * (may also contain special JDBC-defined negative values for affected rows such as
+	 * {@link java.sql.Statement#SUCCESS_NO_INFO}/{@link java.sql.Statement#EXECUTE_FAILED})
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 6.1
+	 * @see MapSqlParameterSource
+	 * @see org.springframework.jdbc.support.GeneratedKeyHolder
+	 */
+	int[] batchUpdate(String sql, SqlParameterSource[] batchArgs, KeyHolder generatedKeyHolder,
+			String[] keyColumnNames);
+
+	/**
+	 * Execute multiple batches using the supplied SQL statement with the
+	 * {@link SqlParameterSource} arguments obtained from the given Iterator,
+	 * e.g. from {@link Stream#iterator()}.
+	 * <p>Each batch is executed as soon as 'batchSize' arguments have been set,
+	 * and its update counts are passed to the given BatchCallbackHandler rather
+	 * than accumulated, so that at most one batch of arguments is held at a time.
+	 * <p>The SQL statement is prepared once, based on the first argument, e.g.
+	 * for expanding collection parameters into placeholders.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Iterator over the {@link SqlParameterSource} arguments
+	 * for the query
+	 * @param batchSize batch size
+	 * @param bch the BatchCallbackHandler to process the update counts of each
+	 * batch with, or {@code null} if the update counts are not of interest
+	 * @return the number of batch arguments processed
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 6.1
+	 * @see JdbcOperations#batchUpdate(String, Iterator, int, org.springframework.jdbc.core.ParameterizedPreparedStatementSetter, BatchCallbackHandler)
+	 */
+	long batchUpdate(String sql, Iterator<? extends SqlParameterSource> batchArgs, int batchSize,
+			@Nullable BatchCallbackHandler bch) throws DataAccessException;
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -27,6 +28,7 @@ import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.BatchCallbackHandler;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcOperations;
@@ -45,6 +47,7 @@ import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ConcurrentLruCache.AdmissionPolicy;
 
 /**
  * Template class with a basic set of JDBC operations, allowing the use
@@ -78,7 +81,8 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 
 	/** Cache of original SQL String to ParsedSql representation. */
 	private volatile ConcurrentLruCache<String, ParsedSql> parsedSqlCache =
-			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement);
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement,
+					AdmissionPolicy.FREQUENCY);
 
 
 	/**
@@ -128,7 +132,8 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	 * Default is 256. 0 indicates no caching, always parsing each statement.
 	 */
 	public void setCacheLimit(int cacheLimit) {
-		this.parsedSqlCache = new ConcurrentLruCache<>(cacheLimit, NamedParameterUtils::parseSqlStatement);
+		this.parsedSqlCache = new ConcurrentLruCache<>(cacheLimit, NamedParameterUtils::parseSqlStatement,
+				AdmissionPolicy.FREQUENCY);
 	}
 
 	/**
@@ -371,18 +376,71 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		PreparedStatementCreatorFactory pscf = getPreparedStatementCreatorFactory(parsedSql, batchArgs[0]);
 
 		return getJdbcOperations().batchUpdate(
-				pscf.getSql(),
-				new BatchPreparedStatementSetter() {
-					@Override
-					public void setValues(PreparedStatement ps, int i) throws SQLException {
-						Object[] values = NamedParameterUtils.buildValueArray(parsedSql, batchArgs[i], null);
-						pscf.newPreparedStatementSetter(values).setValues(ps);
-					}
-					@Override
-					public int getBatchSize() {
-						return batchArgs.length;
-					}
-				});
+				pscf.getSql(), getBatchPreparedStatementSetter(parsedSql, pscf, batchArgs));
+	}
+
+	@Override
+	public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs, KeyHolder generatedKeyHolder) {
+		return batchUpdate(sql, batchArgs, generatedKeyHolder, null);
+	}
+
+	@Override
+	public int[] batchUpdate(String sql, SqlParameterSource[] batchArgs, KeyHolder generatedKeyHolder,
+			@Nullable String[] keyColumnNames) {
+
+		if (batchArgs.length == 0) {
+			generatedKeyHolder.getKeyList().clear();
+			return new int[0];
+		}
+
+		ParsedSql parsedSql = getParsedSql(sql);
+		PreparedStatementCreatorFactory pscf = getPreparedStatementCreatorFactory(parsedSql, batchArgs[0]);
+		if (keyColumnNames != null) {
+			pscf.setGeneratedKeysColumnNames(keyColumnNames);
+		}
+		else {
+			pscf.setReturnGeneratedKeys(true);
+		}
+		Object[] params = NamedParameterUtils.buildValueArray(parsedSql, batchArgs[0], null);
+		PreparedStatementCreator psc = pscf.newPreparedStatementCreator(params);
+
+		return getJdbcOperations().batchUpdate(
+				psc, getBatchPreparedStatementSetter(parsedSql, pscf, batchArgs), generatedKeyHolder);
+	}
+
+	@Override
+	public long batchUpdate(String sql, Iterator<? extends SqlParameterSource> batchArgs, int batchSize,
+			@Nullable BatchCallbackHandler bch) {
+
+		if (!batchArgs.hasNext()) {
+			return 0;
+		}
+		SqlParameterSource firstArg = batchArgs.next();
+		Iterator<SqlParameterSource> argsToUse = new Iterator<>() {
+			@Nullable
+			private SqlParameterSource next = firstArg;
+			@Override
+			public boolean hasNext() {
+				return (this.next != null || batchArgs.hasNext());
+			}
+			@Override
+			public SqlParameterSource next() {
+				SqlParameterSource arg = this.next;
+				if (arg != null) {
+					this.next = null;
+					return arg;
+				}
+				return batchArgs.next();
+			}
+		};
+
+		ParsedSql parsedSql = getParsedSql(sql);
+		PreparedStatementCreatorFactory pscf = getPreparedStatementCreatorFactory(parsedSql, firstArg);
+
+		return getJdbcOperations().batchUpdate(pscf.getSql(), argsToUse, batchSize, (ps, arg) -> {
+					Object[] values = NamedParameterUtils.buildValueArray(parsedSql, arg, null);
+					pscf.newPreparedStatementSetter(values).setValues(ps);
+				}, bch);
 	}
 
 
@@ -426,9 +484,31 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return pscf.newPreparedStatementCreator(params);
 	}
 
+	/**
+	 * Build a {@link BatchPreparedStatementSetter} for the given batch arguments,
+	 * binding the values of each {@link SqlParameterSource} to the placeholders
+	 * of the given parsed SQL statement.
+	 */
+	private BatchPreparedStatementSetter getBatchPreparedStatementSetter(
+			ParsedSql parsedSql, PreparedStatementCreatorFactory pscf, SqlParameterSource[] batchArgs) {
+
+		return new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				Object[] values = NamedParameterUtils.buildValueArray(parsedSql, batchArgs[i], null);
+				pscf.newPreparedStatementSetter(values).setValues(ps);
+			}
+			@Override
+			public int getBatchSize() {
+				return batchArgs.length;
+			}
+		};
+	}
+
 	/**
 	 * Obtain a parsed representation of the given SQL statement.
-	 * <p>The default implementation uses an LRU cache with an upper limit of 256 entries.
+	 * <p>The default implementation uses an LRU cache with an upper limit of 256 entries,
+	 * admitting new statements based on their frequency of use.
 	 * @param sql the original SQL statement
 	 * @return a representation of the parsed SQL statement
 	 */
@@ -39,6 +39,8 @@ import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
 import org.springframework.jdbc.core.SqlTypeValue;
 import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.jdbc.core.metadata.TableMetaDataContext;
@@ -569,17 +571,93 @@ public abstract class AbstractJdbcInsert {
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing statement " + getInsertString() + " with batch of size: " + batchValues.size());
 		}
-		return getJdbcTemplate().batchUpdate(getInsertString(),
-				new BatchPreparedStatementSetter() {
-					@Override
-					public void setValues(PreparedStatement ps, int i) throws SQLException {
-						setParameterValues(ps, batchValues.get(i), getInsertTypes());
-					}
-					@Override
-					public int getBatchSize() {
-						return batchValues.size();
-					}
-				});
+		return getJdbcTemplate().batchUpdate(getInsertString(), getBatchPreparedStatementSetter(batchValues));
+	}
+
+	/**
+	 * Delegate method that executes a batch insert using the passed-in Maps of parameters
+	 * and returning all generated keys.
+	 * @param batch array of Maps with parameter names and values to be used in batch insert
+	 * @return the KeyHolder containing keys generated by the batch insert
+	 * @since 6.1
+	 */
+	@SuppressWarnings("unchecked")
+	protected KeyHolder doExecuteBatchAndReturnKeyHolder(Map<String, ?>... batch) {
+		checkCompiled();
+		List<List<Object>> batchValues = new ArrayList<>(batch.length);
+		for (Map<String, ?> args : batch) {
+			batchValues.add(matchInParameterValuesWithInsertColumns(args));
+		}
+		return executeBatchAndReturnKeyHolderInternal(batchValues);
+	}
+
+	/**
+	 * Delegate method that executes a batch insert using the passed-in
+	 * {@link SqlParameterSource SqlParameterSources} and returning all generated keys.
+	 * @param batch array of SqlParameterSource with parameter names and values to be used in insert
+	 * @return the KeyHolder containing keys generated by the batch insert
+	 * @since 6.1
+	 */
+	protected KeyHolder doExecuteBatchAndReturnKeyHolder(SqlParameterSource... batch) {
+		checkCompiled();
+		List<List<Object>> batchValues = new ArrayList<>(batch.length);
+		for (SqlParameterSource parameterSource : batch) {
+			batchValues.add(matchInParameterValuesWithInsertColumns(parameterSource));
+		}
+		return executeBatchAndReturnKeyHolderInternal(batchValues);
+	}
+
+	/**
+	 * Delegate method to execute the batch insert, generating any number of keys.
+	 */
+	private KeyHolder executeBatchAndReturnKeyHolderInternal(final List<List<Object>> batchValues) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing statement " + getInsertString() + " with batch of size " +
+					batchValues.size() + " and returning generated keys");
+		}
+		final KeyHolder keyHolder = new GeneratedKeyHolder();
+
+		if (this.tableMetaDataContext.isGetGeneratedKeysSupported()) {
+			/**
+			 * Creator for the statement with generated keys, exposing the insert string.
+			 */
+			class GeneratedKeysPreparedStatementCreator implements PreparedStatementCreator, SqlProvider {
+				@Override
+				public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+					return prepareStatementForGeneratedKeys(con);
+				}
+				@Override
+				public String getSql() {
+					return getInsertString();
+				}
+			}
+			getJdbcTemplate().batchUpdate(
+					new GeneratedKeysPreparedStatementCreator(), getBatchPreparedStatementSetter(batchValues), keyHolder);
+		}
+		else {
+			// Simulated generated keys can only be retrieved one insert at a time
+			for (List<Object> values : batchValues) {
+				keyHolder.getKeyList().addAll(executeInsertAndReturnKeyHolderInternal(values).getKeyList());
+			}
+		}
+
+		return keyHolder;
+	}
+
+	/**
+	 * Build a {@link BatchPreparedStatementSetter} for the given batch of values.
+	 */
+	private BatchPreparedStatementSetter getBatchPreparedStatementSetter(final List<List<Object>> batchValues) {
+		return new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				setParameterValues(ps, batchValues.get(i), getInsertTypes());
+			}
+			@Override
+			public int getBatchSize() {
+				return batchValues.size();
+			}
+		};
 	}
 
 	/**
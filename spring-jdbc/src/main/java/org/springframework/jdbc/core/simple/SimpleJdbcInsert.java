@@ -153,4 +153,15 @@ public class SimpleJdbcInsert extends AbstractJdbcInsert implements SimpleJdbcIn
 		return doExecuteBatch(batch);
 	}
 
+	@Override
+	@SuppressWarnings("unchecked")
+	public KeyHolder executeBatchAndReturnKeyHolder(Map<String, ?>... batch) {
+		return doExecuteBatchAndReturnKeyHolder(batch);
+	}
+
+	@Override
+	public KeyHolder executeBatchAndReturnKeyHolder(SqlParameterSource... batch) {
+		return doExecuteBatchAndReturnKeyHolder(batch);
+	}
+
 }
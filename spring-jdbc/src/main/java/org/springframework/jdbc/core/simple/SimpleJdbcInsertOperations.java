@@ -150,4 +150,31 @@ public interface SimpleJdbcInsertOperations {
 	 */
 	int[] executeBatch(SqlParameterSource... batch);
 
+	/**
+	 * Execute a batch insert using the batch of values passed in and return the
+	 * generated keys of all inserted rows, in the order of the batch.
+	 * <p>This requires that the name of the columns with auto generated keys have been specified.
+	 * The keys are retrieved once after executing the batch where the database supports it,
+	 * rather than in a separate round trip per row. This method will always return a KeyHolder
+	 * but the caller must verify that it actually contains the generated keys.
+	 * @param batch an array of Maps containing a batch of column names and corresponding value
+	 * @return the KeyHolder containing all generated keys
+	 * @since 6.1
+	 */
+	@SuppressWarnings("unchecked")
+	KeyHolder executeBatchAndReturnKeyHolder(Map<String, ?>... batch);
+
+	/**
+	 * Execute a batch insert using the batch of values passed in and return the
+	 * generated keys of all inserted rows, in the order of the batch.
+	 * <p>This requires that the name of the columns with auto generated keys have been specified.
+	 * The keys are retrieved once after executing the batch where the database supports it,
+	 * rather than in a separate round trip per row. This method will always return a KeyHolder
+	 * but the caller must verify that it actually contains the generated keys.
+	 * @param batch an array of SqlParameterSource containing values for the batch
+	 * @return the KeyHolder containing all generated keys
+	 * @since 6.1
+	 */
+	KeyHolder executeBatchAndReturnKeyHolder(SqlParameterSource... batch);
+
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Keeps the last known auto-commit, transaction isolation and read-only
+ * state per physical JDBC Connection, so that transaction setup and cleanup
+ * can skip getter calls and setter calls which would not change anything.
+ * Each of those calls may be a round trip to the database, depending on the driver.
+ *
+ * <p>The state of a Connection is only known after it has been read or
+ * applied through this tracker. Any failed call makes the affected state
+ * unknown again.
+ *
+ * @since 6.1
+ * @see DataSourceTransactionManager#setTrackConnectionState
+ */
+final class ConnectionStateTracker {
+
+	private static final ConnectionState UNTRACKED = new ConnectionState(null);
+
+	private final Map<Connection, ConnectionState> states = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final LongAdder skippedCallCount = new LongAdder();
+
+
+	/**
+	 * Return the tracked state for the physical Connection behind the given Connection.
+	 * @param con the Connection, possibly a pool handle
+	 */
+	ConnectionState getState(Connection con) {
+		Connection physicalConnection;
+		try {
+			physicalConnection = con.unwrap(Connection.class);
+			if (physicalConnection == null) {
+				physicalConnection = con;
+			}
+		}
+		catch (SQLException | RuntimeException ex) {
+			physicalConnection = con;
+		}
+		return this.states.computeIfAbsent(physicalConnection, key -> new ConnectionState(this.skippedCallCount));
+	}
+
+	/**
+	 * Return the number of Connection calls skipped since the state was known.
+	 */
+	long getSkippedCallCount() {
+		return this.skippedCallCount.sum();
+	}
+
+	/**
+	 * Return a state which does not track anything, always calling the Connection.
+	 */
+	static ConnectionState untracked() {
+		return UNTRACKED;
+	}
+
+
+	/**
+	 * Last known state of a physical Connection. Only to be used by the
+	 * thread currently holding the Connection.
+	 */
+	static final class ConnectionState {
+
+		@Nullable
+		private final LongAdder skippedCallCount;
+
+		@Nullable
+		private Boolean autoCommit;
+
+		@Nullable
+		private Integer transactionIsolation;
+
+		@Nullable
+		private Boolean readOnly;
+
+		private ConnectionState(@Nullable LongAdder skippedCallCount) {
+			this.skippedCallCount = skippedCallCount;
+		}
+
+		private boolean isTracking() {
+			return (this.skippedCallCount != null);
+		}
+
+		private void skipped() {
+			if (this.skippedCallCount != null) {
+				this.skippedCallCount.increment();
+			}
+		}
+
+		boolean getAutoCommit(Connection con) throws SQLException {
+			if (this.autoCommit != null) {
+				skipped();
+				return this.autoCommit;
+			}
+			boolean autoCommit = con.getAutoCommit();
+			if (isTracking()) {
+				this.autoCommit = autoCommit;
+			}
+			return autoCommit;
+		}
+
+		void setAutoCommit(Connection con, boolean autoCommit) throws SQLException {
+			if (this.autoCommit != null && this.autoCommit == autoCommit) {
+				skipped();
+				return;
+			}
+			this.autoCommit = null;
+			con.setAutoCommit(autoCommit);
+			if (isTracking()) {
+				this.autoCommit = autoCommit;
+			}
+		}
+
+		int getTransactionIsolation(Connection con) throws SQLException {
+			if (this.transactionIsolation != null) {
+				skipped();
+				return this.transactionIsolation;
+			}
+			int transactionIsolation = con.getTransactionIsolation();
+			if (isTracking()) {
+				this.transactionIsolation = transactionIsolation;
+			}
+			return transactionIsolation;
+		}
+
+		void setTransactionIsolation(Connection con, int transactionIsolation) throws SQLException {
+			if (this.transactionIsolation != null && this.transactionIsolation == transactionIsolation) {
+				skipped();
+				return;
+			}
+			this.transactionIsolation = null;
+			con.setTransactionIsolation(transactionIsolation);
+			if (isTracking()) {
+				this.transactionIsolation = transactionIsolation;
+			}
+		}
+
+		void setReadOnly(Connection con, boolean readOnly) throws SQLException {
+			if (this.readOnly != null && this.readOnly == readOnly) {
+				skipped();
+				return;
+			}
+			this.readOnly = null;
+			con.setReadOnly(readOnly);
+			if (isTracking()) {
+				this.readOnly = readOnly;
+			}
+		}
+	}
+
+}
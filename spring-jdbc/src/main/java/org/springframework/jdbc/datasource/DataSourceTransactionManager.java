@@ -19,6 +19,7 @@ package org.springframework.jdbc.datasource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.sql.DataSource;
 
@@ -122,6 +123,13 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 
 	private boolean enforceReadOnly = false;
 
+	private boolean readOnlyStatementOnly = false;
+
+	@Nullable
+	private transient ConnectionStateTracker connectionStateTracker;
+
+	private final LongAdder skippedReadOnlyHintCount = new LongAdder();
+
 
 	/**
 	 * Create a new DataSourceTransactionManager instance.
@@ -231,6 +239,79 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 		return this.enforceReadOnly;
 	}
 
+	/**
+	 * Specify whether an enforced read-only transaction should rely on the
+	 * "SET TRANSACTION READ ONLY" statement alone, skipping the
+	 * {@link Connection#setReadOnly} hint on transaction begin and its reset
+	 * after completion. Default is "false".
+	 * <p>Since that statement only applies to the current transaction, nothing
+	 * needs to be reset afterwards, saving two calls per read-only transaction.
+	 * This only applies if the {@link #setEnforceReadOnly "enforceReadOnly"}
+	 * flag is set to {@code true}.
+	 * @since 6.1
+	 * @see #setEnforceReadOnly
+	 * @see #getSkippedConnectionCallCount()
+	 */
+	public void setReadOnlyStatementOnly(boolean readOnlyStatementOnly) {
+		this.readOnlyStatementOnly = readOnlyStatementOnly;
+	}
+
+	/**
+	 * Return whether an enforced read-only transaction relies on the
+	 * "SET TRANSACTION READ ONLY" statement alone.
+	 * @since 6.1
+	 * @see #setReadOnlyStatementOnly
+	 */
+	public boolean isReadOnlyStatementOnly() {
+		return this.readOnlyStatementOnly;
+	}
+
+	/**
+	 * Specify whether to keep track of the last known auto-commit, isolation level
+	 * and read-only state of each physical JDBC Connection. Default is "false".
+	 * <p>If switched on, transaction begin and cleanup skip
+	 * {@link Connection#getAutoCommit} and {@link Connection#getTransactionIsolation}
+	 * calls once the state is known, as well as setter calls which would not change
+	 * the state. Depending on the driver, each of those calls may be a round trip
+	 * to the database.
+	 * <p><b>NOTE:</b> Only switch this on if the state of the Connections is not
+	 * changed outside of this transaction manager, e.g. by data access code or by
+	 * a connection pool resetting it to different defaults. Otherwise necessary
+	 * calls may be skipped based on stale state.
+	 * @since 6.1
+	 * @see #getSkippedConnectionCallCount()
+	 */
+	public void setTrackConnectionState(boolean trackConnectionState) {
+		if (trackConnectionState) {
+			if (this.connectionStateTracker == null) {
+				this.connectionStateTracker = new ConnectionStateTracker();
+			}
+		}
+		else {
+			this.connectionStateTracker = null;
+		}
+	}
+
+	/**
+	 * Return whether the state of each physical JDBC Connection is being tracked.
+	 * @since 6.1
+	 * @see #setTrackConnectionState
+	 */
+	public boolean isTrackConnectionState() {
+		return (this.connectionStateTracker != null);
+	}
+
+	/**
+	 * Return the number of JDBC Connection calls that have been skipped
+	 * through {@link #setTrackConnectionState "trackConnectionState"} and
+	 * {@link #setReadOnlyStatementOnly "readOnlyStatementOnly"}.
+	 * @since 6.1
+	 */
+	public long getSkippedConnectionCallCount() {
+		ConnectionStateTracker tracker = this.connectionStateTracker;
+		return (tracker != null ? tracker.getSkippedCallCount() : 0) + this.skippedReadOnlyHintCount.sum();
+	}
+
 	@Override
 	public void afterPropertiesSet() {
 		if (getDataSource() == null) {
@@ -329,15 +410,25 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 			 * 如果我们配置的隔离级别属性是ISOLATION_DEFAULT，即采用默认隔离级别，或者不是默认的隔离级别但是与连接的隔离级别一致，那么将返回null
 			 * 否则将返回从连接中直接获取的隔离级别（如果有）
 			 */
-			Integer previousIsolationLevel = DataSourceUtils.prepareConnectionForTransaction(con, definition);
+			ConnectionStateTracker tracker = this.connectionStateTracker;
+			ConnectionStateTracker.ConnectionState state =
+					(tracker != null ? tracker.getState(con) : ConnectionStateTracker.untracked());
+			txObject.setConnectionState(state);
+			boolean applyReadOnlyHint = !(isEnforceReadOnly() && isReadOnlyStatementOnly());
+			if (definition.isReadOnly() && !applyReadOnlyHint) {
+				// Neither setReadOnly(true) now nor setReadOnly(false) on cleanup
+				this.skippedReadOnlyHintCount.add(2);
+			}
+			Integer previousIsolationLevel = DataSourceUtils.prepareConnectionForTransaction(
+					con, definition, state, applyReadOnlyHint);
 			//此前的隔离级别设置给事务对象的previousIsolationLevel属性
 			txObject.setPreviousIsolationLevel(previousIsolationLevel);
 			//只读标志设置给事务对象的readOnly属性
-			txObject.setReadOnly(definition.isReadOnly());
+			txObject.setReadOnly(definition.isReadOnly() && applyReadOnlyHint);
 
 			//如有必要，切换为手动提交。
 			//从Druid数据源中获取的连接DruidPooledConnection就是默认自动提交，即getAutoCommit返回true
-			if (con.getAutoCommit()) {
+			if (state.getAutoCommit(con)) {
 				txObject.setMustRestoreAutoCommit(true);
 				if (logger.isDebugEnabled()) {
 					logger.debug("Switching JDBC Connection [" + con + "] to manual commit");
@@ -349,7 +440,7 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 				 *
 				 * 并且，开启手动提交时，将会自动开启事物
 				 */
-				con.setAutoCommit(false);
+				state.setAutoCommit(con, false);
 			}
 			//事务已经开启，此后的sql语句，如果没有手动commit，那么将不会真正的提交给数据库
 			//用户本次对数据库开始进行操作到用户执行commit命令之间的一系列操作为一个完整的事务周期。
@@ -495,12 +586,13 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 		Connection con = txObject.getConnectionHolder().getConnection();
 		try {
 			//重置连接属性为自动提交
+			ConnectionStateTracker.ConnectionState state = txObject.getConnectionState();
 			if (txObject.isMustRestoreAutoCommit()) {
-				con.setAutoCommit(true);
+				state.setAutoCommit(con, true);
 			}
 			//在事务处理后重置给定的Connection的只读标志和隔离级别属性
 			DataSourceUtils.resetConnectionAfterTransaction(
-					con, txObject.getPreviousIsolationLevel(), txObject.isReadOnly());
+					con, txObject.getPreviousIsolationLevel(), txObject.isReadOnly(), state);
 		} catch (Throwable ex) {
 			logger.debug("Could not reset JDBC Connection after transaction", ex);
 		}
@@ -573,6 +665,8 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 
 		private boolean mustRestoreAutoCommit;
 
+		private ConnectionStateTracker.ConnectionState connectionState = ConnectionStateTracker.untracked();
+
 		public void setConnectionHolder(@Nullable ConnectionHolder connectionHolder, boolean newConnectionHolder) {
 			super.setConnectionHolder(connectionHolder);
 			this.newConnectionHolder = newConnectionHolder;
@@ -590,6 +684,14 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 			return this.mustRestoreAutoCommit;
 		}
 
+		public void setConnectionState(ConnectionStateTracker.ConnectionState connectionState) {
+			this.connectionState = connectionState;
+		}
+
+		public ConnectionStateTracker.ConnectionState getConnectionState() {
+			return this.connectionState;
+		}
+
 		public void setRollbackOnly() {
 			getConnectionHolder().setRollbackOnly();
 		}
@@ -178,18 +178,37 @@ public abstract class DataSourceUtils {
 	public static Integer prepareConnectionForTransaction(Connection con, @Nullable TransactionDefinition definition)
 			throws SQLException {
 
+		return prepareConnectionForTransaction(con, definition, ConnectionStateTracker.untracked(), true);
+	}
+
+	/**
+	 * Prepare the given Connection with the given transaction semantics,
+	 * skipping calls which would not change the known state of the Connection.
+	 * @param con the Connection to prepare
+	 * @param definition the transaction definition to apply
+	 * @param state the last known state of the Connection
+	 * @param applyReadOnlyHint whether to apply {@link Connection#setReadOnly}
+	 * for a read-only transaction
+	 * @return the previous isolation level, if any
+	 * @throws SQLException if thrown by JDBC methods
+	 * @since 6.1
+	 */
+	@Nullable
+	static Integer prepareConnectionForTransaction(Connection con, @Nullable TransactionDefinition definition,
+			ConnectionStateTracker.ConnectionState state, boolean applyReadOnlyHint) throws SQLException {
+
 		Assert.notNull(con, "No Connection specified");
 
 		boolean debugEnabled = logger.isDebugEnabled();
 		// Set read-only flag.
 		// 设置只读标志。
-		if (definition != null && definition.isReadOnly()) {
+		if (definition != null && definition.isReadOnly() && applyReadOnlyHint) {
 			try {
 				if (debugEnabled) {
 					logger.debug("Setting JDBC Connection [" + con + "] read-only");
 				}
 				//设置连接只读属性
-				con.setReadOnly(true);
+				state.setReadOnly(con, true);
 			}
 			catch (SQLException | RuntimeException ex) {
 				Throwable exToCheck = ex;
@@ -215,13 +234,13 @@ public abstract class DataSourceUtils {
 						definition.getIsolationLevel());
 			}
 			//获取当前连接的隔离级别
-			int currentIsolation = con.getTransactionIsolation();
+			int currentIsolation = state.getTransactionIsolation(con);
 			//如果手动设置的隔离级别不等于连接的隔离级别
 			if (currentIsolation != definition.getIsolationLevel()) {
 				//记录连接的隔离级别
 				previousIsolationLevel = currentIsolation;
 				//连接的隔离级别手动设置为我们配置的隔离级别
-				con.setTransactionIsolation(definition.getIsolationLevel());
+				state.setTransactionIsolation(con, definition.getIsolationLevel());
 			}
 		}
 		//返回此前的连接的隔离级别，可能为null
@@ -242,6 +261,22 @@ public abstract class DataSourceUtils {
 	public static void resetConnectionAfterTransaction(
 			Connection con, @Nullable Integer previousIsolationLevel, boolean resetReadOnly) {
 
+		resetConnectionAfterTransaction(con, previousIsolationLevel, resetReadOnly, ConnectionStateTracker.untracked());
+	}
+
+	/**
+	 * Reset the given Connection after a transaction, regarding read-only flag
+	 * and isolation level, skipping calls which would not change the known
+	 * state of the Connection.
+	 * @param con the Connection to reset
+	 * @param previousIsolationLevel the isolation level to restore, if any
+	 * @param resetReadOnly whether to reset the connection's read-only flag
+	 * @param state the last known state of the Connection
+	 * @since 6.1
+	 */
+	static void resetConnectionAfterTransaction(Connection con, @Nullable Integer previousIsolationLevel,
+			boolean resetReadOnly, ConnectionStateTracker.ConnectionState state) {
+
 		Assert.notNull(con, "No Connection specified");
 		boolean debugEnabled = logger.isDebugEnabled();
 		try {
@@ -251,7 +286,7 @@ public abstract class DataSourceUtils {
 					logger.debug("Resetting isolation level of JDBC Connection [" +
 							con + "] to " + previousIsolationLevel);
 				}
-				con.setTransactionIsolation(previousIsolationLevel);
+				state.setTransactionIsolation(con, previousIsolationLevel);
 			}
 
 			// Reset read-only flag if we originally switched it to true on transaction begin.
@@ -259,7 +294,7 @@ public abstract class DataSourceUtils {
 				if (debugEnabled) {
 					logger.debug("Resetting read-only flag of JDBC Connection [" + con + "]");
 				}
-				con.setReadOnly(false);
+				state.setReadOnly(con, false);
 			}
 		}
 		catch (Throwable ex) {
@@ -0,0 +1,689 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Proxy for a target DataSource, caching JDBC PreparedStatements and
+ * CallableStatements per JDBC Connection. This is intended for connection
+ * pools and drivers that do not cache statements themselves, avoiding
+ * repeated statement preparation for the same SQL.
+ *
+ * <p>Each Connection keeps a bounded least-recently-used cache of idle
+ * statements, keyed by SQL and by the result set and generated key options
+ * that the statement has been prepared with. Statements handed out by the
+ * Connection handles of this proxy are only closed logically: on {@code close()},
+ * their parameters are cleared, statement settings such as max rows, fetch size
+ * and query timeout are restored, and the statement is returned to the cache
+ * of its Connection. A statement is closed physically instead if it has been
+ * evicted from the cache, if its execution failed, or if it has been
+ * reconfigured in a way that cannot be restored.
+ *
+ * <p>By default, statements are prepared on the Connection as returned by the
+ * target DataSource, so that a connection pool sees all statement executions
+ * (e.g. for rolling back uncommitted work when a Connection is returned to
+ * it). The cache of such a Connection is closed along with the Connection,
+ * so statements are only reused within the same Connection handle, such as
+ * within a transaction or a batch. Alternatively, statements may be prepared
+ * on the physical Connection in order to reuse them across Connection handles:
+ * see {@link #setPrepareOnPhysicalConnection}. ResultSets need to be closed
+ * before their Statement, as done by {@link org.springframework.jdbc.core.JdbcTemplate}.
+ *
+ * <p>Cache statistics are exposed through {@link #getCacheHitCount()},
+ * {@link #getCacheMissCount()}, {@link #getCacheEvictionCount()} and
+ * {@link #getCacheHitRatio()}.
+ *
+ * <p><b>NOTE:</b> This DataSource proxy returns wrapped Connections (which
+ * implement the {@link ConnectionProxy} interface) and wrapped Statements.
+ * Use {@link Connection#unwrap} to retrieve the native JDBC objects.
+ *
+ * @since 6.1
+ * @see LazyConnectionDataSourceProxy
+ * @see #setCacheSize
+ */
+public class StatementCachingDataSourceProxy extends DelegatingDataSource {
+
+	/**
+	 * The default number of statements cached per Connection.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 64;
+
+	private static final Log logger = LogFactory.getLog(StatementCachingDataSourceProxy.class);
+
+	private int cacheSize = DEFAULT_CACHE_SIZE;
+
+	private boolean prepareOnPhysicalConnection = false;
+
+	private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Create a new StatementCachingDataSourceProxy.
+	 * @see #setTargetDataSource
+	 */
+	public StatementCachingDataSourceProxy() {
+	}
+
+	/**
+	 * Create a new StatementCachingDataSourceProxy.
+	 * @param targetDataSource the target DataSource
+	 */
+	public StatementCachingDataSourceProxy(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+
+	/**
+	 * Specify the maximum number of idle statements to cache per Connection.
+	 * Default is {@value #DEFAULT_CACHE_SIZE}.
+	 * <p>Statements currently in use do not count against this limit.
+	 */
+	public void setCacheSize(int cacheSize) {
+		Assert.isTrue(cacheSize > 0, "Cache size must be greater than 0");
+		this.cacheSize = cacheSize;
+	}
+
+	/**
+	 * Return the maximum number of idle statements to cache per Connection.
+	 */
+	public int getCacheSize() {
+		return this.cacheSize;
+	}
+
+	/**
+	 * Specify whether to prepare statements on the physical Connection, as
+	 * determined through {@link #getPhysicalConnection}, caching them across
+	 * the Connection handles of a connection pool.
+	 * <p>Default is {@code false}, preparing statements on the Connection handle
+	 * as returned by the target DataSource and caching them for the lifetime of
+	 * that handle only.
+	 * <p><b>WARNING:</b> Statements prepared on the physical Connection bypass
+	 * the connection pool. The pool neither tracks their executions nor their
+	 * access, so it may consider a Connection without uncommitted work and skip
+	 * the rollback when the Connection is returned to it, leaking uncommitted
+	 * work to the next borrower. Only switch this flag on for Connections in
+	 * auto-commit mode or for a target DataSource which is not a connection pool.
+	 */
+	public void setPrepareOnPhysicalConnection(boolean prepareOnPhysicalConnection) {
+		this.prepareOnPhysicalConnection = prepareOnPhysicalConnection;
+	}
+
+	/**
+	 * Return whether to prepare statements on the physical Connection.
+	 */
+	public boolean isPrepareOnPhysicalConnection() {
+		return this.prepareOnPhysicalConnection;
+	}
+
+
+	/**
+	 * Return a Connection handle that caches its PreparedStatements and
+	 * CallableStatements.
+	 * <p>The returned Connection handle implements the ConnectionProxy interface,
+	 * allowing to retrieve the underlying target Connection.
+	 * @return a statement-caching Connection handle
+	 * @see ConnectionProxy#getTargetConnection()
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		return getStatementCachingConnectionProxy(obtainTargetDataSource().getConnection());
+	}
+
+	/**
+	 * Return a Connection handle that caches its PreparedStatements and
+	 * CallableStatements.
+	 * <p>The returned Connection handle implements the ConnectionProxy interface,
+	 * allowing to retrieve the underlying target Connection.
+	 * @param username the per-Connection username
+	 * @param password the per-Connection password
+	 * @return a statement-caching Connection handle
+	 * @see ConnectionProxy#getTargetConnection()
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return getStatementCachingConnectionProxy(obtainTargetDataSource().getConnection(username, password));
+	}
+
+	/**
+	 * Wrap the given Connection with a proxy that caches its statements.
+	 * @param target the original Connection to wrap
+	 * @return the wrapped Connection
+	 */
+	protected Connection getStatementCachingConnectionProxy(Connection target) throws SQLException {
+		StatementCache statementCache;
+		if (this.prepareOnPhysicalConnection) {
+			Connection physicalConnection = getPhysicalConnection(target);
+			statementCache = this.statementCaches.get(physicalConnection);
+			if (statementCache == null) {
+				// A physical Connection we have not seen before: a good opportunity
+				// to drop the caches of physical Connections which have been closed.
+				purgeClosedConnections();
+				statementCache = this.statementCaches.computeIfAbsent(physicalConnection, StatementCache::new);
+			}
+		}
+		else {
+			statementCache = new StatementCache(target);
+			this.statementCaches.put(target, statementCache);
+		}
+		return (Connection) Proxy.newProxyInstance(
+				ConnectionProxy.class.getClassLoader(),
+				new Class<?>[] {ConnectionProxy.class},
+				new StatementCachingInvocationHandler(target, statementCache));
+	}
+
+	/**
+	 * Determine the physical Connection to prepare and cache statements on,
+	 * if {@link #setPrepareOnPhysicalConnection prepareOnPhysicalConnection}
+	 * has been switched on.
+	 * <p>The default implementation unwraps the given Connection through
+	 * {@link Connection#unwrap}, falling back to the given Connection itself.
+	 * @param con the Connection as obtained from the target DataSource
+	 * @return the physical Connection
+	 */
+	protected Connection getPhysicalConnection(Connection con) {
+		try {
+			Connection physicalConnection = con.unwrap(Connection.class);
+			return (physicalConnection != null ? physicalConnection : con);
+		}
+		catch (SQLException | RuntimeException ex) {
+			logger.trace("Could not unwrap physical JDBC Connection", ex);
+			return con;
+		}
+	}
+
+	private void purgeClosedConnections() {
+		for (Iterator<Map.Entry<Connection, StatementCache>> it = this.statementCaches.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<Connection, StatementCache> entry = it.next();
+			boolean closed;
+			try {
+				closed = entry.getKey().isClosed();
+			}
+			catch (SQLException ex) {
+				closed = true;
+			}
+			if (closed) {
+				it.remove();
+				entry.getValue().clear();
+			}
+		}
+	}
+
+	/**
+	 * Physically close all idle statements in the caches of all Connections,
+	 * e.g. on shutdown or after a schema change.
+	 * <p>Statements currently in use will be cached again on logical close.
+	 */
+	public void clearStatementCache() {
+		for (Iterator<StatementCache> it = this.statementCaches.values().iterator(); it.hasNext();) {
+			StatementCache statementCache = it.next();
+			it.remove();
+			statementCache.clear();
+		}
+	}
+
+
+	/**
+	 * Return the number of statement requests served from the cache.
+	 */
+	public long getCacheHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of statement requests that required a statement
+	 * to be prepared on the Connection.
+	 */
+	public long getCacheMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of idle statements which have been physically closed
+	 * in order to stay within the {@link #setCacheSize cache size}.
+	 */
+	public long getCacheEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Return the ratio of statement requests served from the cache,
+	 * between 0.0 and 1.0, or 0.0 if no statement has been requested yet.
+	 */
+	public double getCacheHitRatio() {
+		long hits = getCacheHitCount();
+		long total = hits + getCacheMissCount();
+		return (total > 0 ? (double) hits / total : 0.0);
+	}
+
+	/**
+	 * Return the number of idle statements currently held in the caches
+	 * of all Connections.
+	 */
+	public int getCachedStatementCount() {
+		int count = 0;
+		for (StatementCache statementCache : this.statementCaches.values()) {
+			count += statementCache.size();
+		}
+		return count;
+	}
+
+
+	/**
+	 * Key for a cached statement: the Connection method that it has been
+	 * prepared with, plus the SQL and options passed to that method.
+	 */
+	private static final class StatementKey {
+
+		private final Method method;
+
+		private final Object[] args;
+
+		private final int hashCode;
+
+		StatementKey(Method method, Object[] args) {
+			this.method = method;
+			this.args = copyArgs(args);
+			this.hashCode = method.hashCode() * 29 + Arrays.deepHashCode(args);
+		}
+
+		/**
+		 * Copy the given arguments, including column index and name arrays,
+		 * so that the key is not affected by later changes to those arrays.
+		 */
+		private static Object[] copyArgs(Object[] args) {
+			Object[] copy = args.clone();
+			for (int i = 0; i < copy.length; i++) {
+				if (copy[i] instanceof int[] columnIndexes) {
+					copy[i] = columnIndexes.clone();
+				}
+				else if (copy[i] instanceof String[] columnNames) {
+					copy[i] = columnNames.clone();
+				}
+			}
+			return copy;
+		}
+
+		boolean isCallable() {
+			return this.method.getName().equals("prepareCall");
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof StatementKey that &&
+					this.method.equals(that.method) && Arrays.deepEquals(this.args, that.args)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return this.method.getName() + Arrays.deepToString(this.args);
+		}
+	}
+
+
+	/**
+	 * Cache of idle statements for a Connection, in least-recently-used order.
+	 * Statements are removed from the cache while in use.
+	 */
+	private final class StatementCache {
+
+		private final Connection connection;
+
+		private final LinkedHashMap<StatementKey, PreparedStatement> idleStatements = new LinkedHashMap<>();
+
+		StatementCache(Connection connection) {
+			this.connection = connection;
+		}
+
+		PreparedStatement obtainStatement(StatementKey key) throws Throwable {
+			PreparedStatement statement;
+			synchronized (this) {
+				statement = this.idleStatements.remove(key);
+			}
+			if (statement != null) {
+				if (!statement.isClosed()) {
+					hitCount.increment();
+					return statement;
+				}
+				// Closed by the driver in the meantime: prepare it again.
+			}
+			missCount.increment();
+			try {
+				return (PreparedStatement) key.method.invoke(this.connection, key.args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+
+		void releaseStatement(StatementKey key, PreparedStatement statement) {
+			PreparedStatement evicted = null;
+			synchronized (this) {
+				if (this.idleStatements.containsKey(key)) {
+					// Same statement has been in use twice: keep the idle one.
+					evicted = statement;
+				}
+				else {
+					this.idleStatements.put(key, statement);
+					if (this.idleStatements.size() > getCacheSize()) {
+						Iterator<PreparedStatement> it = this.idleStatements.values().iterator();
+						evicted = it.next();
+						it.remove();
+					}
+				}
+			}
+			if (evicted != null) {
+				evictionCount.increment();
+				JdbcUtils.closeStatement(evicted);
+			}
+		}
+
+		void clear() {
+			List<PreparedStatement> statements;
+			synchronized (this) {
+				statements = new ArrayList<>(this.idleStatements.values());
+				this.idleStatements.clear();
+			}
+			for (PreparedStatement statement : statements) {
+				JdbcUtils.closeStatement(statement);
+			}
+		}
+
+		synchronized int size() {
+			return this.idleStatements.size();
+		}
+	}
+
+
+	/**
+	 * Invocation handler that serves PreparedStatements and CallableStatements
+	 * from the statement cache of the underlying Connection.
+	 */
+	private class StatementCachingInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final StatementCache statementCache;
+
+		private final List<CachedStatementInvocationHandler> openStatements = new ArrayList<>();
+
+		private boolean closed = false;
+
+		public StatementCachingInvocationHandler(Connection target, StatementCache statementCache) {
+			this.target = target;
+			this.statementCache = statementCache;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on ConnectionProxy interface coming in...
+
+			switch (method.getName()) {
+				case "equals":
+					// Only consider equal when proxies are identical.
+					return (proxy == args[0]);
+				case "hashCode":
+					// Use hashCode of Connection proxy.
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Statement-caching Connection proxy for target Connection [" + this.target + "]";
+				case "getTargetConnection":
+					// Handle getTargetConnection method: return underlying Connection.
+					return this.target;
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+				case "isClosed":
+					return this.closed;
+				case "close":
+					if (!this.closed) {
+						this.closed = true;
+						// Return statements that have not been closed explicitly
+						// before handing the Connection back to the target DataSource.
+						for (CachedStatementInvocationHandler statement : new ArrayList<>(this.openStatements)) {
+							statement.close();
+						}
+						if (!isPrepareOnPhysicalConnection()) {
+							// Statements of a Connection handle do not outlive the handle.
+							statementCaches.remove(this.target);
+							this.statementCache.clear();
+						}
+						this.target.close();
+					}
+					return null;
+				case "prepareStatement":
+				case "prepareCall":
+					if (this.closed) {
+						throw new SQLException("Connection handle already closed");
+					}
+					return getCachedStatementProxy(proxy, new StatementKey(method, args));
+			}
+
+			// Invoke method on target Connection.
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+
+		private Object getCachedStatementProxy(Object connectionProxy, StatementKey key) throws Throwable {
+			PreparedStatement statement = this.statementCache.obtainStatement(key);
+			CachedStatementInvocationHandler handler =
+					new CachedStatementInvocationHandler(key, statement, (Connection) connectionProxy, this);
+			this.openStatements.add(handler);
+			return Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {key.isCallable() ? CallableStatement.class : PreparedStatement.class},
+					handler);
+		}
+
+		void releaseStatement(CachedStatementInvocationHandler handler, StatementKey key,
+				@Nullable PreparedStatement statement) {
+
+			this.openStatements.remove(handler);
+			if (statement != null) {
+				this.statementCache.releaseStatement(key, statement);
+			}
+		}
+	}
+
+
+	/**
+	 * Invocation handler for a cached statement, returning the statement to
+	 * the cache on logical close.
+	 */
+	private static class CachedStatementInvocationHandler implements InvocationHandler {
+
+		private final StatementKey key;
+
+		private final PreparedStatement target;
+
+		private final Connection connectionProxy;
+
+		private final StatementCachingInvocationHandler connectionHandler;
+
+		private final Map<Method, Object> settingsToRestore = new LinkedHashMap<>(4);
+
+		private boolean batched = false;
+
+		private boolean reusable = true;
+
+		private boolean closed = false;
+
+		public CachedStatementInvocationHandler(StatementKey key, PreparedStatement target,
+				Connection connectionProxy, StatementCachingInvocationHandler connectionHandler) {
+
+			this.key = key;
+			this.target = target;
+			this.connectionProxy = connectionProxy;
+			this.connectionHandler = connectionHandler;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Cached statement proxy for target statement [" + this.target + "]";
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+				case "isClosed":
+					return this.closed;
+				case "close":
+					close();
+					return null;
+			}
+
+			if (this.closed) {
+				throw new SQLException("Statement handle already closed");
+			}
+
+			switch (method.getName()) {
+				case "getConnection":
+					return this.connectionProxy;
+				case "setMaxRows":
+				case "setLargeMaxRows":
+				case "setFetchSize":
+				case "setFetchDirection":
+				case "setQueryTimeout":
+				case "setMaxFieldSize":
+					// Remember the original setting, to be restored on logical close.
+					if (!this.settingsToRestore.containsKey(method)) {
+						Method getter = Statement.class.getMethod("get" + method.getName().substring(3));
+						try {
+							this.settingsToRestore.put(method, getter.invoke(this.target));
+						}
+						catch (InvocationTargetException ex) {
+							throw ex.getTargetException();
+						}
+					}
+					break;
+				case "setEscapeProcessing":
+				case "setCursorName":
+				case "setPoolable":
+				case "closeOnCompletion":
+					// Settings we cannot read back: do not reuse the statement.
+					this.reusable = false;
+					break;
+				case "addBatch":
+					this.batched = true;
+					break;
+			}
+
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				// Leave the statement in whatever state the driver put it in.
+				this.reusable = false;
+				throw ex.getTargetException();
+			}
+		}
+
+		void close() {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			PreparedStatement statementToCache = null;
+			if (this.reusable) {
+				try {
+					if (!this.target.isClosed()) {
+						resetStatement();
+						statementToCache = this.target;
+					}
+				}
+				catch (Exception ex) {
+					logger.debug("Could not reset JDBC Statement for reuse", ex);
+				}
+			}
+			if (statementToCache == null) {
+				JdbcUtils.closeStatement(this.target);
+			}
+			this.connectionHandler.releaseStatement(this, this.key, statementToCache);
+		}
+
+		private void resetStatement() throws Exception {
+			this.target.clearParameters();
+			if (this.batched) {
+				this.target.clearBatch();
+			}
+			for (Map.Entry<Method, Object> entry : this.settingsToRestore.entrySet()) {
+				entry.getKey().invoke(this.target, entry.getValue());
+			}
+			this.target.clearWarnings();
+		}
+	}
+
+}
@@ -16,13 +16,29 @@
 
 package org.springframework.jdbc.datasource.embedded;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 import javax.sql.DataSource;
 
 import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
 
 /**
  * A builder that provides a convenient API for constructing an embedded database.
@@ -60,6 +76,14 @@ public class EmbeddedDatabaseBuilder {
 
 	private final ResourceLoader resourceLoader;
 
+	private final List<Resource> scripts = new ArrayList<>();
+
+	/** Script settings affecting the populated database, for the snapshot key. */
+	private final Map<String, String> scriptSettings = new TreeMap<>();
+
+	@Nullable
+	private Path snapshotDirectory;
+
 
 	/**
 	 * Create a new embedded database builder with a {@link DefaultResourceLoader}.
@@ -152,7 +176,9 @@ public class EmbeddedDatabaseBuilder {
 	 * @return {@code this}, to facilitate method chaining
 	 */
 	public EmbeddedDatabaseBuilder addScript(String script) {
-		this.databasePopulator.addScript(this.resourceLoader.getResource(script));
+		Resource resource = this.resourceLoader.getResource(script);
+		this.databasePopulator.addScript(resource);
+		this.scripts.add(resource);
 		return this;
 	}
 
@@ -178,6 +204,7 @@ public class EmbeddedDatabaseBuilder {
 	 */
 	public EmbeddedDatabaseBuilder setScriptEncoding(String scriptEncoding) {
 		this.databasePopulator.setSqlScriptEncoding(scriptEncoding);
+		this.scriptSettings.put("encoding", scriptEncoding);
 		return this;
 	}
 
@@ -192,6 +219,7 @@ public class EmbeddedDatabaseBuilder {
 	 */
 	public EmbeddedDatabaseBuilder setSeparator(String separator) {
 		this.databasePopulator.setSeparator(separator);
+		this.scriptSettings.put("separator", separator);
 		return this;
 	}
 
@@ -205,6 +233,7 @@ public class EmbeddedDatabaseBuilder {
 	 */
 	public EmbeddedDatabaseBuilder setCommentPrefix(String commentPrefix) {
 		this.databasePopulator.setCommentPrefix(commentPrefix);
+		this.scriptSettings.put("commentPrefixes", commentPrefix);
 		return this;
 	}
 
@@ -217,6 +246,7 @@ public class EmbeddedDatabaseBuilder {
 	 */
 	public EmbeddedDatabaseBuilder setCommentPrefixes(String... commentPrefixes) {
 		this.databasePopulator.setCommentPrefixes(commentPrefixes);
+		this.scriptSettings.put("commentPrefixes", String.join("\n", commentPrefixes));
 		return this;
 	}
 
@@ -230,6 +260,7 @@ public class EmbeddedDatabaseBuilder {
 	 */
 	public EmbeddedDatabaseBuilder setBlockCommentStartDelimiter(String blockCommentStartDelimiter) {
 		this.databasePopulator.setBlockCommentStartDelimiter(blockCommentStartDelimiter);
+		this.scriptSettings.put("blockCommentStartDelimiter", blockCommentStartDelimiter);
 		return this;
 	}
 
@@ -243,6 +274,7 @@ public class EmbeddedDatabaseBuilder {
 	 */
 	public EmbeddedDatabaseBuilder setBlockCommentEndDelimiter(String blockCommentEndDelimiter) {
 		this.databasePopulator.setBlockCommentEndDelimiter(blockCommentEndDelimiter);
+		this.scriptSettings.put("blockCommentEndDelimiter", blockCommentEndDelimiter);
 		return this;
 	}
 
@@ -256,6 +288,7 @@ public class EmbeddedDatabaseBuilder {
 	 */
 	public EmbeddedDatabaseBuilder continueOnError(boolean flag) {
 		this.databasePopulator.setContinueOnError(flag);
+		this.scriptSettings.put("continueOnError", String.valueOf(flag));
 		return this;
 	}
 
@@ -272,6 +305,27 @@ public class EmbeddedDatabaseBuilder {
 	 */
 	public EmbeddedDatabaseBuilder ignoreFailedDrops(boolean flag) {
 		this.databasePopulator.setIgnoreFailedDrops(flag);
+		this.scriptSettings.put("ignoreFailedDrops", String.valueOf(flag));
+		return this;
+	}
+
+	/**
+	 * Specify a directory in which to keep a snapshot of the populated database,
+	 * restoring later databases built with the same scripts from that snapshot
+	 * instead of executing the scripts again.
+	 * <p>The snapshot is keyed by a hash of the content of the scripts and of
+	 * the settings for executing them, so a change to any script leads to a
+	 * new snapshot. Changes to the database made after it has been built do
+	 * not affect the snapshot.
+	 * <p>Supported for the H2, HSQL and Derby database types.
+	 * @param snapshotDirectory the directory for snapshots, created if necessary
+	 * @return {@code this}, to facilitate method chaining
+	 * @since 6.1
+	 * @see EmbeddedDatabaseFactory#setSnapshotDirectory
+	 */
+	public EmbeddedDatabaseBuilder setSnapshotDirectory(Path snapshotDirectory) {
+		Assert.notNull(snapshotDirectory, "Snapshot directory must not be null");
+		this.snapshotDirectory = snapshotDirectory;
 		return this;
 	}
 
@@ -280,7 +334,37 @@ public class EmbeddedDatabaseBuilder {
 	 * @return the embedded database
 	 */
 	public EmbeddedDatabase build() {
+		if (this.snapshotDirectory != null) {
+			this.databaseFactory.setSnapshotDirectory(this.snapshotDirectory);
+			this.databaseFactory.setSnapshotKey(computeSnapshotKey());
+		}
 		return this.databaseFactory.getDatabase();
 	}
 
+	/**
+	 * Compute the snapshot key from the script settings and script content.
+	 * @return the key, or {@code null} if a script cannot be read, leaving
+	 * it to the population of the database to report the failure
+	 */
+	@Nullable
+	private String computeSnapshotKey() {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(this.scriptSettings.toString().getBytes(StandardCharsets.UTF_8));
+			for (Resource script : this.scripts) {
+				digest.update((byte) 0);
+				try (InputStream inputStream = new DigestInputStream(script.getInputStream(), digest)) {
+					StreamUtils.drain(inputStream);
+				}
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 not supported", ex);
+		}
+	}
+
 }
@@ -16,7 +16,13 @@
 
 package org.springframework.jdbc.datasource.embedded;
 
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.UUID;
@@ -32,6 +38,7 @@ import org.springframework.jdbc.datasource.init.DatabasePopulator;
 import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.FileSystemUtils;
 
 /**
  * Factory for creating an {@link EmbeddedDatabase} instance.
@@ -52,6 +59,8 @@ import org.springframework.util.Assert;
  * populate the database.
  * <li>Call {@link #setDataSourceFactory} to change the type of
  * {@link DataSource} used to connect to the database.
+ * <li>Call {@link #setSnapshotDirectory} and {@link #setSnapshotKey} to restore
+ * the database from a snapshot of a previously populated database.
  * </ul>
  *
  * <p>After configuring the factory, call {@link #getDatabase()} to obtain
@@ -83,6 +92,15 @@ public class EmbeddedDatabaseFactory {
 	@Nullable
 	private DatabasePopulator databasePopulator;
 
+	@Nullable
+	private Path snapshotDirectory;
+
+	@Nullable
+	private String snapshotKey;
+
+	@Nullable
+	private EmbeddedDatabaseSnapshotter snapshotter;
+
 	@Nullable
 	private DataSource dataSource;
 
@@ -149,6 +167,40 @@ public class EmbeddedDatabaseFactory {
 		this.databasePopulator = populator;
 	}
 
+	/**
+	 * Set the directory in which to keep snapshots of populated databases.
+	 * <p>If set along with a {@linkplain #setSnapshotKey snapshot key}, a new
+	 * database is restored from the snapshot for that key instead of running
+	 * the {@linkplain #setDatabasePopulator database populator}. If there is
+	 * no such snapshot yet, the database is populated and a snapshot of it is
+	 * taken for later databases, in this or in a later JVM.
+	 * <p>Snapshots are supported for the {@link EmbeddedDatabaseType#H2 H2},
+	 * {@link EmbeddedDatabaseType#HSQL HSQL} and {@link EmbeddedDatabaseType#DERBY
+	 * Derby} database types. A database of any other type is always populated.
+	 * <p>Defaults to {@code null}, not using snapshots.
+	 * @param snapshotDirectory the directory for snapshots, created if necessary
+	 * @since 6.1
+	 * @see #setSnapshotKey
+	 */
+	public void setSnapshotDirectory(@Nullable Path snapshotDirectory) {
+		this.snapshotDirectory = snapshotDirectory;
+	}
+
+	/**
+	 * Set the key identifying the snapshot of a populated database.
+	 * <p>The key must change whenever the result of populating the database
+	 * changes, typically by deriving it from the content of the scripts to
+	 * execute, as done by {@link EmbeddedDatabaseBuilder#setSnapshotDirectory}.
+	 * The key is combined with the database type, and must be usable as part
+	 * of a file name.
+	 * @param snapshotKey the key of the snapshot
+	 * @since 6.1
+	 * @see #setSnapshotDirectory
+	 */
+	public void setSnapshotKey(@Nullable String snapshotKey) {
+		this.snapshotKey = snapshotKey;
+	}
+
 	/**
 	 * Factory method that returns the {@linkplain EmbeddedDatabase embedded database}
 	 * instance, which is also a {@link DataSource}.
@@ -180,6 +232,37 @@ public class EmbeddedDatabaseFactory {
 		if (this.databaseConfigurer == null) {
 			this.databaseConfigurer = EmbeddedDatabaseConfigurerFactory.getConfigurer(EmbeddedDatabaseType.HSQL);
 		}
+		Path snapshot = null;
+		if (this.snapshotDirectory != null && this.snapshotKey != null) {
+			this.snapshotter = EmbeddedDatabaseSnapshotter.forConfigurer(this.databaseConfigurer);
+			if (this.snapshotter != null) {
+				snapshot = this.snapshotDirectory.resolve(this.snapshotter.getTypeName() + "-" + this.snapshotKey);
+			}
+		}
+
+		if (snapshot != null && Files.isDirectory(snapshot) && restoreDatabase(snapshot)) {
+			return;
+		}
+		startDatabase();
+
+		// Now populate the database
+		if (this.databasePopulator != null) {
+			try {
+				DatabasePopulatorUtils.execute(this.databasePopulator, this.dataSource);
+			}
+			catch (RuntimeException ex) {
+				// failed to populate, so leave it as not initialized
+				shutdownDatabase();
+				throw ex;
+			}
+		}
+		if (snapshot != null) {
+			takeSnapshot(snapshot);
+		}
+	}
+
+	private void startDatabase() {
+		Assert.state(this.databaseConfigurer != null, "No EmbeddedDatabaseConfigurer");
 		this.databaseConfigurer.configureConnectionProperties(
 				this.dataSourceFactory.getConnectionProperties(), this.databaseName);
 		this.dataSource = this.dataSourceFactory.getDataSource();
@@ -193,16 +276,72 @@ public class EmbeddedDatabaseFactory {
 				logger.info(String.format("Starting embedded database '%s'", this.databaseName));
 			}
 		}
+	}
 
-		// Now populate the database
-		if (this.databasePopulator != null) {
-			try {
-				DatabasePopulatorUtils.execute(this.databasePopulator, this.dataSource);
+	/**
+	 * Start the embedded database from the given snapshot.
+	 * @return {@code true} if restored, {@code false} if the database needs
+	 * to be populated since the snapshot could not be restored
+	 */
+	private boolean restoreDatabase(Path snapshot) {
+		Assert.state(this.databaseConfigurer != null && this.snapshotter != null, "No snapshot support");
+		try {
+			ConnectionProperties connectionProperties = this.dataSourceFactory.getConnectionProperties();
+			this.databaseConfigurer.configureConnectionProperties(connectionProperties, this.databaseName);
+			this.snapshotter.prepareRestore(connectionProperties, this.databaseName, snapshot);
+			this.dataSource = this.dataSourceFactory.getDataSource();
+			this.snapshotter.restore(this.dataSource, snapshot);
+			if (logger.isInfoEnabled()) {
+				logger.info(String.format("Restored embedded database '%s' from snapshot [%s]",
+						this.databaseName, snapshot));
 			}
-			catch (RuntimeException ex) {
-				// failed to populate, so leave it as not initialized
+			return true;
+		}
+		catch (SQLException | IOException | RuntimeException ex) {
+			logger.warn(String.format("Could not restore embedded database '%s' from snapshot [%s] - " +
+					"populating it instead", this.databaseName, snapshot), ex);
+			if (this.dataSource != null) {
 				shutdownDatabase();
-				throw ex;
+			}
+			else {
+				this.snapshotter.discardRestore(this.databaseName);
+			}
+			this.snapshotter.afterShutdown();
+			return false;
+		}
+	}
+
+	private void takeSnapshot(Path snapshot) {
+		Assert.state(this.dataSource != null && this.snapshotter != null, "No snapshot support");
+		Path tempDirectory = null;
+		try {
+			// Write to a temporary directory first, so that a snapshot is only ever seen complete
+			Files.createDirectories(snapshot.getParent());
+			tempDirectory = Files.createTempDirectory(snapshot.getParent(), snapshot.getFileName() + "-");
+			this.snapshotter.takeSnapshot(this.dataSource, tempDirectory);
+			Files.move(tempDirectory, snapshot, StandardCopyOption.ATOMIC_MOVE);
+			if (logger.isInfoEnabled()) {
+				logger.info(String.format("Took snapshot [%s] of embedded database '%s'", snapshot, this.databaseName));
+			}
+		}
+		catch (FileAlreadyExistsException | DirectoryNotEmptyException ex) {
+			// Taken concurrently for another database with the same key
+			deleteQuietly(tempDirectory);
+		}
+		catch (SQLException | IOException | RuntimeException ex) {
+			logger.warn(String.format("Could not take snapshot [%s] of embedded database '%s'",
+					snapshot, this.databaseName), ex);
+			deleteQuietly(tempDirectory);
+		}
+	}
+
+	private static void deleteQuietly(@Nullable Path directory) {
+		if (directory != null) {
+			try {
+				FileSystemUtils.deleteRecursively(directory);
+			}
+			catch (IOException ex) {
+				logger.debug("Could not delete temporary snapshot directory " + directory, ex);
 			}
 		}
 	}
@@ -227,6 +366,9 @@ public class EmbeddedDatabaseFactory {
 			if (this.databaseConfigurer != null) {
 				this.databaseConfigurer.shutdown(this.dataSource, this.databaseName);
 			}
+			if (this.snapshotter != null) {
+				this.snapshotter.afterShutdown();
+			}
 			this.dataSource = null;
 		}
 	}
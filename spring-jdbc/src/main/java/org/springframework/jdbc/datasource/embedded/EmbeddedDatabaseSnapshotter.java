@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.embedded;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.apache.derby.jdbc.EmbeddedDriver;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Strategy for taking a snapshot of a populated embedded database and for
+ * restoring a new embedded database from such a snapshot, specific to the
+ * type of embedded database.
+ *
+ * <ul>
+ * <li>H2: exported through {@code SCRIPT TO} and restored through {@code RUNSCRIPT FROM}.
+ * <li>HSQL: exported through {@code SCRIPT}; restored by opening a copy of the
+ * exported script as a file database with read-only files, keeping all changes
+ * in memory.
+ * <li>Derby: backed up through {@code SYSCS_UTIL.SYSCS_BACKUP_DATABASE} and
+ * restored through the {@code createFrom} connection attribute.
+ * </ul>
+ *
+ * @since 6.1
+ * @see EmbeddedDatabaseFactory#setSnapshotDirectory
+ */
+abstract class EmbeddedDatabaseSnapshotter {
+
+	/**
+	 * Return a new snapshotter for the given configurer.
+	 * @param configurer the configurer of the embedded database
+	 * @return the snapshotter, or {@code null} if snapshots are not supported
+	 * for the given type of embedded database
+	 */
+	@Nullable
+	static EmbeddedDatabaseSnapshotter forConfigurer(EmbeddedDatabaseConfigurer configurer) {
+		if (configurer instanceof H2EmbeddedDatabaseConfigurer) {
+			return new H2Snapshotter();
+		}
+		if (configurer instanceof HsqlEmbeddedDatabaseConfigurer) {
+			return new HsqlSnapshotter();
+		}
+		if (configurer instanceof DerbyEmbeddedDatabaseConfigurer) {
+			return new DerbySnapshotter();
+		}
+		return null;
+	}
+
+
+	/**
+	 * Return the name of the database type, distinguishing its snapshots from
+	 * those of other types.
+	 */
+	abstract String getTypeName();
+
+	/**
+	 * Take a snapshot of the given populated database.
+	 * @param dataSource the {@code DataSource} of the database
+	 * @param directory the existing, empty directory to write the snapshot to
+	 */
+	abstract void takeSnapshot(DataSource dataSource, Path directory) throws SQLException, IOException;
+
+	/**
+	 * Prepare restoring the database from the given snapshot, before the
+	 * {@code DataSource} for the database gets created.
+	 * @param properties the connection properties, already configured for the database
+	 * @param databaseName the name of the database
+	 * @param directory the directory of the snapshot
+	 */
+	void prepareRestore(ConnectionProperties properties, String databaseName, Path directory)
+			throws SQLException, IOException {
+	}
+
+	/**
+	 * Complete restoring the database from the given snapshot.
+	 * @param dataSource the {@code DataSource} of the database
+	 * @param directory the directory of the snapshot
+	 */
+	void restore(DataSource dataSource, Path directory) throws SQLException, IOException {
+	}
+
+	/**
+	 * Discard a database that may have been created while preparing its restore,
+	 * if the restore failed before a {@code DataSource} for it was obtained.
+	 * @param databaseName the name of the database
+	 */
+	void discardRestore(String databaseName) {
+	}
+
+	/**
+	 * Release any resources held for the database after it has been shut down.
+	 */
+	void afterShutdown() {
+	}
+
+
+	static void execute(DataSource dataSource, String sql) throws SQLException {
+		try (Connection con = dataSource.getConnection(); Statement stmt = con.createStatement()) {
+			stmt.execute(sql);
+		}
+	}
+
+	static String quote(Path path) {
+		return "'" + path.toAbsolutePath().toString().replace("'", "''") + "'";
+	}
+
+
+	private static class H2Snapshotter extends EmbeddedDatabaseSnapshotter {
+
+		private static final String SCRIPT_FILE_NAME = "snapshot.sql";
+
+		@Override
+		String getTypeName() {
+			return "h2";
+		}
+
+		@Override
+		void takeSnapshot(DataSource dataSource, Path directory) throws SQLException {
+			execute(dataSource, "SCRIPT TO " + quote(directory.resolve(SCRIPT_FILE_NAME)));
+		}
+
+		@Override
+		void restore(DataSource dataSource, Path directory) throws SQLException {
+			execute(dataSource, "RUNSCRIPT FROM " + quote(directory.resolve(SCRIPT_FILE_NAME)));
+		}
+	}
+
+
+	private static class HsqlSnapshotter extends EmbeddedDatabaseSnapshotter {
+
+		private static final String DATABASE_FILE_NAME = "snapshot";
+
+		@Nullable
+		private Path databaseCopy;
+
+		@Override
+		String getTypeName() {
+			return "hsql";
+		}
+
+		@Override
+		void takeSnapshot(DataSource dataSource, Path directory) throws SQLException {
+			execute(dataSource, "SCRIPT " + quote(directory.resolve(DATABASE_FILE_NAME + ".script")));
+		}
+
+		@Override
+		void prepareRestore(ConnectionProperties properties, String databaseName, Path directory) throws IOException {
+			// HSQL would silently open an empty database without the script
+			if (!Files.isRegularFile(directory.resolve(DATABASE_FILE_NAME + ".script"))) {
+				throw new IOException("No HSQL database script in " + directory);
+			}
+			// A file database is shared by path within the JVM: open a private copy of it.
+			Path copy = Files.createTempDirectory("hsqldb-" + databaseName + "-");
+			this.databaseCopy = copy;
+			FileSystemUtils.copyRecursively(directory, copy);
+			properties.setUrl("jdbc:hsqldb:file:" + copy.resolve(DATABASE_FILE_NAME).toAbsolutePath() +
+					";files_readonly=true");
+		}
+
+		@Override
+		void afterShutdown() {
+			if (this.databaseCopy != null) {
+				try {
+					FileSystemUtils.deleteRecursively(this.databaseCopy);
+				}
+				catch (IOException ex) {
+					// Only a temporary copy: leave it behind.
+				}
+				this.databaseCopy = null;
+			}
+		}
+	}
+
+
+	private static class DerbySnapshotter extends EmbeddedDatabaseSnapshotter {
+
+		@Override
+		String getTypeName() {
+			return "derby";
+		}
+
+		@Override
+		void takeSnapshot(DataSource dataSource, Path directory) throws SQLException {
+			execute(dataSource, "CALL SYSCS_UTIL.SYSCS_BACKUP_DATABASE(" + quote(directory) + ")");
+		}
+
+		@Override
+		void prepareRestore(ConnectionProperties properties, String databaseName, Path directory)
+				throws SQLException, IOException {
+
+			// The backup is written to a subdirectory named after the original database.
+			List<Path> backups;
+			try (Stream<Path> files = Files.list(directory)) {
+				backups = files.filter(Files::isDirectory).toList();
+			}
+			if (backups.size() != 1) {
+				throw new IOException("Expected a single Derby backup in " + directory + " but found " + backups);
+			}
+			String url = "jdbc:derby:memory:" + databaseName + ";createFrom=" + backups.get(0).toAbsolutePath();
+			Connection con = new EmbeddedDriver().connect(url, new Properties());
+			if (con != null) {
+				con.close();
+			}
+		}
+
+		@Override
+		void discardRestore(String databaseName) {
+			try {
+				new EmbeddedDriver().connect("jdbc:derby:memory:" + databaseName + ";drop=true", new Properties());
+			}
+			catch (SQLException ex) {
+				// Dropped, or not created in the first place
+			}
+		}
+	}
+
+}
@@ -40,6 +40,9 @@ public abstract class DatabasePopulatorUtils {
 	 * {@code DataSource} will be {@linkplain Connection#commit() committed} if
 	 * it is not configured for {@link Connection#getAutoCommit() auto-commit} and
 	 * is not {@linkplain DataSourceUtils#isConnectionTransactional transactional}.
+	 * <p>As of 6.1, a {@link ResourceDatabasePopulator} configured with a
+	 * {@linkplain ResourceDatabasePopulator#setParallelism parallelism} greater
+	 * than 1 executes its scripts concurrently, each on a separate Connection.
 	 * @param populator the {@code DatabasePopulator} to execute
 	 * @param dataSource the {@code DataSource} to execute against
 	 * @throws DataAccessException if an error occurs, specifically a {@link ScriptException}
@@ -49,6 +52,10 @@ public abstract class DatabasePopulatorUtils {
 		Assert.notNull(populator, "DatabasePopulator must not be null");
 		Assert.notNull(dataSource, "DataSource must not be null");
 		try {
+			if (populator instanceof ResourceDatabasePopulator resourcePopulator && resourcePopulator.isParallel()) {
+				resourcePopulator.executeInParallel(dataSource);
+				return;
+			}
 			Connection connection = DataSourceUtils.getConnection(dataSource);
 			try {
 				populator.populate(connection);
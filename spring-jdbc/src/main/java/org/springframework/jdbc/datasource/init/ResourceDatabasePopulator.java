@@ -20,6 +20,10 @@ import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.sql.DataSource;
 
@@ -27,6 +31,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.EncodedResource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
 import org.springframework.util.StringUtils;
 
 /**
@@ -72,6 +77,10 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 
 	private boolean ignoreFailedDrops = false;
 
+	private int batchSize = 0;
+
+	private int parallelism = 1;
+
 
 	/**
 	 * Construct a new {@code ResourceDatabasePopulator} with default settings.
@@ -241,6 +250,41 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 		this.ignoreFailedDrops = ignoreFailedDrops;
 	}
 
+	/**
+	 * Set the maximum number of consecutive DML statements ({@code INSERT},
+	 * {@code UPDATE}, {@code DELETE}, {@code MERGE}) to execute in a single
+	 * JDBC batch, if supported by the driver.
+	 * <p>Defaults to 0, executing each statement individually.
+	 * <p>With {@link #setContinueOnError continueOnError}, a failed batch for which
+	 * the driver reports no update counts is rolled back to a savepoint and executed
+	 * statement by statement on a transactional Connection that supports savepoints,
+	 * and skipped otherwise.
+	 * @param batchSize the maximum number of statements per batch
+	 * @since 6.1
+	 * @see ScriptUtils#executeSqlScript(Connection, EncodedResource, boolean, boolean, String[], String, String, String, int)
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize >= 0, "'batchSize' must not be negative");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the maximum number of scripts to execute concurrently, each on a
+	 * separate Connection, when executed against a {@link DataSource}.
+	 * <p>Only to be used for scripts that are independent of each other, since
+	 * they may run in any order. Each script is committed on its own.
+	 * <p>Defaults to 1, executing the scripts one after the other in the order
+	 * in which they have been added. {@link #populate(Connection)} always
+	 * executes the scripts sequentially on the given Connection.
+	 * @param parallelism the maximum number of scripts to execute concurrently
+	 * @since 6.1
+	 * @see #execute(DataSource)
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism >= 1, "'parallelism' must be at least 1");
+		this.parallelism = parallelism;
+	}
+
 
 	/**
 	 * {@inheritDoc}
@@ -250,12 +294,17 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 	public void populate(Connection connection) throws ScriptException {
 		Assert.notNull(connection, "'connection' must not be null");
 		for (Resource script : this.scripts) {
-			EncodedResource encodedScript = new EncodedResource(script, this.sqlScriptEncoding);
-			ScriptUtils.executeSqlScript(connection, encodedScript, this.continueOnError, this.ignoreFailedDrops,
-					this.commentPrefixes, this.separator, this.blockCommentStartDelimiter, this.blockCommentEndDelimiter);
+			executeScript(connection, script);
 		}
 	}
 
+	private void executeScript(Connection connection, Resource script) throws ScriptException {
+		EncodedResource encodedScript = new EncodedResource(script, this.sqlScriptEncoding);
+		ScriptUtils.executeSqlScript(connection, encodedScript, this.continueOnError, this.ignoreFailedDrops,
+				this.commentPrefixes, this.separator, this.blockCommentStartDelimiter, this.blockCommentEndDelimiter,
+				this.batchSize);
+	}
+
 	/**
 	 * Execute this {@code ResourceDatabasePopulator} against the given
 	 * {@link DataSource}.
@@ -269,4 +318,61 @@ public class ResourceDatabasePopulator implements DatabasePopulator {
 		DatabasePopulatorUtils.execute(this, dataSource);
 	}
 
+	/**
+	 * Determine whether the scripts are to be executed concurrently.
+	 * @see #setParallelism
+	 */
+	boolean isParallel() {
+		return (this.parallelism > 1 && this.scripts.size() > 1);
+	}
+
+	/**
+	 * Execute the scripts concurrently against the given {@link DataSource},
+	 * each on a separate Connection.
+	 * @param dataSource the {@code DataSource} to execute against
+	 * @throws Exception the first failure of a script, if any, or an
+	 * {@link InterruptedException} if interrupted while waiting for the scripts,
+	 * with the remaining scripts cancelled and the interrupt status restored
+	 * @see #setParallelism
+	 */
+	void executeInParallel(DataSource dataSource) throws Exception {
+		int threadCount = Math.min(this.parallelism, this.scripts.size());
+		CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("database-populator-");
+		threadCreator.setDaemon(true);
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount, threadCreator::createThread);
+		try {
+			List<Future<?>> futures = new ArrayList<>(this.scripts.size());
+			for (Resource script : this.scripts) {
+				futures.add(executor.submit(() -> {
+					DatabasePopulatorUtils.execute(connection -> executeScript(connection, script), dataSource);
+					return null;
+				}));
+			}
+			Exception failure = null;
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					for (Future<?> remaining : futures) {
+						remaining.cancel(true);
+					}
+					throw ex;
+				}
+				catch (ExecutionException ex) {
+					if (failure == null) {
+						failure = (ex.getCause() instanceof Exception cause ? cause : ex);
+					}
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 }
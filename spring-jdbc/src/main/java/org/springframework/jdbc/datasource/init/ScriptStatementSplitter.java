@@ -0,0 +1,346 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.Reader;
+
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Splits an SQL script into statements while reading it, keeping only the
+ * current statement and a small look-ahead window in memory.
+ *
+ * <p>The statements are the same as those produced by reading the entire
+ * script through {@link ScriptUtils#readScript} and splitting it through
+ * {@link ScriptUtils#splitSqlScript}: lines starting with a comment prefix
+ * are dropped, line and block comments are skipped, and adjacent whitespace
+ * is collapsed into a single space.
+ *
+ * @since 6.1
+ * @see ScriptUtils#executeSqlScript(java.sql.Connection, EncodedResource, boolean, boolean, String[], String, String, String, int)
+ */
+final class ScriptStatementSplitter implements Closeable {
+
+	private static final int COMPACTION_THRESHOLD = 8192;
+
+	private final LineNumberReader reader;
+
+	@Nullable
+	private final EncodedResource resource;
+
+	@Nullable
+	private final String readSeparator;
+
+	private final String separator;
+
+	private final String[] commentPrefixes;
+
+	private final String blockCommentStartDelimiter;
+
+	private final String blockCommentEndDelimiter;
+
+	/** Window of the script as read so far, starting at an already consumed part. */
+	private final StringBuilder buffer = new StringBuilder();
+
+	private int position;
+
+	private long scriptLength;
+
+	private boolean exhausted;
+
+
+	/**
+	 * Create a new splitter for the given script.
+	 * @param reader the reader for the script, to be closed by {@link #close()}
+	 * @param resource the resource from which the script is read, if any
+	 * @param readSeparator the statement separator as specified, used to determine
+	 * the trailing whitespace to append to the script like {@link ScriptUtils#readScript}
+	 * @param separator the statement separator to split on
+	 * @param commentPrefixes the prefixes that identify single-line comments
+	 * @param blockCommentStartDelimiter the <em>start</em> block comment delimiter
+	 * @param blockCommentEndDelimiter the <em>end</em> block comment delimiter
+	 */
+	ScriptStatementSplitter(Reader reader, @Nullable EncodedResource resource, @Nullable String readSeparator,
+			String separator, String[] commentPrefixes, String blockCommentStartDelimiter,
+			String blockCommentEndDelimiter) {
+
+		this.reader = new LineNumberReader(reader);
+		this.resource = resource;
+		this.readSeparator = readSeparator;
+		this.separator = separator;
+		this.commentPrefixes = commentPrefixes;
+		this.blockCommentStartDelimiter = blockCommentStartDelimiter;
+		this.blockCommentEndDelimiter = blockCommentEndDelimiter;
+	}
+
+
+	/**
+	 * Return the next statement of the script.
+	 * @return the statement, or {@code null} at the end of the script
+	 * @throws IOException in case of I/O errors
+	 * @throws ScriptParseException in case of an unterminated block comment
+	 */
+	@Nullable
+	public String nextStatement() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		while (scan(sb)) {
+			if (sb.length() > 0) {
+				return sb.toString();
+			}
+		}
+		return (StringUtils.hasText(sb) ? sb.toString() : null);
+	}
+
+	/**
+	 * Determine whether the script contains the statement separator outside of
+	 * literals and comments, reading only up to its first occurrence.
+	 * @throws IOException in case of I/O errors
+	 * @throws ScriptParseException in case of an unterminated block comment
+	 */
+	public boolean containsSeparator() throws IOException {
+		return scan(null);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+
+
+	/**
+	 * Scan up to and including the next statement separator, appending the
+	 * statement content to the given builder (if any).
+	 * @return {@code true} if a separator has been found,
+	 * {@code false} if the end of the script has been reached
+	 */
+	private boolean scan(@Nullable StringBuilder sb) throws IOException {
+		boolean inSingleQuote = false;
+		boolean inDoubleQuote = false;
+		boolean inEscape = false;
+
+		while (ensureAvailable(1)) {
+			char c = this.buffer.charAt(this.position);
+			if (inEscape) {
+				inEscape = false;
+				append(sb, c);
+				continue;
+			}
+			// MySQL style escapes
+			if (c == '\\') {
+				inEscape = true;
+				append(sb, c);
+				continue;
+			}
+			if (!inDoubleQuote && (c == '\'')) {
+				inSingleQuote = !inSingleQuote;
+			}
+			else if (!inSingleQuote && (c == '"')) {
+				inDoubleQuote = !inDoubleQuote;
+			}
+			if (!inSingleQuote && !inDoubleQuote) {
+				if (startsWith(this.separator)) {
+					// We've reached the end of the current statement
+					this.position += this.separator.length();
+					return true;
+				}
+				else if (startsWithAnyCommentPrefix()) {
+					// Skip over any content from the start of the comment to the EOL
+					if (!skipPast("\n", false)) {
+						// If there's no EOL, we must be at the end of the script, so stop here.
+						return false;
+					}
+					continue;
+				}
+				else if (startsWith(this.blockCommentStartDelimiter)) {
+					// Skip over any block comments
+					if (!skipPast(this.blockCommentEndDelimiter, true)) {
+						throw new ScriptParseException(
+								"Missing block comment end delimiter: " + this.blockCommentEndDelimiter, this.resource);
+					}
+					continue;
+				}
+				else if (c == ' ' || c == '\r' || c == '\n' || c == '\t') {
+					// Avoid multiple adjacent whitespace characters
+					if (sb != null && sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+						c = ' ';
+					}
+					else {
+						this.position++;
+						continue;
+					}
+				}
+			}
+			append(sb, c);
+		}
+		return false;
+	}
+
+	private void append(@Nullable StringBuilder sb, char c) {
+		if (sb != null) {
+			sb.append(c);
+		}
+		this.position++;
+	}
+
+	private boolean startsWith(String token) throws IOException {
+		if (!ensureAvailable(token.length())) {
+			return false;
+		}
+		for (int i = 0; i < token.length(); i++) {
+			if (this.buffer.charAt(this.position + i) != token.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean startsWithAnyCommentPrefix() throws IOException {
+		for (String prefix : this.commentPrefixes) {
+			if (startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Skip past the next occurrence of the given delimiter, searching from the
+	 * current position. If not found, the rest of the script is consumed.
+	 * @param delimiter the delimiter to search for
+	 * @param mustFollow whether an occurrence right at the current position
+	 * does not count, as for the end of a block comment
+	 * @return whether the delimiter has been found
+	 */
+	private boolean skipPast(String delimiter, boolean mustFollow) throws IOException {
+		int start = this.position;
+		int searchFrom = this.position;
+		while (true) {
+			int index = this.buffer.indexOf(delimiter, searchFrom);
+			if (index >= 0) {
+				if (mustFollow && index == start) {
+					return false;
+				}
+				this.position = index + delimiter.length();
+				return true;
+			}
+			// Consume what has been searched, except for a potential partial match
+			searchFrom = Math.max(searchFrom, this.buffer.length() - delimiter.length() + 1);
+			this.position = searchFrom;
+			int removed = compact();
+			start -= removed;
+			searchFrom -= removed;
+			if (!readLine()) {
+				this.position = this.buffer.length();
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Make sure that the given number of characters is available from the
+	 * current position, reading further lines as necessary.
+	 * @return {@code false} if the end of the script comes first
+	 */
+	private boolean ensureAvailable(int count) throws IOException {
+		while (this.buffer.length() - this.position < count) {
+			compact();
+			if (!readLine()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Read the next script line into the buffer.
+	 * Lines starting with a comment prefix are skipped like in {@link ScriptUtils#readScript}.
+	 * @return {@code false} if there is nothing more to read
+	 */
+	private boolean readLine() throws IOException {
+		if (this.exhausted) {
+			return false;
+		}
+		String line = this.reader.readLine();
+		while (line != null) {
+			if (line.contains(this.blockCommentEndDelimiter) || !startsWithAny(line, this.commentPrefixes)) {
+				if (this.scriptLength > 0) {
+					this.buffer.append('\n');
+					this.scriptLength++;
+				}
+				this.buffer.append(line);
+				this.scriptLength += line.length();
+				return true;
+			}
+			line = this.reader.readLine();
+		}
+		this.exhausted = true;
+		return appendTrailingSeparatorWhitespace();
+	}
+
+	/**
+	 * Append the trailing whitespace of the separator if the script ends
+	 * with the separator without it, like {@link ScriptUtils#readScript}.
+	 */
+	private boolean appendTrailingSeparatorWhitespace() {
+		if (this.readSeparator == null) {
+			return false;
+		}
+		String trimmed = this.readSeparator.trim();
+		if (trimmed.length() == this.readSeparator.length()) {
+			return false;
+		}
+		if (this.scriptLength >= trimmed.length() &&
+				this.buffer.lastIndexOf(trimmed) == this.buffer.length() - trimmed.length()) {
+			this.buffer.append(this.readSeparator.substring(trimmed.length()));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Drop the consumed part of the buffer once it gets large.
+	 * @return the number of characters removed from the start of the buffer
+	 */
+	private int compact() {
+		if (this.position >= COMPACTION_THRESHOLD) {
+			// Keep enough of the tail to check for a trailing separator at the end of the script
+			int keep = (this.readSeparator != null ? this.readSeparator.length() : 0);
+			int remove = Math.min(this.position, this.buffer.length() - keep);
+			if (remove > 0) {
+				this.buffer.delete(0, remove);
+				this.position -= remove;
+				return remove;
+			}
+		}
+		return 0;
+	}
+
+	private static boolean startsWithAny(String line, String[] prefixes) {
+		for (String prefix : prefixes) {
+			if (line.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -18,9 +18,13 @@ package org.springframework.jdbc.datasource.init;
 
 import java.io.IOException;
 import java.io.LineNumberReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,8 +34,10 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -225,63 +231,120 @@ public abstract class ScriptUtils {
 			boolean ignoreFailedDrops, String[] commentPrefixes, @Nullable String separator,
 			String blockCommentStartDelimiter, String blockCommentEndDelimiter) throws ScriptException {
 
+		executeSqlScript(connection, resource, continueOnError, ignoreFailedDrops, commentPrefixes, separator,
+				blockCommentStartDelimiter, blockCommentEndDelimiter, 0);
+	}
+
+	/**
+	 * Execute the given SQL script, optionally batching consecutive DML statements.
+	 * <p>Statement separators and comments will be removed before executing
+	 * individual statements within the supplied script.
+	 * <p>The script is read incrementally, executing each statement as soon as
+	 * it has been parsed, so that the script as a whole is never held in memory.
+	 * Only a resource which can be read just once (see {@link Resource#isOpen()})
+	 * is read into memory first.
+	 * <p>If the batch size is greater than 1 and the driver supports batch updates,
+	 * consecutive {@code INSERT}, {@code UPDATE}, {@code DELETE} and {@code MERGE}
+	 * statements are executed in JDBC batches of up to that size. A failure within
+	 * a batch is reported for the statement that the driver reports as failed.
+	 * If the driver does not report update counts for a failed batch and
+	 * {@code continueOnError} is set, the batch is rolled back to a savepoint and
+	 * its statements are executed individually, provided that the connection is
+	 * transactional and supports savepoints; otherwise the batch is skipped.
+	 * <p><strong>Warning</strong>: this method does <em>not</em> release the
+	 * provided {@link Connection}.
+	 * @param connection the JDBC connection to use to execute the script; already
+	 * configured and ready to use
+	 * @param resource the resource (potentially associated with a specific encoding)
+	 * to load the SQL script from
+	 * @param continueOnError whether to continue without throwing an exception
+	 * in the event of an error
+	 * @param ignoreFailedDrops whether to continue in the event of specifically
+	 * an error on a {@code DROP} statement
+	 * @param commentPrefixes the prefixes that identify single-line comments in the
+	 * SQL script (typically "--")
+	 * @param separator the script statement separator; defaults to
+	 * {@value #DEFAULT_STATEMENT_SEPARATOR} if not specified and falls back to
+	 * {@value #FALLBACK_STATEMENT_SEPARATOR} as a last resort; may be set to
+	 * {@value #EOF_STATEMENT_SEPARATOR} to signal that the script contains a
+	 * single statement without a separator
+	 * @param blockCommentStartDelimiter the <em>start</em> block comment delimiter
+	 * @param blockCommentEndDelimiter the <em>end</em> block comment delimiter
+	 * @param batchSize the maximum number of consecutive DML statements to execute
+	 * in a single JDBC batch; 0 or 1 to execute each statement individually
+	 * @throws ScriptException if an error occurred while executing the SQL script
+	 * @since 6.1
+	 * @see #DEFAULT_STATEMENT_SEPARATOR
+	 * @see #FALLBACK_STATEMENT_SEPARATOR
+	 * @see #EOF_STATEMENT_SEPARATOR
+	 * @see org.springframework.jdbc.datasource.DataSourceUtils#getConnection
+	 * @see org.springframework.jdbc.datasource.DataSourceUtils#releaseConnection
+	 */
+	public static void executeSqlScript(Connection connection, EncodedResource resource, boolean continueOnError,
+			boolean ignoreFailedDrops, String[] commentPrefixes, @Nullable String separator,
+			String blockCommentStartDelimiter, String blockCommentEndDelimiter, int batchSize) throws ScriptException {
+
 		try {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Executing SQL script from " + resource);
 			}
 			long startTime = System.currentTimeMillis();
 
-			String script;
-			try {
-				script = readScript(resource, separator, commentPrefixes, blockCommentEndDelimiter);
-			}
-			catch (IOException ex) {
-				throw new CannotReadScriptException(resource, ex);
+			// A resource that can only be read once needs to be kept in memory,
+			// since the script may have to be scanned for the separator first.
+			String script = null;
+			if (resource.getResource().isOpen()) {
+				try {
+					script = FileCopyUtils.copyToString(resource.getReader());
+				}
+				catch (IOException ex) {
+					throw new CannotReadScriptException(resource, ex);
+				}
 			}
 
-			if (separator == null) {
-				separator = DEFAULT_STATEMENT_SEPARATOR;
-			}
-			if (!EOF_STATEMENT_SEPARATOR.equals(separator) &&
-					!containsStatementSeparator(resource, script, separator, commentPrefixes,
-						blockCommentStartDelimiter, blockCommentEndDelimiter)) {
-				separator = FALLBACK_STATEMENT_SEPARATOR;
+			String splitSeparator = (separator != null ? separator : DEFAULT_STATEMENT_SEPARATOR);
+			if (!EOF_STATEMENT_SEPARATOR.equals(splitSeparator)) {
+				try (ScriptStatementSplitter splitter = new ScriptStatementSplitter(openScript(resource, script),
+						resource, separator, splitSeparator, commentPrefixes, blockCommentStartDelimiter,
+						blockCommentEndDelimiter)) {
+					if (!splitter.containsSeparator()) {
+						splitSeparator = FALLBACK_STATEMENT_SEPARATOR;
+					}
+				}
+				catch (IOException ex) {
+					throw new CannotReadScriptException(resource, ex);
+				}
 			}
 
-			List<String> statements = new ArrayList<>();
-			splitSqlScript(resource, script, separator, commentPrefixes, blockCommentStartDelimiter,
-					blockCommentEndDelimiter, statements);
-
+			boolean batching = (batchSize > 1 && JdbcUtils.supportsBatchUpdates(connection));
+			// A failed batch may only be executed statement by statement if its partial
+			// effects can be rolled back first.
+			Connection savepointConnection = (batching && continueOnError && !connection.getAutoCommit() &&
+					connection.getMetaData().supportsSavepoints() ? connection : null);
+			List<String> batch = new ArrayList<>(batching ? batchSize : 0);
 			int stmtNumber = 0;
 			Statement stmt = connection.createStatement();
-			try {
-				for (String statement : statements) {
+			try (ScriptStatementSplitter splitter = new ScriptStatementSplitter(openScript(resource, script),
+					resource, separator, splitSeparator, commentPrefixes, blockCommentStartDelimiter,
+					blockCommentEndDelimiter)) {
+				String statement;
+				while ((statement = nextStatement(splitter, resource)) != null) {
 					stmtNumber++;
-					try {
-						stmt.execute(statement);
-						int rowsAffected = stmt.getUpdateCount();
-						if (logger.isDebugEnabled()) {
-							logger.debug(rowsAffected + " returned as update count for SQL: " + statement);
-							SQLWarning warningToLog = stmt.getWarnings();
-							while (warningToLog != null) {
-								logger.debug("SQLWarning ignored: SQL state '" + warningToLog.getSQLState() +
-										"', error code '" + warningToLog.getErrorCode() +
-										"', message [" + warningToLog.getMessage() + "]");
-								warningToLog = warningToLog.getNextWarning();
-							}
+					if (batching && isBatchableStatement(statement)) {
+						stmt.addBatch(statement);
+						batch.add(statement);
+						if (batch.size() >= batchSize) {
+							executeBatch(savepointConnection, stmt, batch, stmtNumber - batch.size() + 1, resource, continueOnError);
 						}
+						continue;
 					}
-					catch (SQLException ex) {
-						boolean dropStatement = StringUtils.startsWithIgnoreCase(statement.trim(), "drop");
-						if (continueOnError || (dropStatement && ignoreFailedDrops)) {
-							if (logger.isDebugEnabled()) {
-								logger.debug(ScriptStatementFailedException.buildErrorMessage(statement, stmtNumber, resource), ex);
-							}
-						}
-						else {
-							throw new ScriptStatementFailedException(statement, stmtNumber, resource, ex);
-						}
+					if (!batch.isEmpty()) {
+						executeBatch(savepointConnection, stmt, batch, stmtNumber - batch.size(), resource, continueOnError);
 					}
+					executeStatement(stmt, statement, stmtNumber, resource, continueOnError, ignoreFailedDrops);
+				}
+				if (!batch.isEmpty()) {
+					executeBatch(savepointConnection, stmt, batch, stmtNumber - batch.size() + 1, resource, continueOnError);
 				}
 			}
 			finally {
@@ -307,6 +370,146 @@ public abstract class ScriptUtils {
 		}
 	}
 
+	private static Reader openScript(EncodedResource resource, @Nullable String script) {
+		try {
+			return (script != null ? new StringReader(script) : resource.getReader());
+		}
+		catch (IOException ex) {
+			throw new CannotReadScriptException(resource, ex);
+		}
+	}
+
+	@Nullable
+	private static String nextStatement(ScriptStatementSplitter splitter, EncodedResource resource) {
+		try {
+			return splitter.nextStatement();
+		}
+		catch (IOException ex) {
+			throw new CannotReadScriptException(resource, ex);
+		}
+	}
+
+	private static boolean isBatchableStatement(String statement) {
+		return (StringUtils.startsWithIgnoreCase(statement, "insert ") ||
+				StringUtils.startsWithIgnoreCase(statement, "update ") ||
+				StringUtils.startsWithIgnoreCase(statement, "delete ") ||
+				StringUtils.startsWithIgnoreCase(statement, "merge "));
+	}
+
+	private static void executeStatement(Statement stmt, String statement, int stmtNumber,
+			EncodedResource resource, boolean continueOnError, boolean ignoreFailedDrops) throws SQLException {
+
+		try {
+			stmt.execute(statement);
+			int rowsAffected = stmt.getUpdateCount();
+			if (logger.isDebugEnabled()) {
+				logger.debug(rowsAffected + " returned as update count for SQL: " + statement);
+				SQLWarning warningToLog = stmt.getWarnings();
+				while (warningToLog != null) {
+					logger.debug("SQLWarning ignored: SQL state '" + warningToLog.getSQLState() +
+							"', error code '" + warningToLog.getErrorCode() +
+							"', message [" + warningToLog.getMessage() + "]");
+					warningToLog = warningToLog.getNextWarning();
+				}
+			}
+		}
+		catch (SQLException ex) {
+			boolean dropStatement = StringUtils.startsWithIgnoreCase(statement.trim(), "drop");
+			if (continueOnError || (dropStatement && ignoreFailedDrops)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug(ScriptStatementFailedException.buildErrorMessage(statement, stmtNumber, resource), ex);
+				}
+			}
+			else {
+				throw new ScriptStatementFailedException(statement, stmtNumber, resource, ex);
+			}
+		}
+	}
+
+	/**
+	 * Execute the statements added to the given JDBC Statement as a batch.
+	 * @param savepointConnection the transactional Connection to roll a failed
+	 * batch back on before executing its statements individually, if any
+	 * @param stmt the JDBC Statement holding the batch
+	 * @param batch the statements in the batch, to be cleared
+	 * @param firstStmtNumber the number of the first statement in the batch
+	 */
+	private static void executeBatch(@Nullable Connection savepointConnection, Statement stmt, List<String> batch,
+			int firstStmtNumber, EncodedResource resource, boolean continueOnError) throws SQLException {
+
+		Savepoint savepoint = (savepointConnection != null ? savepointConnection.setSavepoint() : null);
+		try {
+			int[] rowsAffected = stmt.executeBatch();
+			if (logger.isDebugEnabled()) {
+				logger.debug(rowsAffected.length + " statements executed as batch, starting with SQL: " + batch.get(0));
+			}
+		}
+		catch (SQLException ex) {
+			stmt.clearBatch();
+			int[] updateCounts = (ex instanceof BatchUpdateException bue ? bue.getUpdateCounts() : null);
+			if (updateCounts == null) {
+				if (!continueOnError) {
+					throw new ScriptStatementFailedException(batch.get(0), firstStmtNumber, resource, ex);
+				}
+				if (savepointConnection == null || savepoint == null) {
+					// No indication of the failed statement and no way to undo the others.
+					if (logger.isDebugEnabled()) {
+						logger.debug("Batch of " + batch.size() + " statements failed, starting with SQL: " +
+								batch.get(0) + " - skipping it", ex);
+					}
+					return;
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Batch of " + batch.size() + " statements failed, starting with SQL: " +
+							batch.get(0) + " - rolling it back and executing the statements individually", ex);
+				}
+				// No indication of the failed statement: execute all of them individually.
+				savepointConnection.rollback(savepoint);
+				for (int i = 0; i < batch.size(); i++) {
+					executeStatement(stmt, batch.get(i), firstStmtNumber + i, resource, true, false);
+				}
+				return;
+			}
+			int failedIndex = updateCounts.length;
+			for (int i = 0; i < updateCounts.length; i++) {
+				if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+					failedIndex = i;
+					break;
+				}
+			}
+			failedIndex = Math.min(failedIndex, batch.size() - 1);
+			String statement = batch.get(failedIndex);
+			if (!continueOnError) {
+				throw new ScriptStatementFailedException(statement, firstStmtNumber + failedIndex, resource, ex);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug(ScriptStatementFailedException.buildErrorMessage(
+						statement, firstStmtNumber + failedIndex, resource), ex);
+			}
+			if (updateCounts.length < batch.size()) {
+				// The driver stopped at the failed statement: execute the remaining ones individually.
+				for (int i = failedIndex + 1; i < batch.size(); i++) {
+					executeStatement(stmt, batch.get(i), firstStmtNumber + i, resource, true, false);
+				}
+			}
+		}
+		finally {
+			batch.clear();
+			if (savepointConnection != null && savepoint != null) {
+				releaseSavepoint(savepointConnection, savepoint);
+			}
+		}
+	}
+
+	private static void releaseSavepoint(Connection connection, Savepoint savepoint) {
+		try {
+			connection.releaseSavepoint(savepoint);
+		}
+		catch (Throwable ex) {
+			logger.trace("Could not release JDBC Savepoint", ex);
+		}
+	}
+
 	/**
 	 * Read a script from the provided resource, using the supplied comment prefixes
 	 * and statement separator, and build a {@code String} containing the lines.
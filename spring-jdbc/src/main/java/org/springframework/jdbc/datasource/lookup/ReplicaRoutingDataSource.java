@@ -0,0 +1,484 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * DataSource that routes read-only transactions to a set of replica DataSources,
+ * balancing the load between them, and everything else to a primary DataSource.
+ * The replicas are configured as {@link #setTargetDataSources target DataSources}
+ * (with their keys used for the metrics), the primary DataSource as the
+ * {@link #setDefaultTargetDataSource default target DataSource}.
+ *
+ * <p>A Connection is routed to a replica if
+ * {@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()}
+ * indicates a read-only transaction. Note that transaction managers such as
+ * {@link org.springframework.jdbc.datasource.DataSourceTransactionManager}
+ * fetch the Connection before exposing the read-only flag: wrap this router with a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so that the actual Connection is fetched on first use within the transaction.
+ *
+ * <p>Replicas are chosen according to the {@link LoadBalancingStrategy}:
+ * the replica with the fewest Connections currently in use, or the replica with
+ * the lowest exponentially weighted moving average (EWMA) of Connection usage
+ * time, weighted by the number of Connections in use. A replica whose
+ * {@code getConnection()} fails {@link #setFailureThreshold failureThreshold}
+ * times in a row is ejected for the {@link #setEjectionPeriod ejectionPeriod};
+ * its next failure after that ejects it again, while a success restores it.
+ * If a replica fails to provide a Connection, the next replica is tried and
+ * eventually, if {@link #setFallbackToPrimary fallbackToPrimary} is on, the primary.
+ *
+ * <p>Connections are returned as {@link ConnectionProxy} handles which keep
+ * track of their close call, for the usage metrics exposed through
+ * {@link #getReplicaMetrics()} and {@link #getPrimaryMetrics()}.
+ *
+ * @since 6.1
+ * @see #setTargetDataSources
+ * @see #setDefaultTargetDataSource
+ * @see org.springframework.transaction.support.TransactionSynchronizationManager#isCurrentTransactionReadOnly()
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	/**
+	 * Strategy for choosing between available replicas.
+	 */
+	public enum LoadBalancingStrategy {
+
+		/**
+		 * Choose the replica with the fewest Connections currently in use.
+		 */
+		LEAST_OUTSTANDING_REQUESTS,
+
+		/**
+		 * Choose the replica with the lowest EWMA of Connection usage time,
+		 * multiplied by the number of Connections currently in use plus one.
+		 */
+		LATENCY_EWMA
+	}
+
+
+	private static final Log logger = LogFactory.getLog(ReplicaRoutingDataSource.class);
+
+	private LoadBalancingStrategy loadBalancingStrategy = LoadBalancingStrategy.LEAST_OUTSTANDING_REQUESTS;
+
+	private double ewmaWeight = 0.2;
+
+	private int failureThreshold = 3;
+
+	private Duration ejectionPeriod = Duration.ofSeconds(30);
+
+	private boolean fallbackToPrimary = true;
+
+	private List<TargetMetrics> replicas = Collections.emptyList();
+
+	@Nullable
+	private TargetMetrics primary;
+
+	private final AtomicInteger nextOffset = new AtomicInteger();
+
+
+	/**
+	 * Set the strategy for choosing between available replicas.
+	 * Default is {@link LoadBalancingStrategy#LEAST_OUTSTANDING_REQUESTS}.
+	 */
+	public void setLoadBalancingStrategy(LoadBalancingStrategy loadBalancingStrategy) {
+		Assert.notNull(loadBalancingStrategy, "LoadBalancingStrategy must not be null");
+		this.loadBalancingStrategy = loadBalancingStrategy;
+	}
+
+	/**
+	 * Set the weight of the latest sample in the EWMA of Connection usage
+	 * time, between 0 (exclusive) and 1 (inclusive). Default is 0.2.
+	 * @see LoadBalancingStrategy#LATENCY_EWMA
+	 */
+	public void setEwmaWeight(double ewmaWeight) {
+		Assert.isTrue(ewmaWeight > 0 && ewmaWeight <= 1, "EWMA weight must be in (0, 1]");
+		this.ewmaWeight = ewmaWeight;
+	}
+
+	/**
+	 * Set the number of consecutive {@code getConnection()} failures after
+	 * which a replica gets ejected. Default is 3.
+	 */
+	public void setFailureThreshold(int failureThreshold) {
+		Assert.isTrue(failureThreshold > 0, "Failure threshold must be greater than 0");
+		this.failureThreshold = failureThreshold;
+	}
+
+	/**
+	 * Set the period for which an ejected replica is not considered.
+	 * Default is 30 seconds.
+	 */
+	public void setEjectionPeriod(Duration ejectionPeriod) {
+		Assert.isTrue(!ejectionPeriod.isNegative(), "Ejection period must not be negative");
+		this.ejectionPeriod = ejectionPeriod;
+	}
+
+	/**
+	 * Specify whether read-only transactions should fall back to the primary
+	 * DataSource if no replica is available or able to provide a Connection.
+	 * Default is "true".
+	 */
+	public void setFallbackToPrimary(boolean fallbackToPrimary) {
+		this.fallbackToPrimary = fallbackToPrimary;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		DataSource primaryDataSource = getResolvedDefaultDataSource();
+		if (primaryDataSource == null) {
+			throw new IllegalArgumentException("Property 'defaultTargetDataSource' is required for the primary");
+		}
+		this.primary = new TargetMetrics(null, primaryDataSource);
+		List<TargetMetrics> replicas = new ArrayList<>(getResolvedDataSources().size());
+		getResolvedDataSources().forEach((key, dataSource) -> replicas.add(new TargetMetrics(key, dataSource)));
+		this.replicas = replicas;
+	}
+
+	/**
+	 * Return the metrics for each replica, keyed by lookup key.
+	 */
+	public Map<Object, TargetMetrics> getReplicaMetrics() {
+		Map<Object, TargetMetrics> metrics = new LinkedHashMap<>();
+		for (TargetMetrics replica : this.replicas) {
+			metrics.put(replica.getLookupKey(), replica);
+		}
+		return Collections.unmodifiableMap(metrics);
+	}
+
+	/**
+	 * Return the metrics for the primary DataSource.
+	 */
+	public TargetMetrics getPrimaryMetrics() {
+		Assert.state(this.primary != null, "DataSource router not initialized");
+		return this.primary;
+	}
+
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return getRoutedConnection(null, null);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return getRoutedConnection(username, password);
+	}
+
+	private Connection getRoutedConnection(@Nullable String username, @Nullable String password) throws SQLException {
+		TargetMetrics primary = getPrimaryMetrics();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return primary.getConnection(username, password);
+		}
+		SQLException lastFailure = null;
+		List<TargetMetrics> candidates = new ArrayList<>(this.replicas);
+		TargetMetrics replica;
+		while ((replica = selectReplica(candidates)) != null) {
+			try {
+				return replica.getConnection(username, password);
+			}
+			catch (SQLException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not get JDBC Connection from replica [" + replica.getLookupKey() + "]", ex);
+				}
+				lastFailure = ex;
+				candidates.remove(replica);
+			}
+		}
+		if (this.fallbackToPrimary || this.replicas.isEmpty()) {
+			return primary.getConnection(username, password);
+		}
+		if (lastFailure != null) {
+			throw lastFailure;
+		}
+		throw new SQLException("No replica available for read-only transaction");
+	}
+
+	/**
+	 * Routes read-only transactions to the currently preferred replica, for
+	 * {@link #unwrap} and {@link #isWrapperFor} calls.
+	 */
+	@Override
+	@Nullable
+	protected Object determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			TargetMetrics replica = selectReplica(this.replicas);
+			if (replica != null) {
+				return replica.getLookupKey();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Select the preferred replica among the given candidates,
+	 * skipping ejected ones.
+	 * @return the replica, or {@code null} if none is available
+	 */
+	@Nullable
+	private TargetMetrics selectReplica(List<TargetMetrics> candidates) {
+		int size = candidates.size();
+		if (size == 0) {
+			return null;
+		}
+		long now = System.nanoTime();
+		// Start at a rotating offset so that ties are spread across replicas
+		int offset = Math.floorMod(this.nextOffset.getAndIncrement(), size);
+		TargetMetrics selected = null;
+		double selectedScore = 0;
+		for (int i = 0; i < size; i++) {
+			TargetMetrics candidate = candidates.get((offset + i) % size);
+			if (candidate.isEjected(now)) {
+				continue;
+			}
+			double score = (this.loadBalancingStrategy == LoadBalancingStrategy.LATENCY_EWMA ?
+					candidate.getLatencyEwmaNanos() * (candidate.getActiveConnectionCount() + 1) :
+					candidate.getActiveConnectionCount());
+			if (selected == null || score < selectedScore) {
+				selected = candidate;
+				selectedScore = score;
+			}
+		}
+		return selected;
+	}
+
+
+	/**
+	 * Usage and health metrics for a target DataSource of this router.
+	 */
+	public final class TargetMetrics {
+
+		@Nullable
+		private final Object lookupKey;
+
+		private final DataSource dataSource;
+
+		private final AtomicInteger activeConnectionCount = new AtomicInteger();
+
+		private final LongAdder connectionCount = new LongAdder();
+
+		private final LongAdder failureCount = new LongAdder();
+
+		private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+		private final AtomicLong ejectionCount = new AtomicLong();
+
+		private volatile long ejectedUntil;
+
+		private volatile boolean ejected;
+
+		private volatile double latencyEwmaNanos;
+
+		TargetMetrics(@Nullable Object lookupKey, DataSource dataSource) {
+			this.lookupKey = lookupKey;
+			this.dataSource = dataSource;
+		}
+
+		/**
+		 * Return the lookup key of the replica, or {@code null} for the primary.
+		 */
+		@Nullable
+		public Object getLookupKey() {
+			return this.lookupKey;
+		}
+
+		/**
+		 * Return the number of Connections currently in use.
+		 */
+		public int getActiveConnectionCount() {
+			return this.activeConnectionCount.get();
+		}
+
+		/**
+		 * Return the total number of Connections obtained.
+		 */
+		public long getConnectionCount() {
+			return this.connectionCount.sum();
+		}
+
+		/**
+		 * Return the total number of failed {@code getConnection()} calls.
+		 */
+		public long getFailureCount() {
+			return this.failureCount.sum();
+		}
+
+		/**
+		 * Return the number of times this target has been ejected.
+		 */
+		public long getEjectionCount() {
+			return this.ejectionCount.get();
+		}
+
+		/**
+		 * Return whether this target is currently ejected.
+		 */
+		public boolean isEjected() {
+			return isEjected(System.nanoTime());
+		}
+
+		/**
+		 * Return the EWMA of the time between obtaining and closing a Connection.
+		 */
+		public Duration getLatencyEwma() {
+			return Duration.ofNanos((long) this.latencyEwmaNanos);
+		}
+
+		double getLatencyEwmaNanos() {
+			return this.latencyEwmaNanos;
+		}
+
+		boolean isEjected(long now) {
+			return (this.ejected && now - this.ejectedUntil < 0);
+		}
+
+		Connection getConnection(@Nullable String username, @Nullable String password) throws SQLException {
+			Connection con;
+			try {
+				con = (username != null ? this.dataSource.getConnection(username, password) :
+						this.dataSource.getConnection());
+			}
+			catch (SQLException | RuntimeException ex) {
+				recordFailure();
+				throw ex;
+			}
+			this.consecutiveFailures.set(0);
+			this.ejected = false;
+			this.connectionCount.increment();
+			this.activeConnectionCount.incrementAndGet();
+			return (Connection) Proxy.newProxyInstance(
+					ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {ConnectionProxy.class},
+					new TrackingInvocationHandler(con, this));
+		}
+
+		private void recordFailure() {
+			this.failureCount.increment();
+			if (this.lookupKey != null && this.consecutiveFailures.incrementAndGet() >= failureThreshold) {
+				this.ejectedUntil = System.nanoTime() + ejectionPeriod.toNanos();
+				this.ejected = true;
+				this.ejectionCount.incrementAndGet();
+				if (logger.isWarnEnabled()) {
+					logger.warn("Ejecting replica [" + this.lookupKey + "] for " + ejectionPeriod +
+							" after " + this.consecutiveFailures.get() + " consecutive failures");
+				}
+			}
+		}
+
+		void connectionClosed(long usageNanos) {
+			this.activeConnectionCount.decrementAndGet();
+			synchronized (this) {
+				double ewma = this.latencyEwmaNanos;
+				this.latencyEwmaNanos = (ewma == 0 ? usageNanos : ewma + ewmaWeight * (usageNanos - ewma));
+			}
+		}
+
+		@Override
+		public String toString() {
+			return (this.lookupKey != null ? "replica [" + this.lookupKey + "]" : "primary") +
+					": active=" + getActiveConnectionCount() + ", connections=" + getConnectionCount() +
+					", failures=" + getFailureCount() + ", ejected=" + isEjected() +
+					", latencyEwma=" + getLatencyEwma();
+		}
+	}
+
+
+	/**
+	 * Invocation handler that reports the close call of a Connection to its target metrics.
+	 */
+	private static class TrackingInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final TargetMetrics metrics;
+
+		private final long startTime = System.nanoTime();
+
+		private boolean closed;
+
+		TrackingInvocationHandler(Connection target, TargetMetrics metrics) {
+			this.target = target;
+			this.metrics = metrics;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Routed Connection proxy for target Connection [" + this.target + "]";
+				case "getTargetConnection":
+					return this.target;
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+				case "close":
+					if (!this.closed) {
+						this.closed = true;
+						this.metrics.connectionClosed(System.nanoTime() - this.startTime);
+					}
+					break;
+			}
+
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
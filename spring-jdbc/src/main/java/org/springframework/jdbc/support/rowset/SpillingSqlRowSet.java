@@ -0,0 +1,989 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.rowset;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.lang.ref.Cleaner;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.rowset.RowSetMetaDataImpl;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.InvalidResultSetAccessException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+/**
+ * A disconnected {@link SqlRowSet} implementation that keeps only a bounded
+ * window of rows on the heap, spilling larger results to a local temporary file.
+ *
+ * <p>Rows are read from the given {@link ResultSet} in pages of a fixed number
+ * of rows. As long as the result does not exceed the configured number of
+ * in-memory rows, all pages are kept on the heap. Beyond that, all pages are
+ * written to a temporary file in a compact binary format and read back on
+ * demand through positional reads, with only the most recently accessed pages
+ * kept in memory. Scrolling in either direction and absolute positioning are
+ * supported, at the cost of reading a page from the file whenever the cursor
+ * moves outside the pages in memory.
+ *
+ * <p>Column values are obtained through
+ * {@link JdbcUtils#getResultSetValue(ResultSet, int)}, so LOBs are materialized
+ * as {@code byte[]} and {@code String} values. Values of types without a
+ * built-in encoding are written through Java serialization and therefore have
+ * to be {@link Serializable}.
+ *
+ * <p>The temporary file is deleted when this row set is {@linkplain #close()
+ * closed} or becomes unreachable, or at the latest when the JVM exits. Unlike
+ * {@link ResultSetWrappingSqlRowSet}, this row set cannot be serialized.
+ *
+ * @since 6.1
+ * @see org.springframework.jdbc.core.SpillingSqlRowSetResultSetExtractor
+ */
+public class SpillingSqlRowSet implements SqlRowSet, Closeable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** Default number of rows per page: 1000. */
+	public static final int DEFAULT_PAGE_SIZE = 1000;
+
+	/** Default number of rows kept in memory before spilling to a file: 10000. */
+	public static final int DEFAULT_MAX_IN_MEMORY_ROWS = 10000;
+
+	private static final int CACHED_PAGES = 2;
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte LONG = 3;
+	private static final byte DOUBLE = 4;
+	private static final byte FLOAT = 5;
+	private static final byte SHORT = 6;
+	private static final byte BYTE = 7;
+	private static final byte BOOLEAN = 8;
+	private static final byte BIG_DECIMAL = 9;
+	private static final byte BIG_INTEGER = 10;
+	private static final byte DATE = 11;
+	private static final byte TIME = 12;
+	private static final byte TIMESTAMP = 13;
+	private static final byte BYTES = 14;
+	private static final byte SERIALIZED = 15;
+
+
+	@SuppressWarnings("serial")
+	private final SqlRowSetMetaData rowSetMetaData;
+
+	@SuppressWarnings("serial")
+	private final Map<String, Integer> columnLabelMap;
+
+	private final int columnCount;
+
+	private final int pageSize;
+
+	private int rowCount;
+
+	@SuppressWarnings("serial")
+	private final List<Object[][]> memoryPages = new ArrayList<>();
+
+	@Nullable
+	@SuppressWarnings("serial")
+	private SpillFile spillFile;
+
+	private long[] pageOffsets = new long[16];
+
+	private final int[] cachedPageIndexes = new int[CACHED_PAGES];
+
+	@SuppressWarnings("serial")
+	private final Object[][][] cachedPages = new Object[CACHED_PAGES][][];
+
+	@Nullable
+	@SuppressWarnings("serial")
+	private Object[] currentRow;
+
+	private int cursor;
+
+	private boolean wasNull;
+
+
+	/**
+	 * Create a new {@code SpillingSqlRowSet} with the default page size and
+	 * number of in-memory rows, reading all rows from the given ResultSet.
+	 * @param resultSet the ResultSet to read from
+	 * @throws InvalidResultSetAccessException if reading from the ResultSet failed
+	 * @throws DataAccessResourceFailureException if writing to the temporary file failed
+	 */
+	public SpillingSqlRowSet(ResultSet resultSet) {
+		this(resultSet, DEFAULT_PAGE_SIZE, DEFAULT_MAX_IN_MEMORY_ROWS, null);
+	}
+
+	/**
+	 * Create a new {@code SpillingSqlRowSet}, reading all rows from the given ResultSet.
+	 * @param resultSet the ResultSet to read from
+	 * @param pageSize the number of rows per page, i.e. the unit in which rows
+	 * are written to and read from the temporary file
+	 * @param maxInMemoryRows the number of rows up to which the result is kept
+	 * in memory entirely, without creating a temporary file
+	 * @param directory the directory to create the temporary file in, or
+	 * {@code null} for the default temporary-file directory
+	 * @throws InvalidResultSetAccessException if reading from the ResultSet failed
+	 * @throws DataAccessResourceFailureException if writing to the temporary file failed
+	 */
+	public SpillingSqlRowSet(ResultSet resultSet, int pageSize, int maxInMemoryRows, @Nullable Path directory) {
+		Assert.isTrue(pageSize > 0, "Page size must be greater than 0");
+		Assert.isTrue(maxInMemoryRows >= 0, "Max in-memory rows must not be negative");
+		this.pageSize = pageSize;
+		this.cachedPageIndexes[0] = -1;
+		this.cachedPageIndexes[1] = -1;
+		try {
+			ResultSetMetaData rsmd = resultSet.getMetaData();
+			this.columnCount = rsmd.getColumnCount();
+			this.rowSetMetaData = new ResultSetWrappingSqlRowSetMetaData(copyMetaData(rsmd));
+			this.columnLabelMap = new LinkedCaseInsensitiveMap<>(this.columnCount);
+			for (int i = 1; i <= this.columnCount; i++) {
+				// Make sure to preserve first matching column for any given name
+				this.columnLabelMap.putIfAbsent(rsmd.getColumnLabel(i), i);
+			}
+			readRows(resultSet, maxInMemoryRows, directory);
+		}
+		catch (SQLException ex) {
+			close();
+			throw new InvalidResultSetAccessException(ex);
+		}
+		catch (IOException ex) {
+			close();
+			throw new DataAccessResourceFailureException("Failed to spill rows to temporary file", ex);
+		}
+	}
+
+	private static RowSetMetaDataImpl copyMetaData(ResultSetMetaData rsmd) throws SQLException {
+		RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+		int columnCount = rsmd.getColumnCount();
+		metaData.setColumnCount(columnCount);
+		for (int i = 1; i <= columnCount; i++) {
+			metaData.setAutoIncrement(i, rsmd.isAutoIncrement(i));
+			metaData.setCaseSensitive(i, rsmd.isCaseSensitive(i));
+			metaData.setCurrency(i, rsmd.isCurrency(i));
+			metaData.setNullable(i, rsmd.isNullable(i));
+			metaData.setSigned(i, rsmd.isSigned(i));
+			metaData.setSearchable(i, rsmd.isSearchable(i));
+			metaData.setColumnDisplaySize(i, Math.max(rsmd.getColumnDisplaySize(i), 0));
+			metaData.setColumnLabel(i, rsmd.getColumnLabel(i));
+			metaData.setColumnName(i, rsmd.getColumnName(i));
+			metaData.setSchemaName(i, rsmd.getSchemaName(i));
+			metaData.setPrecision(i, Math.max(rsmd.getPrecision(i), 0));
+			metaData.setScale(i, Math.max(rsmd.getScale(i), 0));
+			metaData.setTableName(i, rsmd.getTableName(i));
+			metaData.setCatalogName(i, rsmd.getCatalogName(i));
+			metaData.setColumnType(i, rsmd.getColumnType(i));
+			metaData.setColumnTypeName(i, rsmd.getColumnTypeName(i));
+		}
+		return metaData;
+	}
+
+	private void readRows(ResultSet resultSet, int maxInMemoryRows, @Nullable Path directory)
+			throws SQLException, IOException {
+
+		Object[][] page = new Object[this.pageSize][];
+		int pageRows = 0;
+		DataOutputStream out = null;
+		while (resultSet.next()) {
+			Object[] row = new Object[this.columnCount];
+			for (int i = 0; i < this.columnCount; i++) {
+				row[i] = JdbcUtils.getResultSetValue(resultSet, i + 1);
+			}
+			page[pageRows++] = row;
+			this.rowCount++;
+			if (pageRows == this.pageSize) {
+				this.memoryPages.add(page);
+				if (out == null && this.rowCount > maxInMemoryRows) {
+					out = startSpilling(directory);
+				}
+				if (out != null) {
+					writePages(out);
+				}
+				page = new Object[this.pageSize][];
+				pageRows = 0;
+			}
+		}
+		if (pageRows > 0) {
+			this.memoryPages.add(Arrays.copyOf(page, pageRows));
+			if (out == null && this.rowCount > maxInMemoryRows) {
+				out = startSpilling(directory);
+			}
+		}
+		if (out != null) {
+			writePages(out);
+			SpillFile spillFile = this.spillFile;
+			Assert.state(spillFile != null, "No spill file");
+			setPageOffset(pageCount(), spillFile.channel.position());
+		}
+	}
+
+	private DataOutputStream startSpilling(@Nullable Path directory) throws IOException {
+		Path path = (directory != null ? Files.createTempFile(directory, "spring-rowset", ".tmp") :
+				Files.createTempFile("spring-rowset", ".tmp"));
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE);
+		this.spillFile = new SpillFile(this, channel);
+		return new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+	}
+
+	private void writePages(DataOutputStream out) throws IOException {
+		SpillFile spillFile = this.spillFile;
+		Assert.state(spillFile != null, "No spill file");
+		for (Object[][] page : this.memoryPages) {
+			out.flush();
+			setPageOffset(pageCount(), spillFile.channel.position());
+			spillFile.pageCount++;
+			out.writeInt(page.length);
+			for (Object[] row : page) {
+				for (Object value : row) {
+					writeValue(out, value);
+				}
+			}
+		}
+		out.flush();
+		this.memoryPages.clear();
+	}
+
+	private int pageCount() {
+		SpillFile spillFile = this.spillFile;
+		return (spillFile != null ? spillFile.pageCount : 0);
+	}
+
+	private void setPageOffset(int pageIndex, long offset) {
+		if (pageIndex >= this.pageOffsets.length) {
+			this.pageOffsets = Arrays.copyOf(this.pageOffsets, this.pageOffsets.length * 2);
+		}
+		this.pageOffsets[pageIndex] = offset;
+	}
+
+	private static void writeValue(DataOutputStream out, @Nullable Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		}
+		else if (value instanceof String string) {
+			out.writeByte(STRING);
+			writeBytes(out, string.getBytes(StandardCharsets.UTF_8));
+		}
+		else if (value instanceof Integer number) {
+			out.writeByte(INTEGER);
+			out.writeInt(number);
+		}
+		else if (value instanceof Long number) {
+			out.writeByte(LONG);
+			out.writeLong(number);
+		}
+		else if (value instanceof Double number) {
+			out.writeByte(DOUBLE);
+			out.writeDouble(number);
+		}
+		else if (value instanceof Float number) {
+			out.writeByte(FLOAT);
+			out.writeFloat(number);
+		}
+		else if (value instanceof Short number) {
+			out.writeByte(SHORT);
+			out.writeShort(number);
+		}
+		else if (value instanceof Byte number) {
+			out.writeByte(BYTE);
+			out.writeByte(number);
+		}
+		else if (value instanceof Boolean bool) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean(bool);
+		}
+		else if (value instanceof BigDecimal number) {
+			out.writeByte(BIG_DECIMAL);
+			out.writeInt(number.scale());
+			writeBytes(out, number.unscaledValue().toByteArray());
+		}
+		else if (value instanceof BigInteger number) {
+			out.writeByte(BIG_INTEGER);
+			writeBytes(out, number.toByteArray());
+		}
+		else if (value.getClass() == Date.class) {
+			out.writeByte(DATE);
+			out.writeLong(((Date) value).getTime());
+		}
+		else if (value.getClass() == Time.class) {
+			out.writeByte(TIME);
+			out.writeLong(((Time) value).getTime());
+		}
+		else if (value.getClass() == Timestamp.class) {
+			out.writeByte(TIMESTAMP);
+			out.writeLong(((Timestamp) value).getTime());
+			out.writeInt(((Timestamp) value).getNanos());
+		}
+		else if (value instanceof byte[] bytes) {
+			out.writeByte(BYTES);
+			writeBytes(out, bytes);
+		}
+		else if (value instanceof Serializable) {
+			out.writeByte(SERIALIZED);
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+				oos.writeObject(value);
+			}
+			writeBytes(out, bos.toByteArray());
+		}
+		else {
+			throw new NotSerializableException(value.getClass().getName());
+		}
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	@Nullable
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		return switch (type) {
+			case NULL -> null;
+			case STRING -> new String(readBytes(in), StandardCharsets.UTF_8);
+			case INTEGER -> in.readInt();
+			case LONG -> in.readLong();
+			case DOUBLE -> in.readDouble();
+			case FLOAT -> in.readFloat();
+			case SHORT -> in.readShort();
+			case BYTE -> in.readByte();
+			case BOOLEAN -> in.readBoolean();
+			case BIG_DECIMAL -> {
+				int scale = in.readInt();
+				yield new BigDecimal(new BigInteger(readBytes(in)), scale);
+			}
+			case BIG_INTEGER -> new BigInteger(readBytes(in));
+			case DATE -> new Date(in.readLong());
+			case TIME -> new Time(in.readLong());
+			case TIMESTAMP -> {
+				Timestamp timestamp = new Timestamp(in.readLong());
+				timestamp.setNanos(in.readInt());
+				yield timestamp;
+			}
+			case BYTES -> readBytes(in);
+			case SERIALIZED -> {
+				try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+					yield ois.readObject();
+				}
+				catch (ClassNotFoundException ex) {
+					throw new IOException("Failed to deserialize spilled value", ex);
+				}
+			}
+			default -> throw new IOException("Unknown value type " + type);
+		};
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+
+	/**
+	 * Return the number of rows in this row set.
+	 */
+	public int getRowCount() {
+		return this.rowCount;
+	}
+
+	/**
+	 * Return whether rows have been spilled to a temporary file.
+	 */
+	public boolean isSpilled() {
+		return (this.spillFile != null);
+	}
+
+	/**
+	 * Delete the temporary file, if any. The row set cannot be used after
+	 * it has been closed if rows have been spilled.
+	 */
+	@Override
+	public void close() {
+		SpillFile spillFile = this.spillFile;
+		if (spillFile != null) {
+			spillFile.cleanable.clean();
+		}
+	}
+
+	@Override
+	public SqlRowSetMetaData getMetaData() {
+		return this.rowSetMetaData;
+	}
+
+	@Override
+	public int findColumn(String columnLabel) throws InvalidResultSetAccessException {
+		Integer columnIndex = this.columnLabelMap.get(columnLabel);
+		if (columnIndex == null) {
+			throw new InvalidResultSetAccessException(new SQLException("Invalid column label: " + columnLabel));
+		}
+		return columnIndex;
+	}
+
+
+	// RowSet methods for extracting data values
+
+	@Nullable
+	private Object getValue(int columnIndex) {
+		Object[] row = this.currentRow;
+		if (row == null) {
+			throw new InvalidResultSetAccessException(new SQLException("Invalid cursor position"));
+		}
+		if (columnIndex < 1 || columnIndex > this.columnCount) {
+			throw new InvalidResultSetAccessException(new SQLException("Invalid column index: " + columnIndex));
+		}
+		Object value = row[columnIndex - 1];
+		this.wasNull = (value == null);
+		return value;
+	}
+
+	@Nullable
+	private Number getNumber(int columnIndex) {
+		Object value = getValue(columnIndex);
+		if (value == null || value instanceof Number) {
+			return (Number) value;
+		}
+		if (value instanceof Boolean bool) {
+			return (bool ? 1 : 0);
+		}
+		return convert(value, BigDecimal.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T convert(Object value, Class<T> type) {
+		if (type.isInstance(value)) {
+			return (T) value;
+		}
+		if (value instanceof java.util.Date date) {
+			if (type == Date.class) {
+				return (T) new Date(date.getTime());
+			}
+			else if (type == Time.class) {
+				return (T) new Time(date.getTime());
+			}
+			else if (type == Timestamp.class) {
+				return (T) new Timestamp(date.getTime());
+			}
+		}
+		try {
+			T result = ConversionServiceHolder.conversionService.convert(value, type);
+			Assert.state(result != null, "Conversion returned null");
+			return result;
+		}
+		catch (ConversionException | IllegalStateException ex) {
+			throw new InvalidResultSetAccessException(new SQLException(
+					"Cannot convert value of type [" + value.getClass().getName() + "] to [" + type.getName() + "]", ex));
+		}
+	}
+
+	@Nullable
+	private <T extends java.util.Date> T getDateValue(int columnIndex, Class<T> type, @Nullable Calendar cal) {
+		Object value = getValue(columnIndex);
+		if (value == null) {
+			return null;
+		}
+		T date = convert(value, type);
+		if (cal == null) {
+			return date;
+		}
+		// Interpret the date and time fields in the time zone of the given calendar
+		Calendar defaultCal = Calendar.getInstance();
+		defaultCal.setTime(date);
+		Calendar targetCal = (Calendar) cal.clone();
+		targetCal.clear();
+		targetCal.set(defaultCal.get(Calendar.YEAR), defaultCal.get(Calendar.MONTH),
+				defaultCal.get(Calendar.DAY_OF_MONTH), defaultCal.get(Calendar.HOUR_OF_DAY),
+				defaultCal.get(Calendar.MINUTE), defaultCal.get(Calendar.SECOND));
+		targetCal.set(Calendar.MILLISECOND, defaultCal.get(Calendar.MILLISECOND));
+		long millis = targetCal.getTimeInMillis();
+		if (date instanceof Timestamp timestamp) {
+			Timestamp result = new Timestamp(millis);
+			result.setNanos(timestamp.getNanos());
+			return type.cast(result);
+		}
+		return (type == Date.class ? type.cast(new Date(millis)) : type.cast(new Time(millis)));
+	}
+
+	@Override
+	@Nullable
+	public BigDecimal getBigDecimal(int columnIndex) throws InvalidResultSetAccessException {
+		Object value = getValue(columnIndex);
+		return (value != null ? convert(value, BigDecimal.class) : null);
+	}
+
+	@Override
+	@Nullable
+	public BigDecimal getBigDecimal(String columnLabel) throws InvalidResultSetAccessException {
+		return getBigDecimal(findColumn(columnLabel));
+	}
+
+	@Override
+	public boolean getBoolean(int columnIndex) throws InvalidResultSetAccessException {
+		Object value = getValue(columnIndex);
+		if (value == null) {
+			return false;
+		}
+		if (value instanceof Number number) {
+			return (number.intValue() != 0);
+		}
+		return convert(value, Boolean.class);
+	}
+
+	@Override
+	public boolean getBoolean(String columnLabel) throws InvalidResultSetAccessException {
+		return getBoolean(findColumn(columnLabel));
+	}
+
+	@Override
+	public byte getByte(int columnIndex) throws InvalidResultSetAccessException {
+		Number number = getNumber(columnIndex);
+		return (number != null ? number.byteValue() : 0);
+	}
+
+	@Override
+	public byte getByte(String columnLabel) throws InvalidResultSetAccessException {
+		return getByte(findColumn(columnLabel));
+	}
+
+	@Override
+	@Nullable
+	public Date getDate(int columnIndex) throws InvalidResultSetAccessException {
+		return getDateValue(columnIndex, Date.class, null);
+	}
+
+	@Override
+	@Nullable
+	public Date getDate(String columnLabel) throws InvalidResultSetAccessException {
+		return getDate(findColumn(columnLabel));
+	}
+
+	@Override
+	@Nullable
+	public Date getDate(int columnIndex, Calendar cal) throws InvalidResultSetAccessException {
+		return getDateValue(columnIndex, Date.class, cal);
+	}
+
+	@Override
+	@Nullable
+	public Date getDate(String columnLabel, Calendar cal) throws InvalidResultSetAccessException {
+		return getDate(findColumn(columnLabel), cal);
+	}
+
+	@Override
+	public double getDouble(int columnIndex) throws InvalidResultSetAccessException {
+		Number number = getNumber(columnIndex);
+		return (number != null ? number.doubleValue() : 0);
+	}
+
+	@Override
+	public double getDouble(String columnLabel) throws InvalidResultSetAccessException {
+		return getDouble(findColumn(columnLabel));
+	}
+
+	@Override
+	public float getFloat(int columnIndex) throws InvalidResultSetAccessException {
+		Number number = getNumber(columnIndex);
+		return (number != null ? number.floatValue() : 0);
+	}
+
+	@Override
+	public float getFloat(String columnLabel) throws InvalidResultSetAccessException {
+		return getFloat(findColumn(columnLabel));
+	}
+
+	@Override
+	public int getInt(int columnIndex) throws InvalidResultSetAccessException {
+		Number number = getNumber(columnIndex);
+		return (number != null ? number.intValue() : 0);
+	}
+
+	@Override
+	public int getInt(String columnLabel) throws InvalidResultSetAccessException {
+		return getInt(findColumn(columnLabel));
+	}
+
+	@Override
+	public long getLong(int columnIndex) throws InvalidResultSetAccessException {
+		Number number = getNumber(columnIndex);
+		return (number != null ? number.longValue() : 0);
+	}
+
+	@Override
+	public long getLong(String columnLabel) throws InvalidResultSetAccessException {
+		return getLong(findColumn(columnLabel));
+	}
+
+	@Override
+	@Nullable
+	public String getNString(int columnIndex) throws InvalidResultSetAccessException {
+		return getString(columnIndex);
+	}
+
+	@Override
+	@Nullable
+	public String getNString(String columnLabel) throws InvalidResultSetAccessException {
+		return getNString(findColumn(columnLabel));
+	}
+
+	@Override
+	@Nullable
+	public Object getObject(int columnIndex) throws InvalidResultSetAccessException {
+		return getValue(columnIndex);
+	}
+
+	@Override
+	@Nullable
+	public Object getObject(String columnLabel) throws InvalidResultSetAccessException {
+		return getObject(findColumn(columnLabel));
+	}
+
+	@Override
+	@Nullable
+	public Object getObject(int columnIndex, Map<String, Class<?>> map) throws InvalidResultSetAccessException {
+		return getValue(columnIndex);
+	}
+
+	@Override
+	@Nullable
+	public Object getObject(String columnLabel, Map<String, Class<?>> map) throws InvalidResultSetAccessException {
+		return getObject(findColumn(columnLabel), map);
+	}
+
+	@Override
+	@Nullable
+	public <T> T getObject(int columnIndex, Class<T> type) throws InvalidResultSetAccessException {
+		Object value = getValue(columnIndex);
+		return (value != null ? convert(value, type) : null);
+	}
+
+	@Override
+	@Nullable
+	public <T> T getObject(String columnLabel, Class<T> type) throws InvalidResultSetAccessException {
+		return getObject(findColumn(columnLabel), type);
+	}
+
+	@Override
+	public short getShort(int columnIndex) throws InvalidResultSetAccessException {
+		Number number = getNumber(columnIndex);
+		return (number != null ? number.shortValue() : 0);
+	}
+
+	@Override
+	public short getShort(String columnLabel) throws InvalidResultSetAccessException {
+		return getShort(findColumn(columnLabel));
+	}
+
+	@Override
+	@Nullable
+	public String getString(int columnIndex) throws InvalidResultSetAccessException {
+		Object value = getValue(columnIndex);
+		return (value != null ? value.toString() : null);
+	}
+
+	@Override
+	@Nullable
+	public String getString(String columnLabel) throws InvalidResultSetAccessException {
+		return getString(findColumn(columnLabel));
+	}
+
+	@Override
+	@Nullable
+	public Time getTime(int columnIndex) throws InvalidResultSetAccessException {
+		return getDateValue(columnIndex, Time.class, null);
+	}
+
+	@Override
+	@Nullable
+	public Time getTime(String columnLabel) throws InvalidResultSetAccessException {
+		return getTime(findColumn(columnLabel));
+	}
+
+	@Override
+	@Nullable
+	public Time getTime(int columnIndex, Calendar cal) throws InvalidResultSetAccessException {
+		return getDateValue(columnIndex, Time.class, cal);
+	}
+
+	@Override
+	@Nullable
+	public Time getTime(String columnLabel, Calendar cal) throws InvalidResultSetAccessException {
+		return getTime(findColumn(columnLabel), cal);
+	}
+
+	@Override
+	@Nullable
+	public Timestamp getTimestamp(int columnIndex) throws InvalidResultSetAccessException {
+		return getDateValue(columnIndex, Timestamp.class, null);
+	}
+
+	@Override
+	@Nullable
+	public Timestamp getTimestamp(String columnLabel) throws InvalidResultSetAccessException {
+		return getTimestamp(findColumn(columnLabel));
+	}
+
+	@Override
+	@Nullable
+	public Timestamp getTimestamp(int columnIndex, Calendar cal) throws InvalidResultSetAccessException {
+		return getDateValue(columnIndex, Timestamp.class, cal);
+	}
+
+	@Override
+	@Nullable
+	public Timestamp getTimestamp(String columnLabel, Calendar cal) throws InvalidResultSetAccessException {
+		return getTimestamp(findColumn(columnLabel), cal);
+	}
+
+
+	// RowSet navigation methods
+
+	private boolean moveTo(int row) {
+		if (row < 1) {
+			this.cursor = 0;
+			this.currentRow = null;
+			return false;
+		}
+		if (row > this.rowCount) {
+			this.cursor = this.rowCount + 1;
+			this.currentRow = null;
+			return false;
+		}
+		this.cursor = row;
+		Object[][] page = getPage((row - 1) / this.pageSize);
+		this.currentRow = page[(row - 1) % this.pageSize];
+		return true;
+	}
+
+	private Object[][] getPage(int pageIndex) {
+		SpillFile spillFile = this.spillFile;
+		if (spillFile == null) {
+			return this.memoryPages.get(pageIndex);
+		}
+		if (this.cachedPageIndexes[0] == pageIndex) {
+			return this.cachedPages[0];
+		}
+		Object[][] page;
+		if (this.cachedPageIndexes[1] == pageIndex) {
+			page = this.cachedPages[1];
+		}
+		else {
+			try {
+				page = spillFile.readPage(this.pageOffsets[pageIndex], this.pageOffsets[pageIndex + 1], this.columnCount);
+			}
+			catch (IOException ex) {
+				throw new DataAccessResourceFailureException("Failed to read spilled rows from temporary file", ex);
+			}
+		}
+		// Keep the previously accessed page as well, so that moving back and
+		// forth across a page boundary does not read from the file every time
+		this.cachedPageIndexes[1] = this.cachedPageIndexes[0];
+		this.cachedPages[1] = this.cachedPages[0];
+		this.cachedPageIndexes[0] = pageIndex;
+		this.cachedPages[0] = page;
+		return page;
+	}
+
+	@Override
+	public boolean absolute(int row) throws InvalidResultSetAccessException {
+		return moveTo(row >= 0 ? row : this.rowCount + 1 + row);
+	}
+
+	@Override
+	public void afterLast() throws InvalidResultSetAccessException {
+		moveTo(this.rowCount + 1);
+	}
+
+	@Override
+	public void beforeFirst() throws InvalidResultSetAccessException {
+		moveTo(0);
+	}
+
+	@Override
+	public boolean first() throws InvalidResultSetAccessException {
+		return moveTo(1);
+	}
+
+	@Override
+	public int getRow() throws InvalidResultSetAccessException {
+		return (this.currentRow != null ? this.cursor : 0);
+	}
+
+	@Override
+	public boolean isAfterLast() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor > this.rowCount);
+	}
+
+	@Override
+	public boolean isBeforeFirst() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == 0);
+	}
+
+	@Override
+	public boolean isFirst() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == 1);
+	}
+
+	@Override
+	public boolean isLast() throws InvalidResultSetAccessException {
+		return (this.rowCount > 0 && this.cursor == this.rowCount);
+	}
+
+	@Override
+	public boolean last() throws InvalidResultSetAccessException {
+		return moveTo(this.rowCount);
+	}
+
+	@Override
+	public boolean next() throws InvalidResultSetAccessException {
+		return moveTo(Math.min(this.cursor, this.rowCount) + 1);
+	}
+
+	@Override
+	public boolean previous() throws InvalidResultSetAccessException {
+		return moveTo(Math.max(this.cursor, 1) - 1);
+	}
+
+	@Override
+	public boolean relative(int rows) throws InvalidResultSetAccessException {
+		return moveTo((int) Math.max(Math.min((long) this.cursor + rows, this.rowCount + 1L), 0));
+	}
+
+	@Override
+	public boolean wasNull() throws InvalidResultSetAccessException {
+		return this.wasNull;
+	}
+
+
+	@Serial
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException(getClass().getName());
+	}
+
+
+	/**
+	 * The temporary file that rows have been spilled to, deleted by
+	 * closing its channel when the row set is closed or becomes unreachable.
+	 */
+	private static final class SpillFile implements Runnable {
+
+		private final FileChannel channel;
+
+		private final Cleaner.Cleanable cleanable;
+
+		private int pageCount;
+
+		@Nullable
+		private ByteBuffer buffer;
+
+		SpillFile(SpillingSqlRowSet rowSet, FileChannel channel) {
+			this.channel = channel;
+			this.cleanable = CleanerHolder.cleaner.register(rowSet, this);
+		}
+
+		Object[][] readPage(long start, long end, int columnCount) throws IOException {
+			int length = Math.toIntExact(end - start);
+			ByteBuffer buffer = this.buffer;
+			if (buffer == null || buffer.capacity() < length) {
+				buffer = ByteBuffer.allocate(length);
+				this.buffer = buffer;
+			}
+			buffer.clear().limit(length);
+			while (buffer.hasRemaining()) {
+				if (this.channel.read(buffer, start + buffer.position()) < 0) {
+					throw new IOException("Unexpected end of spill file");
+				}
+			}
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array(), 0, length));
+			Object[][] page = new Object[in.readInt()][];
+			for (int i = 0; i < page.length; i++) {
+				Object[] row = new Object[columnCount];
+				for (int j = 0; j < columnCount; j++) {
+					row[j] = readValue(in);
+				}
+				page[i] = row;
+			}
+			return page;
+		}
+
+		@Override
+		public void run() {
+			try {
+				this.channel.close();
+			}
+			catch (IOException ex) {
+				// ignore - the file will be deleted on JVM exit at the latest
+			}
+		}
+	}
+
+
+	/**
+	 * Holder for the Cleaner, only started once rows are spilled.
+	 */
+	private static final class CleanerHolder {
+
+		static final Cleaner cleaner = Cleaner.create();
+	}
+
+
+	/**
+	 * Holder for the ConversionService used for values of unexpected types.
+	 */
+	private static final class ConversionServiceHolder {
+
+		static final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+	}
+
+}
@@ -16,11 +16,16 @@
 
 package org.springframework.jdbc.core;
 
+import java.beans.PropertyEditorSupport;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.jdbc.core.test.ConcretePerson;
 import org.springframework.jdbc.core.test.DatePerson;
@@ -32,6 +37,9 @@ import org.springframework.jdbc.core.test.SpacePerson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link BeanPropertyRowMapper}.
@@ -165,6 +173,54 @@ class BeanPropertyRowMapperTests extends AbstractRowMapperTests {
 		mock.verifyClosed();
 	}
 
+	@Test
+	void metaDataIsReadOncePerResultSet() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class);
+		Mock mock = new Mock();
+		given(mock.getResultSet().next()).willReturn(true, true, true, false);
+		List<Person> result = mock.getJdbcTemplate().query("select name, age, birth_date, balance from people", mapper);
+		assertThat(result).hasSize(3).allSatisfy(this::verifyPerson);
+		verify(mock.getResultSet(), times(1)).getMetaData();
+
+		// Same mapper for a ResultSet with different columns
+		Mock otherMock = new Mock(MockType.THREE);
+		Person person = otherMock.getJdbcTemplate().queryForObject(
+				"select last_name as \"Last Name\", age, birth_date, balance from people", mapper);
+		assertThat(person.getName()).isNull();
+		assertThat(person.getAge()).isEqualTo(22);
+	}
+
+	@Test
+	void customEditorRegisteredInInitBeanWrapper() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class) {
+			@Override
+			protected void initBeanWrapper(BeanWrapper bw) {
+				super.initBeanWrapper(bw);
+				bw.registerCustomEditor(String.class, new PropertyEditorSupport() {
+					@Override
+					public void setAsText(String text) {
+						setValue(text.toUpperCase());
+					}
+				});
+			}
+		};
+		Mock mock = new Mock();
+		given(mock.getResultSet().next()).willReturn(true, true, false);
+		List<Person> result = mock.getJdbcTemplate().query("select name, age, birth_date, balance from people", mapper);
+		assertThat(result).extracting(Person::getName).containsExactly("BUBBA", "BUBBA");
+	}
+
+	@Test
+	void customConverterForAssignableValue() throws Exception {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.addConverter(String.class, String.class, String::toUpperCase);
+		BeanPropertyRowMapper<Person> mapper = BeanPropertyRowMapper.newInstance(Person.class, conversionService);
+		Mock mock = new Mock();
+		given(mock.getResultSet().next()).willReturn(true, true, false);
+		List<Person> result = mock.getJdbcTemplate().query("select name, age, birth_date, balance from people", mapper);
+		assertThat(result).extracting(Person::getName).containsExactly("BUBBA", "BUBBA");
+	}
+
 	@ParameterizedTest
 	@CsvSource({
 		"age, age",
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link ColumnarResultSetExtractor} and {@link ColumnarResult}.
+ */
+class ColumnarResultSetExtractorTests {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+
+	@BeforeEach
+	void setup() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("CREATE TABLE measurement (id INTEGER, ts BIGINT, val DOUBLE, " +
+				"status VARCHAR(10), qty NUMERIC(5), amount DECIMAL(10, 2))");
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void columnTypesDerivedFromMetaData() {
+		this.jdbcTemplate.update("INSERT INTO measurement VALUES (1, 100, 1.5, 'OK', 3, 9.99)");
+		this.jdbcTemplate.update("INSERT INTO measurement VALUES (2, 200, 2.5, 'FAILED', 4, 0.01)");
+		this.jdbcTemplate.update("INSERT INTO measurement VALUES (3, 300, 3.5, 'OK', 5, 1.00)");
+
+		ColumnarResult result = this.jdbcTemplate.query(
+				"SELECT * FROM measurement ORDER BY id", new ColumnarResultSetExtractor());
+
+		assertThat(result.getRowCount()).isEqualTo(3);
+		assertThat(result.getColumnNames()).containsExactly("ID", "TS", "VAL", "STATUS", "QTY", "AMOUNT");
+		assertThat(result.getIntColumn("id").toArray()).containsExactly(1, 2, 3);
+		assertThat(result.getLongColumn("ts").toArray()).containsExactly(100L, 200L, 300L);
+		assertThat(result.getDoubleColumn("val").toArray()).containsExactly(1.5, 2.5, 3.5);
+		assertThat(result.getIntColumn("qty").toArray()).containsExactly(3, 4, 5);
+		assertThat(result.getObjectColumn("amount").getObject(0)).isEqualTo(new BigDecimal("9.99"));
+
+		ColumnarResult.StringColumn status = result.getStringColumn(4);
+		assertThat(status.getDictionary()).containsExactly("OK", "FAILED");
+		assertThat(status.toCodeArray()).containsExactly(0, 1, 0);
+		assertThat(status.get(1)).isEqualTo("FAILED");
+	}
+
+	@Test
+	void nullValues() {
+		this.jdbcTemplate.update("INSERT INTO measurement VALUES (1, NULL, NULL, NULL, NULL, NULL)");
+		this.jdbcTemplate.update("INSERT INTO measurement VALUES (NULL, 0, 0, 'OK', 0, 0)");
+
+		ColumnarResult result = this.jdbcTemplate.query(
+				"SELECT * FROM measurement ORDER BY id NULLS LAST", new ColumnarResultSetExtractor());
+
+		for (int i = 1; i <= result.getColumnCount(); i++) {
+			ColumnarResult.Column column = result.getColumn(i);
+			assertThat(column.isNull(0)).as(column.getName()).isEqualTo(i != 1);
+			assertThat(column.isNull(1)).as(column.getName()).isEqualTo(i == 1);
+		}
+		assertThat(result.getIntColumn("id").get(1)).isZero();
+		assertThat(result.getIntColumn("id").getObject(1)).isNull();
+		assertThat(result.getLongColumn("ts").getObject(1)).isEqualTo(0L);
+		assertThat(result.getStringColumn("status").getCode(0)).isEqualTo(-1);
+		assertThat(result.getStringColumn("status").get(0)).isNull();
+	}
+
+	@Test
+	void explicitColumnTypes() {
+		this.jdbcTemplate.update("INSERT INTO measurement VALUES (7, 100, 1.5, 'OK', 3, 9.99)");
+
+		ColumnarResultSetExtractor extractor = new ColumnarResultSetExtractor();
+		extractor.setColumnType("ID", long.class);
+		extractor.setColumnType("amount", double.class);
+		extractor.setColumnType("status", Object.class);
+		ColumnarResult result = this.jdbcTemplate.query("SELECT * FROM measurement", extractor);
+
+		assertThat(result.getLongColumn("id").get(0)).isEqualTo(7L);
+		assertThat(result.getDoubleColumn("amount").get(0)).isEqualTo(9.99);
+		assertThat(result.getObjectColumn("status").getObject(0)).isEqualTo("OK");
+		assertThatIllegalArgumentException().isThrownBy(() -> extractor.setColumnType("id", Integer.class));
+	}
+
+	@Test
+	void valuesSpanningSeveralChunks() {
+		int rowCount = ColumnarResult.Column.CHUNK_SIZE * 2 + 17;
+		this.jdbcTemplate.update("INSERT INTO measurement (id, ts, val, status) " +
+				"SELECT X, X * 10, X / 2.0, 'S' || MOD(X, 3) FROM SYSTEM_RANGE(1, ?)", rowCount);
+
+		ColumnarResult result = this.jdbcTemplate.query(
+				"SELECT id, ts, val, status FROM measurement ORDER BY id", new ColumnarResultSetExtractor());
+
+		assertThat(result.getRowCount()).isEqualTo(rowCount);
+		int[] ids = result.getIntColumn("id").toArray();
+		long[] timestamps = result.getLongColumn("ts").toArray();
+		double[] values = result.getDoubleColumn("val").toArray();
+		for (int i = 0; i < rowCount; i++) {
+			assertThat(ids[i]).isEqualTo(i + 1);
+			assertThat(timestamps[i]).isEqualTo((i + 1) * 10L);
+			assertThat(values[i]).isEqualTo((i + 1) / 2.0);
+		}
+		assertThat(result.getIntColumn("id").get(rowCount - 1)).isEqualTo(rowCount);
+		assertThat(result.getStringColumn("status").getDictionary()).containsExactly("S1", "S2", "S0");
+
+		List<Long> visited = new ArrayList<>();
+		result.getLongColumn("ts").forEach(visited::add);
+		assertThat(visited).hasSize(rowCount).endsWith(rowCount * 10L);
+		long[] sum = new long[1];
+		result.getIntColumn("id").forEach(id -> sum[0] += id);
+		assertThat(sum[0]).isEqualTo((long) rowCount * (rowCount + 1) / 2);
+	}
+
+	@Test
+	void invalidColumnAccess() {
+		ColumnarResult result = this.jdbcTemplate.query(
+				"SELECT id, status FROM measurement", new ColumnarResultSetExtractor());
+
+		assertThat(result.getRowCount()).isZero();
+		assertThat(result.getIntColumn(1).toArray()).isEmpty();
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> result.getLongColumn("id"));
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> result.getColumn("missing"));
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> result.getColumn(3));
+		assertThatExceptionOfType(IndexOutOfBoundsException.class)
+				.isThrownBy(() -> result.getIntColumn(1).get(0));
+	}
+
+}
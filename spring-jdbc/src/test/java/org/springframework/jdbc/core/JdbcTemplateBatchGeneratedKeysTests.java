@@ -0,0 +1,187 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.jdbc.core.support.AbstractInterruptibleBatchPreparedStatementSetter;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for batch updates returning generated keys.
+ */
+class JdbcTemplateBatchGeneratedKeysTests {
+
+	private static final String INSERT_SQL = "INSERT INTO person (name) VALUES (?)";
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Integer> executedBatches = new ArrayList<>();
+
+
+	private void setup(EmbeddedDatabaseType type) {
+		this.database = new EmbeddedDatabaseBuilder()
+				.setType(type)
+				.generateUniqueName(true)
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("CREATE TABLE person (" +
+				"id INTEGER GENERATED BY DEFAULT AS IDENTITY (START WITH 100) PRIMARY KEY, name VARCHAR(50))");
+		this.jdbcTemplate.setBatchExecutionListener((sql, items, elapsedNanos) -> this.executedBatches.add(items));
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void batchUpdateWithKeyHolder(EmbeddedDatabaseType type) {
+		setup(type);
+		List<String> names = List.of("a", "b", "c", "d", "e");
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+
+		int[] rowsAffected = this.jdbcTemplate.batchUpdate(
+				con -> con.prepareStatement(INSERT_SQL, new String[] {"ID"}),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						ps.setString(1, names.get(i));
+					}
+					@Override
+					public int getBatchSize() {
+						return names.size();
+					}
+				},
+				keyHolder);
+
+		assertThat(rowsAffected).containsExactly(1, 1, 1, 1, 1);
+		assertKeys(keyHolder, names);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void batchUpdateWithKeyHolderAndInterruptibleSetter(EmbeddedDatabaseType type) {
+		setup(type);
+		List<String> names = List.of("a", "b", "c");
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+
+		int[] rowsAffected = this.jdbcTemplate.batchUpdate(
+				con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+				new AbstractInterruptibleBatchPreparedStatementSetter() {
+					@Override
+					protected boolean setValuesIfAvailable(PreparedStatement ps, int i) throws SQLException {
+						if (i >= names.size()) {
+							return false;
+						}
+						ps.setString(1, names.get(i));
+						return true;
+					}
+				},
+				keyHolder);
+
+		assertThat(rowsAffected).hasSize(3);
+		assertKeys(keyHolder, names);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void namedParameterBatchUpdateWithKeyHolder(EmbeddedDatabaseType type) {
+		setup(type);
+		NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(this.jdbcTemplate);
+		List<String> names = List.of("a", "b", "c", "d");
+		SqlParameterSource[] batchArgs = names.stream()
+				.map(name -> new MapSqlParameterSource("name", name))
+				.toArray(SqlParameterSource[]::new);
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+
+		int[] rowsAffected = namedTemplate.batchUpdate(
+				"INSERT INTO person (name) VALUES (:name)", batchArgs, keyHolder, new String[] {"ID"});
+
+		assertThat(rowsAffected).containsExactly(1, 1, 1, 1);
+		assertKeys(keyHolder, names);
+		assertThat(this.executedBatches).containsExactly(4);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void namedParameterBatchUpdateWithKeyHolderAndEmptyBatch(EmbeddedDatabaseType type) {
+		setup(type);
+		NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(this.jdbcTemplate);
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+
+		int[] rowsAffected = namedTemplate.batchUpdate(
+				"INSERT INTO person (name) VALUES (:name)", new SqlParameterSource[0], keyHolder);
+
+		assertThat(rowsAffected).isEmpty();
+		assertThat(keyHolder.getKeyList()).isEmpty();
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void simpleJdbcInsertExecuteBatchAndReturnKeyHolder(EmbeddedDatabaseType type) {
+		setup(type);
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.jdbcTemplate)
+				.withTableName("person")
+				.usingGeneratedKeyColumns("id");
+		List<String> names = List.of("a", "b", "c");
+		@SuppressWarnings("unchecked")
+		Map<String, Object>[] batch = names.stream()
+				.map(name -> Map.of("name", name))
+				.toArray(Map[]::new);
+
+		KeyHolder keyHolder = insert.executeBatchAndReturnKeyHolder(batch);
+
+		assertKeys(keyHolder, names);
+	}
+
+
+	private void assertKeys(KeyHolder keyHolder, List<String> names) {
+		List<Number> keys = keyHolder.getKeyList().stream()
+				.map(key -> (Number) key.values().iterator().next())
+				.toList();
+		assertThat(keys).hasSize(names.size());
+		for (int i = 0; i < names.size(); i++) {
+			assertThat(this.jdbcTemplate.queryForObject("SELECT name FROM person WHERE id = ?", String.class,
+					keys.get(i))).isEqualTo(names.get(i));
+		}
+	}
+
+}
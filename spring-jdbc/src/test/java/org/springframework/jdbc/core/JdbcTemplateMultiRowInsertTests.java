@@ -0,0 +1,244 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration tests for {@link JdbcTemplate#setRewriteBatchedInserts multi-row INSERT rewriting}.
+ */
+class JdbcTemplateMultiRowInsertTests {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<String> executedStatements = new ArrayList<>();
+
+
+	private void setup(EmbeddedDatabaseType type) {
+		this.database = new EmbeddedDatabaseBuilder()
+				.setType(type)
+				.generateUniqueName(true)
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("CREATE TABLE person (id INTEGER PRIMARY KEY, name VARCHAR(50), age INTEGER)");
+		this.jdbcTemplate.setRewriteBatchedInserts(true);
+		this.jdbcTemplate.setMaxRowsPerInsert(4);
+		this.jdbcTemplate.setBatchExecutionListener((sql, items, elapsedNanos) -> {
+			assertThat(elapsedNanos).isNotNegative();
+			this.executedStatements.add(items + ": " + sql);
+		});
+	}
+
+	@AfterEach
+	void shutdown() {
+		if (this.database != null) {
+			this.database.shutdown();
+		}
+	}
+
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void batchUpdateWithArgumentArrays(EmbeddedDatabaseType type) {
+		setup(type);
+		List<Object[]> batchArgs = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			batchArgs.add(new Object[] {i, (i % 3 == 0 ? null : "name" + i), i * 10});
+		}
+
+		int[] rowsAffected = this.jdbcTemplate.batchUpdate(
+				"INSERT INTO person (id, name, age) VALUES (?, ?, ?)", batchArgs,
+				new int[] {Types.INTEGER, Types.VARCHAR, Types.INTEGER});
+
+		assertThat(rowsAffected).hasSize(10).containsOnly(1);
+		assertThat(this.executedStatements).containsExactly(
+				"4: INSERT INTO person (id, name, age) VALUES (?, ?, ?), (?, ?, ?), (?, ?, ?), (?, ?, ?)",
+				"4: INSERT INTO person (id, name, age) VALUES (?, ?, ?), (?, ?, ?), (?, ?, ?), (?, ?, ?)",
+				"2: INSERT INTO person (id, name, age) VALUES (?, ?, ?), (?, ?, ?)");
+		assertRows(10);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void batchUpdateWithParameterLimit(EmbeddedDatabaseType type) {
+		setup(type);
+		this.jdbcTemplate.setMaxParametersPerInsert(7);
+		List<Object[]> batchArgs = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			// Untyped null values, resolved through the ParameterMetaData of the statement
+			batchArgs.add(new Object[] {i, (i == 4 ? null : "name" + i), i * 10});
+		}
+
+		int[] rowsAffected = this.jdbcTemplate.batchUpdate("INSERT INTO person VALUES (?, ?, ?)", batchArgs);
+
+		assertThat(rowsAffected).hasSize(5).containsOnly(1);
+		assertThat(this.executedStatements).extracting(sql -> sql.substring(0, 2)).containsExactly("2:", "2:", "1:");
+		assertRows(5);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void wideRowsExecutedAsRegularBatch(EmbeddedDatabaseType type) {
+		setup(type);
+		this.jdbcTemplate.setMaxParametersPerInsert(5);
+		List<Object[]> batchArgs = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			batchArgs.add(new Object[] {i, "name" + i, i * 10});
+		}
+
+		int[] rowsAffected = this.jdbcTemplate.batchUpdate("INSERT INTO person (id, name, age) VALUES (?, ?, ?)", batchArgs);
+
+		assertThat(rowsAffected).containsExactly(1, 1, 1);
+		assertThat(this.executedStatements).containsExactly("3: INSERT INTO person (id, name, age) VALUES (?, ?, ?)");
+		assertRows(3);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void namedParameterBatchUpdate(EmbeddedDatabaseType type) {
+		setup(type);
+		NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(this.jdbcTemplate);
+		SqlParameterSource[] batchArgs = new SqlParameterSource[6];
+		for (int i = 0; i < batchArgs.length; i++) {
+			batchArgs[i] = new MapSqlParameterSource("id", i + 1)
+					.addValue("name", (i % 3 == 0 ? null : "name" + (i + 1)), Types.VARCHAR)
+					.addValue("age", (i + 1) * 10);
+		}
+
+		int[] rowsAffected = namedTemplate.batchUpdate(
+				"INSERT INTO person (id, name, age) VALUES (:id, :name, :age)", batchArgs);
+
+		assertThat(rowsAffected).hasSize(6).containsOnly(1);
+		assertThat(this.executedStatements).hasSize(2);
+		assertRows(6);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void simpleJdbcInsertExecuteBatch(EmbeddedDatabaseType type) {
+		setup(type);
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.jdbcTemplate).withTableName("person");
+		@SuppressWarnings("unchecked")
+		Map<String, Object>[] batch = new Map[9];
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = Map.of("id", i + 1, "name", "name" + (i + 1), "age", (i + 1) * 10);
+		}
+
+		int[] rowsAffected = insert.executeBatch(batch);
+
+		assertThat(rowsAffected).hasSize(9).containsOnly(1);
+		assertThat(this.executedStatements).hasSize(3);
+		assertRows(9);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void nonRewritableStatementExecutedAsRegularBatch(EmbeddedDatabaseType type) {
+		setup(type);
+		this.jdbcTemplate.batchUpdate("INSERT INTO person (id, name, age) VALUES (?, ?, ?)",
+				List.<Object[]>of(new Object[] {1, "name1", 10}, new Object[] {2, "name2", 20}));
+		List<Object[]> batchArgs = List.of(new Object[] {"a", 1}, new Object[] {"b", 2});
+
+		int[] rowsAffected = this.jdbcTemplate.batchUpdate("UPDATE person SET name = ? WHERE id = ?", batchArgs);
+
+		assertThat(rowsAffected).containsExactly(1, 1);
+		assertThat(this.executedStatements).containsExactly(
+				"2: INSERT INTO person (id, name, age) VALUES (?, ?, ?), (?, ?, ?)",
+				"2: UPDATE person SET name = ? WHERE id = ?");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void failingStatementIsTranslated(EmbeddedDatabaseType type) {
+		setup(type);
+		List<Object[]> batchArgs = List.of(new Object[] {1, "a", 1}, new Object[] {1, "b", 2});
+
+		assertThatExceptionOfType(DuplicateKeyException.class).isThrownBy(() ->
+				this.jdbcTemplate.batchUpdate("INSERT INTO person (id, name, age) VALUES (?, ?, ?)", batchArgs));
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person", Integer.class)).isZero();
+	}
+
+	@Test
+	void statementSettingsAppliedToRewrittenStatements() throws Exception {
+		DataSource dataSource = mock();
+		Connection connection = mock();
+		PreparedStatement preparedStatement = mock();
+		given(dataSource.getConnection()).willReturn(connection);
+		given(connection.prepareStatement(anyString())).willReturn(preparedStatement);
+		given(preparedStatement.executeUpdate()).willReturn(2, 1);
+		JdbcTemplate template = new JdbcTemplate(dataSource);
+		template.setRewriteBatchedInserts(true);
+		template.setMaxRowsPerInsert(2);
+		template.setQueryTimeout(10);
+
+		int[] rowsAffected = template.batchUpdate("INSERT INTO person (id, name, age) VALUES (?, ?, ?)",
+				List.of(new Object[] {1, "name1", 10}, new Object[] {2, "name2", 20}, new Object[] {3, "name3", 30}));
+
+		assertThat(rowsAffected).containsExactly(1, 1, 1);
+		verify(connection).prepareStatement("INSERT INTO person (id, name, age) VALUES (?, ?, ?), (?, ?, ?)");
+		verify(connection).prepareStatement("INSERT INTO person (id, name, age) VALUES (?, ?, ?)");
+		verify(preparedStatement, times(2)).setQueryTimeout(10);
+		verify(preparedStatement, times(2)).close();
+		verify(connection).close();
+	}
+
+
+	private void assertRows(int count) {
+		List<Map<String, Object>> rows = this.jdbcTemplate.queryForList("SELECT * FROM person ORDER BY id");
+		assertThat(rows).hasSize(count);
+		for (int i = 0; i < count; i++) {
+			Map<String, Object> row = rows.get(i);
+			assertThat(row.get("id")).isEqualTo(i + 1);
+			assertThat(row.get("age")).isEqualTo((i + 1) * 10);
+			if (row.get("name") != null) {
+				assertThat(row.get("name")).isEqualTo("name" + (i + 1));
+			}
+		}
+	}
+
+}
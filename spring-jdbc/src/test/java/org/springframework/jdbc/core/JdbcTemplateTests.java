@@ -769,6 +769,73 @@ public class JdbcTemplateTests {
 		verify(this.connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testStreamingBatchUpdate() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		final List<Integer> ids = Arrays.asList(100, 200, 300);
+		final int[] rowsAffected1 = new int[] {1, 2};
+		final int[] rowsAffected2 = new int[] {3};
+
+		given(this.preparedStatement.executeBatch()).willReturn(rowsAffected1, rowsAffected2);
+		mockDatabaseMetaData(true);
+
+		ParameterizedPreparedStatementSetter<Integer> setter = (ps, argument) -> ps.setInt(1, argument);
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+
+		List<Long> firstIndexes = new ArrayList<>();
+		List<int[]> actualRowsAffected = new ArrayList<>();
+		long count = template.batchUpdate(sql, ids.stream().iterator(), 2, setter, (firstIndex, updateCounts) -> {
+			firstIndexes.add(firstIndex);
+			actualRowsAffected.add(updateCounts);
+		});
+		assertThat(count).isEqualTo(3);
+		assertThat(firstIndexes).containsExactly(0L, 2L);
+		assertThat(actualRowsAffected).containsExactly(rowsAffected1, rowsAffected2);
+
+		verify(this.preparedStatement, times(3)).addBatch();
+		verify(this.preparedStatement, times(2)).executeBatch();
+		verify(this.preparedStatement).setInt(1, ids.get(0));
+		verify(this.preparedStatement).setInt(1, ids.get(1));
+		verify(this.preparedStatement).setInt(1, ids.get(2));
+		verify(this.preparedStatement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testStreamingBatchUpdateWithBatchFailingOver() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		final List<Integer> ids = Arrays.asList(100, 200, 300);
+
+		given(this.preparedStatement.executeUpdate()).willReturn(1, 2, 3);
+		mockDatabaseMetaData(false);
+
+		ParameterizedPreparedStatementSetter<Integer> setter = (ps, argument) -> ps.setInt(1, argument);
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+
+		List<int[]> actualRowsAffected = new ArrayList<>();
+		long count = template.batchUpdate(sql, ids.iterator(), 2, setter,
+				(firstIndex, updateCounts) -> actualRowsAffected.add(updateCounts));
+		assertThat(count).isEqualTo(3);
+		assertThat(actualRowsAffected).containsExactly(new int[] {1, 2}, new int[] {3});
+
+		verify(this.preparedStatement, never()).addBatch();
+		verify(this.preparedStatement, times(3)).executeUpdate();
+		verify(this.preparedStatement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testStreamingBatchUpdateWithEmptyIterator() throws Exception {
+		mockDatabaseMetaData(true);
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+
+		long count = template.batchUpdate("UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?",
+				Collections.<Integer>emptyIterator(), 2, (ps, argument) -> ps.setInt(1, argument), null);
+		assertThat(count).isZero();
+		verify(this.preparedStatement, never()).executeBatch();
+		verify(this.preparedStatement).close();
+	}
+
 	@Test
 	public void testCouldNotGetConnectionForOperationOrExceptionTranslator() throws SQLException {
 		SQLException sqlException = new SQLException("foo", "07xxx");
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MultiRowInsertSql}.
+ */
+class MultiRowInsertSqlTests {
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', quoteCharacter = '~', textBlock = """
+			INSERT INTO t (a, b) VALUES (?, ?)                           | (?, ?)
+			insert into t(a, b) values(?, ?)                             | (?, ?)
+			INSERT INTO t (a, b) VALUES (?, lower(?))                    | (?, lower(?))
+			INSERT INTO "values" (a, b) VALUES (?, ?)                    | (?, ?)
+			INSERT INTO t (a, b, c) VALUES (?, ?, 'it''s (?)')           | (?, ?, 'it''s (?)')
+			INSERT INTO t VALUES (?, COALESCE(?, CURRENT_TIMESTAMP))     | (?, COALESCE(?, CURRENT_TIMESTAMP))
+			""")
+	void rewritableStatement(String sql, String row) {
+		MultiRowInsertSql insertSql = MultiRowInsertSql.parse("  " + sql + "  ");
+		assertThat(insertSql).isNotNull();
+		assertThat(insertSql.getParametersPerRow()).isEqualTo(2);
+		assertThat(insertSql.getSql(1)).isEqualTo(sql);
+		assertThat(insertSql.getSql(3)).isEqualTo(sql + ", " + row + ", " + row);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"UPDATE t SET a = ? WHERE b = ?",
+			"INSERT INTO t (a) SELECT ? FROM dual",
+			"INSERT INTO t (a) VALUES ((SELECT max(a) FROM t WHERE b = ?))",
+			"INSERT INTO t (a) VALUES (?), (?)",
+			"INSERT INTO t (a) VALUES (?) ON CONFLICT DO NOTHING",
+			"INSERT INTO t (a) VALUES (?) RETURNING id",
+			"INSERT INTO t (a) VALUES (?);",
+			"INSERT INTO t (a, b) VALUES (?, 1) -- comment",
+			"INSERT /* hint */ INTO t (a) VALUES (?)",
+			"INSERT INTO t (a) VALUES (1)",
+			"INSERT INTO t (a) VALUES ({fn now()}, ?)",
+			"INSERT INTO t (a) VALUES ('unterminated, ?)"})
+	void nonRewritableStatement(String sql) {
+		assertThat(MultiRowInsertSql.parse(sql)).isNull();
+	}
+
+}
@@ -513,6 +513,33 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testStreamingBatchUpdateWithSqlParameterSource() throws Exception {
+		List<SqlParameterSource> ids = List.of(new MapSqlParameterSource("id", 100),
+				new MapSqlParameterSource("id", 200), new MapSqlParameterSource("id", 300));
+		final int[] rowsAffected1 = new int[] {1, 2};
+		final int[] rowsAffected2 = new int[] {3};
+
+		given(preparedStatement.executeBatch()).willReturn(rowsAffected1, rowsAffected2);
+		given(connection.getMetaData()).willReturn(databaseMetaData);
+		given(databaseMetaData.supportsBatchUpdates()).willReturn(true);
+		namedParameterTemplate = new NamedParameterJdbcTemplate(new JdbcTemplate(dataSource, false));
+
+		List<int[]> actualRowsAffected = new ArrayList<>();
+		long count = namedParameterTemplate.batchUpdate(
+				"UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id", ids.iterator(), 2,
+				(firstIndex, updateCounts) -> actualRowsAffected.add(updateCounts));
+		assertThat(count).isEqualTo(3);
+		assertThat(actualRowsAffected).containsExactly(rowsAffected1, rowsAffected2);
+		verify(connection).prepareStatement("UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?");
+		verify(preparedStatement).setObject(1, 100);
+		verify(preparedStatement).setObject(1, 200);
+		verify(preparedStatement).setObject(1, 300);
+		verify(preparedStatement, times(3)).addBatch();
+		verify(preparedStatement, atLeastOnce()).close();
+		verify(connection, atLeastOnce()).close();
+	}
+
 	@Test
 	public void testBatchUpdateWithInClause() throws Exception {
 		@SuppressWarnings("unchecked")
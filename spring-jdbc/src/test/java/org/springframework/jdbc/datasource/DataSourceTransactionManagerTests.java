@@ -54,10 +54,12 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.assertThatRuntimeException;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.core.testfixture.TestGroup.LONG_RUNNING;
@@ -963,6 +965,56 @@ public class DataSourceTransactionManagerTests {
 		ordered.verify(con).close();
 	}
 
+	@Test
+	public void testTransactionWithEnforceReadOnlyStatementOnly() throws Exception {
+		tm.setEnforceReadOnly(true);
+		tm.setReadOnlyStatementOnly(true);
+
+		given(con.getAutoCommit()).willReturn(true);
+		Statement stmt = mock();
+		given(con.createStatement()).willReturn(stmt);
+
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.setReadOnly(true);
+		tt.executeWithoutResult(status ->
+				assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isTrue());
+
+		InOrder ordered = inOrder(con, stmt);
+		ordered.verify(con).setAutoCommit(false);
+		ordered.verify(stmt).executeUpdate("SET TRANSACTION READ ONLY");
+		ordered.verify(stmt).close();
+		ordered.verify(con).commit();
+		ordered.verify(con).setAutoCommit(true);
+		ordered.verify(con).close();
+		verify(con, never()).setReadOnly(anyBoolean());
+		assertThat(tm.getSkippedConnectionCallCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testTransactionsWithTrackedConnectionState() throws Exception {
+		tm.setTrackConnectionState(true);
+
+		given(con.getAutoCommit()).willReturn(true);
+		given(con.getTransactionIsolation()).willReturn(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+		for (int i = 0; i < 3; i++) {
+			tt.executeWithoutResult(status ->
+					assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isTrue());
+		}
+
+		verify(con, times(1)).getAutoCommit();
+		verify(con, times(1)).getTransactionIsolation();
+		verify(con, times(3)).setTransactionIsolation(TransactionDefinition.ISOLATION_SERIALIZABLE);
+		verify(con, times(3)).setTransactionIsolation(TransactionDefinition.ISOLATION_READ_COMMITTED);
+		verify(con, times(3)).setAutoCommit(false);
+		verify(con, times(3)).setAutoCommit(true);
+		verify(con, times(3)).commit();
+		verify(con, times(3)).close();
+		assertThat(tm.getSkippedConnectionCallCount()).isEqualTo(4);
+	}
+
 	@ParameterizedTest(name = "transaction with {0} second timeout")
 	@ValueSource(ints = {1, 10})
 	@EnabledForTestGroups(LONG_RUNNING)
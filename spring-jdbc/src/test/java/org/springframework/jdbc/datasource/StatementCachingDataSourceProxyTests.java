@@ -0,0 +1,296 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link StatementCachingDataSourceProxy}.
+ */
+class StatementCachingDataSourceProxyTests {
+
+	private final DataSource targetDataSource = mock();
+
+	private final Connection targetConnection = mock();
+
+	private final StatementCachingDataSourceProxy dataSource = new StatementCachingDataSourceProxy(targetDataSource);
+
+
+	@BeforeEach
+	void setup() throws Exception {
+		given(targetDataSource.getConnection()).willReturn(targetConnection);
+		given(targetConnection.prepareStatement("select 1")).willAnswer(invocation -> mock(PreparedStatement.class));
+		given(targetConnection.prepareStatement("select 2")).willAnswer(invocation -> mock(PreparedStatement.class));
+		given(targetConnection.prepareStatement("select 3")).willAnswer(invocation -> mock(PreparedStatement.class));
+	}
+
+
+	@Test
+	void reusesStatementAcrossConnectionHandles() throws Exception {
+		dataSource.setPrepareOnPhysicalConnection(true);
+		Connection con = dataSource.getConnection();
+		PreparedStatement ps = con.prepareStatement("select 1");
+		ps.close();
+		con.close();
+		verify(targetConnection).close();
+
+		con = dataSource.getConnection();
+		ps = con.prepareStatement("select 1");
+		ps.close();
+		con.close();
+
+		verify(targetConnection, times(1)).prepareStatement("select 1");
+		assertThat(dataSource.getCacheHitCount()).isEqualTo(1);
+		assertThat(dataSource.getCacheMissCount()).isEqualTo(1);
+		assertThat(dataSource.getCacheHitRatio()).isEqualTo(0.5);
+		assertThat(dataSource.getCachedStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void closesStatementsWithConnectionHandle() throws Exception {
+		PreparedStatement target = mock();
+		given(targetConnection.prepareStatement("select 4")).willReturn(target);
+
+		Connection con = dataSource.getConnection();
+		con.prepareStatement("select 4").close();
+		con.prepareStatement("select 4").close();
+		verify(target, never()).close();
+		assertThat(dataSource.getCacheHitCount()).isEqualTo(1);
+		con.close();
+
+		verify(target).close();
+		assertThat(dataSource.getCachedStatementCount()).isZero();
+		con = dataSource.getConnection();
+		con.prepareStatement("select 4").close();
+		verify(targetConnection, times(2)).prepareStatement("select 4");
+	}
+
+	@Test
+	void copiesColumnNamesOfStatementKey() throws Exception {
+		String[] columnNames = {"id"};
+		given(targetConnection.prepareStatement("select 1", columnNames))
+				.willAnswer(invocation -> mock(PreparedStatement.class));
+
+		Connection con = dataSource.getConnection();
+		con.prepareStatement("select 1", columnNames).close();
+		columnNames[0] = "name";
+		con.prepareStatement("select 1", new String[] {"id"}).close();
+
+		assertThat(dataSource.getCacheHitCount()).isEqualTo(1);
+		assertThat(dataSource.getCachedStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void closesStatementLogically() throws Exception {
+		PreparedStatement target = mock();
+		given(targetConnection.prepareStatement("select 4")).willReturn(target);
+
+		Connection con = dataSource.getConnection();
+		PreparedStatement ps = con.prepareStatement("select 4");
+		assertThat(ps.getConnection()).isSameAs(con);
+		ps.setInt(1, 5);
+		ps.close();
+
+		assertThat(ps.isClosed()).isTrue();
+		verify(target).setInt(1, 5);
+		verify(target).clearParameters();
+		verify(target, never()).close();
+		assertThatExceptionOfType(SQLException.class).isThrownBy(ps::executeQuery);
+	}
+
+	@Test
+	void keysStatementsByResultSetOptions() throws Exception {
+		given(targetConnection.prepareStatement("select 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY))
+				.willAnswer(invocation -> mock(PreparedStatement.class));
+
+		Connection con = dataSource.getConnection();
+		con.prepareStatement("select 1").close();
+		con.prepareStatement("select 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY).close();
+		con.prepareStatement("select 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY).close();
+
+		assertThat(dataSource.getCacheMissCount()).isEqualTo(2);
+		assertThat(dataSource.getCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void cachesCallableStatements() throws Exception {
+		given(targetConnection.prepareCall("{call proc(?)}")).willAnswer(invocation -> mock(CallableStatement.class));
+
+		Connection con = dataSource.getConnection();
+		CallableStatement cs = con.prepareCall("{call proc(?)}");
+		cs.close();
+		cs = con.prepareCall("{call proc(?)}");
+		cs.close();
+
+		verify(targetConnection, times(1)).prepareCall("{call proc(?)}");
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedStatement() throws Exception {
+		PreparedStatement target = mock();
+		given(targetConnection.prepareStatement("select 4")).willReturn(target);
+		dataSource.setCacheSize(2);
+
+		Connection con = dataSource.getConnection();
+		con.prepareStatement("select 4").close();
+		con.prepareStatement("select 1").close();
+		con.prepareStatement("select 2").close();
+
+		verify(target).close();
+		assertThat(dataSource.getCacheEvictionCount()).isEqualTo(1);
+		assertThat(dataSource.getCachedStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void preparesSeparateStatementWhenInUse() throws Exception {
+		Connection con = dataSource.getConnection();
+		PreparedStatement ps1 = con.prepareStatement("select 1");
+		PreparedStatement ps2 = con.prepareStatement("select 1");
+		ps1.close();
+		ps2.close();
+
+		verify(targetConnection, times(2)).prepareStatement("select 1");
+		assertThat(dataSource.getCachedStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void restoresStatementSettings() throws Exception {
+		PreparedStatement target = mock();
+		given(target.getMaxRows()).willReturn(0);
+		given(target.getFetchSize()).willReturn(10);
+		given(targetConnection.prepareStatement("select 4")).willReturn(target);
+
+		Connection con = dataSource.getConnection();
+		PreparedStatement ps = con.prepareStatement("select 4");
+		ps.setMaxRows(100);
+		ps.setFetchSize(500);
+		ps.close();
+
+		verify(target).setMaxRows(0);
+		verify(target).setFetchSize(10);
+		verify(target, never()).close();
+	}
+
+	@Test
+	void discardsStatementAfterFailedExecution() throws Exception {
+		PreparedStatement target = mock();
+		given(target.executeUpdate()).willThrow(new SQLException("failed"));
+		given(targetConnection.prepareStatement("select 4")).willReturn(target);
+
+		Connection con = dataSource.getConnection();
+		PreparedStatement ps = con.prepareStatement("select 4");
+		assertThatExceptionOfType(SQLException.class).isThrownBy(ps::executeUpdate);
+		ps.close();
+
+		verify(target).close();
+		assertThat(dataSource.getCachedStatementCount()).isZero();
+	}
+
+	@Test
+	void releasesOpenStatementsOnConnectionClose() throws Exception {
+		dataSource.setPrepareOnPhysicalConnection(true);
+		PreparedStatement target = mock();
+		given(targetConnection.prepareStatement("select 4")).willReturn(target);
+
+		Connection con = dataSource.getConnection();
+		PreparedStatement ps = con.prepareStatement("select 4");
+		con.close();
+
+		assertThat(con.isClosed()).isTrue();
+		assertThat(ps.isClosed()).isTrue();
+		verify(target).clearParameters();
+		assertThat(dataSource.getCachedStatementCount()).isEqualTo(1);
+		assertThatExceptionOfType(SQLException.class).isThrownBy(() -> con.prepareStatement("select 4"));
+	}
+
+	@Test
+	void clearStatementCacheClosesIdleStatements() throws Exception {
+		PreparedStatement target = mock();
+		given(targetConnection.prepareStatement("select 4")).willReturn(target);
+
+		Connection con = dataSource.getConnection();
+		con.prepareStatement("select 4").close();
+		dataSource.clearStatementCache();
+
+		verify(target).close();
+		assertThat(dataSource.getCachedStatementCount()).isZero();
+	}
+
+	@Test
+	void poolRollsBackUncommittedWork() throws Exception {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		HikariDataSource pool = new HikariDataSource();
+		pool.setDataSource(database);
+		pool.setMaximumPoolSize(1);
+		try {
+			new JdbcTemplate(database).execute("create table T_TEST (NAME varchar(50))");
+			StatementCachingDataSourceProxy proxy = new StatementCachingDataSourceProxy(pool);
+			try (Connection con = proxy.getConnection()) {
+				con.setAutoCommit(false);
+				for (String name : new String[] {"Keith", "Juergen"}) {
+					try (PreparedStatement ps = con.prepareStatement("insert into T_TEST (NAME) values (?)")) {
+						ps.setString(1, name);
+						ps.executeUpdate();
+					}
+				}
+				// Returned to the pool without commit
+			}
+			assertThat(proxy.getCacheHitCount()).isEqualTo(1);
+			assertThat(proxy.getCachedStatementCount()).isZero();
+			assertThat(new JdbcTemplate(proxy).queryForObject("select count(*) from T_TEST", Integer.class)).isZero();
+		}
+		finally {
+			pool.close();
+			database.shutdown();
+		}
+	}
+
+	@Test
+	void exposesTargetConnection() throws Exception {
+		Connection con = dataSource.getConnection();
+		assertThat(con).isInstanceOf(ConnectionProxy.class);
+		assertThat(((ConnectionProxy) con).getTargetConnection()).isSameAs(targetConnection);
+		assertThat(DataSourceUtils.getTargetConnection(con)).isSameAs(targetConnection);
+	}
+
+}
@@ -16,7 +16,14 @@
 
 package org.springframework.jdbc.datasource.embedded;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.core.io.ClassRelativeResourceLoader;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -167,6 +174,31 @@ public class EmbeddedDatabaseBuilderTests {
 		db2.shutdown();
 	}
 
+	@Test
+	public void takeNewSnapshotForChangedScripts(@TempDir Path snapshotDirectory) throws Exception {
+		snapshotBuilder(EmbeddedDatabaseType.H2, snapshotDirectory).build().shutdown();
+		EmbeddedDatabase db = snapshotBuilder(EmbeddedDatabaseType.H2, snapshotDirectory)
+				.addScript("db-test-data.sql")
+				.build();
+		assertNumRowsInTestTable(new JdbcTemplate(db), 2);
+		db.shutdown();
+		assertThat(listSnapshots(snapshotDirectory)).hasSize(2);
+	}
+
+	private EmbeddedDatabaseBuilder snapshotBuilder(EmbeddedDatabaseType type, Path snapshotDirectory) {
+		return new EmbeddedDatabaseBuilder(new ClassRelativeResourceLoader(getClass()))
+				.generateUniqueName(true)
+				.setType(type)
+				.addScripts("db-schema-without-dropping.sql", "db-test-data.sql")
+				.setSnapshotDirectory(snapshotDirectory);
+	}
+
+	private static List<Path> listSnapshots(Path snapshotDirectory) throws IOException {
+		try (Stream<Path> files = Files.list(snapshotDirectory)) {
+			return files.toList();
+		}
+	}
+
 	private void doTwice(Runnable test) {
 		test.run();
 		test.run();
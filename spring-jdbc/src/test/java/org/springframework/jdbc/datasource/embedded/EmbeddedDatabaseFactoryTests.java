@@ -16,11 +16,20 @@
 
 package org.springframework.jdbc.datasource.embedded;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.SQLException;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.init.DatabasePopulator;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -41,6 +50,61 @@ public class EmbeddedDatabaseFactoryTests {
 		db.shutdown();
 	}
 
+	@ParameterizedTest
+	@EnumSource(EmbeddedDatabaseType.class)
+	public void testRestoreFromSnapshot(EmbeddedDatabaseType type, @TempDir Path snapshotDirectory) {
+		CountingDatabasePopulator populator = new CountingDatabasePopulator();
+		EmbeddedDatabase db1 = createSnapshotFactory(type, snapshotDirectory, populator).getDatabase();
+		EmbeddedDatabase db2 = createSnapshotFactory(type, snapshotDirectory, populator).getDatabase();
+		EmbeddedDatabase db3 = createSnapshotFactory(type, snapshotDirectory, populator).getDatabase();
+		try {
+			assertThat(populator.populateCount).isEqualTo(1);
+			new JdbcTemplate(db2).update("insert into T_TEST (NAME) values ('Juergen')");
+			assertThat(countRows(db1)).isEqualTo(1);
+			assertThat(countRows(db2)).isEqualTo(2);
+			assertThat(countRows(db3)).isEqualTo(1);
+		}
+		finally {
+			db1.shutdown();
+			db2.shutdown();
+			db3.shutdown();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(EmbeddedDatabaseType.class)
+	public void testPopulateIfSnapshotCannotBeRestored(EmbeddedDatabaseType type, @TempDir Path snapshotDirectory)
+			throws Exception {
+
+		CountingDatabasePopulator populator = new CountingDatabasePopulator();
+		EmbeddedDatabaseFactory factory = createSnapshotFactory(type, snapshotDirectory, populator);
+		Files.createDirectories(snapshotDirectory.resolve(type.name().toLowerCase() + "-test"));
+		EmbeddedDatabase db = factory.getDatabase();
+		try {
+			assertThat(populator.populateCount).isEqualTo(1);
+			assertThat(countRows(db)).isEqualTo(1);
+		}
+		finally {
+			db.shutdown();
+		}
+	}
+
+	private static EmbeddedDatabaseFactory createSnapshotFactory(
+			EmbeddedDatabaseType type, Path snapshotDirectory, DatabasePopulator populator) {
+
+		EmbeddedDatabaseFactory factory = new EmbeddedDatabaseFactory();
+		factory.setGenerateUniqueDatabaseName(true);
+		factory.setDatabaseType(type);
+		factory.setDatabasePopulator(populator);
+		factory.setSnapshotDirectory(snapshotDirectory);
+		factory.setSnapshotKey("test");
+		return factory;
+	}
+
+	private static int countRows(EmbeddedDatabase db) {
+		return new JdbcTemplate(db).queryForObject("select count(*) from T_TEST", Integer.class);
+	}
+
 
 	private static class StubDatabasePopulator implements DatabasePopulator {
 
@@ -52,4 +116,20 @@ public class EmbeddedDatabaseFactoryTests {
 		}
 	}
 
+
+	private static class CountingDatabasePopulator implements DatabasePopulator {
+
+		private final ResourceDatabasePopulator scripts = new ResourceDatabasePopulator(
+				new ClassPathResource("db-schema-without-dropping.sql", EmbeddedDatabaseFactoryTests.class),
+				new ClassPathResource("db-test-data.sql", EmbeddedDatabaseFactoryTests.class));
+
+		private int populateCount;
+
+		@Override
+		public void populate(Connection connection) throws SQLException {
+			this.populateCount++;
+			this.scripts.populate(connection);
+		}
+	}
+
 }
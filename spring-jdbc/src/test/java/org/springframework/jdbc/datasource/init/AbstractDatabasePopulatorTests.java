@@ -25,6 +25,7 @@ import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -162,6 +163,39 @@ abstract class AbstractDatabasePopulatorTests extends AbstractDatabaseInitializa
 		assertThat(jdbcTemplate.queryForObject(COUNT_DAVE_SQL, Integer.class)).isEqualTo(1);
 	}
 
+	@Test
+	void scriptWithBatchedStatements() throws Exception {
+		databasePopulator.addScript(defaultSchema());
+		databasePopulator.addScript(resource("db-test-data-multiple.sql"));
+		databasePopulator.setBatchSize(10);
+		DatabasePopulatorUtils.execute(databasePopulator, db);
+		assertThat(jdbcTemplate.queryForObject(COUNT_KEITH_SQL, Integer.class)).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject(COUNT_DAVE_SQL, Integer.class)).isEqualTo(1);
+	}
+
+	@Test
+	void independentScriptsInParallel() throws Exception {
+		DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(defaultSchema(), usersSchema()), db);
+		databasePopulator.addScript(resource("db-test-data.sql"));
+		databasePopulator.addScript(resource("users-data.sql"));
+		databasePopulator.setParallelism(2);
+		DatabasePopulatorUtils.execute(databasePopulator, db);
+		assertTestDatabaseCreated();
+		assertUsersDatabaseCreated("Brannen");
+	}
+
+	@Test
+	void failedScriptInParallel() throws Exception {
+		DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(defaultSchema()), db);
+		databasePopulator.addScript(resource("db-test-data.sql"));
+		databasePopulator.addScript(resource("users-data.sql"));
+		databasePopulator.setParallelism(2);
+		assertThatExceptionOfType(ScriptStatementFailedException.class)
+				.isThrownBy(() -> DatabasePopulatorUtils.execute(databasePopulator, db))
+				.withMessageContaining("users-data.sql");
+		assertTestDatabaseCreated();
+	}
+
 	/**
 	 * See SPR-9457
 	 */
@@ -16,12 +16,20 @@
 
 package org.springframework.jdbc.datasource.init;
 
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.core.io.Resource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
 
 /**
@@ -111,4 +119,46 @@ class ResourceDatabasePopulatorUnitTests {
 		assertThat(databasePopulator.scripts).hasSize(3);
 	}
 
+	@Test
+	void interruptedWhileExecutingInParallel() throws Exception {
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch cancelled = new CountDownLatch(2);
+		DataSource dataSource = mock();
+		given(dataSource.getConnection()).willAnswer(invocation -> {
+			started.countDown();
+			try {
+				new CountDownLatch(1).await();
+			}
+			catch (InterruptedException ex) {
+				cancelled.countDown();
+			}
+			throw new SQLException("Interrupted");
+		});
+		ResourceDatabasePopulator databasePopulator = new ResourceDatabasePopulator(script1, script2);
+		databasePopulator.setParallelism(2);
+		// Interrupt the caller once both scripts are executing
+		Thread caller = Thread.currentThread();
+		Thread interrupter = new Thread(() -> {
+			try {
+				if (started.await(10, TimeUnit.SECONDS)) {
+					caller.interrupt();
+				}
+			}
+			catch (InterruptedException ex) {
+				// ignore
+			}
+		});
+		interrupter.start();
+		try {
+			assertThatExceptionOfType(InterruptedException.class).isThrownBy(() ->
+					databasePopulator.executeInParallel(dataSource));
+			assertThat(Thread.interrupted()).isTrue();
+		}
+		finally {
+			Thread.interrupted();
+			interrupter.join();
+		}
+		assertThat(cancelled.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+
 }
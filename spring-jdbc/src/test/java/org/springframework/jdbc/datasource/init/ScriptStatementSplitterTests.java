@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER;
+import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER;
+import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_COMMENT_PREFIXES;
+
+/**
+ * Unit tests for {@link ScriptStatementSplitter}, verifying that it produces
+ * the same statements as {@link ScriptUtils#readScript} and
+ * {@link ScriptUtils#splitSqlScript}.
+ *
+ * @since 6.1
+ */
+class ScriptStatementSplitterTests {
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', quoteCharacter = '~', textBlock = """
+		db-schema.sql                                             | ;
+		db-test-data-multiple.sql                                 | ;
+		db-test-data-endings.sql                                  | @@
+		db-test-data-whitespace.sql                               | ~/\n~
+		db-test-data-multi-newline.sql                            | ~\n\n~
+		db-test-data-escaped-literal.sql                          | ;
+		db-test-data-mysql-escaped-literal.sql                    | ;
+		test-data-with-comments.sql                               | ;
+		test-data-with-comments-and-leading-tabs.sql              | ;
+		test-data-with-multi-line-comments.sql                    | ;
+		test-data-with-multi-line-nested-comments.sql             | ;
+		users-data-with-single-quotes-nested-in-double-quotes.sql | ;
+		users-schema.sql                                          | ;
+		""")
+	@SuppressWarnings("deprecation")
+	void splitsLikeScriptUtils(String path, String separator) throws Exception {
+		EncodedResource resource = new EncodedResource(new ClassPathResource(path, getClass()));
+		String script = ScriptUtils.readScript(resource, separator, DEFAULT_COMMENT_PREFIXES,
+				DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+		List<String> expected = new ArrayList<>();
+		ScriptUtils.splitSqlScript(resource, script, separator, DEFAULT_COMMENT_PREFIXES,
+				DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, expected);
+
+		String content = FileCopyUtils.copyToString(resource.getReader());
+		assertThat(split(content, separator)).isNotEmpty().isEqualTo(expected);
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void splitsScriptLargerThanBuffer() throws Exception {
+		StringBuilder script = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			script.append("-- row ").append(i).append('\n');
+			script.append("insert into T_TEST (NAME) values ('name ").append(i).append(";')");
+			script.append(" /* block\n comment */;\n");
+		}
+		List<String> expected = new ArrayList<>();
+		String content = ScriptUtils.readScript(new LineNumberReader(new StringReader(script.toString())),
+				DEFAULT_COMMENT_PREFIXES, ";", DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+		ScriptUtils.splitSqlScript(null, content, ";", DEFAULT_COMMENT_PREFIXES,
+				DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, expected);
+
+		List<String> statements = split(script.toString(), ";");
+		assertThat(statements).hasSize(2000).isEqualTo(expected);
+		assertThat(statements.get(1999)).isEqualTo("insert into T_TEST (NAME) values ('name 1999;')");
+	}
+
+	@Test
+	void detectsSeparator() throws Exception {
+		assertThat(containsSeparator("select 1; select 2", ";")).isTrue();
+		assertThat(containsSeparator("select ';'\n-- a;b\nselect 2", ";")).isFalse();
+		assertThat(containsSeparator("select 1\n\nselect 2", "\n\n")).isTrue();
+	}
+
+	@Test
+	void failsOnMissingBlockCommentEndDelimiter() {
+		assertThatExceptionOfType(ScriptParseException.class)
+				.isThrownBy(() -> split("select 1; /* unterminated", ";"))
+				.withMessageContaining("Missing block comment end delimiter");
+	}
+
+
+	private static List<String> split(String script, String separator) throws Exception {
+		List<String> statements = new ArrayList<>();
+		try (ScriptStatementSplitter splitter = createSplitter(script, separator)) {
+			String statement;
+			while ((statement = splitter.nextStatement()) != null) {
+				statements.add(statement);
+			}
+		}
+		return statements;
+	}
+
+	private static boolean containsSeparator(String script, String separator) throws Exception {
+		try (ScriptStatementSplitter splitter = createSplitter(script, separator)) {
+			return splitter.containsSeparator();
+		}
+	}
+
+	private static ScriptStatementSplitter createSplitter(String script, String separator) {
+		return new ScriptStatementSplitter(new StringReader(script), null, separator, separator,
+				DEFAULT_COMMENT_PREFIXES, DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+	}
+
+}
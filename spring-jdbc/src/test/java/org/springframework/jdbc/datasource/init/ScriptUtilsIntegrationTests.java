@@ -16,13 +16,26 @@
 
 package org.springframework.jdbc.datasource.init;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
 import java.sql.SQLException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER;
+import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER;
+import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_COMMENT_PREFIXES;
+import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_STATEMENT_SEPARATOR;
 import static org.springframework.jdbc.datasource.init.ScriptUtils.executeSqlScript;
 
 /**
@@ -59,4 +72,59 @@ public class ScriptUtilsIntegrationTests extends AbstractDatabaseInitializationT
 		assertUsersDatabaseCreated("Hoeller", "Brannen");
 	}
 
+	@Test
+	void executeSqlScriptWithBatchedStatements() throws SQLException {
+		Resource script = new ByteArrayResource("""
+				INSERT INTO users(first_name, last_name) VALUES('Juergen', 'Hoeller');
+				INSERT INTO users(first_name, last_name) VALUES('Sam', 'Brannen');
+				UPDATE users SET first_name = 'Jurgen' WHERE last_name = 'Hoeller';
+				SELECT COUNT(*) FROM users;
+				INSERT INTO users(first_name, last_name) VALUES('Phillip', 'Webb');
+				""".getBytes(StandardCharsets.UTF_8));
+		executeBatched(script, false);
+		assertUsersDatabaseCreated("Hoeller", "Brannen", "Webb");
+		assertThat(jdbcTemplate.queryForObject("select first_name from users where last_name = 'Hoeller'", String.class))
+				.isEqualTo("Jurgen");
+	}
+
+	@Test
+	void executeSqlScriptWithFailureInBatch() throws SQLException {
+		Resource script = new ByteArrayResource("""
+				INSERT INTO users(first_name, last_name) VALUES('Juergen', 'Hoeller');
+				INSERT INTO users(first_name, last_name) VALUES('Sam', NULL);
+				INSERT INTO users(first_name, last_name) VALUES('Phillip', 'Webb');
+				""".getBytes(StandardCharsets.UTF_8));
+		assertThatExceptionOfType(ScriptStatementFailedException.class)
+				.isThrownBy(() -> executeBatched(script, false))
+				.withMessageContaining("statement #2")
+				.withMessageContaining("VALUES('Sam', NULL)");
+	}
+
+	@Test
+	void executeSqlScriptWithFailureInBatchAndContinueOnError() throws SQLException {
+		Resource script = new ByteArrayResource("""
+				INSERT INTO users(first_name, last_name) VALUES('Juergen', 'Hoeller');
+				INSERT INTO users(first_name, last_name) VALUES('Sam', NULL);
+				INSERT INTO users(first_name, last_name) VALUES('Phillip', 'Webb');
+				""".getBytes(StandardCharsets.UTF_8));
+		executeBatched(script, true);
+		assertUsersDatabaseCreated("Hoeller", "Webb");
+	}
+
+	@Test
+	void executeSqlScriptFromInputStream() throws SQLException {
+		Resource script = new InputStreamResource(new ByteArrayInputStream(
+				"INSERT INTO users(first_name, last_name) VALUES('Sam', 'Brannen')".getBytes(StandardCharsets.UTF_8)));
+		executeSqlScript(db.getConnection(), script);
+		assertUsersDatabaseCreated("Brannen");
+	}
+
+	private void executeBatched(Resource script, boolean continueOnError) throws SQLException {
+		try (Connection connection = db.getConnection()) {
+			executeSqlScript(connection, new EncodedResource(script, StandardCharsets.UTF_8), continueOnError, false,
+					DEFAULT_COMMENT_PREFIXES, DEFAULT_STATEMENT_SEPARATOR, DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+					DEFAULT_BLOCK_COMMENT_END_DELIMITER, 2);
+		}
+	}
+
 }
@@ -16,6 +16,12 @@
 
 package org.springframework.jdbc.datasource.init;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,11 +29,19 @@ import org.assertj.core.util.Strings;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.InOrder;
 
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.support.EncodedResource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER;
 import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER;
 import static org.springframework.jdbc.datasource.init.ScriptUtils.DEFAULT_COMMENT_PREFIXES;
@@ -243,6 +257,57 @@ public class ScriptUtilsUnitTests {
 		assertThat(containsSqlScriptDelimiters(script, delimiter)).isEqualTo(expected);
 	}
 
+	@Test
+	void executeBatchedStatementsIndividuallyIfBatchFailsWithContinueOnError() throws Exception {
+		Connection connection = mock();
+		DatabaseMetaData metaData = mock();
+		Statement statement = mock();
+		Savepoint savepoint = mock();
+		given(connection.getMetaData()).willReturn(metaData);
+		given(connection.getAutoCommit()).willReturn(false);
+		given(connection.setSavepoint()).willReturn(savepoint);
+		given(metaData.supportsBatchUpdates()).willReturn(true);
+		given(metaData.supportsSavepoints()).willReturn(true);
+		given(connection.createStatement()).willReturn(statement);
+		given(statement.executeBatch()).willThrow(new SQLException("Batch failed"));
+
+		ScriptUtils.executeSqlScript(connection, batchScript(), true, false, DEFAULT_COMMENT_PREFIXES,
+				DEFAULT_STATEMENT_SEPARATOR, DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, 2);
+
+		InOrder inOrder = inOrder(connection, statement);
+		inOrder.verify(connection).setSavepoint();
+		inOrder.verify(statement).executeBatch();
+		inOrder.verify(connection).rollback(savepoint);
+		inOrder.verify(statement).execute("insert into a values (1)");
+		inOrder.verify(statement).execute("insert into b values (2)");
+		inOrder.verify(connection).releaseSavepoint(savepoint);
+	}
+
+	@Test
+	void skipFailedBatchWithContinueOnErrorIfNotTransactional() throws Exception {
+		Connection connection = mock();
+		DatabaseMetaData metaData = mock();
+		Statement statement = mock();
+		given(connection.getMetaData()).willReturn(metaData);
+		given(connection.getAutoCommit()).willReturn(true);
+		given(metaData.supportsBatchUpdates()).willReturn(true);
+		given(metaData.supportsSavepoints()).willReturn(true);
+		given(connection.createStatement()).willReturn(statement);
+		given(statement.executeBatch()).willThrow(new SQLException("Batch failed"));
+
+		ScriptUtils.executeSqlScript(connection, batchScript(), true, false, DEFAULT_COMMENT_PREFIXES,
+				DEFAULT_STATEMENT_SEPARATOR, DEFAULT_BLOCK_COMMENT_START_DELIMITER, DEFAULT_BLOCK_COMMENT_END_DELIMITER, 2);
+
+		verify(statement).executeBatch();
+		verify(statement, never()).execute(anyString());
+		verify(connection, never()).setSavepoint();
+	}
+
+	private EncodedResource batchScript() {
+		return new EncodedResource(new ByteArrayResource(
+				"insert into a values (1);\ninsert into b values (2);\n".getBytes(StandardCharsets.UTF_8)));
+	}
+
 	private String readScript(String path) throws Exception {
 		EncodedResource resource = new EncodedResource(new ClassPathResource(path, getClass()));
 		return ScriptUtils.readScript(resource, DEFAULT_STATEMENT_SEPARATOR, DEFAULT_COMMENT_PREFIXES,
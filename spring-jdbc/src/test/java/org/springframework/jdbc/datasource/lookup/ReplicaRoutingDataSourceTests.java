@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ReplicaRoutingDataSource}.
+ */
+class ReplicaRoutingDataSourceTests {
+
+	private final Map<String, EmbeddedDatabase> databases = new LinkedHashMap<>();
+
+	private final ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource();
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate readWrite;
+
+	private TransactionTemplate readOnly;
+
+
+	@BeforeEach
+	void setup() {
+		for (String name : new String[] {"primary", "replica1", "replica2"}) {
+			EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.H2)
+					.generateUniqueName(true)
+					.build();
+			JdbcTemplate template = new JdbcTemplate(database);
+			template.execute("CREATE TABLE origin (name VARCHAR(20))");
+			template.update("INSERT INTO origin VALUES (?)", name);
+			this.databases.put(name, database);
+		}
+		this.routingDataSource.setDefaultTargetDataSource(this.databases.get("primary"));
+		setReplicas(this.databases.get("replica1"), this.databases.get("replica2"));
+
+		// Defaults specified, so that no Connection gets fetched on initialization
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+		dataSource.setTargetDataSource(this.routingDataSource);
+		dataSource.setDefaultAutoCommit(true);
+		dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		dataSource.afterPropertiesSet();
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.readWrite = new TransactionTemplate(transactionManager);
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.databases.values().forEach(EmbeddedDatabase::shutdown);
+	}
+
+	private void setReplicas(DataSource replica1, DataSource replica2) {
+		Map<Object, Object> replicas = new LinkedHashMap<>();
+		replicas.put("replica1", replica1);
+		replicas.put("replica2", replica2);
+		this.routingDataSource.setTargetDataSources(replicas);
+		this.routingDataSource.afterPropertiesSet();
+	}
+
+
+	@Test
+	void readWriteTransactionUsesPrimary() {
+		for (int i = 0; i < 4; i++) {
+			assertThat(this.readWrite.execute(status -> queryOrigin())).isEqualTo("primary");
+		}
+		assertThat(queryOrigin()).isEqualTo("primary");
+		assertThat(this.routingDataSource.getPrimaryMetrics().getConnectionCount()).isEqualTo(5);
+		assertThat(this.routingDataSource.getPrimaryMetrics().getActiveConnectionCount()).isZero();
+	}
+
+	@Test
+	void readOnlyTransactionsAreBalancedAcrossReplicas() {
+		Set<String> origins = new HashSet<>();
+		for (int i = 0; i < 10; i++) {
+			origins.add(this.readOnly.execute(status -> queryOrigin()));
+		}
+		assertThat(origins).containsExactlyInAnyOrder("replica1", "replica2");
+		Map<Object, ReplicaRoutingDataSource.TargetMetrics> metrics = this.routingDataSource.getReplicaMetrics();
+		assertThat(metrics.get("replica1").getConnectionCount() + metrics.get("replica2").getConnectionCount())
+				.isEqualTo(10);
+		assertThat(metrics.get("replica1").getActiveConnectionCount()).isZero();
+		assertThat(this.routingDataSource.getPrimaryMetrics().getConnectionCount()).isZero();
+	}
+
+	@Test
+	void leastOutstandingRequestsPicksIdleReplica() {
+		this.readOnly.executeWithoutResult(status -> {
+			try (Connection con1 = this.routingDataSource.getConnection();
+					Connection con2 = this.routingDataSource.getConnection()) {
+				assertThat(originOf(con1)).isNotEqualTo(originOf(con2));
+				Map<Object, ReplicaRoutingDataSource.TargetMetrics> metrics = this.routingDataSource.getReplicaMetrics();
+				assertThat(metrics.get("replica1").getActiveConnectionCount()).isEqualTo(1);
+				assertThat(metrics.get("replica2").getActiveConnectionCount()).isEqualTo(1);
+			}
+			catch (SQLException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+	}
+
+	@Test
+	void latencyEwmaPrefersFasterReplica() throws Exception {
+		this.routingDataSource.setLoadBalancingStrategy(ReplicaRoutingDataSource.LoadBalancingStrategy.LATENCY_EWMA);
+		this.readOnly.executeWithoutResult(status -> {
+			try {
+				for (int i = 0; i < 2; i++) {
+					Connection con = this.routingDataSource.getConnection();
+					if (originOf(con).equals("replica1")) {
+						Thread.sleep(50);
+					}
+					con.close();
+				}
+				for (int i = 0; i < 5; i++) {
+					try (Connection con = this.routingDataSource.getConnection()) {
+						assertThat(originOf(con)).isEqualTo("replica2");
+					}
+				}
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		assertThat(this.routingDataSource.getReplicaMetrics().get("replica1").getLatencyEwma())
+				.isGreaterThanOrEqualTo(Duration.ofMillis(50));
+	}
+
+	@Test
+	void failingReplicaIsEjected() throws Exception {
+		DataSource failing = mock();
+		given(failing.getConnection()).willThrow(new SQLException("replica down"));
+		setReplicas(failing, this.databases.get("replica2"));
+		this.routingDataSource.setFailureThreshold(2);
+		this.routingDataSource.setEjectionPeriod(Duration.ofMinutes(1));
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(this.readOnly.execute(status -> queryOrigin())).isEqualTo("replica2");
+		}
+
+		ReplicaRoutingDataSource.TargetMetrics metrics = this.routingDataSource.getReplicaMetrics().get("replica1");
+		assertThat(metrics.isEjected()).isTrue();
+		assertThat(metrics.getEjectionCount()).isEqualTo(1);
+		assertThat(metrics.getFailureCount()).isEqualTo(2);
+	}
+
+	@Test
+	void fallsBackToPrimaryWithoutAvailableReplica() throws Exception {
+		DataSource failing = mock();
+		given(failing.getConnection()).willThrow(new SQLException("replica down"));
+		setReplicas(failing, failing);
+
+		assertThat(this.readOnly.execute(status -> queryOrigin())).isEqualTo("primary");
+
+		this.routingDataSource.setFallbackToPrimary(false);
+		assertThatExceptionOfType(Exception.class).isThrownBy(() -> this.readOnly.execute(status -> queryOrigin()));
+	}
+
+	@Test
+	void exposesTargetConnection() throws Exception {
+		try (Connection con = this.routingDataSource.getConnection()) {
+			assertThat(con).isInstanceOf(ConnectionProxy.class);
+			assertThat(((ConnectionProxy) con).getTargetConnection()).isNotSameAs(con);
+			assertThat(this.routingDataSource.getPrimaryMetrics().getActiveConnectionCount()).isEqualTo(1);
+		}
+		assertThat(this.routingDataSource.getPrimaryMetrics().getActiveConnectionCount()).isZero();
+	}
+
+
+	private String queryOrigin() {
+		return this.jdbcTemplate.queryForObject("SELECT name FROM origin", String.class);
+	}
+
+	private static String originOf(Connection con) {
+		return new JdbcTemplate(new SingleConnectionDataSource(con, true))
+				.queryForObject("SELECT name FROM origin", String.class);
+	}
+
+}
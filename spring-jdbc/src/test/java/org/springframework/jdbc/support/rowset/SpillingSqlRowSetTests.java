@@ -0,0 +1,242 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.rowset;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.jdbc.InvalidResultSetAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SpillingSqlRowSetResultSetExtractor;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link SpillingSqlRowSet}.
+ */
+class SpillingSqlRowSetTests {
+
+	private static final int ROW_COUNT = 100;
+
+	private static final String QUERY = "SELECT * FROM item ORDER BY id";
+
+	@TempDir
+	Path directory;
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+
+	@BeforeEach
+	void setup() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("CREATE TABLE item (id INTEGER, big BIGINT, name VARCHAR(50), " +
+				"price DECIMAL(10, 2), ratio DOUBLE, flag BOOLEAN, created TIMESTAMP, due DATE, data VARBINARY(10))");
+		this.jdbcTemplate.update("INSERT INTO item SELECT X, X * 1000000000, " +
+				"CASE WHEN MOD(X, 10) = 0 THEN NULL ELSE 'item' || X END, X / 100.0, X / 3.0, MOD(X, 2) = 0, " +
+				"TIMESTAMP '2023-01-01 12:00:00.123456789' + X * INTERVAL '1' HOUR, " +
+				"DATEADD(DAY, X, DATE '2023-01-01'), CAST(X AS VARBINARY) FROM SYSTEM_RANGE(1, ?)", ROW_COUNT);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void smallResultIsKeptInMemory() {
+		try (SpillingSqlRowSet rowSet = query(7, ROW_COUNT)) {
+			assertThat(rowSet.isSpilled()).isFalse();
+			assertSameRows(rowSet);
+		}
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	void largeResultIsSpilled() {
+		SpillingSqlRowSet rowSet = query(7, 10);
+		assertThat(rowSet.isSpilled()).isTrue();
+		assertThat(rowSet.getRowCount()).isEqualTo(ROW_COUNT);
+		assertSameRows(rowSet);
+		rowSet.close();
+		assertThat(spillFiles()).isEmpty();
+	}
+
+	@Test
+	void resultOfExactlyOnePage() {
+		SpillingSqlRowSet rowSet = query(ROW_COUNT, 0);
+		assertThat(rowSet.isSpilled()).isTrue();
+		assertSameRows(rowSet);
+		rowSet.close();
+	}
+
+	@Test
+	void navigation() {
+		try (SpillingSqlRowSet rowSet = query(7, 10)) {
+			assertThat(rowSet.isBeforeFirst()).isTrue();
+			assertThat(rowSet.getRow()).isZero();
+			assertThat(rowSet.previous()).isFalse();
+			assertThat(rowSet.isBeforeFirst()).isTrue();
+
+			assertThat(rowSet.last()).isTrue();
+			assertThat(rowSet.isLast()).isTrue();
+			assertThat(rowSet.getInt("id")).isEqualTo(ROW_COUNT);
+			assertThat(rowSet.next()).isFalse();
+			assertThat(rowSet.isAfterLast()).isTrue();
+			assertThat(rowSet.getRow()).isZero();
+			assertThat(rowSet.next()).isFalse();
+			assertThat(rowSet.previous()).isTrue();
+			assertThat(rowSet.getInt("id")).isEqualTo(ROW_COUNT);
+
+			assertThat(rowSet.absolute(-3)).isTrue();
+			assertThat(rowSet.getRow()).isEqualTo(ROW_COUNT - 2);
+			assertThat(rowSet.relative(-50)).isTrue();
+			assertThat(rowSet.getInt(1)).isEqualTo(ROW_COUNT - 52);
+			assertThat(rowSet.relative(-1000)).isFalse();
+			assertThat(rowSet.isBeforeFirst()).isTrue();
+			assertThat(rowSet.relative(1000)).isFalse();
+			assertThat(rowSet.isAfterLast()).isTrue();
+			assertThat(rowSet.absolute(0)).isFalse();
+			assertThat(rowSet.first()).isTrue();
+			assertThat(rowSet.isFirst()).isTrue();
+
+			// Move back and forth across a page boundary
+			for (int i = 0; i < 5; i++) {
+				assertThat(rowSet.absolute(7)).isTrue();
+				assertThat(rowSet.getInt(1)).isEqualTo(7);
+				assertThat(rowSet.next()).isTrue();
+				assertThat(rowSet.getInt(1)).isEqualTo(8);
+			}
+
+			rowSet.afterLast();
+			while (rowSet.previous()) {
+				assertThat(rowSet.getInt("ID")).isEqualTo(rowSet.getRow());
+			}
+		}
+	}
+
+	@Test
+	void valueConversion() {
+		try (SpillingSqlRowSet rowSet = query(7, 10)) {
+			rowSet.absolute(10);
+			assertThat(rowSet.getString("name")).isNull();
+			assertThat(rowSet.wasNull()).isTrue();
+			assertThat(rowSet.getString("id")).isEqualTo("10");
+			assertThat(rowSet.wasNull()).isFalse();
+			assertThat(rowSet.getLong("price")).isZero();
+			assertThat(rowSet.getBigDecimal("price")).isEqualTo(new BigDecimal("0.10"));
+			assertThat(rowSet.getBoolean("flag")).isTrue();
+			assertThat(rowSet.getObject("due", LocalDate.class)).isEqualTo(LocalDate.of(2023, 1, 11));
+			assertThat(rowSet.getTimestamp("created").getNanos()).isEqualTo(123457000);
+			assertThat(rowSet.getObject("id", Long.class)).isEqualTo(10L);
+			assertThatExceptionOfType(InvalidResultSetAccessException.class)
+					.isThrownBy(() -> rowSet.getInt("due"));
+			assertThatExceptionOfType(InvalidResultSetAccessException.class)
+					.isThrownBy(() -> rowSet.getInt("missing"));
+			assertThatExceptionOfType(InvalidResultSetAccessException.class)
+					.isThrownBy(() -> rowSet.getInt(10));
+			rowSet.afterLast();
+			assertThatExceptionOfType(InvalidResultSetAccessException.class)
+					.isThrownBy(() -> rowSet.getInt(1));
+		}
+	}
+
+	@Test
+	void metaDataIsDisconnected() {
+		try (SpillingSqlRowSet rowSet = query(7, 10)) {
+			SqlRowSetMetaData metaData = rowSet.getMetaData();
+			assertThat(metaData.getColumnCount()).isEqualTo(9);
+			assertThat(metaData.getColumnLabel(3)).isEqualTo("NAME");
+			assertThat(metaData.getTableName(1)).isEqualTo("ITEM");
+			assertThat(metaData.getScale(4)).isEqualTo(2);
+		}
+	}
+
+	@Test
+	void notSerializable() {
+		try (SpillingSqlRowSet rowSet = query(7, ROW_COUNT)) {
+			assertThatExceptionOfType(NotSerializableException.class).isThrownBy(() ->
+					new ObjectOutputStream(new ByteArrayOutputStream()).writeObject(rowSet));
+		}
+	}
+
+
+	private SpillingSqlRowSet query(int pageSize, int maxInMemoryRows) {
+		SpillingSqlRowSetResultSetExtractor extractor = new SpillingSqlRowSetResultSetExtractor();
+		extractor.setPageSize(pageSize);
+		extractor.setMaxInMemoryRows(maxInMemoryRows);
+		extractor.setDirectory(this.directory);
+		return (SpillingSqlRowSet) this.jdbcTemplate.query(QUERY, extractor);
+	}
+
+	private void assertSameRows(SqlRowSet rowSet) {
+		SqlRowSet expected = this.jdbcTemplate.queryForRowSet(QUERY);
+		int columnCount = expected.getMetaData().getColumnCount();
+		int rows = 0;
+		while (expected.next()) {
+			assertThat(rowSet.next()).isTrue();
+			assertThat(rowSet.getRow()).isEqualTo(expected.getRow());
+			for (int i = 1; i <= columnCount; i++) {
+				assertThat(rowSet.getObject(i)).as("column " + i).isEqualTo(expected.getObject(i));
+				if (!(expected.getObject(i) instanceof byte[])) {
+					assertThat(rowSet.getString(i)).as("column " + i).isEqualTo(expected.getString(i));
+				}
+			}
+			assertThat(rowSet.getTimestamp("created")).isEqualTo(expected.getTimestamp("created"));
+			assertThat(rowSet.getDate("due")).isEqualTo(expected.getDate("due"));
+			assertThat(rowSet.getDouble("ratio")).isEqualTo(expected.getDouble("ratio"));
+			assertThat(rowSet.getTimestamp("created")).isInstanceOf(Timestamp.class);
+			rows++;
+		}
+		assertThat(rowSet.next()).isFalse();
+		assertThat(rows).isEqualTo(ROW_COUNT);
+	}
+
+	private List<Path> spillFiles() {
+		try (Stream<Path> files = Files.list(this.directory)) {
+			return files.toList();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -22,7 +22,6 @@ import java.util.List;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
 import org.springframework.messaging.handler.annotation.support.MessageHandlerMethodFactory;
@@ -57,7 +56,7 @@ public class JmsListenerEndpointRegistrar implements BeanFactoryAware, Initializ
 
 	private boolean startImmediately;
 
-	private Object mutex = this.endpointDescriptors;
+	private final Object mutex = this.endpointDescriptors;
 
 
 	/**
@@ -124,9 +123,6 @@ public class JmsListenerEndpointRegistrar implements BeanFactoryAware, Initializ
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
-		if (beanFactory instanceof ConfigurableBeanFactory cbf) {
-			this.mutex = cbf.getSingletonMutex();
-		}
 	}
 
 
@@ -137,13 +133,17 @@ public class JmsListenerEndpointRegistrar implements BeanFactoryAware, Initializ
 
 	protected void registerAllEndpoints() {
 		Assert.state(this.endpointRegistry != null, "No JmsListenerEndpointRegistry set");
+		List<JmsListenerEndpointDescriptor> descriptors;
 		synchronized (this.mutex) {
-			for (JmsListenerEndpointDescriptor descriptor : this.endpointDescriptors) {
-				this.endpointRegistry.registerListenerContainer(
-						descriptor.endpoint, resolveContainerFactory(descriptor));
-			}
+			descriptors = new ArrayList<>(this.endpointDescriptors);
 			this.startImmediately = true;  // trigger immediate startup
 		}
+		// Resolve container factory beans outside of the lock: the bean factory
+		// may have to wait for a singleton whose creation registers an endpoint.
+		for (JmsListenerEndpointDescriptor descriptor : descriptors) {
+			this.endpointRegistry.registerListenerContainer(
+					descriptor.endpoint, resolveContainerFactory(descriptor));
+		}
 	}
 
 	private JmsListenerContainerFactory<?> resolveContainerFactory(JmsListenerEndpointDescriptor descriptor) {
@@ -180,16 +180,18 @@ public class JmsListenerEndpointRegistrar implements BeanFactoryAware, Initializ
 		// Factory may be null, we defer the resolution right before actually creating the container
 		JmsListenerEndpointDescriptor descriptor = new JmsListenerEndpointDescriptor(endpoint, factory);
 
+		boolean startImmediately;
 		synchronized (this.mutex) {
-			if (this.startImmediately) {  // register and start immediately
-				Assert.state(this.endpointRegistry != null, "No JmsListenerEndpointRegistry set");
-				this.endpointRegistry.registerListenerContainer(descriptor.endpoint,
-						resolveContainerFactory(descriptor), true);
-			}
-			else {
+			startImmediately = this.startImmediately;
+			if (!startImmediately) {
 				this.endpointDescriptors.add(descriptor);
 			}
 		}
+		if (startImmediately) {  // register and start immediately
+			Assert.state(this.endpointRegistry != null, "No JmsListenerEndpointRegistry set");
+			this.endpointRegistry.registerListenerContainer(descriptor.endpoint,
+					resolveContainerFactory(descriptor), true);
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.messaging.simp.broker;
 
+import java.util.Collections;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.IntStream;
 
 import org.openjdk.jmh.annotations.Benchmark;
@@ -32,6 +34,7 @@ import org.openjdk.jmh.infra.Blackhole;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.util.MultiValueMap;
 
@@ -52,7 +55,10 @@ public class DefaultSubscriptionRegistryBenchmark {
 		@Param({"none", "patternSubscriptions", "selectorHeaders"})
 		String specialization;
 
-		public DefaultSubscriptionRegistry registry;
+		@Param({"default", "trie"})
+		String registryType;
+
+		public AbstractSubscriptionRegistry registry;
 
 		public String[] destinationIds;
 
@@ -67,9 +73,18 @@ public class DefaultSubscriptionRegistryBenchmark {
 			this.findMessage = MessageBuilder.createMessage("",  SimpMessageHeaderAccessor.create().getMessageHeaders());
 			this.uniqueIdGenerator = new AtomicInteger();
 
-			this.registry = new DefaultSubscriptionRegistry();
-			this.registry.setCacheLimit(this.cacheSizeLimit);
-			this.registry.setSelectorHeaderName("selectorHeaders".equals(this.specialization) ? "someSelector" : null);
+			String selectorHeaderName = ("selectorHeaders".equals(this.specialization) ? "someSelector" : null);
+			if ("trie".equals(this.registryType)) {
+				TrieSubscriptionRegistry trieRegistry = new TrieSubscriptionRegistry();
+				trieRegistry.setSelectorHeaderName(selectorHeaderName);
+				this.registry = trieRegistry;
+			}
+			else {
+				DefaultSubscriptionRegistry defaultRegistry = new DefaultSubscriptionRegistry();
+				defaultRegistry.setCacheLimit(this.cacheSizeLimit);
+				defaultRegistry.setSelectorHeaderName(selectorHeaderName);
+				this.registry = defaultRegistry;
+			}
 
 			this.destinationIds = IntStream.range(0, this.destinations)
 					.mapToObj(i -> "/some/destination/" + i)
@@ -157,6 +172,44 @@ public class DefaultSubscriptionRegistryBenchmark {
 		}
 	}
 
+	@State(Scope.Benchmark)
+	public static class BroadcastState {
+		@Param({"1000", "20000"})
+		public int subscribers;
+
+		@Param({"1", "100"})
+		public int broadcastBatchSize;
+
+		public SimpleBrokerMessageHandler broker;
+
+		public Message<?> broadcastMessage;
+
+		public LongAdder delivered;
+
+		@Setup(Level.Trial)
+		public void doSetup() {
+			this.delivered = new LongAdder();
+			ExecutorSubscribableChannel clientOutboundChannel = new ExecutorSubscribableChannel(Runnable::run);
+			clientOutboundChannel.subscribe(message -> this.delivered.increment());
+			this.broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(),
+					clientOutboundChannel, new ExecutorSubscribableChannel(), Collections.emptyList());
+			this.broker.setBroadcastBatchSize(this.broadcastBatchSize);
+			this.broker.start();
+
+			for (int i = 0; i < this.subscribers; i++) {
+				String sessionId = "sessionId_" + i;
+				SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+				accessor.setSessionId(sessionId);
+				this.broker.handleMessage(MessageBuilder.createMessage("", accessor.getMessageHeaders()));
+				this.broker.handleMessage(subscribeMessage(sessionId, "subscription_" + i, "/topic/broadcast"));
+			}
+
+			SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+			accessor.setDestination("/topic/broadcast");
+			this.broadcastMessage = MessageBuilder.createMessage("payload".getBytes(), accessor.getMessageHeaders());
+		}
+	}
+
 	@Benchmark
 	public void registerUnregister(ServerState serverState, Requests request, Blackhole blackhole) {
 		serverState.registry.registerSubscription(request.subscribe);
@@ -170,6 +223,12 @@ public class DefaultSubscriptionRegistryBenchmark {
 		return serverState.registry.findSubscriptionsInternal(request.destination, serverState.findMessage);
 	}
 
+	@Benchmark
+	public long broadcast(BroadcastState broadcastState) {
+		broadcastState.broker.handleMessage(broadcastState.broadcastMessage);
+		return broadcastState.delivered.sum();
+	}
+
 	public static Message<?> subscribeMessage(String sessionId, String subscriptionId, String dest) {
 		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
 		accessor.setSessionId(sessionId);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,16 @@ package org.springframework.messaging.simp.broker;
 
 import java.security.Principal;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
@@ -31,6 +36,7 @@ import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.SubscribableChannel;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.messaging.support.MessageHeaderInitializer;
@@ -44,6 +50,11 @@ import org.springframework.util.PathMatcher;
  * {@link SimpMessageType}, keeps track of subscriptions with the help of a
  * {@link SubscriptionRegistry} and sends messages to subscribers.
  *
+ * <p>When a message is broadcast to many subscribers, deliveries can be handed
+ * to the client outbound channel in batches, see {@link #setBroadcastBatchSize},
+ * and the time taken to fan out messages can be tracked per destination, see
+ * {@link #setFanOutStatsEnabled}.
+ *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
  * @since 4.0
@@ -52,6 +63,12 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 
 	private static final byte[] EMPTY_PAYLOAD = new byte[0];
 
+	/**
+	 * The maximum number of destinations to keep fan-out stats for.
+	 * @since 6.1
+	 */
+	public static final int FAN_OUT_STATS_LIMIT = 1024;
+
 
 	@Nullable
 	private PathMatcher pathMatcher;
@@ -71,11 +88,17 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	@Nullable
 	private MessageHeaderInitializer headerInitializer;
 
+	private int broadcastBatchSize = 1;
+
+	private boolean fanOutStatsEnabled;
+
 
 	private SubscriptionRegistry subscriptionRegistry;
 
 	private final Map<String, SessionInfo> sessions = new ConcurrentHashMap<>();
 
+	private final Map<String, DefaultFanOutStats> fanOutStats = new ConcurrentHashMap<>();
+
 	@Nullable
 	private ScheduledFuture<?> heartbeatFuture;
 
@@ -101,7 +124,10 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	 * <p><strong>Note</strong> that when a custom PathMatcher is configured via
 	 * {@link #setPathMatcher}, if the custom registry is not an instance of
 	 * {@link DefaultSubscriptionRegistry}, the provided PathMatcher is not used
-	 * and must be configured directly on the custom registry.
+	 * and must be configured directly on the custom registry. The exception is a
+	 * {@link TrieSubscriptionRegistry} which is replaced with a
+	 * {@code DefaultSubscriptionRegistry} in that case, since it only supports
+	 * its own Ant-style matching with the separator configured on it.
 	 */
 	public void setSubscriptionRegistry(SubscriptionRegistry subscriptionRegistry) {
 		Assert.notNull(subscriptionRegistry, "SubscriptionRegistry must not be null");
@@ -119,6 +145,10 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	 * When configured, the given PathMatcher is passed down to the underlying
 	 * SubscriptionRegistry to use for matching destination to subscriptions.
 	 * <p>Default is a standard {@link org.springframework.util.AntPathMatcher}.
+	 * <p>If a {@link TrieSubscriptionRegistry} is in use, it is replaced with a
+	 * {@link DefaultSubscriptionRegistry} for the given PathMatcher. To use the
+	 * trie with "." as separator, configure
+	 * {@link TrieSubscriptionRegistry#setPathSeparator} instead.
 	 * @since 4.1
 	 * @see #setSubscriptionRegistry
 	 * @see DefaultSubscriptionRegistry#setPathMatcher
@@ -130,6 +160,15 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	}
 
 	private void initPathMatcherToUse() {
+		if (this.pathMatcher != null && this.subscriptionRegistry instanceof TrieSubscriptionRegistry) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Using DefaultSubscriptionRegistry instead of TrieSubscriptionRegistry " +
+						"for custom PathMatcher " + this.pathMatcher);
+			}
+			this.subscriptionRegistry = new DefaultSubscriptionRegistry();
+			initCacheLimitToUse();
+			initSelectorHeaderNameToUse();
+		}
 		if (this.pathMatcher != null && this.subscriptionRegistry instanceof DefaultSubscriptionRegistry) {
 			((DefaultSubscriptionRegistry) this.subscriptionRegistry).setPathMatcher(this.pathMatcher);
 		}
@@ -181,6 +220,9 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		if (this.subscriptionRegistry instanceof DefaultSubscriptionRegistry) {
 			((DefaultSubscriptionRegistry) this.subscriptionRegistry).setSelectorHeaderName(this.selectorHeaderName);
 		}
+		else if (this.subscriptionRegistry instanceof TrieSubscriptionRegistry) {
+			((TrieSubscriptionRegistry) this.subscriptionRegistry).setSelectorHeaderName(this.selectorHeaderName);
+		}
 	}
 
 	/**
@@ -250,6 +292,62 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		return this.headerInitializer;
 	}
 
+	/**
+	 * Configure the maximum number of messages to hand to the client outbound
+	 * channel at once when broadcasting a message to its subscribers.
+	 * <p>If the client outbound channel is an {@link ExecutorSubscribableChannel}
+	 * with an executor, each batch is then handled as a single task rather than
+	 * as one task per subscriber, which reduces the scheduling overhead when a
+	 * destination has many subscribers. Batching does not apply when
+	 * {@link #setPreservePublishOrder preservePublishOrder} is enabled.
+	 * <p>By default this is set to 1, i.e. messages are sent one at a time.
+	 * @param broadcastBatchSize the maximum number of messages per batch
+	 * @since 6.1
+	 * @see ExecutorSubscribableChannel#sendAll
+	 */
+	public void setBroadcastBatchSize(int broadcastBatchSize) {
+		Assert.isTrue(broadcastBatchSize > 0, "Broadcast batch size must be greater than 0");
+		this.broadcastBatchSize = broadcastBatchSize;
+	}
+
+	/**
+	 * Return the configured broadcast batch size.
+	 * @since 6.1
+	 */
+	public int getBroadcastBatchSize() {
+		return this.broadcastBatchSize;
+	}
+
+	/**
+	 * Whether to keep track of the number of messages broadcast to each
+	 * destination and of the time taken to fan them out to subscribers, i.e. to
+	 * find the subscriptions and hand the messages to the client outbound channel.
+	 * <p>Stats are kept for up to {@link #FAN_OUT_STATS_LIMIT} destinations.
+	 * <p>By default this is set to {@code false}.
+	 * @since 6.1
+	 * @see #getFanOutStats()
+	 */
+	public void setFanOutStatsEnabled(boolean fanOutStatsEnabled) {
+		this.fanOutStatsEnabled = fanOutStatsEnabled;
+	}
+
+	/**
+	 * Whether fan-out stats are collected.
+	 * @since 6.1
+	 */
+	public boolean isFanOutStatsEnabled() {
+		return this.fanOutStatsEnabled;
+	}
+
+	/**
+	 * Return the fan-out stats collected so far, keyed by destination.
+	 * @since 6.1
+	 * @see #setFanOutStatsEnabled
+	 */
+	public Map<String, FanOutStats> getFanOutStats() {
+		return Collections.unmodifiableMap(this.fanOutStats);
+	}
+
 
 	@Override
 	public void startInternal() {
@@ -387,25 +485,42 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	}
 
 	protected void sendMessageToSubscribers(@Nullable String destination, Message<?> message) {
+		long startTime = (this.fanOutStatsEnabled ? System.nanoTime() : 0);
 		MultiValueMap<String,String> subscriptions = this.subscriptionRegistry.findSubscriptions(message);
 		if (!subscriptions.isEmpty() && logger.isDebugEnabled()) {
 			logger.debug("Broadcasting to " + subscriptions.size() + " sessions.");
 		}
 		long now = System.currentTimeMillis();
-		subscriptions.forEach((sessionId, subscriptionIds) -> {
-			for (String subscriptionId : subscriptionIds) {
-				SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
-				initHeaders(headerAccessor);
-				headerAccessor.setSessionId(sessionId);
-				headerAccessor.setSubscriptionId(subscriptionId);
-				headerAccessor.copyHeadersIfAbsent(message.getHeaders());
-				headerAccessor.setLeaveMutable(true);
-				Object payload = message.getPayload();
-				Message<?> reply = MessageBuilder.createMessage(payload, headerAccessor.getMessageHeaders());
+		int deliveries;
+		if (this.broadcastBatchSize > 1 && !isPreservePublishOrder() &&
+				getClientOutboundChannel() instanceof ExecutorSubscribableChannel channel) {
+			deliveries = sendInBatches(channel, subscriptions, message, now);
+		}
+		else {
+			deliveries = send(subscriptions, message, now);
+		}
+		if (this.fanOutStatsEnabled && destination != null) {
+			DefaultFanOutStats stats = this.fanOutStats.get(destination);
+			if (stats == null && this.fanOutStats.size() < FAN_OUT_STATS_LIMIT) {
+				stats = this.fanOutStats.computeIfAbsent(destination, key -> new DefaultFanOutStats());
+			}
+			if (stats != null) {
+				stats.record(deliveries, System.nanoTime() - startTime);
+			}
+		}
+	}
+
+	private int send(MultiValueMap<String, String> subscriptions, Message<?> message, long now) {
+		int deliveries = 0;
+		for (Map.Entry<String, List<String>> entry : subscriptions.entrySet()) {
+			String sessionId = entry.getKey();
+			for (String subscriptionId : entry.getValue()) {
 				SessionInfo info = this.sessions.get(sessionId);
 				if (info != null) {
+					Message<?> reply = createMessageForSubscriber(message, sessionId, subscriptionId);
 					try {
 						info.getClientOutboundChannel().send(reply);
+						deliveries++;
 					}
 					catch (Throwable ex) {
 						if (logger.isErrorEnabled()) {
@@ -417,7 +532,47 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 					}
 				}
 			}
-		});
+		}
+		return deliveries;
+	}
+
+	private int sendInBatches(ExecutorSubscribableChannel channel,
+			MultiValueMap<String, String> subscriptions, Message<?> message, long now) {
+
+		int deliveries = 0;
+		List<Message<?>> batch = new ArrayList<>(Math.min(this.broadcastBatchSize, subscriptions.size()));
+		for (Map.Entry<String, List<String>> entry : subscriptions.entrySet()) {
+			String sessionId = entry.getKey();
+			SessionInfo info = this.sessions.get(sessionId);
+			if (info == null) {
+				continue;
+			}
+			for (String subscriptionId : entry.getValue()) {
+				batch.add(createMessageForSubscriber(message, sessionId, subscriptionId));
+				if (batch.size() == this.broadcastBatchSize) {
+					channel.sendAll(batch);
+					deliveries += batch.size();
+					batch = new ArrayList<>(this.broadcastBatchSize);
+				}
+			}
+			info.setLastWriteTime(now);
+		}
+		if (!batch.isEmpty()) {
+			channel.sendAll(batch);
+			deliveries += batch.size();
+		}
+		return deliveries;
+	}
+
+	private Message<?> createMessageForSubscriber(Message<?> message, String sessionId, String subscriptionId) {
+		SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		initHeaders(headerAccessor);
+		headerAccessor.setSessionId(sessionId);
+		headerAccessor.setSubscriptionId(subscriptionId);
+		headerAccessor.copyHeadersIfAbsent(message.getHeaders());
+		headerAccessor.setLeaveMutable(true);
+		// The payload is shared, as is, across all subscribers
+		return MessageBuilder.createMessage(message.getPayload(), headerAccessor.getMessageHeaders());
 	}
 
 	@Override
@@ -505,6 +660,81 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	}
 
 
+	/**
+	 * Fan-out stats for a destination.
+	 * @since 6.1
+	 * @see #getFanOutStats()
+	 */
+	public interface FanOutStats {
+
+		/**
+		 * The number of messages broadcast to the destination.
+		 */
+		long getMessageCount();
+
+		/**
+		 * The total number of messages sent to subscribers of the destination.
+		 */
+		long getDeliveryCount();
+
+		/**
+		 * The average time taken to fan out a message, in nanoseconds.
+		 */
+		long getAverageFanOutTime();
+
+		/**
+		 * The longest time taken to fan out a message, in nanoseconds.
+		 */
+		long getMaxFanOutTime();
+	}
+
+
+	private static class DefaultFanOutStats implements FanOutStats {
+
+		private final LongAdder messages = new LongAdder();
+
+		private final LongAdder deliveries = new LongAdder();
+
+		private final LongAdder totalTime = new LongAdder();
+
+		private final AtomicLong maxTime = new AtomicLong();
+
+		void record(int deliveries, long time) {
+			this.messages.increment();
+			this.deliveries.add(deliveries);
+			this.totalTime.add(time);
+			this.maxTime.accumulateAndGet(time, Math::max);
+		}
+
+		@Override
+		public long getMessageCount() {
+			return this.messages.sum();
+		}
+
+		@Override
+		public long getDeliveryCount() {
+			return this.deliveries.sum();
+		}
+
+		@Override
+		public long getAverageFanOutTime() {
+			long count = this.messages.sum();
+			return (count > 0 ? this.totalTime.sum() / count : 0);
+		}
+
+		@Override
+		public long getMaxFanOutTime() {
+			return this.maxTime.get();
+		}
+
+		@Override
+		public String toString() {
+			return "messages=" + getMessageCount() + ", deliveries=" + getDeliveryCount() +
+					", avgFanOutTime=" + getAverageFanOutTime() + "ns, maxFanOutTime=" + getMaxFanOutTime() + "ns";
+		}
+	}
+
+
 	private class HeartbeatTask implements Runnable {
 
 		@Override
@@ -0,0 +1,490 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp.broker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Implementation of {@link SubscriptionRegistry} that indexes subscriptions
+ * with destination patterns in a trie of destination segments, as an
+ * alternative to {@link DefaultSubscriptionRegistry} for applications with
+ * many pattern subscriptions or many distinct destinations.
+ *
+ * <p>Subscriptions to plain destinations are looked up by destination, and
+ * subscriptions with Ant-style patterns are organized by their segments, with
+ * literal segments, single segment wildcards such as {@code *}, and {@code **}
+ * for any number of segments. Finding the subscriptions for a destination
+ * therefore depends on the number of segments of the destination, and on the
+ * patterns that actually match, rather than on the total number of
+ * subscriptions. There is no cache of resolved destinations to invalidate:
+ * subscribing and unsubscribing only update the trie nodes of the subscription
+ * destination, and lookups do not acquire any locks.
+ *
+ * <p>Patterns are matched with the same semantics as an {@link AntPathMatcher}
+ * configured with the {@link #setPathSeparator path separator} of this registry.
+ * Patterns with segments other than literals, {@code *} and {@code **}, such as
+ * {@code /topic/price.*} or {@code /topic/{id}}, are narrowed down through the
+ * trie and then checked with the {@code AntPathMatcher}. A custom
+ * {@link org.springframework.util.PathMatcher} is not supported: when one is set
+ * on {@link SimpleBrokerMessageHandler}, it falls back to a
+ * {@code DefaultSubscriptionRegistry}.
+ *
+ * <p>Like {@link DefaultSubscriptionRegistry}, this class supports a
+ * {@link #setSelectorHeaderName selector} header on subscription messages.
+ *
+ * @since 6.1
+ * @see SimpleBrokerMessageHandler#setSubscriptionRegistry
+ */
+public class TrieSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+	private static final String DOUBLE_WILDCARD = "**";
+
+	/** Static evaluation context to reuse. */
+	private static final EvaluationContext messageEvalContext = SimpleEvaluationContext.forPropertyAccessors(
+			new DefaultSubscriptionRegistry.SimpMessageHeaderPropertyAccessor()).build();
+
+
+	private String pathSeparator = AntPathMatcher.DEFAULT_PATH_SEPARATOR;
+
+	private AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	@Nullable
+	private String selectorHeaderName = "selector";
+
+	private volatile boolean selectorHeaderInUse;
+
+	private final ExpressionParser expressionParser = new SpelExpressionParser();
+
+	// sessionId -> subscriptionId -> Subscription
+	private final Map<String, Map<String, Subscription>> sessions = new ConcurrentHashMap<>();
+
+	// destination -> subscriptions to that exact destination
+	private final Map<String, Set<Subscription>> destinations = new ConcurrentHashMap<>();
+
+	// Root of the trie of pattern subscriptions, also used to guard updates
+	private final Node root = new Node();
+
+
+	/**
+	 * Specify the separator of destination segments.
+	 * <p>Default is "/", as in {@link AntPathMatcher}. This should be set
+	 * before any subscriptions are registered.
+	 */
+	public void setPathSeparator(String pathSeparator) {
+		Assert.hasLength(pathSeparator, "Path separator must not be empty");
+		this.pathSeparator = pathSeparator;
+		this.pathMatcher = new AntPathMatcher(pathSeparator);
+	}
+
+	/**
+	 * Return the configured separator of destination segments.
+	 */
+	public String getPathSeparator() {
+		return this.pathSeparator;
+	}
+
+	/**
+	 * Configure the name of a header that a subscription message can have for
+	 * the purpose of filtering messages matched to the subscription. The header
+	 * value is expected to be a Spring EL boolean expression to be applied to
+	 * the headers of messages matched to the subscription.
+	 * <p>By default this is set to "selector". You can set it to a different
+	 * name, or to {@code null} to turn off support for a selector header.
+	 * @param selectorHeaderName the name to use for a selector header
+	 * @see DefaultSubscriptionRegistry#setSelectorHeaderName
+	 */
+	public void setSelectorHeaderName(@Nullable String selectorHeaderName) {
+		this.selectorHeaderName = (StringUtils.hasText(selectorHeaderName) ? selectorHeaderName : null);
+	}
+
+	/**
+	 * Return the name for the selector header name.
+	 */
+	@Nullable
+	public String getSelectorHeaderName() {
+		return this.selectorHeaderName;
+	}
+
+
+	@Override
+	protected void addSubscriptionInternal(
+			String sessionId, String subscriptionId, String destination, Message<?> message) {
+
+		boolean isPattern = this.pathMatcher.isPattern(destination);
+		Expression expression = getSelectorExpression(message.getHeaders());
+		Subscription subscription = new Subscription(sessionId, subscriptionId, destination, isPattern,
+				isPattern && !isTriePattern(destination), expression);
+
+		Map<String, Subscription> sessionSubscriptions =
+				this.sessions.computeIfAbsent(sessionId, _sessionId -> new ConcurrentHashMap<>());
+		if (sessionSubscriptions.putIfAbsent(subscriptionId, subscription) == null) {
+			addToIndex(subscription);
+		}
+	}
+
+	@Nullable
+	private Expression getSelectorExpression(MessageHeaders headers) {
+		if (getSelectorHeaderName() == null) {
+			return null;
+		}
+		String selector = NativeMessageHeaderAccessor.getFirstNativeHeader(getSelectorHeaderName(), headers);
+		if (selector == null) {
+			return null;
+		}
+		Expression expression = null;
+		try {
+			expression = this.expressionParser.parseExpression(selector);
+			this.selectorHeaderInUse = true;
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to parse selector: " + selector, ex);
+			}
+		}
+		return expression;
+	}
+
+	@Override
+	protected void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+		Map<String, Subscription> sessionSubscriptions = this.sessions.get(sessionId);
+		if (sessionSubscriptions != null) {
+			Subscription subscription = sessionSubscriptions.remove(subscriptionId);
+			if (subscription != null) {
+				removeFromIndex(subscription);
+			}
+		}
+	}
+
+	@Override
+	public void unregisterAllSubscriptions(String sessionId) {
+		Map<String, Subscription> sessionSubscriptions = this.sessions.remove(sessionId);
+		if (sessionSubscriptions != null) {
+			sessionSubscriptions.values().forEach(this::removeFromIndex);
+		}
+	}
+
+	@Override
+	protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+		MultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+		Set<Subscription> subscriptions = this.destinations.get(destination);
+		if (subscriptions != null) {
+			for (Subscription subscription : subscriptions) {
+				addIfSelected(result, subscription, message);
+			}
+		}
+		if (!this.root.isEmpty()) {
+			String[] segments = tokenize(destination);
+			Set<Node> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+			collectMatches(this.root, segments, 0, matches);
+			boolean checkAll = !isTrieDestination(destination);
+			if (checkAll && destination.endsWith(this.pathSeparator)) {
+				// AntPathMatcher lets a trailing "*" match an empty last segment
+				String[] segmentsToUse = Arrays.copyOf(segments, segments.length + 1);
+				segmentsToUse[segments.length] = "";
+				collectMatches(this.root, segmentsToUse, 0, matches);
+			}
+			for (Node node : matches) {
+				for (Subscription subscription : node.subscriptions) {
+					if ((!checkAll && !subscription.needsCheck()) ||
+							this.pathMatcher.match(subscription.getDestination(), destination)) {
+						addIfSelected(result, subscription, message);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private void addIfSelected(MultiValueMap<String, String> result, Subscription subscription, Message<?> message) {
+		if (!this.selectorHeaderInUse || evaluateExpression(subscription.getSelector(), message)) {
+			result.add(subscription.getSessionId(), subscription.getId());
+		}
+	}
+
+	private boolean evaluateExpression(@Nullable Expression expression, Message<?> message) {
+		if (expression == null) {
+			return true;
+		}
+		try {
+			Boolean result = expression.getValue(messageEvalContext, message, Boolean.class);
+			if (Boolean.TRUE.equals(result)) {
+				return true;
+			}
+		}
+		catch (SpelEvaluationException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to evaluate selector: " + ex.getMessage());
+			}
+		}
+		catch (Throwable ex) {
+			logger.debug("Failed to evaluate selector", ex);
+		}
+		return false;
+	}
+
+
+	private void addToIndex(Subscription subscription) {
+		if (!subscription.isPattern()) {
+			this.destinations.compute(subscription.getDestination(), (destination, subscriptions) -> {
+				if (subscriptions == null) {
+					subscriptions = ConcurrentHashMap.newKeySet();
+				}
+				subscriptions.add(subscription);
+				return subscriptions;
+			});
+			return;
+		}
+		synchronized (this.root) {
+			Node node = this.root;
+			for (String segment : tokenize(subscription.getDestination())) {
+				node = node.getOrCreateChild(segment, this.pathMatcher);
+			}
+			node.subscriptions.add(subscription);
+		}
+	}
+
+	private void removeFromIndex(Subscription subscription) {
+		if (!subscription.isPattern()) {
+			this.destinations.computeIfPresent(subscription.getDestination(), (destination, subscriptions) -> {
+				subscriptions.remove(subscription);
+				return (subscriptions.isEmpty() ? null : subscriptions);
+			});
+			return;
+		}
+		synchronized (this.root) {
+			removeFromNode(this.root, tokenize(subscription.getDestination()), 0, subscription);
+		}
+	}
+
+	private void removeFromNode(Node node, String[] segments, int index, Subscription subscription) {
+		if (index == segments.length) {
+			node.subscriptions.remove(subscription);
+			return;
+		}
+		Node child = node.getChild(segments[index], this.pathMatcher);
+		if (child != null) {
+			removeFromNode(child, segments, index + 1, subscription);
+			if (child.isEmpty()) {
+				node.removeChild(segments[index], child, this.pathMatcher);
+			}
+		}
+	}
+
+	private void collectMatches(Node node, String[] segments, int index, Set<Node> matches) {
+		Node multiWildcardChild = node.multiWildcardChild;
+		if (multiWildcardChild != null) {
+			for (int i = index; i <= segments.length; i++) {
+				collectMatches(multiWildcardChild, segments, i, matches);
+			}
+		}
+		if (index == segments.length) {
+			if (!node.subscriptions.isEmpty()) {
+				matches.add(node);
+			}
+			return;
+		}
+		Node literalChild = node.literalChildren.get(segments[index]);
+		if (literalChild != null) {
+			collectMatches(literalChild, segments, index + 1, matches);
+		}
+		Node wildcardChild = node.wildcardChild;
+		if (wildcardChild != null) {
+			collectMatches(wildcardChild, segments, index + 1, matches);
+		}
+	}
+
+	private String[] tokenize(String destination) {
+		return StringUtils.tokenizeToStringArray(destination, this.pathSeparator, false, true);
+	}
+
+	/**
+	 * Whether the given pattern is fully matched through the trie, i.e. whether
+	 * it consists of separated literal segments, {@code *} and {@code **} only.
+	 */
+	private boolean isTriePattern(String pattern) {
+		if (!isTrieDestination(pattern)) {
+			return false;
+		}
+		for (String segment : tokenize(pattern)) {
+			if (this.pathMatcher.isPattern(segment) && !"*".equals(segment) && !DOUBLE_WILDCARD.equals(segment)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Whether the given destination starts with the separator and has no empty
+	 * or trailing segments, in which case trie matching is equivalent to
+	 * {@link AntPathMatcher} matching.
+	 */
+	private boolean isTrieDestination(String destination) {
+		return (destination.startsWith(this.pathSeparator) && !destination.endsWith(this.pathSeparator) &&
+				!destination.contains(this.pathSeparator + this.pathSeparator));
+	}
+
+
+	/**
+	 * Node of the trie of pattern subscriptions. Updates are guarded by the
+	 * root node, while lookups may proceed concurrently.
+	 */
+	private static final class Node {
+
+		private final Map<String, Node> literalChildren = new ConcurrentHashMap<>(4);
+
+		// For "*" and any other single segment pattern
+		@Nullable
+		private volatile Node wildcardChild;
+
+		@Nullable
+		private volatile Node multiWildcardChild;
+
+		private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet(2);
+
+		@Nullable
+		Node getChild(String segment, AntPathMatcher pathMatcher) {
+			if (DOUBLE_WILDCARD.equals(segment)) {
+				return this.multiWildcardChild;
+			}
+			else if (pathMatcher.isPattern(segment)) {
+				return this.wildcardChild;
+			}
+			return this.literalChildren.get(segment);
+		}
+
+		Node getOrCreateChild(String segment, AntPathMatcher pathMatcher) {
+			Node child = getChild(segment, pathMatcher);
+			if (child == null) {
+				child = new Node();
+				if (DOUBLE_WILDCARD.equals(segment)) {
+					this.multiWildcardChild = child;
+				}
+				else if (pathMatcher.isPattern(segment)) {
+					this.wildcardChild = child;
+				}
+				else {
+					this.literalChildren.put(segment, child);
+				}
+			}
+			return child;
+		}
+
+		void removeChild(String segment, Node child, AntPathMatcher pathMatcher) {
+			if (DOUBLE_WILDCARD.equals(segment)) {
+				this.multiWildcardChild = null;
+			}
+			else if (pathMatcher.isPattern(segment)) {
+				this.wildcardChild = null;
+			}
+			else {
+				this.literalChildren.remove(segment, child);
+			}
+		}
+
+		boolean isEmpty() {
+			return (this.subscriptions.isEmpty() && this.literalChildren.isEmpty() &&
+					this.wildcardChild == null && this.multiWildcardChild == null);
+		}
+	}
+
+
+	/**
+	 * Represents a subscription.
+	 */
+	private static final class Subscription {
+
+		private final String sessionId;
+
+		private final String id;
+
+		private final String destination;
+
+		private final boolean isPattern;
+
+		private final boolean needsCheck;
+
+		@Nullable
+		private final Expression selector;
+
+		Subscription(String sessionId, String id, String destination,
+				boolean isPattern, boolean needsCheck, @Nullable Expression selector) {
+
+			this.sessionId = sessionId;
+			this.id = id;
+			this.destination = destination;
+			this.isPattern = isPattern;
+			this.needsCheck = needsCheck;
+			this.selector = selector;
+		}
+
+		public String getSessionId() {
+			return this.sessionId;
+		}
+
+		public String getId() {
+			return this.id;
+		}
+
+		public String getDestination() {
+			return this.destination;
+		}
+
+		public boolean isPattern() {
+			return this.isPattern;
+		}
+
+		/**
+		 * Whether a match through the trie must be checked with the
+		 * {@link AntPathMatcher}.
+		 */
+		public boolean needsCheck() {
+			return this.needsCheck;
+		}
+
+		@Nullable
+		public Expression getSelector() {
+			return this.selector;
+		}
+
+		@Override
+		public String toString() {
+			return "subscription(id=" + this.id + ", session=" + this.sessionId + ")";
+		}
+	}
+
+}
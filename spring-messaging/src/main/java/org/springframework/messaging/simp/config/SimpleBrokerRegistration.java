@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2021 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,9 @@ public class SimpleBrokerRegistration extends AbstractBrokerRegistration {
 	@Nullable
 	private String selectorHeaderName = "selector";
 
+	@Nullable
+	private Integer broadcastBatchSize;
+
 
 	/**
 	 * Create a new {@code SimpleBrokerRegistration}.
@@ -97,6 +100,19 @@ public class SimpleBrokerRegistration extends AbstractBrokerRegistration {
 		this.selectorHeaderName = selectorHeaderName;
 	}
 
+	/**
+	 * Configure the maximum number of messages to hand to the client outbound
+	 * channel at once when broadcasting a message to its subscribers.
+	 * <p>By default this is set to 1, i.e. messages are sent one at a time.
+	 * @param broadcastBatchSize the maximum number of messages per batch
+	 * @since 6.1
+	 * @see SimpleBrokerMessageHandler#setBroadcastBatchSize(int)
+	 */
+	public SimpleBrokerRegistration setBroadcastBatchSize(int broadcastBatchSize) {
+		this.broadcastBatchSize = broadcastBatchSize;
+		return this;
+	}
+
 
 	@Override
 	protected SimpleBrokerMessageHandler getMessageHandler(SubscribableChannel brokerChannel) {
@@ -109,6 +125,9 @@ public class SimpleBrokerRegistration extends AbstractBrokerRegistration {
 			handler.setHeartbeatValue(this.heartbeat);
 		}
 		handler.setSelectorHeaderName(this.selectorHeaderName);
+		if (this.broadcastBatchSize != null) {
+			handler.setBroadcastBatchSize(this.broadcastBatchSize);
+		}
 		return handler;
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -106,6 +106,64 @@ public class ExecutorSubscribableChannel extends AbstractSubscribableChannel {
 		return true;
 	}
 
+	/**
+	 * Send the given messages, applying {@link ChannelInterceptor ChannelInterceptors}
+	 * to each message as {@link #send(Message)} does, but handing them to the
+	 * executor as a single task per subscriber that handles the messages in order,
+	 * rather than as one task per message and subscriber.
+	 * <p>This is intended for fanning out a message to many recipients. A message
+	 * that fails to be sent or handled is logged and does not prevent the handling
+	 * of the remaining messages.
+	 * @param messages the messages to send
+	 * @since 6.1
+	 */
+	public void sendAll(List<? extends Message<?>> messages) {
+		List<Message<?>> messagesToHandle = new ArrayList<>(messages.size());
+		for (Message<?> message : messages) {
+			if (this.executor == null) {
+				trySend(message);
+				continue;
+			}
+			ChannelInterceptorChain chain = new ChannelInterceptorChain();
+			Message<?> messageToUse = message;
+			try {
+				messageToUse = chain.applyPreSend(messageToUse, this);
+				if (messageToUse != null) {
+					messagesToHandle.add(messageToUse);
+					chain.applyPostSend(messageToUse, this, true);
+					chain.triggerAfterSendCompletion(messageToUse, this, true, null);
+				}
+			}
+			catch (Exception ex) {
+				chain.triggerAfterSendCompletion(messageToUse, this, false, ex);
+				logger.error("Failed to send " + messageToUse + " to " + this, ex);
+			}
+		}
+		if (this.executor != null && !messagesToHandle.isEmpty()) {
+			for (MessageHandler handler : getSubscribers()) {
+				this.executor.execute(() -> {
+					for (Message<?> message : messagesToHandle) {
+						try {
+							new SendTask(message, handler).run();
+						}
+						catch (MessagingException ex) {
+							logger.error(ex.getMessage(), ex);
+						}
+					}
+				});
+			}
+		}
+	}
+
+	private void trySend(Message<?> message) {
+		try {
+			send(message);
+		}
+		catch (MessagingException ex) {
+			logger.error("Failed to send " + message + " to " + this, ex);
+		}
+	}
+
 
 	/**
 	 * Invoke a MessageHandler with ExecutorChannelInterceptors.
@@ -20,6 +20,7 @@ import java.security.Principal;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -30,15 +31,19 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.core.testfixture.security.TestPrincipal;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.SubscribableChannel;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.AntPathMatcher;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -113,6 +118,59 @@ public class SimpleBrokerMessageHandlerTests {
 		assertThat(messageCaptured("sess2", "sub3", "/bar")).isTrue();
 	}
 
+	@Test
+	public void subscribePublishInBatches() {
+		TaskExecutor executor = mock();
+		ExecutorSubscribableChannel outChannel = new ExecutorSubscribableChannel(executor);
+		MessageHandler outHandler = mock();
+		outChannel.subscribe(outHandler);
+		this.messageHandler = new SimpleBrokerMessageHandler(
+				this.clientInChannel, outChannel, this.brokerChannel, Collections.emptyList());
+		this.messageHandler.setBroadcastBatchSize(2);
+		this.messageHandler.start();
+		for (int i = 1; i <= 3; i++) {
+			this.messageHandler.handleMessage(createConnectMessage("sess" + i, new TestPrincipal("joe"), null));
+			this.messageHandler.handleMessage(createSubscriptionMessage("sess" + i, "sub1", "/foo"));
+		}
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess3", "sub2", "/foo"));
+		reset(executor);
+
+		Message<String> message = createMessage("/foo", "message1");
+		this.messageHandler.handleMessage(message);
+
+		ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor, times(2)).execute(runnableCaptor.capture());
+		runnableCaptor.getAllValues().forEach(Runnable::run);
+		verify(outHandler, times(4)).handleMessage(this.messageCaptor.capture());
+		assertThat(messageCaptured("sess1", "sub1", "/foo")).isTrue();
+		assertThat(messageCaptured("sess2", "sub1", "/foo")).isTrue();
+		assertThat(messageCaptured("sess3", "sub1", "/foo")).isTrue();
+		assertThat(messageCaptured("sess3", "sub2", "/foo")).isTrue();
+		assertThat(this.messageCaptor.getAllValues()).allSatisfy(reply ->
+				assertThat(reply.getPayload()).isSameAs(message.getPayload()));
+	}
+
+	@Test
+	public void fanOutStats() {
+		this.messageHandler.setFanOutStatsEnabled(true);
+		startSession("sess1");
+		startSession("sess2");
+
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub1", "/foo"));
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess2", "sub1", "/foo"));
+		this.messageHandler.handleMessage(createMessage("/foo", "message1"));
+		this.messageHandler.handleMessage(createMessage("/foo", "message2"));
+		this.messageHandler.handleMessage(createMessage("/bar", "message3"));
+
+		Map<String, SimpleBrokerMessageHandler.FanOutStats> stats = this.messageHandler.getFanOutStats();
+		assertThat(stats).containsOnlyKeys("/foo", "/bar");
+		assertThat(stats.get("/foo").getMessageCount()).isEqualTo(2);
+		assertThat(stats.get("/foo").getDeliveryCount()).isEqualTo(4);
+		assertThat(stats.get("/foo").getMaxFanOutTime()).isGreaterThanOrEqualTo(stats.get("/foo").getAverageFanOutTime());
+		assertThat(stats.get("/bar").getMessageCount()).isEqualTo(1);
+		assertThat(stats.get("/bar").getDeliveryCount()).isZero();
+	}
+
 	@Test
 	public void subscribeDisconnectPublish() {
 		String sess1 = "sess1";
@@ -151,6 +209,29 @@ public class SimpleBrokerMessageHandlerTests {
 		assertThat(messageCaptured(sess2, "sub3", "/bar")).isTrue();
 	}
 
+	@Test
+	public void trieSubscriptionRegistryWithCustomPathMatcher() {
+		AntPathMatcher pathMatcher = new AntPathMatcher(".");
+		this.messageHandler.setCacheLimit(10);
+		this.messageHandler.setSelectorHeaderName("sel");
+		this.messageHandler.setSubscriptionRegistry(new TrieSubscriptionRegistry());
+		this.messageHandler.setPathMatcher(pathMatcher);
+
+		assertThat(this.messageHandler.getSubscriptionRegistry()).isInstanceOfSatisfying(
+				DefaultSubscriptionRegistry.class, registry -> {
+					assertThat(registry.getPathMatcher()).isSameAs(pathMatcher);
+					assertThat(registry.getCacheLimit()).isEqualTo(10);
+					assertThat(registry.getSelectorHeaderName()).isEqualTo("sel");
+				});
+
+		startSession("sess1");
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub1", "price.stock.**"));
+		this.messageHandler.handleMessage(createMessage("price.stock.nasdaq.ibm", "message1"));
+
+		verify(this.clientOutChannel, times(1)).send(this.messageCaptor.capture());
+		assertThat(messageCaptured("sess1", "sub1", "price.stock.nasdaq.ibm")).isTrue();
+	}
+
 	@Test
 	public void connect() {
 		String id = "sess1";
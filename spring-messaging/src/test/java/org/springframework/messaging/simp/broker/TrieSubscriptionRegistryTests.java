@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp.broker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TrieSubscriptionRegistry}.
+ */
+class TrieSubscriptionRegistryTests {
+
+	private final TrieSubscriptionRegistry registry = new TrieSubscriptionRegistry();
+
+
+	@Test
+	void registerSubscription() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub1", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub2", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "sub1", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "sub2", "/bar"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/foo"));
+		assertThat(actual).hasSize(2);
+		assertThat(actual.get("sess1")).containsExactlyInAnyOrder("sub1", "sub2");
+		assertThat(actual.get("sess2")).containsExactly("sub1");
+		assertThat(this.registry.findSubscriptions(createMessage("/baz"))).isEmpty();
+	}
+
+	@Test
+	void registerSameSubscriptionTwice() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub1", "/foo/**"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub1", "/foo/**"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/foo/bar"));
+		assertThat(actual.get("sess1")).containsExactly("sub1");
+	}
+
+	@Test
+	void registerSubscriptionWithDestinationPatterns() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "single", "/topic/*/price"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "multi", "/topic/**"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "inner", "/topic/**/price"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "regex", "/topic/{symbol:[A-Z]+}/price"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "partial", "/topic/PR*/price"));
+
+		assertThat(findSubscriptionIds("/topic/PRICE/price"))
+				.containsExactlyInAnyOrder("single", "multi", "inner", "regex", "partial");
+		assertThat(findSubscriptionIds("/topic/abc/price"))
+				.containsExactlyInAnyOrder("single", "multi", "inner");
+		assertThat(findSubscriptionIds("/topic/a/b/price")).containsExactlyInAnyOrder("multi", "inner");
+		assertThat(findSubscriptionIds("/topic/price")).containsExactlyInAnyOrder("multi", "inner");
+		assertThat(findSubscriptionIds("/topic")).containsExactly("multi");
+		assertThat(findSubscriptionIds("/topic/abc/price/")).containsExactly("multi");
+		assertThat(findSubscriptionIds("/queue/abc/price")).isEmpty();
+	}
+
+	@Test
+	void unregisterSubscription() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub1", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub2", "/foo/*"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub3", "/foo/**"));
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess1", "sub2"));
+		assertThat(findSubscriptionIds("/foo")).containsExactlyInAnyOrder("sub1", "sub3");
+		assertThat(findSubscriptionIds("/foo/bar")).containsExactly("sub3");
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess1", "sub1"));
+		this.registry.unregisterSubscription(unsubscribeMessage("sess1", "sub3"));
+		assertThat(findSubscriptionIds("/foo")).isEmpty();
+		assertThat(findSubscriptionIds("/foo/bar")).isEmpty();
+
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub4", "/foo/*"));
+		assertThat(findSubscriptionIds("/foo/bar")).containsExactly("sub4");
+	}
+
+	@Test
+	void unregisterAllSubscriptions() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub1", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub2", "/foo/**"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "sub1", "/foo/**"));
+
+		this.registry.unregisterAllSubscriptions("sess1");
+		this.registry.unregisterAllSubscriptions("sess3");
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/foo"));
+		assertThat(actual).containsOnlyKeys("sess2");
+		assertThat(actual.get("sess2")).containsExactly("sub1");
+	}
+
+	@Test
+	void registerSubscriptionWithSelector() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub1", "/foo", "headers.foo == 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub2", "/**", "headers.foo == 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub3", "/foo"));
+
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		accessor.setDestination("/foo");
+		accessor.setNativeHeader("foo", "bar");
+		Message<?> message = MessageBuilder.createMessage("", accessor.getMessageHeaders());
+
+		assertThat(this.registry.findSubscriptions(message).get("sess1"))
+				.containsExactlyInAnyOrder("sub1", "sub2", "sub3");
+		assertThat(findSubscriptionIds("/foo")).containsExactly("sub3");
+	}
+
+	@Test
+	void pathSeparator() {
+		this.registry.setPathSeparator(".");
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub1", ".topic.*.price"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "sub2", ".topic.**"));
+
+		assertThat(findSubscriptionIds(".topic.abc.price")).containsExactlyInAnyOrder("sub1", "sub2");
+		assertThat(findSubscriptionIds(".topic.a.b")).containsExactly("sub2");
+		assertThat(findSubscriptionIds("/topic/abc/price")).isEmpty();
+	}
+
+	@Test
+	void matchesLikeDefaultSubscriptionRegistry() {
+		String[] patterns = {"/a", "/a/b", "/a/*", "/a/**", "/**", "/*/b", "/**/b", "/a/**/c", "/a/*/**",
+				"/**/b/**", "/a/b/", "/a//b", "a/b", "/a/b*", "/a/{x}", "/a/?", "/**/**", "/*"};
+		String[] destinations = {"/a", "/a/b", "/a/b/c", "/a/x/b", "/b", "/a/b/", "/a//b", "a/b", "/", "",
+				"/a/bc", "/a/b/c/d", "/x/y/b", "/b/b/b", "/a/c"};
+
+		DefaultSubscriptionRegistry defaultRegistry = new DefaultSubscriptionRegistry();
+		Random random = new Random(42);
+		Map<String, String> subscriptions = new HashMap<>();
+		for (int i = 0; i < 200; i++) {
+			String sessionId = "sess" + random.nextInt(5);
+			String subscriptionId = "sub" + random.nextInt(20);
+			String key = sessionId + ":" + subscriptionId;
+			if (subscriptions.containsKey(key) && random.nextBoolean()) {
+				subscriptions.remove(key);
+				defaultRegistry.unregisterSubscription(unsubscribeMessage(sessionId, subscriptionId));
+				this.registry.unregisterSubscription(unsubscribeMessage(sessionId, subscriptionId));
+			}
+			else if (!subscriptions.containsKey(key)) {
+				String pattern = patterns[random.nextInt(patterns.length)];
+				subscriptions.put(key, pattern);
+				defaultRegistry.registerSubscription(subscribeMessage(sessionId, subscriptionId, pattern));
+				this.registry.registerSubscription(subscribeMessage(sessionId, subscriptionId, pattern));
+			}
+			for (String destination : destinations) {
+				Message<?> message = createMessage(destination);
+				assertThat(normalize(this.registry.findSubscriptions(message)))
+						.as(destination + " " + subscriptions)
+						.isEqualTo(normalize(defaultRegistry.findSubscriptions(message)));
+			}
+		}
+	}
+
+
+	private List<String> findSubscriptionIds(String destination) {
+		List<String> result = new ArrayList<>();
+		this.registry.findSubscriptions(createMessage(destination)).values().forEach(result::addAll);
+		return result;
+	}
+
+	private Map<String, Set<String>> normalize(MultiValueMap<String, String> map) {
+		Map<String, Set<String>> result = new HashMap<>();
+		map.forEach((sessionId, subscriptionIds) -> result.put(sessionId, new HashSet<>(subscriptionIds)));
+		return result;
+	}
+
+	private Message<?> createMessage(String destination) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		accessor.setDestination(destination);
+		return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+	}
+
+	private Message<?> subscribeMessage(String sessionId, String subscriptionId, String destination) {
+		return subscribeMessage(sessionId, subscriptionId, destination, null);
+	}
+
+	private Message<?> subscribeMessage(String sessionId, String subscriptionId, String dest, String selector) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+		accessor.setSessionId(sessionId);
+		accessor.setSubscriptionId(subscriptionId);
+		accessor.setDestination(dest);
+		if (selector != null) {
+			accessor.setNativeHeader("selector", selector);
+		}
+		return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+	}
+
+	private Message<?> unsubscribeMessage(String sessionId, String subscriptionId) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+		accessor.setSessionId(sessionId);
+		accessor.setSubscriptionId(subscriptionId);
+		return MessageBuilder.createMessage("", accessor.getMessageHeaders());
+	}
+
+}
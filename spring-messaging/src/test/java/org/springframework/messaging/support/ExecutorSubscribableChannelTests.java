@@ -16,12 +16,14 @@
 
 package org.springframework.messaging.support;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -34,6 +36,7 @@ import org.springframework.messaging.MessageHandler;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -96,6 +99,58 @@ public class ExecutorSubscribableChannelTests {
 		assertThat(interceptor.wasAfterHandledInvoked()).isTrue();
 	}
 
+	@Test
+	public void sendAllWithExecutor() {
+		BeforeHandleInterceptor interceptor = new BeforeHandleInterceptor();
+		TaskExecutor executor = mock();
+		ExecutorSubscribableChannel testChannel = new ExecutorSubscribableChannel(executor);
+		testChannel.addInterceptor(interceptor);
+		testChannel.subscribe(this.handler);
+		Message<Object> message2 = MessageBuilder.withPayload(this.payload).build();
+		testChannel.sendAll(List.of(this.message, message2));
+		verify(executor, times(1)).execute(this.runnableCaptor.capture());
+		verifyNoInteractions(this.handler);
+		this.runnableCaptor.getValue().run();
+		InOrder inOrder = inOrder(this.handler);
+		inOrder.verify(this.handler).handleMessage(this.message);
+		inOrder.verify(this.handler).handleMessage(message2);
+		assertThat(interceptor.getCounter().get()).isEqualTo(2);
+		assertThat(interceptor.wasAfterHandledInvoked()).isTrue();
+	}
+
+	@Test
+	public void sendAllContinuesAfterFailure() {
+		Message<Object> message2 = MessageBuilder.withPayload(this.payload).build();
+		willThrow(new IllegalStateException()).given(this.handler).handleMessage(this.message);
+		this.channel.subscribe(this.handler);
+		this.channel.sendAll(List.of(this.message, message2));
+		verify(this.handler).handleMessage(this.message);
+		verify(this.handler).handleMessage(message2);
+
+		TaskExecutor executor = mock();
+		ExecutorSubscribableChannel testChannel = new ExecutorSubscribableChannel(executor);
+		testChannel.subscribe(this.handler);
+		testChannel.sendAll(List.of(this.message, message2));
+		verify(executor).execute(this.runnableCaptor.capture());
+		this.runnableCaptor.getValue().run();
+		verify(this.handler, times(2)).handleMessage(message2);
+	}
+
+	@Test
+	public void sendAllWithNullReturningInterceptor() {
+		TaskExecutor executor = mock();
+		ExecutorSubscribableChannel testChannel = new ExecutorSubscribableChannel(executor);
+		testChannel.addInterceptor(new ChannelInterceptor() {
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				return null;
+			}
+		});
+		testChannel.subscribe(this.handler);
+		testChannel.sendAll(List.of(this.message));
+		verifyNoInteractions(executor);
+	}
+
 	@Test
 	public void subscribeTwice()  {
 		assertThat(this.channel.subscribe(this.handler)).isTrue();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.springframework.r2dbc.core.binding.BindMarkersFactory;
 import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ConcurrentLruCache.AdmissionPolicy;
 
 
 /**
@@ -47,12 +48,14 @@ class NamedParameterExpander {
 
 	/** Cache of original SQL String to ParsedSql representation. */
 	private final ConcurrentLruCache<String, ParsedSql> parsedSqlCache =
-			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement);
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement,
+					AdmissionPolicy.FREQUENCY);
 
 
 	/**
 	 * Obtain a parsed representation of the given SQL statement.
-	 * <p>The default implementation uses an LRU cache with an upper limit of 256 entries.
+	 * <p>The default implementation uses an LRU cache with an upper limit of 256 entries,
+	 * admitting new statements based on their frequency of use.
 	 * @param sql the original SQL statement
 	 * @return a representation of the parsed SQL statement
 	 */
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks for decoding a JSON array of {@link Project} elements, received
+ * in chunks, to a stream of POJOs using Jackson, comparing the direct binding
+ * of elements by {@link AbstractJackson2Decoder} with the binding of elements
+ * buffered by {@link Jackson2Tokenizer}.
+ * <p>Run with {@code -prof gc} in order to compare the allocation per element.
+ *
+ * @see AbstractJackson2Decoder
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonDecoderBenchmark {
+
+	/**
+	 * Benchmark data holding the JSON representation of {@link Project} elements.
+	 * A {@code projectCount} parameter can be used to grow the size of each element,
+	 * and a {@code streamSize} parameter to grow the number of elements.
+	 */
+	@State(Scope.Benchmark)
+	public static class DecodeData {
+
+		@Param({"0", "50"})
+		int projectCount;
+
+		@Param({"1", "500"})
+		int streamSize;
+
+		@Param({"8192"})
+		int chunkSize;
+
+		ObjectMapper objectMapper;
+
+		Jackson2JsonDecoder jsonDecoder;
+
+		ResolvableType resolvableType;
+
+		ObjectReader objectReader;
+
+		List<byte[]> chunks;
+
+		@Setup
+		public void setup() throws IOException {
+			this.objectMapper = new Jackson2ObjectMapperBuilder().build();
+			this.jsonDecoder = new Jackson2JsonDecoder(this.objectMapper);
+			this.resolvableType = ResolvableType.forClass(Project.class);
+			this.objectReader = this.objectMapper.readerFor(Project.class);
+			List<Project> projects = Collections.nCopies(this.streamSize, new Project("spring", this.projectCount));
+			byte[] json = this.objectMapper.writeValueAsBytes(projects);
+			this.chunks = new ArrayList<>();
+			for (int i = 0; i < json.length; i += this.chunkSize) {
+				byte[] chunk = new byte[Math.min(this.chunkSize, json.length - i)];
+				System.arraycopy(json, i, chunk, 0, chunk.length);
+				this.chunks.add(chunk);
+			}
+		}
+
+		Flux<DataBuffer> input() {
+			return Flux.fromIterable(this.chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+		}
+	}
+
+	@Benchmark
+	public void decode(Blackhole bh, DecodeData data) {
+		data.jsonDecoder.decode(data.input(), data.resolvableType, MediaType.APPLICATION_JSON, Collections.emptyMap())
+				.doOnNext(bh::consume)
+				.then().block();
+	}
+
+	@Benchmark
+	public void decodeTokenBuffers(Blackhole bh, DecodeData data) {
+		Jackson2Tokenizer.tokenize(data.input(), data.objectMapper.getFactory(), data.objectMapper, true, false, -1)
+				.map(tokenBuffer -> {
+					try {
+						return data.objectReader.readValue(tokenBuffer.asParser(data.objectMapper));
+					}
+					catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				})
+				.doOnNext(bh::consume)
+				.then().block();
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathMatchingBenchmark.Route;
+import org.springframework.web.util.pattern.PathMatchingBenchmark.RouteGenerator;
+
+/**
+ * Benchmarks for looking up the patterns matching request paths through a
+ * {@link PathPatternTrie}, compared to matching against every pattern, as
+ * done for pattern mappings in handler mappings.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PathPatternTrieBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		/**
+		 * Number of copies of the routes from {@link RouteGenerator#allRoutes()},
+		 * each under a distinct path prefix.
+		 */
+		@Param({"1", "100"})
+		public int routeCopies;
+
+		List<PathPattern> patterns = new ArrayList<>();
+
+		PathPatternTrie<PathPattern> trie = new PathPatternTrie<>();
+
+		List<PathContainer> requestPaths = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void registerPatterns() {
+			PathPatternParser parser = new PathPatternParser();
+			List<Route> routes = RouteGenerator.allRoutes();
+			for (int i = 0; i < this.routeCopies; i++) {
+				String prefix = "/app" + i;
+				for (Route route : routes) {
+					PathPattern pattern = parser.parse(prefix + route.pattern());
+					this.patterns.add(pattern);
+					this.trie.add(pattern, Collections.emptySet(), pattern);
+				}
+			}
+			String prefix = "/app" + (this.routeCopies / 2);
+			for (Route route : routes) {
+				route.matchingPaths().forEach(path -> this.requestPaths.add(PathContainer.parsePath(prefix + path)));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchAndSortAllPatterns(BenchmarkData data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			List<PathPattern> matches = new ArrayList<>();
+			for (PathPattern pattern : data.patterns) {
+				if (pattern.matches(path)) {
+					matches.add(pattern);
+				}
+			}
+			Collections.sort(matches);
+			bh.consume(matches);
+		}
+	}
+
+	@Benchmark
+	public void matchAndSortTrieCandidates(BenchmarkData data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			List<PathPattern> matches = new ArrayList<>();
+			for (PathPattern pattern : data.trie.getCandidates(path, HttpMethod.GET)) {
+				if (pattern.matches(path)) {
+					matches.add(pattern);
+				}
+			}
+			Collections.sort(matches);
+			bh.consume(matches);
+		}
+	}
+
+}
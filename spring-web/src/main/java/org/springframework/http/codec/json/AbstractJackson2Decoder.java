@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -54,6 +54,10 @@ import org.springframework.util.MimeType;
 /**
  * Abstract base class for Jackson 2.x decoding, leveraging non-blocking parsing.
  *
+ * <p>When decoding a stream of plain JSON values, each value is bound directly
+ * from the input bytes as soon as it is complete. Other formats are tokenized
+ * with Jackson's non-blocking parser, buffering the tokens of each value.
+ *
  * @author Sebastien Deleuze
  * @author Rossen Stoyanchev
  * @author Arjen Poutsma
@@ -128,14 +132,7 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 			return Flux.error(new IllegalStateException("No ObjectMapper for " + elementType));
 		}
 
-		boolean forceUseOfBigDecimal = mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
-		if (BigDecimal.class.equals(elementType.getType())) {
-			forceUseOfBigDecimal = true;
-		}
-
 		Flux<DataBuffer> processed = processInput(input, elementType, mimeType, hints);
-		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(processed, mapper.getFactory(), mapper,
-				true, forceUseOfBigDecimal, getMaxInMemorySize());
 
 		return Flux.deferContextual(contextView -> {
 
@@ -144,6 +141,17 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 
 			ObjectReader reader = createObjectReader(mapper, elementType, hintsToUse);
 
+			if (Jackson2JsonValueReader.canRead(reader)) {
+				// Bind values directly from the input, without buffering their tokens
+				return Jackson2JsonValueReader.read(processed, reader, true, getMaxInMemorySize(),
+						this::processException).doOnNext(value -> logValue(value, hints));
+			}
+
+			boolean forceUseOfBigDecimal = (mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS) ||
+					BigDecimal.class.equals(elementType.getType()));
+			Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(processed, mapper.getFactory(), mapper,
+					true, forceUseOfBigDecimal, getMaxInMemorySize());
+
 			return tokens.handle((tokenBuffer, sink) -> {
 				try {
 					Object value = reader.readValue(tokenBuffer.asParser(mapper));
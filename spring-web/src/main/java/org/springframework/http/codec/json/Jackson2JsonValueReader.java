@@ -0,0 +1,297 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Reads a stream of UTF-8 encoded JSON data buffers into the top-level values
+ * it contains, or into the elements of top-level arrays, binding each value with
+ * an {@link ObjectReader} as soon as it is complete.
+ *
+ * <p>In contrast to {@link Jackson2Tokenizer}, values are not copied into a
+ * {@code TokenBuffer} to be parsed again for binding. Since Jackson deserializers
+ * cannot suspend on partial input, the boundaries of each value are found through
+ * a lightweight scan of the input bytes instead, and the bytes of a value are then
+ * bound directly, without copying if the value is contained in a single heap buffer.
+ *
+ * @since 6.1
+ * @see Jackson2Tokenizer
+ */
+final class Jackson2JsonValueReader {
+
+	private static final byte[] EMPTY_BYTES = new byte[0];
+
+
+	private final ObjectReader reader;
+
+	private final boolean tokenizeArrayElements;
+
+	private final int maxInMemorySize;
+
+	private final Function<IOException, ? extends RuntimeException> exceptionHandler;
+
+	private byte[] buffer = EMPTY_BYTES;
+
+	private int length;
+
+	private boolean started;
+
+	private boolean inArray;
+
+	private boolean afterArrayElement;
+
+	private boolean afterArraySeparator;
+
+	private boolean inValue;
+
+	private boolean scalar;
+
+	private int depth;
+
+	private boolean inString;
+
+	private boolean escaped;
+
+
+	private Jackson2JsonValueReader(ObjectReader reader, boolean tokenizeArrayElements, int maxInMemorySize,
+			Function<IOException, ? extends RuntimeException> exceptionHandler) {
+
+		this.reader = reader;
+		this.tokenizeArrayElements = tokenizeArrayElements;
+		this.maxInMemorySize = maxInMemorySize;
+		this.exceptionHandler = exceptionHandler;
+	}
+
+
+	private List<Object> read(DataBuffer dataBuffer) {
+		try {
+			List<Object> result = new ArrayList<>();
+			try (DataBuffer.ByteBufferIterator iterator = dataBuffer.readableByteBuffers()) {
+				while (iterator.hasNext()) {
+					scan(iterator.next(), result);
+				}
+			}
+			return result;
+		}
+		finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+	}
+
+	private Flux<Object> endOfInput() {
+		return Flux.defer(() -> {
+			List<Object> result = new ArrayList<>(1);
+			if (this.inValue) {
+				// Bare scalar value without trailing delimiter, or truncated value to be reported by Jackson
+				bind(this.buffer, 0, this.length, result);
+				this.length = 0;
+				this.inValue = false;
+			}
+			Flux<Object> values = Flux.fromIterable(result);
+			if (this.inArray) {
+				return values.concatWith(Flux.error(new DecodingException(
+						"JSON decoding error: Unexpected end-of-input: expected close marker for Array")));
+			}
+			return values;
+		});
+	}
+
+	private void scan(ByteBuffer byteBuffer, List<Object> result) {
+		int limit = byteBuffer.limit();
+		int start = byteBuffer.position();
+		for (int i = start; i < limit; i++) {
+			byte b = byteBuffer.get(i);
+			if (this.inValue) {
+				if (this.inString) {
+					if (this.escaped) {
+						this.escaped = false;
+					}
+					else if (b == '\\') {
+						this.escaped = true;
+					}
+					else if (b == '"') {
+						this.inString = false;
+						if (this.depth == 0) {
+							complete(byteBuffer, start, i + 1, result);
+						}
+					}
+					continue;
+				}
+				if (!this.scalar) {
+					switch (b) {
+						case '"' -> this.inString = true;
+						case '{', '[' -> this.depth++;
+						case '}', ']' -> {
+							if (--this.depth == 0) {
+								complete(byteBuffer, start, i + 1, result);
+							}
+						}
+					}
+					continue;
+				}
+				if (!isDelimiter(b)) {
+					continue;
+				}
+				complete(byteBuffer, start, i, result);
+				// The delimiter remains to be processed in between values
+			}
+			if (isWhitespace(b) || (!this.started && isByteOrderMark(b))) {
+				continue;
+			}
+			this.started = true;
+			if (this.inArray) {
+				if (b == ',' && this.afterArrayElement) {
+					this.afterArrayElement = false;
+					this.afterArraySeparator = true;
+					continue;
+				}
+				if (b == ']' && !this.afterArraySeparator) {
+					this.inArray = false;
+					this.afterArrayElement = false;
+					continue;
+				}
+				if (this.afterArrayElement || b == ',' || b == ']') {
+					throw new DecodingException("JSON decoding error: Unexpected character ('" + (char) b +
+							"'): expected a value, comma or close marker for Array");
+				}
+				this.afterArraySeparator = false;
+			}
+			else if (b == '[' && this.tokenizeArrayElements) {
+				this.inArray = true;
+				continue;
+			}
+			start = i;
+			this.inValue = true;
+			this.scalar = (b != '{' && b != '[' && b != '"');
+			this.inString = (b == '"');
+			this.depth = (b == '{' || b == '[' ? 1 : 0);
+		}
+		if (this.inValue) {
+			append(byteBuffer, start, limit);
+		}
+	}
+
+	private void complete(ByteBuffer byteBuffer, int start, int end, List<Object> result) {
+		this.inValue = false;
+		this.afterArrayElement = this.inArray;
+		if (this.length == 0 && byteBuffer.hasArray()) {
+			assertInMemorySize(end - start);
+			bind(byteBuffer.array(), byteBuffer.arrayOffset() + start, end - start, result);
+		}
+		else {
+			append(byteBuffer, start, end);
+			bind(this.buffer, 0, this.length, result);
+			this.length = 0;
+		}
+	}
+
+	private void bind(byte[] bytes, int offset, int length, List<Object> result) {
+		try {
+			Object value = this.reader.readValue(bytes, offset, length);
+			if (value != null) {
+				result.add(value);
+			}
+		}
+		catch (IOException ex) {
+			throw this.exceptionHandler.apply(ex);
+		}
+	}
+
+	private void append(ByteBuffer byteBuffer, int start, int end) {
+		int count = end - start;
+		assertInMemorySize(this.length + count);
+		if (this.length + count > this.buffer.length) {
+			int newLength = Math.max(this.length + count, Math.min(this.buffer.length * 2, Integer.MAX_VALUE - 8));
+			byte[] newBuffer = new byte[Math.max(newLength, 256)];
+			System.arraycopy(this.buffer, 0, newBuffer, 0, this.length);
+			this.buffer = newBuffer;
+		}
+		byteBuffer.get(start, this.buffer, this.length, count);
+		this.length += count;
+	}
+
+	private void assertInMemorySize(int byteCount) {
+		if (this.maxInMemorySize >= 0 && (byteCount > this.maxInMemorySize || byteCount < 0)) {
+			throw new DataBufferLimitException(
+					"Exceeded limit on max bytes per JSON object: " + this.maxInMemorySize);
+		}
+	}
+
+	private static boolean isWhitespace(byte b) {
+		return (b == ' ' || b == '\n' || b == '\r' || b == '\t');
+	}
+
+	private static boolean isByteOrderMark(byte b) {
+		return (b == (byte) 0xEF || b == (byte) 0xBB || b == (byte) 0xBF);
+	}
+
+	private static boolean isDelimiter(byte b) {
+		return (isWhitespace(b) || b == ',' || b == ']' || b == '}' || b == '[' || b == '{' || b == '"');
+	}
+
+
+	/**
+	 * Whether values can be read with the given {@code ObjectReader} by this
+	 * class, i.e. whether it reads plain JSON, without any syntax extensions that
+	 * would affect finding the boundaries of values, and without decorating the input.
+	 * @param reader the reader to check
+	 */
+	public static boolean canRead(ObjectReader reader) {
+		JsonFactory factory = reader.getFactory();
+		return (JsonFactory.FORMAT_NAME_JSON.equals(factory.getFormatName()) && factory.getInputDecorator() == null &&
+				!reader.isEnabled(JsonParser.Feature.ALLOW_COMMENTS) &&
+				!reader.isEnabled(JsonParser.Feature.ALLOW_YAML_COMMENTS) &&
+				!reader.isEnabled(JsonParser.Feature.ALLOW_SINGLE_QUOTES));
+	}
+
+	/**
+	 * Read the given UTF-8 encoded {@code Flux<DataBuffer>} into a {@code Flux}
+	 * of values bound with the given {@code ObjectReader}.
+	 * @param dataBuffers the source data buffers
+	 * @param reader the reader to bind values with
+	 * @param tokenizeArrays if {@code true} and the "top level" JSON object is
+	 * an array, each element is read individually immediately after it is received
+	 * @param maxInMemorySize maximum number of bytes per value, or -1 for unlimited
+	 * @param exceptionHandler function to map binding exceptions with
+	 * @return the resulting values, not including JSON {@code null} values
+	 */
+	public static Flux<Object> read(Flux<DataBuffer> dataBuffers, ObjectReader reader, boolean tokenizeArrays,
+			int maxInMemorySize, Function<IOException, ? extends RuntimeException> exceptionHandler) {
+
+		return Flux.defer(() -> {
+			Jackson2JsonValueReader valueReader =
+					new Jackson2JsonValueReader(reader, tokenizeArrays, maxInMemorySize, exceptionHandler);
+			return dataBuffers.concatMapIterable(valueReader::read).concatWith(valueReader.endOfInput());
+		});
+	}
+
+}
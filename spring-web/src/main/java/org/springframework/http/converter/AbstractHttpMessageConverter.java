@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ByteArrayPool;
+import org.springframework.util.ThreadLocalByteArrayPool;
 
 /**
  * Abstract base class for most {@link HttpMessageConverter} implementations.
@@ -58,6 +60,8 @@ public abstract class AbstractHttpMessageConverter<T> implements HttpMessageConv
 	@Nullable
 	private Charset defaultCharset;
 
+	private ByteArrayPool byteArrayPool = ThreadLocalByteArrayPool.sharedInstance;
+
 
 	/**
 	 * Construct an {@code AbstractHttpMessageConverter} with no supported media types.
@@ -125,6 +129,27 @@ public abstract class AbstractHttpMessageConverter<T> implements HttpMessageConv
 		return this.defaultCharset;
 	}
 
+	/**
+	 * Set the pool to obtain temporary buffers from when reading or writing
+	 * message bodies, for converters that buffer content.
+	 * <p>By default, this is the {@link ThreadLocalByteArrayPool#sharedInstance
+	 * shared thread-local pool}. Use {@link ByteArrayPool#unpooled()} in order
+	 * to allocate new buffers every time instead.
+	 * @since 6.1
+	 */
+	public void setByteArrayPool(ByteArrayPool byteArrayPool) {
+		Assert.notNull(byteArrayPool, "ByteArrayPool must not be null");
+		this.byteArrayPool = byteArrayPool;
+	}
+
+	/**
+	 * Return the pool to obtain temporary buffers from.
+	 * @since 6.1
+	 */
+	public ByteArrayPool getByteArrayPool() {
+		return this.byteArrayPool;
+	}
+
 
 	/**
 	 * This implementation checks if the given class is {@linkplain #supports(Class) supported},
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -53,7 +53,7 @@ public abstract class KotlinSerializationBinaryHttpMessageConverter<T extends Bi
 	protected Object readInternal(KSerializer<Object> serializer, T format, HttpInputMessage inputMessage)
 			throws IOException, HttpMessageNotReadableException {
 
-		byte[] bytes = StreamUtils.copyToByteArray(inputMessage.getBody());
+		byte[] bytes = StreamUtils.copyToByteArray(inputMessage.getBody(), getByteArrayPool());
 		try {
 			return format.decodeFromByteArray(serializer, bytes);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -59,7 +59,7 @@ public abstract class KotlinSerializationStringHttpMessageConverter<T extends St
 			throws IOException, HttpMessageNotReadableException {
 
 		Charset charset = charset(inputMessage.getHeaders().getContentType());
-		String s = StreamUtils.copyToString(inputMessage.getBody(), charset);
+		String s = StreamUtils.copyToString(inputMessage.getBody(), charset, getByteArrayPool());
 		try {
 			return format.decodeFromString(serializer, s);
 		}
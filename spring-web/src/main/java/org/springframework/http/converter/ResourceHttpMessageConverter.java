@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -93,7 +93,7 @@ public class ResourceHttpMessageConverter extends AbstractHttpMessageConverter<R
 			};
 		}
 		else if (Resource.class == clazz || ByteArrayResource.class.isAssignableFrom(clazz)) {
-			byte[] body = StreamUtils.copyToByteArray(inputMessage.getBody());
+			byte[] body = StreamUtils.copyToByteArray(inputMessage.getBody(), getByteArrayPool());
 			return new ByteArrayResource(body) {
 				@Override
 				@Nullable
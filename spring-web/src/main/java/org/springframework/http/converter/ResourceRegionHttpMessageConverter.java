@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,16 @@
 
 package org.springframework.http.converter;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 
@@ -40,6 +45,10 @@ import org.springframework.util.StreamUtils;
  * Implementation of {@link HttpMessageConverter} that can write a single
  * {@link ResourceRegion} or Collections of {@link ResourceRegion ResourceRegions}.
  *
+ * <p>Regions of file-based resources are transferred from a {@link FileChannel}
+ * at their position, rather than by reading and skipping through an
+ * {@code InputStream} for each region.
+ *
  * @author Brian Clozel
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -150,6 +159,14 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		responseHeaders.add("Content-Range", "bytes " + start + '-' + end + '/' + resourceLength);
 		responseHeaders.setContentLength(rangeLength);
 
+		FileChannel fileChannel = openFileChannel(region.getResource());
+		if (fileChannel != null) {
+			try (fileChannel) {
+				transferRange(fileChannel, outputMessage.getBody(), start, rangeLength);
+			}
+			return;
+		}
+
 		InputStream in = region.getResource().getInputStream();
 		// We cannot use try-with-resources here for the InputStream, since we have
 		// custom handling of the close() method in a finally-block.
@@ -178,17 +195,22 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		OutputStream out = outputMessage.getBody();
 
 		Resource resource = null;
+		FileChannel fileChannel = null;
 		InputStream in = null;
 		long inputStreamPosition = 0;
 
 		try {
 			for (ResourceRegion region : resourceRegions) {
-				long start = region.getPosition() - inputStreamPosition;
-				if (start < 0 || resource != region.getResource()) {
-					if (in != null) {
-						in.close();
-					}
+				if (resource != region.getResource()) {
+					closeQuietly(fileChannel);
+					closeQuietly(in);
 					resource = region.getResource();
+					fileChannel = openFileChannel(resource);
+					in = null;
+				}
+				long start = region.getPosition() - inputStreamPosition;
+				if (fileChannel == null && (in == null || start < 0)) {
+					closeQuietly(in);
 					in = resource.getInputStream();
 					inputStreamPosition = 0;
 					start = region.getPosition();
@@ -203,30 +225,72 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 					println(out);
 				}
 				long resourceLength = region.getResource().contentLength();
-				end = Math.min(end, resourceLength - inputStreamPosition - 1);
 				print(out, "Content-Range: bytes " +
 						region.getPosition() + '-' + (region.getPosition() + region.getCount() - 1) +
 						'/' + resourceLength);
 				println(out);
 				println(out);
 				// Printing content
-				StreamUtils.copyRange(in, out, start, end);
-				inputStreamPosition += (end + 1);
+				if (fileChannel != null) {
+					long count = Math.min(region.getCount(), resourceLength - region.getPosition());
+					transferRange(fileChannel, out, region.getPosition(), count);
+				}
+				else {
+					end = Math.min(end, resourceLength - inputStreamPosition - 1);
+					StreamUtils.copyRange(in, out, start, end);
+					inputStreamPosition += (end + 1);
+				}
 			}
 		}
 		finally {
+			closeQuietly(fileChannel);
+			closeQuietly(in);
+		}
+
+		println(out);
+		print(out, "--" + boundaryString + "--");
+	}
+
+	/**
+	 * Open a {@link FileChannel} for the given resource, if it is file-based.
+	 */
+	@Nullable
+	private static FileChannel openFileChannel(Resource resource) throws IOException {
+		if (resource.isFile()) {
+			ReadableByteChannel channel = resource.readableChannel();
+			if (channel instanceof FileChannel fileChannel) {
+				return fileChannel;
+			}
+			channel.close();
+		}
+		return null;
+	}
+
+	private static void transferRange(FileChannel fileChannel, OutputStream out, long position, long count)
+			throws IOException {
+
+		// Not closing the target channel, since this would close the OutputStream
+		WritableByteChannel target = Channels.newChannel(out);
+		while (count > 0) {
+			long transferred = fileChannel.transferTo(position, count, target);
+			if (transferred <= 0) {
+				// End of file reached
+				break;
+			}
+			position += transferred;
+			count -= transferred;
+		}
+	}
+
+	private static void closeQuietly(@Nullable Closeable closeable) {
+		if (closeable != null) {
 			try {
-				if (in != null) {
-					in.close();
-				}
+				closeable.close();
 			}
 			catch (IOException ex) {
 				// ignore
 			}
 		}
-
-		println(out);
-		print(out, "--" + boundaryString + "--");
 	}
 
 	private static void println(OutputStream os) throws IOException {
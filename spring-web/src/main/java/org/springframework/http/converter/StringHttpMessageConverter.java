@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,10 @@ import org.springframework.util.StreamUtils;
  * and writes with a {@code Content-Type} of {@code text/plain}. This can be overridden
  * by setting the {@link #setSupportedMediaTypes supportedMediaTypes} property.
  *
+ * <p>Strings are read and written through buffers from the configured
+ * {@link #setByteArrayPool ByteArrayPool}, and the {@code Content-Length} of
+ * UTF-8, ISO-8859-1 and US-ASCII content is computed without encoding.
+ *
  * @author Arjen Poutsma
  * @author Juergen Hoeller
  * @since 3.0
@@ -93,12 +97,18 @@ public class StringHttpMessageConverter extends AbstractHttpMessageConverter<Str
 	@Override
 	protected String readInternal(Class<? extends String> clazz, HttpInputMessage inputMessage) throws IOException {
 		Charset charset = getContentTypeCharset(inputMessage.getHeaders().getContentType());
-		return StreamUtils.copyToString(inputMessage.getBody(), charset);
+		return StreamUtils.copyToString(inputMessage.getBody(), charset, getByteArrayPool());
 	}
 
 	@Override
 	protected Long getContentLength(String str, @Nullable MediaType contentType) {
 		Charset charset = getContentTypeCharset(contentType);
+		if (StandardCharsets.UTF_8.equals(charset)) {
+			return getUtf8Length(str);
+		}
+		if (StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset)) {
+			return getSingleByteLength(str);
+		}
 		return (long) str.getBytes(charset).length;
 	}
 
@@ -123,7 +133,7 @@ public class StringHttpMessageConverter extends AbstractHttpMessageConverter<Str
 			headers.setAcceptCharset(getAcceptedCharsets());
 		}
 		Charset charset = getContentTypeCharset(headers.getContentType());
-		StreamUtils.copy(str, charset, outputMessage.getBody());
+		StreamUtils.copy(str, charset, outputMessage.getBody(), getByteArrayPool());
 	}
 
 
@@ -159,4 +169,50 @@ public class StringHttpMessageConverter extends AbstractHttpMessageConverter<Str
 		return charset;
 	}
 
+
+	/**
+	 * Compute the length of the given String encoded as UTF-8, without encoding
+	 * it, in line with {@link String#getBytes(Charset)} for malformed input.
+	 */
+	private static long getUtf8Length(String str) {
+		long length = 0;
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			if (c < 0x80) {
+				length++;
+			}
+			else if (c < 0x800) {
+				length += 2;
+			}
+			else if (!Character.isSurrogate(c)) {
+				length += 3;
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < str.length() &&
+					Character.isLowSurrogate(str.charAt(i + 1))) {
+				length += 4;
+				i++;
+			}
+			else {
+				// Replaced with '?'
+				length++;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Compute the length of the given String encoded with a single-byte charset,
+	 * where unmappable surrogate pairs are replaced with a single byte.
+	 */
+	private static long getSingleByteLength(String str) {
+		long length = str.length();
+		for (int i = 0; i < str.length() - 1; i++) {
+			if (Character.isHighSurrogate(str.charAt(i)) && Character.isLowSurrogate(str.charAt(i + 1))) {
+				length--;
+				i++;
+			}
+		}
+		return length;
+	}
+
 }
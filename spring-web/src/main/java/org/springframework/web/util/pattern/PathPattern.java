@@ -458,6 +458,10 @@ public class PathPattern implements Comparable<PathPattern> {
 		return this.catchAll;
 	}
 
+	boolean isCaseSensitive() {
+		return this.caseSensitive;
+	}
+
 	/**
 	 * The normalized length is trying to measure the 'active' part of the pattern. It is computed
 	 * by assuming all capture variables have a normalized length of 1. Effectively this means changing
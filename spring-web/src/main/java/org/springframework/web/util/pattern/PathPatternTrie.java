@@ -0,0 +1,384 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.PathContainer.Element;
+import org.springframework.http.server.PathContainer.PathSegment;
+import org.springframework.lang.Nullable;
+
+/**
+ * A segment trie over parsed {@link PathPattern PathPatterns} that narrows down
+ * the values whose patterns could match a given path, so that a path does not
+ * have to be matched against every registered pattern.
+ *
+ * <p>Patterns are decomposed into their path segments: literal segments become
+ * literal child edges, and segments that match exactly one path segment (e.g.
+ * <code>{id}</code>, {@code *}, <code>{name:[a-z]+}</code>) become a capture
+ * edge. A value is registered at the node where its pattern ends if the last
+ * segment is a literal, or otherwise as a prefix entry at the node of the last
+ * indexed segment, which makes it a candidate for any path below that node.
+ * This is also how patterns matching a variable number of segments, such as
+ * {@code /**} or <code>{*path}</code>, are handled.
+ *
+ * <p>Values may further be registered for specific HTTP methods only, in which
+ * case they are returned for requests with one of those methods, or with
+ * {@code HEAD} if {@code GET} is one of them.
+ *
+ * <p>The candidates returned for a path are a superset of the values with a
+ * matching pattern, and still need to be matched in full. This class is not
+ * thread-safe, and expects callers to guard registrations and lookups.
+ *
+ * @since 6.1
+ * @param <T> the type of values registered against patterns
+ */
+public class PathPatternTrie<T> {
+
+	private final Node<T> root = new Node<>();
+
+	private int size;
+
+	private boolean caseInsensitive;
+
+
+	/**
+	 * Register a value under the given pattern.
+	 * @param pattern the pattern to register the value under
+	 * @param httpMethods the HTTP methods the value is restricted to,
+	 * or an empty set for any HTTP method
+	 * @param value the value to register
+	 */
+	public void add(PathPattern pattern, Set<HttpMethod> httpMethods, T value) {
+		if (!pattern.isCaseSensitive()) {
+			this.caseInsensitive = true;
+		}
+		Node<T> node = this.root;
+		PathElement element = pattern.getHeadSection();
+		while (isInnerSegment(element)) {
+			node = node.getOrCreateChild(element.next);
+			element = element.next.next;
+		}
+		boolean terminal = isLastLiteralSegment(element);
+		if (terminal || isSegmentBeforeRest(element)) {
+			node = node.getOrCreateChild(element.next);
+		}
+		Bucket<T> bucket;
+		if (terminal) {
+			bucket = node.terminal = (node.terminal != null ? node.terminal : new Bucket<>());
+		}
+		else {
+			bucket = node.prefix = (node.prefix != null ? node.prefix : new Bucket<>());
+		}
+		bucket.add(httpMethods, value);
+		this.size++;
+	}
+
+	/**
+	 * Remove a value previously registered under the given pattern.
+	 * @param pattern the pattern the value was registered under
+	 * @param value the value to remove
+	 * @return {@code true} if the value was found and removed
+	 */
+	public boolean remove(PathPattern pattern, T value) {
+		List<Node<T>> nodes = new ArrayList<>();
+		Node<T> node = this.root;
+		nodes.add(node);
+		PathElement element = pattern.getHeadSection();
+		while (node != null && isInnerSegment(element)) {
+			node = node.getChild(element.next);
+			nodes.add(node);
+			element = element.next.next;
+		}
+		boolean terminal = isLastLiteralSegment(element);
+		if (node != null && (terminal || isSegmentBeforeRest(element))) {
+			node = node.getChild(element.next);
+			nodes.add(node);
+		}
+		if (node == null) {
+			return false;
+		}
+		Bucket<T> bucket = (terminal ? node.terminal : node.prefix);
+		if (bucket == null || !bucket.remove(value)) {
+			return false;
+		}
+		if (bucket.isEmpty()) {
+			if (terminal) {
+				node.terminal = null;
+			}
+			else {
+				node.prefix = null;
+			}
+		}
+		for (int i = nodes.size() - 1; i > 0 && nodes.get(i).isEmpty(); i--) {
+			nodes.get(i - 1).removeChild(nodes.get(i));
+		}
+		this.size--;
+		return true;
+	}
+
+	/**
+	 * Whether no values are registered.
+	 */
+	public boolean isEmpty() {
+		return (this.size == 0);
+	}
+
+	/**
+	 * Return the values whose patterns could match the given path.
+	 * @param path the path to look up
+	 * @param httpMethod the HTTP method of the request, or {@code null}
+	 * to return candidates regardless of the HTTP methods they are
+	 * restricted to, e.g. for a CORS pre-flight request
+	 * @return a new, modifiable set with the candidate values
+	 */
+	public Set<T> getCandidates(PathContainer path, @Nullable HttpMethod httpMethod) {
+		Set<T> result = new LinkedHashSet<>();
+		collect(this.root, path.elements(), 0, httpMethod, result);
+		return result;
+	}
+
+	private void collect(Node<T> node, List<Element> elements, int index,
+			@Nullable HttpMethod httpMethod, Set<T> result) {
+
+		if (node.prefix != null) {
+			node.prefix.collect(httpMethod, result);
+		}
+		int remaining = elements.size() - index;
+		if (remaining == 0 || (remaining == 1 && isSeparator(elements.get(index)))) {
+			// End of path, or an optional trailing separator
+			if (node.terminal != null) {
+				node.terminal.collect(httpMethod, result);
+			}
+		}
+		else if (isSeparator(elements.get(index)) && elements.get(index + 1) instanceof PathSegment segment) {
+			String value = segment.valueToMatch();
+			Node<T> child = node.getLiteralChild(value);
+			if (child != null) {
+				collect(child, elements, index + 2, httpMethod, result);
+			}
+			if (this.caseInsensitive) {
+				String lowerCaseValue = toLowerCase(value);
+				if (!lowerCaseValue.equals(value)) {
+					child = node.getLiteralChild(lowerCaseValue);
+					if (child != null) {
+						collect(child, elements, index + 2, httpMethod, result);
+					}
+				}
+			}
+			if (node.captureChild != null) {
+				collect(node.captureChild, elements, index + 2, httpMethod, result);
+			}
+		}
+		else {
+			// Not in the canonical "/segment/segment" form (e.g. adjacent separators):
+			// fall back on every pattern below this node.
+			node.collectAll(httpMethod, result);
+		}
+	}
+
+	/**
+	 * Lower case the given value the same way as case-insensitive literals.
+	 * @see LiteralPathElement
+	 */
+	private static String toLowerCase(String value) {
+		char[] chars = value.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(chars[i]);
+		}
+		return new String(chars);
+	}
+
+	private static boolean isSeparator(Element element) {
+		return !(element instanceof PathSegment);
+	}
+
+	/**
+	 * Whether the element is a separator followed by a segment that matches
+	 * exactly one path segment, and in turn by another separator.
+	 */
+	private static boolean isInnerSegment(@Nullable PathElement element) {
+		return (element instanceof SeparatorPathElement && element.next != null &&
+				isSingleSegment(element.next) && element.next.next instanceof SeparatorPathElement);
+	}
+
+	/**
+	 * Whether the element is a separator followed by a literal segment that
+	 * ends the pattern.
+	 */
+	private static boolean isLastLiteralSegment(@Nullable PathElement element) {
+		return (element instanceof SeparatorPathElement &&
+				element.next instanceof LiteralPathElement && element.next.next == null);
+	}
+
+	/**
+	 * Whether the element is a separator followed by a segment that matches
+	 * exactly one path segment, and in turn by a pattern element that matches
+	 * the rest of the path (e.g. {@code /**}).
+	 */
+	private static boolean isSegmentBeforeRest(@Nullable PathElement element) {
+		return (element instanceof SeparatorPathElement && element.next != null && isSingleSegment(element.next) &&
+				(element.next.next instanceof WildcardTheRestPathElement ||
+						element.next.next instanceof CaptureTheRestPathElement));
+	}
+
+	private static boolean isSingleSegment(PathElement element) {
+		return (element instanceof LiteralPathElement || element instanceof CaptureVariablePathElement ||
+				element instanceof RegexPathElement || element instanceof SingleCharWildcardedPathElement ||
+				element instanceof WildcardPathElement);
+	}
+
+
+	private static final class Node<T> {
+
+		@Nullable
+		private Map<String, Node<T>> literalChildren;
+
+		@Nullable
+		private Node<T> captureChild;
+
+		/** Values whose patterns end at this node. */
+		@Nullable
+		private Bucket<T> terminal;
+
+		/** Values that are candidates for any path at or below this node. */
+		@Nullable
+		private Bucket<T> prefix;
+
+		Node<T> getOrCreateChild(PathElement segment) {
+			if (segment instanceof LiteralPathElement) {
+				if (this.literalChildren == null) {
+					this.literalChildren = new HashMap<>();
+				}
+				return this.literalChildren.computeIfAbsent(String.valueOf(segment.getChars()), key -> new Node<>());
+			}
+			if (this.captureChild == null) {
+				this.captureChild = new Node<>();
+			}
+			return this.captureChild;
+		}
+
+		@Nullable
+		Node<T> getChild(PathElement segment) {
+			if (segment instanceof LiteralPathElement) {
+				return getLiteralChild(String.valueOf(segment.getChars()));
+			}
+			return this.captureChild;
+		}
+
+		@Nullable
+		Node<T> getLiteralChild(String value) {
+			return (this.literalChildren != null ? this.literalChildren.get(value) : null);
+		}
+
+		void removeChild(Node<T> child) {
+			if (this.captureChild == child) {
+				this.captureChild = null;
+			}
+			else if (this.literalChildren != null) {
+				this.literalChildren.values().remove(child);
+			}
+		}
+
+		boolean isEmpty() {
+			return (this.terminal == null && this.prefix == null && this.captureChild == null &&
+					(this.literalChildren == null || this.literalChildren.isEmpty()));
+		}
+
+		void collectAll(@Nullable HttpMethod httpMethod, Set<T> result) {
+			if (this.terminal != null) {
+				this.terminal.collect(httpMethod, result);
+			}
+			if (this.prefix != null) {
+				this.prefix.collect(httpMethod, result);
+			}
+			if (this.literalChildren != null) {
+				for (Node<T> child : this.literalChildren.values()) {
+					child.collectAll(httpMethod, result);
+				}
+			}
+			if (this.captureChild != null) {
+				this.captureChild.collectAll(httpMethod, result);
+			}
+		}
+	}
+
+
+	/**
+	 * Values registered at a node, keyed by the HTTP methods they are restricted to.
+	 */
+	private static final class Bucket<T> {
+
+		private final List<T> anyMethod = new ArrayList<>(1);
+
+		private final Map<HttpMethod, List<T>> byMethod = new HashMap<>(4);
+
+		void add(Set<HttpMethod> httpMethods, T value) {
+			if (httpMethods.isEmpty()) {
+				this.anyMethod.add(value);
+			}
+			else {
+				for (HttpMethod httpMethod : httpMethods) {
+					this.byMethod.computeIfAbsent(httpMethod, key -> new ArrayList<>(1)).add(value);
+				}
+			}
+		}
+
+		boolean remove(T value) {
+			boolean removed = this.anyMethod.remove(value);
+			for (List<T> values : this.byMethod.values()) {
+				removed |= values.remove(value);
+			}
+			this.byMethod.values().removeIf(List::isEmpty);
+			return removed;
+		}
+
+		boolean isEmpty() {
+			return (this.anyMethod.isEmpty() && this.byMethod.isEmpty());
+		}
+
+		void collect(@Nullable HttpMethod httpMethod, Collection<T> result) {
+			result.addAll(this.anyMethod);
+			if (this.byMethod.isEmpty()) {
+				return;
+			}
+			if (httpMethod == null) {
+				this.byMethod.values().forEach(result::addAll);
+				return;
+			}
+			addAll(this.byMethod.get(httpMethod), result);
+			if (HttpMethod.HEAD.equals(httpMethod)) {
+				addAll(this.byMethod.get(HttpMethod.GET), result);
+			}
+		}
+
+		private static <T> void addAll(@Nullable List<T> values, Collection<T> result) {
+			if (values != null) {
+				result.addAll(values);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.testfixture.io.buffer.AbstractLeakCheckingTests;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link Jackson2JsonValueReader}.
+ */
+class Jackson2JsonValueReaderTests extends AbstractLeakCheckingTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ObjectReader reader = this.objectMapper.readerFor(Object.class);
+
+
+	@Test
+	void readArrayElementsSplitAtEveryPosition() throws Exception {
+		String json = " [{\"id\":1,\"name\":\"a [\\\"quoted\\\"] {name}\",\"tags\":[\"x\",\"y\"]} , 42,-1.5e3, " +
+				"\"text]\",true ,null,[1,[2]],{}, \"\\\\\"]\n";
+		List<?> expected = this.objectMapper.readValue(json, List.class).stream()
+				.filter(value -> value != null).toList();
+
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i <= bytes.length; i++) {
+			for (int j = i; j <= bytes.length; j += 7) {
+				Flux<DataBuffer> source = Flux.just(
+						bytes(bytes, 0, i), bytes(bytes, i, j), bytes(bytes, j, bytes.length));
+				assertThat(read(source, true, -1).collectList().block()).as("Split at %d and %d", i, j)
+						.isEqualTo(expected);
+			}
+		}
+	}
+
+	@Test
+	void readTopLevelValues() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"id\":1}\n{\"id\":2}\n\"text\" 1"),
+				stringBuffer("2 [3,4]\ntrue"));
+
+		StepVerifier.create(read(source, true, -1))
+				.expectNext(Map.of("id", 1))
+				.expectNext(Map.of("id", 2))
+				.expectNext("text", 12, 3, 4, true)
+				.verifyComplete();
+	}
+
+	@Test
+	void readWithoutTokenizingArrays() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[1,"), stringBuffer("2] [3]"));
+
+		StepVerifier.create(read(source, false, -1))
+				.expectNext(List.of(1, 2))
+				.expectNext(List.of(3))
+				.verifyComplete();
+	}
+
+	@Test
+	void readFromDirectBuffers() {
+		DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory(true);
+		Flux<DataBuffer> source = Flux.just("[{\"id\":", "1},{\"id\":2}", "]").map(value ->
+				bufferFactory.wrap(value.getBytes(StandardCharsets.UTF_8)));
+
+		StepVerifier.create(read(source, true, -1))
+				.expectNext(Map.of("id", 1))
+				.expectNext(Map.of("id", 2))
+				.verifyComplete();
+	}
+
+	@Test
+	void readWithByteOrderMark() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("\uFEFF[1,2]"));
+
+		StepVerifier.create(read(source, true, -1))
+				.expectNext(1, 2)
+				.verifyComplete();
+	}
+
+	@Test
+	void missingCommaInArray() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[{\"id\":1}"), stringBuffer(" {\"id\":2}]"));
+
+		StepVerifier.create(read(source, true, -1))
+				.expectNext(Map.of("id", 1))
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	void trailingCommaInArray() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[1,"), stringBuffer("]"));
+
+		StepVerifier.create(read(source, true, -1))
+				.expectNext(1)
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	void unclosedArray() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[1,2"));
+
+		StepVerifier.create(read(source, true, -1))
+				.expectNext(1, 2)
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	void truncatedValue() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[{\"id\":1},{\"id\":"));
+
+		StepVerifier.create(read(source, true, -1))
+				.expectNext(Map.of("id", 1))
+				.verifyError(DecodingException.class);
+	}
+
+	@Test
+	void errorInStream() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"id\":1,\"name\":"))
+				.concatWith(Flux.error(new IllegalStateException()));
+
+		StepVerifier.create(read(source, true, -1))
+				.verifyError(IllegalStateException.class);
+	}
+
+	@Test
+	void limitPerValue() {
+		List<String> source = asList("[", "{\"id\":1}", ",{\"id\":", "22}", ",{\"id\":333}", "]");
+
+		StepVerifier.create(read(Flux.fromIterable(source).map(this::stringBuffer), true, 9))
+				.expectNext(Map.of("id", 1))
+				.expectNext(Map.of("id", 22))
+				.verifyError(DataBufferLimitException.class);
+	}
+
+	@Test
+	void canRead() {
+		assertThat(Jackson2JsonValueReader.canRead(this.reader)).isTrue();
+		assertThat(Jackson2JsonValueReader.canRead(this.reader.with(JsonParser.Feature.ALLOW_COMMENTS))).isFalse();
+		assertThat(Jackson2JsonValueReader.canRead(
+				new ObjectMapper().enable(JsonParser.Feature.ALLOW_SINGLE_QUOTES).reader())).isFalse();
+		assertThat(Jackson2JsonValueReader.canRead(new ObjectMapper(new SmileFactory()).reader())).isFalse();
+	}
+
+
+	private Flux<Object> read(Flux<DataBuffer> source, boolean tokenizeArrays, int maxInMemorySize) {
+		return Jackson2JsonValueReader.read(source, this.reader, tokenizeArrays, maxInMemorySize,
+				ex -> new DecodingException("JSON decoding error: " + ex.getMessage(), ex));
+	}
+
+	private DataBuffer bytes(byte[] bytes, int start, int end) {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(Math.max(end - start, 1));
+		buffer.write(bytes, start, end - start);
+		return buffer;
+	}
+
+	private DataBuffer stringBuffer(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		return bytes(bytes, 0, bytes.length);
+	}
+
+}
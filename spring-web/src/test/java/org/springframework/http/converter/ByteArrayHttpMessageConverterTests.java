@@ -17,6 +17,7 @@
 package org.springframework.http.converter;
 
 import java.io.IOException;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -69,6 +70,18 @@ public class ByteArrayHttpMessageConverterTests {
 		assertThat(result).as("Invalid result").isEqualTo(body);
 	}
 
+	@Test
+	public void readLargeBody() throws IOException {
+		byte[] body = new byte[100_000];
+		new Random().nextBytes(body);
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(body);
+		assertThat(converter.read(byte[].class, inputMessage)).isEqualTo(body);
+
+		inputMessage = new MockHttpInputMessage(body);
+		inputMessage.getHeaders().setContentLength(body.length);
+		assertThat(converter.read(byte[].class, inputMessage)).isEqualTo(body);
+	}
+
 	@Test
 	public void write() throws IOException {
 		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
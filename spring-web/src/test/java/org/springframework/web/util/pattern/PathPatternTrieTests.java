@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PathPatternTrie}.
+ */
+class PathPatternTrieTests {
+
+	private static final List<String> PATTERNS = List.of(
+			"", "/", "/orders", "/orders/", "/orders/{id}", "/orders/{id}/items", "/orders/{id}/items/{itemId}",
+			"/orders/*/summary", "/orders/{id:\\d+}/audit", "/orders/o?der/items", "/customers/**",
+			"/customers/{*path}", "/customers/{id}/orders/**", "/blog/{category}.atom", "/**", "/static/*.css",
+			"/a//b", "/a/{x:.*}/b");
+
+	private static final List<String> PATHS = List.of(
+			"", "/", "/orders", "/orders/", "/orders/42", "/orders/42/", "/orders/42/items", "/orders/42/items/",
+			"/orders/42/items/7", "/orders/42/summary", "/orders/42/audit", "/orders/order/items", "/customers",
+			"/customers/", "/customers/1", "/customers/1/orders/2/lines", "/blog/news.atom", "/static/main.css",
+			"/static/css/main.css", "/orders;a=b/42;c=d/items", "orders/42", "//orders", "/a//b", "/a///b",
+			"/unknown/path");
+
+	private final PathPatternParser parser = new PathPatternParser();
+
+
+	@Test
+	void candidatesIncludeAllMatchingPatterns() {
+		PathPatternTrie<PathPattern> trie = new PathPatternTrie<>();
+		for (String pattern : PATTERNS) {
+			PathPattern parsed = this.parser.parse(pattern);
+			trie.add(parsed, Collections.emptySet(), parsed);
+		}
+		for (String path : PATHS) {
+			PathContainer container = PathContainer.parsePath(path);
+			Set<PathPattern> candidates = trie.getCandidates(container, HttpMethod.GET);
+			for (String pattern : PATTERNS) {
+				PathPattern parsed = this.parser.parse(pattern);
+				if (parsed.matches(container)) {
+					assertThat(candidates).as("Candidates for '" + path + "'").contains(parsed);
+				}
+			}
+		}
+	}
+
+	@Test
+	void candidatesAreNarrowedBySegment() {
+		PathPatternTrie<String> trie = new PathPatternTrie<>();
+		add(trie, "/orders/{id}/items");
+		add(trie, "/orders/{id}/payments");
+		add(trie, "/orders/summary");
+		add(trie, "/customers/{id}");
+		add(trie, "/static/**");
+
+		assertThat(getCandidates(trie, "/orders/42/items")).containsExactly("/orders/{id}/items");
+		assertThat(getCandidates(trie, "/orders/42/items/")).containsExactly("/orders/{id}/items");
+		assertThat(getCandidates(trie, "/orders/summary")).containsExactly("/orders/summary");
+		assertThat(getCandidates(trie, "/customers/1/orders")).containsExactly("/customers/{id}");
+		assertThat(getCandidates(trie, "/static")).containsExactly("/static/**");
+		assertThat(getCandidates(trie, "/static/css/main.css")).containsExactly("/static/**");
+		assertThat(getCandidates(trie, "/other")).isEmpty();
+	}
+
+	@Test
+	void candidatesForNonCanonicalPath() {
+		PathPatternTrie<String> trie = new PathPatternTrie<>();
+		add(trie, "/orders/{id}/items");
+		add(trie, "/customers/{id}");
+
+		assertThat(getCandidates(trie, "/orders//items")).containsExactly("/orders/{id}/items");
+		assertThat(getCandidates(trie, "orders/42/items")).containsExactlyInAnyOrder(
+				"/orders/{id}/items", "/customers/{id}");
+	}
+
+	@Test
+	void candidatesForCaseInsensitivePatterns() {
+		PathPatternParser parser = new PathPatternParser();
+		parser.setCaseSensitive(false);
+		PathPatternTrie<String> trie = new PathPatternTrie<>();
+		trie.add(parser.parse("/Orders/{id}/Items"), Collections.emptySet(), "orders");
+
+		assertThat(trie.getCandidates(PathContainer.parsePath("/ORDERS/42/items"), HttpMethod.GET))
+				.containsExactly("orders");
+	}
+
+	@Test
+	void candidatesByHttpMethod() {
+		PathPatternTrie<String> trie = new PathPatternTrie<>();
+		trie.add(this.parser.parse("/orders/{id}"), Set.of(HttpMethod.GET), "get");
+		trie.add(this.parser.parse("/orders/{id}"), Set.of(HttpMethod.PUT, HttpMethod.PATCH), "update");
+		trie.add(this.parser.parse("/orders/{id}"), Collections.emptySet(), "any");
+
+		PathContainer path = PathContainer.parsePath("/orders/42");
+		assertThat(trie.getCandidates(path, HttpMethod.GET)).containsExactlyInAnyOrder("get", "any");
+		assertThat(trie.getCandidates(path, HttpMethod.HEAD)).containsExactlyInAnyOrder("get", "any");
+		assertThat(trie.getCandidates(path, HttpMethod.PATCH)).containsExactlyInAnyOrder("update", "any");
+		assertThat(trie.getCandidates(path, HttpMethod.DELETE)).containsExactly("any");
+		assertThat(trie.getCandidates(path, null)).containsExactlyInAnyOrder("get", "update", "any");
+	}
+
+	@Test
+	void remove() {
+		PathPatternTrie<String> trie = new PathPatternTrie<>();
+		add(trie, "/orders/{id}/items");
+		add(trie, "/orders/{id}/**");
+
+		assertThat(trie.remove(this.parser.parse("/orders/{id}/items"), "/orders/{id}/items")).isTrue();
+		assertThat(trie.remove(this.parser.parse("/orders/{id}/items"), "/orders/{id}/items")).isFalse();
+		assertThat(trie.remove(this.parser.parse("/customers"), "/orders/{id}/items")).isFalse();
+		assertThat(getCandidates(trie, "/orders/42/items")).containsExactly("/orders/{id}/**");
+		assertThat(trie.isEmpty()).isFalse();
+
+		assertThat(trie.remove(this.parser.parse("/orders/{id}/**"), "/orders/{id}/**")).isTrue();
+		assertThat(getCandidates(trie, "/orders/42/items")).isEmpty();
+		assertThat(trie.isEmpty()).isTrue();
+	}
+
+
+	private void add(PathPatternTrie<String> trie, String pattern) {
+		trie.add(this.parser.parse(pattern), Collections.emptySet(), pattern);
+	}
+
+	private Set<String> getCandidates(PathPatternTrie<String> trie, String path) {
+		return trie.getCandidates(PathContainer.parsePath(path), HttpMethod.GET);
+	}
+
+}
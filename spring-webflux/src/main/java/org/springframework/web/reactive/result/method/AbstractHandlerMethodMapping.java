@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,7 +38,10 @@ import reactor.core.publisher.Mono;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.RequestPath;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -50,6 +54,8 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.AbstractHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternTrie;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -351,7 +357,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 		// <1.2> 其次，扫描注册表的 Mapping，进行匹配
 		if (matches.isEmpty()) {
-			addMatchingMappings(this.mappingRegistry.getRegistrations().keySet(), matches, exchange);
+			addMatchingMappings(this.mappingRegistry.getMappingsByPattern(exchange), matches, exchange);
 		}
 		// <2> 如果匹配到，则获取最佳匹配的 Match 对象的 handlerMethod 属性
 		if (!matches.isEmpty()) {
@@ -479,6 +485,29 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return the parsed path patterns of the given mapping. These are used to
+	 * index mappings, so that only mappings that could match the lookup path
+	 * are checked when there is no direct path match.
+	 * <p>By default this returns an empty set, in which case the mapping is
+	 * checked for every request without a direct path match.
+	 * @since 6.1
+	 * @see #getHttpMethods(Object)
+	 */
+	protected Set<PathPattern> getPathPatterns(T mapping) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Return the HTTP methods that the given mapping is restricted to, used to
+	 * further narrow down the mappings indexed by {@link #getPathPatterns(Object)}.
+	 * <p>By default this returns an empty set, i.e. no restriction.
+	 * @since 6.1
+	 */
+	protected Set<HttpMethod> getHttpMethods(T mapping) {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -515,6 +544,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> pathLookup = new LinkedMultiValueMap<>();
 
+		private final PathPatternTrie<T> patternLookup = new PathPatternTrie<>();
+
+		private final Set<T> unindexedMappings = new LinkedHashSet<>();
+
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
@@ -538,6 +571,24 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.pathLookup.get(path);
 		}
 
+		/**
+		 * Return the mappings that could match the given exchange, based on their
+		 * path patterns and HTTP methods. Not thread-safe.
+		 * @since 6.1
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPattern(ServerWebExchange exchange) {
+			if (this.patternLookup.isEmpty()) {
+				return this.registry.keySet();
+			}
+			ServerHttpRequest request = exchange.getRequest();
+			PathContainer path = request.getPath().pathWithinApplication();
+			HttpMethod httpMethod = (CorsUtils.isPreFlightRequest(request) ? null : request.getMethod());
+			Set<T> mappings = this.patternLookup.getCandidates(path, httpMethod);
+			mappings.addAll(this.unindexedMappings);
+			return mappings;
+		}
+
 		/**
 		 * Return CORS configuration. Thread-safe for concurrent use.
 		 */
@@ -576,6 +627,17 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.pathLookup.add(path, mapping);
 				}
 
+				Set<PathPattern> patterns = AbstractHandlerMethodMapping.this.getPathPatterns(mapping);
+				if (patterns.isEmpty()) {
+					this.unindexedMappings.add(mapping);
+				}
+				else {
+					Set<HttpMethod> httpMethods = AbstractHandlerMethodMapping.this.getHttpMethods(mapping);
+					for (PathPattern pattern : patterns) {
+						this.patternLookup.add(pattern, httpMethods, mapping);
+					}
+				}
+
 				CorsConfiguration corsConfig = initCorsConfiguration(handler, method, mapping);
 				if (corsConfig != null) {
 					corsConfig.validateAllowCredentials();
@@ -619,6 +681,12 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				if (!this.unindexedMappings.remove(registration.getMapping())) {
+					for (PathPattern pattern : AbstractHandlerMethodMapping.this.getPathPatterns(registration.getMapping())) {
+						this.patternLookup.remove(pattern, registration.getMapping());
+					}
+				}
+
 				this.corsLookup.remove(registration.getHandlerMethod());
 			}
 			finally {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,6 +40,8 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -49,7 +52,10 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
 import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PathPatternTrie;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -411,7 +417,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			addMatchingMappings(this.mappingRegistry.getRegistrations().keySet(), matches, request);
+			addMatchingMappings(this.mappingRegistry.getMappingsByPattern(request), matches, request);
 		}
 		if (!matches.isEmpty()) {
 			Match bestMatch = matches.get(0);
@@ -550,6 +556,29 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return urls;
 	}
 
+	/**
+	 * Return the parsed path patterns of the given mapping. These are used to
+	 * index mappings, so that only mappings that could match the lookup path
+	 * are checked when there is no direct path match.
+	 * <p>By default this returns an empty set, in which case the mapping is
+	 * checked for every request without a direct path match.
+	 * @since 6.1
+	 * @see #getHttpMethods(Object)
+	 */
+	protected Set<PathPattern> getPathPatterns(T mapping) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Return the HTTP methods that the given mapping is restricted to, used to
+	 * further narrow down the mappings indexed by {@link #getPathPatterns(Object)}.
+	 * <p>By default this returns an empty set, i.e. no restriction.
+	 * @since 6.1
+	 */
+	protected Set<HttpMethod> getHttpMethods(T mapping) {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -583,6 +612,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> pathLookup = new LinkedMultiValueMap<>();
 
+		private final PathPatternTrie<T> patternLookup = new PathPatternTrie<>();
+
+		private final Set<T> unindexedMappings = new LinkedHashSet<>();
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -606,6 +639,23 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.pathLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings that could match the given request, based on their
+		 * path patterns and HTTP methods. Not thread-safe.
+		 * @since 6.1
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPattern(HttpServletRequest request) {
+			if (this.patternLookup.isEmpty() || !ServletRequestPathUtils.hasParsedRequestPath(request)) {
+				return this.registry.keySet();
+			}
+			PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+			HttpMethod httpMethod = (CorsUtils.isPreFlightRequest(request) ? null : HttpMethod.valueOf(request.getMethod()));
+			Set<T> mappings = this.patternLookup.getCandidates(path, httpMethod);
+			mappings.addAll(this.unindexedMappings);
+			return mappings;
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -648,6 +698,17 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.pathLookup.add(path, mapping);
 				}
 
+				Set<PathPattern> patterns = AbstractHandlerMethodMapping.this.getPathPatterns(mapping);
+				if (patterns.isEmpty()) {
+					this.unindexedMappings.add(mapping);
+				}
+				else {
+					Set<HttpMethod> httpMethods = AbstractHandlerMethodMapping.this.getHttpMethods(mapping);
+					for (PathPattern pattern : patterns) {
+						this.patternLookup.add(pattern, httpMethods, mapping);
+					}
+				}
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					name = getNamingStrategy().getName(handlerMethod, mapping);
@@ -715,6 +776,12 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				if (!this.unindexedMappings.remove(registration.getMapping())) {
+					for (PathPattern pattern : AbstractHandlerMethodMapping.this.getPathPatterns(registration.getMapping())) {
+						this.patternLookup.remove(pattern, registration.getMapping());
+					}
+				}
+
 				removeMappingName(registration);
 
 				this.corsLookup.remove(registration.getHandlerMethod());
@@ -99,6 +99,25 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		return info.getDirectPaths();
 	}
 
+	@Override
+	protected Set<PathPattern> getPathPatterns(RequestMappingInfo info) {
+		PathPatternsRequestCondition condition = info.getPathPatternsCondition();
+		return (condition != null ? condition.getPatterns() : Collections.emptySet());
+	}
+
+	@Override
+	protected Set<HttpMethod> getHttpMethods(RequestMappingInfo info) {
+		Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+		if (methods.isEmpty()) {
+			return Collections.emptySet();
+		}
+		Set<HttpMethod> result = new LinkedHashSet<>(methods.size());
+		for (RequestMethod method : methods) {
+			result.add(method.asHttpMethod());
+		}
+		return result;
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
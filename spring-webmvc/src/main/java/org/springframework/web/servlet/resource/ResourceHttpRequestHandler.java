@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2022 the original author or authors.
+ * Copyright 2002-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
@@ -37,6 +38,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -88,6 +90,12 @@ import org.springframework.web.util.UrlPathHelper;
  * (if present) so that a {@code 304} status code will be returned as appropriate,
  * avoiding unnecessary overhead for resources that are already cached by the client.
  *
+ * <p>Large file-based resources are handed over to the sendfile support of the
+ * Servlet container where available (e.g. on Tomcat with sendfile enabled), in
+ * which case the container transfers the file content without copying it through
+ * the Servlet output stream. This also applies to single-range requests.
+ * See {@link #setSendfileThreshold(long)}.
+ *
  * @author Keith Donald
  * @author Jeremy Grelle
  * @author Juergen Hoeller
@@ -103,6 +111,20 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private static final String URL_RESOURCE_CHARSET_PREFIX = "[charset=";
 
+	private static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	private static final String TOMCAT_REQUEST_FACADE = "org.apache.catalina.connector.RequestFacade";
+
+	private static final String TOMCAT_RESPONSE_FACADE = "org.apache.catalina.connector.ResponseFacade";
+
+	private static final long DEFAULT_SENDFILE_THRESHOLD = 48 * 1024;
+
 
 	private final List<String> locationValues = new ArrayList<>(4);
 
@@ -143,6 +165,8 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private boolean optimizeLocations = false;
 
+	private long sendfileThreshold = DEFAULT_SENDFILE_THRESHOLD;
+
 	@Nullable
 	private StringValueResolver embeddedValueResolver;
 
@@ -407,6 +431,29 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		return this.optimizeLocations;
 	}
 
+	/**
+	 * Set the minimum content length of file-based resources to hand over to the
+	 * sendfile support of the Servlet container, if available, rather than writing
+	 * their content to the Servlet output stream.
+	 * <p>The default is 48 KB, in line with Tomcat's {@code DefaultServlet}, since
+	 * smaller files are served efficiently enough through the output buffer.
+	 * Set this to a negative value in order to not use sendfile support at all.
+	 * @since 6.1
+	 * @see #isSendfileSupported
+	 */
+	public void setSendfileThreshold(long sendfileThreshold) {
+		this.sendfileThreshold = sendfileThreshold;
+	}
+
+	/**
+	 * Return the minimum content length of file-based resources to hand over
+	 * to the sendfile support of the Servlet container, if available.
+	 * @since 6.1
+	 */
+	public long getSendfileThreshold() {
+		return this.sendfileThreshold;
+	}
+
 	@Override
 	public void setEmbeddedValueResolver(StringValueResolver resolver) {
 		this.embeddedValueResolver = resolver;
@@ -589,7 +636,7 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 				this.resourceHttpMessageConverter.addDefaultHeaders(outputMessage, resource, mediaType);
 				outputMessage.flush();
 			}
-			else {
+			else if (!sendFile(request, response, resource, 0, resource.contentLength())) {
 				this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
 			}
 		}
@@ -598,9 +645,11 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 			ServletServerHttpRequest inputMessage = new ServletServerHttpRequest(request);
 			try {
 				List<HttpRange> httpRanges = inputMessage.getHeaders().getRange();
+				List<ResourceRegion> regions = HttpRange.toResourceRegions(httpRanges, resource);
 				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
-				this.resourceRegionHttpMessageConverter.write(
-						HttpRange.toResourceRegions(httpRanges, resource), mediaType, outputMessage);
+				if (regions.size() != 1 || !sendFile(request, response, regions.get(0))) {
+					this.resourceRegionHttpMessageConverter.write(regions, mediaType, outputMessage);
+				}
 			}
 			catch (IllegalArgumentException ex) {
 				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + resource.contentLength());
@@ -609,6 +658,72 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	private boolean sendFile(HttpServletRequest request, HttpServletResponse response, ResourceRegion region)
+			throws IOException {
+
+		Resource resource = region.getResource();
+		long resourceLength = resource.contentLength();
+		long start = region.getPosition();
+		long end = Math.min(start + region.getCount(), resourceLength) - 1;
+		if (!sendFile(request, response, resource, start, end - start + 1)) {
+			return false;
+		}
+		response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + '-' + end + '/' + resourceLength);
+		return true;
+	}
+
+	/**
+	 * Hand the given part of a file-based resource over to the sendfile support
+	 * of the Servlet container, if applicable.
+	 * @return {@code true} if the container is going to write the content,
+	 * or {@code false} if the content remains to be written
+	 */
+	private boolean sendFile(HttpServletRequest request, HttpServletResponse response,
+			Resource resource, long position, long count) throws IOException {
+
+		if (this.sendfileThreshold < 0 || count < this.sendfileThreshold || !resource.isFile() ||
+				!isSendfileSupported(request, response)) {
+			return false;
+		}
+		File file;
+		try {
+			file = resource.getFile();
+		}
+		catch (IOException ex) {
+			return false;
+		}
+		if (response.getContentType() == null) {
+			// Same default as for content written by the message converters
+			response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+		}
+		response.setContentLengthLong(count);
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getAbsolutePath());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, position);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, position + count);
+		if (logger.isTraceEnabled()) {
+			logger.trace("Using sendfile for " + count + " bytes of " + file);
+		}
+		return true;
+	}
+
+	/**
+	 * Whether the Servlet container supports sendfile for the given request,
+	 * allowing the content of file-based resources to be transferred by the
+	 * container rather than through the Servlet output stream.
+	 * <p>The default implementation checks for sendfile support as exposed by
+	 * Tomcat, and, as in Tomcat's {@code DefaultServlet}, for the request and
+	 * response not being wrapped, since a wrapper might intend to access or
+	 * transform the response content.
+	 * @param request current servlet request
+	 * @param response current servlet response
+	 * @since 6.1
+	 */
+	protected boolean isSendfileSupported(HttpServletRequest request, HttpServletResponse response) {
+		return (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE)) &&
+				request.getClass().getName().equals(TOMCAT_REQUEST_FACADE) &&
+				response.getClass().getName().equals(TOMCAT_RESPONSE_FACADE) && !response.isCommitted());
+	}
+
 	@Nullable
 	protected Resource getResource(HttpServletRequest request) throws IOException {
 		String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
@@ -19,6 +19,7 @@ package org.springframework.web.servlet.resource;
 import java.io.IOException;
 import java.util.List;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -717,6 +718,105 @@ class ResourceHttpRequestHandlerTests {
 		assertThat(this.response.getHeaderValues("Accept-Ranges")).containsExactly("bytes");
 	}
 
+	@Test
+	void sendfile() throws Exception {
+		ResourceHttpRequestHandler handler = initSendfileHandler();
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		handler.handleRequest(this.request, this.response);
+
+		assertThat(this.response.getStatus()).isEqualTo(200);
+		assertThat(this.response.getContentType()).isEqualTo("text/css");
+		assertThat(this.response.getContentLength()).isEqualTo(17);
+		assertThat(this.response.getContentAsByteArray()).isEmpty();
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.filename"))
+				.isEqualTo(this.testResource.createRelative("foo.css").getFile().getAbsolutePath());
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(0L);
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(17L);
+	}
+
+	@Test
+	void sendfileWithByteRange() throws Exception {
+		ResourceHttpRequestHandler handler = initSendfileHandler();
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.addHeader("Range", "bytes=4-100");
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.txt");
+		handler.handleRequest(this.request, this.response);
+
+		assertThat(this.response.getStatus()).isEqualTo(206);
+		assertThat(this.response.getContentType()).isEqualTo("text/plain");
+		assertThat(this.response.getContentLength()).isEqualTo(6);
+		assertThat(this.response.getHeader("Content-Range")).isEqualTo("bytes 4-9/10");
+		assertThat(this.response.getContentAsByteArray()).isEmpty();
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(4L);
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(10L);
+	}
+
+	@Test
+	void sendfileWithUnknownMediaType() throws Exception {
+		ResourceHttpRequestHandler handler = initSendfileHandler();
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.bar");
+		handler.handleRequest(this.request, this.response);
+
+		assertThat(this.response.getStatus()).isEqualTo(200);
+		assertThat(this.response.getContentType()).isEqualTo("application/octet-stream");
+		assertThat(this.response.getContentLength()).isEqualTo(17);
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.filename"))
+				.isEqualTo(this.testResource.createRelative("foo.bar").getFile().getAbsolutePath());
+	}
+
+	@Test
+	void sendfileNotUsedForMultipleByteRanges() throws Exception {
+		ResourceHttpRequestHandler handler = initSendfileHandler();
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.addHeader("Range", "bytes=0-1, 8-9");
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.txt");
+		handler.handleRequest(this.request, this.response);
+
+		assertThat(this.response.getStatus()).isEqualTo(206);
+		assertThat(this.response.getContentType()).startsWith("multipart/byteranges; boundary=");
+		assertThat(this.response.getContentAsString()).contains("Content-Range: bytes 8-9/10\r\n\r\nt.");
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+	}
+
+	@Test
+	void sendfileNotUsedBelowThreshold() throws Exception {
+		ResourceHttpRequestHandler handler = initSendfileHandler();
+		handler.setSendfileThreshold(18);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		handler.handleRequest(this.request, this.response);
+
+		assertThat(this.response.getContentAsString()).isEqualTo("h1 { color:red; }");
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+	}
+
+	@Test
+	void sendfileNotUsedForWrappedRequest() throws Exception {
+		this.handler.setSendfileThreshold(0);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertThat(this.response.getContentAsString()).isEqualTo("h1 { color:red; }");
+		assertThat(this.request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+	}
+
+	private ResourceHttpRequestHandler initSendfileHandler() throws Exception {
+		ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler() {
+			@Override
+			protected boolean isSendfileSupported(HttpServletRequest request, HttpServletResponse response) {
+				return Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"));
+			}
+		};
+		handler.setLocations(List.of(this.testResource));
+		handler.setServletContext(new TestServletContext());
+		handler.setSendfileThreshold(0);
+		handler.afterPropertiesSet();
+		return handler;
+	}
+
 	@Test  // SPR-14005
 	void doOverwriteExistingCacheControlHeaders() throws Exception {
 		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");